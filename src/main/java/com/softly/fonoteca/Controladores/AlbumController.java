@@ -82,7 +82,7 @@ public class AlbumController extends BaseController<Album, AlbumVista, AlbumDAO>
      * Carga la tabla de álbumes usando el método genérico del BaseController.
      */
     private void cargarTablaAlbumnes() {
-        cargarTabla(TABLE_NAME, DB_COLUMNS_TO_SHOW, DISPLAY_COLUMNS_HEADERS);
+        cargarTabla(TABLE_NAME, "idAlbum", DB_COLUMNS_TO_SHOW, DISPLAY_COLUMNS_HEADERS);
     }
 
     /**
@@ -170,32 +170,38 @@ public class AlbumController extends BaseController<Album, AlbumVista, AlbumDAO>
      */
     private void cargarDetalleFilaSeleccionada(ListSelectionEvent e) {
         if (!e.getValueIsAdjusting() && vista.tablaAlbumnes.getSelectedRow() != -1 && this.rawModel != null) {
+            int selectedRow = filaSeleccionadaEnModelo();
+            // Las columnas no mostradas pueden requerir una consulta: el formulario se llena al tenerlas
+            conFilaCompleta(selectedRow, () -> mostrarDetalleFila(e, selectedRow));
+        }
+    }
 
-            int selectedRow = vista.tablaAlbumnes.getSelectedRow();
-
-            // 1. Mapeo de componentes (nombre de columna BD -> Componente de la vista)
-            Map<String, Object> componentMappings = new HashMap<>();
-            componentMappings.put("titulo", vista.txtTitulo);
-            componentMappings.put("selloDiscografico", vista.txtSello);
-            componentMappings.put("fechaLanzamiento", vista.txtFecha);
-            componentMappings.put("idGeneroPrincipal", vista.cmbGenero); // ComboBox
+    /**
+     * Carga en el formulario la fila seleccionada (índice del modelo), con todas sus columnas disponibles.
+     */
+    private void mostrarDetalleFila(ListSelectionEvent e, int selectedRow) {
+        // 1. Mapeo de componentes (nombre de columna BD -> Componente de la vista)
+        Map<String, Object> componentMappings = new HashMap<>();
+        componentMappings.put("titulo", vista.txtTitulo);
+        componentMappings.put("selloDiscografico", vista.txtSello);
+        componentMappings.put("fechaLanzamiento", vista.txtFecha);
+        componentMappings.put("idGeneroPrincipal", vista.cmbGenero); // ComboBox
 
-            // Usamos el método genérico para cargar los campos
-            loadTableDetailsToView(e, componentMappings);
+        // Usamos el método genérico para cargar los campos
+        loadTableDetailsToView(e, componentMappings);
 
-            try {
-                // 2. Manejo del ID (campo especial)
-                int col_id = rawModel.findColumn("idAlbum");
-                int idAlbum = (int) rawModel.getValueAt(selectedRow, col_id);
+        try {
+            // 2. Manejo del ID (campo especial)
+            int col_id = rawModel.findColumn("idAlbum");
+            int idAlbum = (int) rawModel.getValueAt(selectedRow, col_id);
 
-                // Cargar ID al modelo y a la vista
-                modelo.setIdAlbum(idAlbum);
-                vista.txtIdAlbum.setText(String.valueOf(idAlbum));
+            // Cargar ID al modelo y a la vista
+            modelo.setIdAlbum(idAlbum);
+            vista.txtIdAlbum.setText(String.valueOf(idAlbum));
 
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(vista, "Error al cargar datos del álbum: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-                System.err.println("❌ ERROR al cargar detalles de la fila: " + ex.getMessage());
-            }
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(vista, "Error al cargar datos del álbum: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            System.err.println("❌ ERROR al cargar detalles de la fila: " + ex.getMessage());
         }
     }
 
@@ -208,18 +214,9 @@ public class AlbumController extends BaseController<Album, AlbumVista, AlbumDAO>
         vista.tablaAlbumnes.getSelectionModel().addListSelectionListener(this::cargarDetalleFilaSeleccionada);
 
         // Listeners CRUD (Refrescar tabla después de la operación)
-        vista.agregarButton.addActionListener(e -> {
-            registrar();
-            cargarTablaAlbumnes();
-        });
-        vista.modificarButton.addActionListener(e -> {
-            modificar();
-            cargarTablaAlbumnes();
-        });
-        vista.eliminarButton.addActionListener(e -> {
-            eliminar();
-            cargarTablaAlbumnes();
-        });
+        vista.agregarButton.addActionListener(e -> registrar(this::cargarTablaAlbumnes));
+        vista.modificarButton.addActionListener(e -> modificar(this::cargarTablaAlbumnes));
+        vista.eliminarButton.addActionListener(e -> eliminar(this::cargarTablaAlbumnes));
 
         // Listeners Funcionales
         vista.regresarButton.addActionListener(e -> regresarAlMenu());
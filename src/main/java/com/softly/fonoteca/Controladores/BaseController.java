@@ -1,17 +1,26 @@
 package com.softly.fonoteca.Controladores;
 
 import com.softly.fonoteca.Modelos.DAOs.BaseDAO;
+import com.softly.fonoteca.Modelos.DAOs.BaseDAOAsync;
 import com.softly.fonoteca.Vistas.BaseView;
 import com.softly.fonoteca.Vistas.CRUDView;
-import com.softly.fonoteca.utilities.SQLQuerys;
+import com.softly.fonoteca.utilities.CargadorTabla;
+import com.softly.fonoteca.utilities.CargadorTablaPaginada;
+import com.softly.fonoteca.utilities.EjecutorAsincrono;
+import com.softly.fonoteca.utilities.FiltroTabla;
+import com.softly.fonoteca.utilities.IndicadorCarga;
+import com.softly.fonoteca.utilities.ModeloDetalleBajoDemanda;
 import com.softly.fonoteca.utilities.TablaUtils;
 
 import javax.swing.*;
 import javax.swing.event.ListSelectionEvent;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableColumn;
 import java.awt.*;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * Plantilla genérica para todos los controladores CRUD.
@@ -25,15 +34,38 @@ public abstract class BaseController<T, V extends Component & CRUDView, D extend
     protected final T modelo;
     protected final V vista;
     protected final D consultas;
+    /** Las operaciones CRUD del DAO, fuera del EDT. */
+    protected final BaseDAOAsync<T, D> consultasAsync;
     protected BaseView vistaPrincipal;
 
-    protected DefaultTableModel rawModel;
+    /**
+     * Modelo crudo con todas las columnas de la BD (ModeloTablaColumnar o ModeloTablaPaginado).
+     */
+    protected AbstractTableModel rawModel;
     protected JTable mainTable;
 
+    /**
+     * Carga de tabla en segundo plano iniciada por {@link #cargarTabla} o {@link #cargarTablaPaginada}
+     * (null si no hay ninguna).
+     */
+    private SwingWorker<?, ?> cargaEnCurso;
+
+    /**
+     * Indicador de progreso de las cargas de tabla; uno solo por vista, para que una carga cancelada
+     * no oculte el de la carga que la reemplazó.
+     */
+    private IndicadorCarga indicadorCarga;
+
+    /**
+     * Filtro de la tabla principal con el campo de búsqueda de la vista (se instala al cargar la tabla).
+     */
+    protected FiltroTabla filtroTabla;
+
     public BaseController(T modelo, V vista, D consultas, BaseView vistaPrincipal) {
         this.modelo = modelo;
         this.vista = vista;
         this.consultas = consultas;
+        this.consultasAsync = new BaseDAOAsync<>(consultas);
         this.vistaPrincipal = vistaPrincipal;
         agregarListeners();
     }
@@ -66,8 +98,7 @@ public abstract class BaseController<T, V extends Component & CRUDView, D extend
      */
     protected void loadTableDetailsToView(ListSelectionEvent e, Map<String, Object> componentMappings) {
         if (!e.getValueIsAdjusting()) {
-            JTable table = this.mainTable;
-            int selectedRow = table.getSelectedRow();
+            int selectedRow = filaSeleccionadaEnModelo();
 
             // Si no hay tabla principal definida o el rawModel no ha sido cargado, salir.
             if (this.rawModel == null) {
@@ -90,9 +121,119 @@ public abstract class BaseController<T, V extends Component & CRUDView, D extend
         }
     }
 
+    /**
+     * Fila seleccionada en la tabla principal, como índice del modelo (rawModel).
+     * La tabla puede estar filtrada u ordenada, por lo que el índice de la vista no sirve para leer el modelo.
+     *
+     * @return El índice en el modelo, o -1 si no hay selección.
+     */
+    protected int filaSeleccionadaEnModelo() {
+        int filaVista = this.mainTable.getSelectedRow();
+        return filaVista == -1 ? -1 : this.mainTable.convertRowIndexToModel(filaVista);
+    }
+
+    /**
+     * Ejecuta {@code cargar} cuando todas las columnas de la fila del modelo estén disponibles.
+     * Si el rawModel trae las columnas ocultas bajo demanda y la fila no está en caché, se consultan
+     * fuera del EDT y {@code cargar} se ejecuta al llegar, solo si la fila sigue seleccionada.
+     *
+     * @param filaModelo Fila seleccionada, como índice del modelo.
+     * @param cargar     Carga la fila en el formulario leyendo el rawModel.
+     */
+    protected void conFilaCompleta(int filaModelo, Runnable cargar) {
+        if (!(this.rawModel instanceof ModeloDetalleBajoDemanda detalle)) {
+            cargar.run();
+            return;
+        }
+        AbstractTableModel consultado = this.rawModel;
+        detalle.conFilaCompleta(filaModelo, () -> {
+            if (this.rawModel == consultado && filaSeleccionadaEnModelo() == filaModelo) {
+                cargar.run();
+            }
+        });
+    }
+
+    /**
+     * Conecta el campo de búsqueda de la vista con la tabla principal (una sola vez).
+     */
+    private void instalarFiltro() {
+        if (this.filtroTabla == null && this.mainTable != null && this.vista.getTxtSearch() != null) {
+            this.filtroTabla = FiltroTabla.instalar(this.mainTable, this.vista.getTxtSearch());
+        }
+    }
+
+    /**
+     * Tamaño de página por defecto para {@link #cargarTablaPaginada}.
+     */
+    protected static final int TAMANO_PAGINA = 500;
+
+    /**
+     * Variante paginada de {@link #cargarTabla}: carga la tabla por páginas (keyset sobre la clave
+     * primaria) a medida que el usuario hace scroll. Si se indican columnas, solo se consultan ellas
+     * y la clave primaria; el resto se consulta por ID al seleccionar una fila.
+     * El rawModel expone todas las columnas, y las que no se muestran se ocultan en el JTable
+     * (los índices de fila coinciden).
+     * Los nombres de las columnas y la primera página se consultan en segundo plano; el rawModel y el
+     * modelo del JTable se asignan al llegar la primera página.
+     *
+     * @param tableName          Nombre de la tabla de la BD.
+     * @param pkColumn           Columna de clave primaria usada como cursor.
+     * @param columnsToShow      (Opcional) Columnas BD a mostrar. Si es null o vacío, se muestran todas.
+     * @param displayColumnNames (Opcional) Cabeceras; deben coincidir en longitud con columnsToShow.
+     */
+    protected void cargarTablaPaginada(String tableName, String pkColumn, String[] columnsToShow, String[] displayColumnNames) {
+        cancelarCargaTabla();
+        instalarFiltro();
+
+        CargadorTablaPaginada cargador = new CargadorTablaPaginada(tableName, pkColumn, columnsToShow, TAMANO_PAGINA,
+                getIndicadorCarga(), modelo -> mostrarTablaPaginada(modelo, columnsToShow, displayColumnNames));
+        this.cargaEnCurso = cargador;
+        cargador.iniciar();
+    }
+
+    /**
+     * Asigna el modelo paginado ya cargado (EDT): oculta las columnas no solicitadas y renombra
+     * las visibles en el orden pedido.
+     */
+    private void mostrarTablaPaginada(AbstractTableModel modelo, String[] columnsToShow, String[] displayColumnNames) {
+        this.cargaEnCurso = null;
+        this.rawModel = modelo;
+        this.mainTable.setModel(modelo);
+
+        if (columnsToShow == null || columnsToShow.length == 0 || modelo.getColumnCount() == 0) {
+            return;
+        }
+
+        List<String> visibles = Arrays.asList(columnsToShow);
+        boolean conCabeceras = displayColumnNames != null && displayColumnNames.length == columnsToShow.length;
+
+        for (int i = this.mainTable.getColumnModel().getColumnCount() - 1; i >= 0; i--) {
+            TableColumn column = this.mainTable.getColumnModel().getColumn(i);
+            String dbName = modelo.getColumnName(column.getModelIndex());
+            int pos = visibles.indexOf(dbName);
+            if (pos == -1) {
+                this.mainTable.removeColumn(column);
+            } else if (conCabeceras) {
+                column.setHeaderValue(displayColumnNames[pos]);
+            }
+        }
+        for (int destino = 0; destino < columnsToShow.length; destino++) {
+            for (int i = destino; i < this.mainTable.getColumnModel().getColumnCount(); i++) {
+                int modelIndex = this.mainTable.getColumnModel().getColumn(i).getModelIndex();
+                if (modelo.getColumnName(modelIndex).equals(columnsToShow[destino])) {
+                    this.mainTable.moveColumn(i, destino);
+                    break;
+                }
+            }
+        }
+    }
+
     /**
      * Carga el modelo crudo (rawModel) de la BD y lo filtra para mostrar solo
      * las columnas especificadas en el JTable de la vista.
+     * La consulta se ejecuta en segundo plano: el rawModel y el modelo del JTable se asignan de
+     * inmediato (vacíos) y reciben las filas por lotes, mientras se muestra un indicador de progreso.
+     * Si se vuelve al menú antes de terminar, la carga se cancela.
      * * @param tableName Nombre de la tabla de la BD (ej. "usuarios").
      *
      * @param columnsToShow      (Opcional) Array de Strings con los nombres de las columnas BD a mostrar.
@@ -101,84 +242,64 @@ public abstract class BaseController<T, V extends Component & CRUDView, D extend
      *                           para la cabecera de la tabla. Debe coincidir en longitud con columnsToShow.
      */
     protected void cargarTabla(String tableName, String[] columnsToShow, String[] displayColumnNames) {
-        try {
-            // 1. Obtener el modelo crudo con TODAS las columnas
-            this.rawModel = SQLQuerys.buildTableModel(tableName, new HashMap<>());
-
-            // Si no hay datos, inicializar la tabla con las cabeceras provistas o vacías.
-            if (this.rawModel.getRowCount() == 0) {
-                String[] headers = (displayColumnNames != null && displayColumnNames.length > 0) ? displayColumnNames : new String[0];
-                this.mainTable.setModel(new DefaultTableModel(headers, 0));
-                return;
-            }
-
-            DefaultTableModel finalModel = new DefaultTableModel();
-
-            // Determinar qué columnas vamos a mostrar y sus cabeceras
-            List<String> rawColumnNames = new ArrayList<>();
-            List<String> finalHeaders = new ArrayList<>();
-
-            if (columnsToShow == null || columnsToShow.length == 0) {
-                // Opción 1: Mostrar TODAS las columnas del rawModel
-                int colCount = this.rawModel.getColumnCount();
-                for (int i = 0; i < colCount; i++) {
-                    String name = this.rawModel.getColumnName(i);
-                    rawColumnNames.add(name);
-                    // Usa el nombre de la BD como cabecera por defecto
-                    finalHeaders.add(name);
-                }
-            } else {
-                // Opción 2: Mostrar solo las columnas especificadas
-                rawColumnNames.addAll(Arrays.asList(columnsToShow));
-                if (displayColumnNames != null && displayColumnNames.length == columnsToShow.length) {
-                    finalHeaders.addAll(Arrays.asList(displayColumnNames));
-                } else {
-                    // Si los nombres de cabecera no se proporcionan o no coinciden, usamos los nombres de la BD
-                    finalHeaders.addAll(Arrays.asList(columnsToShow));
-                }
-            }
+        cargarTabla(tableName, null, columnsToShow, displayColumnNames);
+    }
 
-            // 2. Crear el modelo de visualización (finalModel)
-            finalModel.setColumnIdentifiers(finalHeaders.toArray());
-
-            // 3. Iterar sobre las filas del rawModel y extraer solo las columnas requeridas
-            for (int i = 0; i < this.rawModel.getRowCount(); i++) {
-                List<Object> rowData = new ArrayList<>();
-                for (String colName : rawColumnNames) {
-                    int rawIndex = this.rawModel.findColumn(colName);
-                    if (rawIndex != -1) {
-                        rowData.add(this.rawModel.getValueAt(i, rawIndex));
-                    } else {
-                        // Columna solicitada no existe en la BD
-                        rowData.add(null);
-                        System.err.println("Advertencia: Columna " + colName + " solicitada pero no encontrada en la BD.");
-                    }
-                }
-                finalModel.addRow(rowData.toArray());
-            }
+    /**
+     * Igual que {@link #cargarTabla(String, String[], String[])}, pero consultando solo la clave
+     * primaria y las columnas a mostrar en lugar de {@code SELECT *}. El rawModel sigue exponiendo
+     * todas las columnas: las no mostradas se consultan por ID al seleccionar una fila.
+     *
+     * @param pkColumn Columna de clave primaria (null = consultar todas las columnas).
+     */
+    protected void cargarTabla(String tableName, String pkColumn, String[] columnsToShow, String[] displayColumnNames) {
+        cancelarCargaTabla();
+        instalarFiltro();
+
+        CargadorTabla cargador = new CargadorTabla(tableName, pkColumn, columnsToShow, displayColumnNames, getIndicadorCarga());
+        this.rawModel = cargador.getModeloCrudo();
+        this.mainTable.setModel(cargador.getModeloVisible());
+        this.cargaEnCurso = cargador;
+        cargador.iniciar();
+    }
 
-            this.mainTable.setModel(finalModel);
+    /**
+     * Cancela la carga de tabla en segundo plano, si hay una en curso.
+     */
+    protected void cancelarCargaTabla() {
+        if (this.cargaEnCurso instanceof CargadorTabla cargador) {
+            cargador.cancelar();
+        } else if (this.cargaEnCurso != null) {
+            this.cargaEnCurso.cancel(true);
+        }
+        this.cargaEnCurso = null;
+        if (this.indicadorCarga != null) {
+            this.indicadorCarga.ocultar();
+        }
+    }
 
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this.vista, "Error al cargar la tabla:" + e.getMessage(), "Error de BD", JOptionPane.ERROR_MESSAGE);
-            System.err.println("❌ ERROR FATAL en cargarTabla: " + e.getMessage());
+    private IndicadorCarga getIndicadorCarga() {
+        if (this.indicadorCarga == null) {
+            this.indicadorCarga = new IndicadorCarga(this.vista);
         }
+        return this.indicadorCarga;
     }
 
     // ----------------------------------------------------------------------
-    // MÉTODOS CRUD CENTRALIZADOS (Se mantienen igual)
+    // MÉTODOS CRUD CENTRALIZADOS
     // ----------------------------------------------------------------------
 
-    protected void registrar() {
+    /**
+     * Registra el modelo con los datos de la vista. La escritura corre fuera del EDT
+     * (ver {@link #ejecutarCrud}).
+     *
+     * @param alTerminar Se ejecuta en el EDT al terminar, con o sin éxito (p. ej. recargar la tabla).
+     */
+    protected void registrar(Runnable alTerminar) {
         try {
-            // ... lógica de registro ...
             if (collectDataFromView()) {
-                if (consultas.registrar(modelo)) {
-                    JOptionPane.showMessageDialog(vista, "Registro exitoso.", "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                    clearViewFields();
-                } else {
-                    JOptionPane.showMessageDialog(vista, "Error: No se pudo registrar. Verifique la consola.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                ejecutarCrud(() -> prepararModelo().thenCompose(v -> consultasAsync.registrar(modelo)), "Registro exitoso.",
+                        "Error: No se pudo registrar. Verifique la consola.", alTerminar);
             }
 
         } catch (Exception e) {
@@ -186,8 +307,7 @@ public abstract class BaseController<T, V extends Component & CRUDView, D extend
         }
     }
 
-    protected void modificar() {
-        // ... lógica de modificar ...
+    protected void modificar(Runnable alTerminar) {
         try {
             if (getModelId() <= 0) {
                 JOptionPane.showMessageDialog(vista, "Debe buscar un registro antes de modificar.", "Advertencia", JOptionPane.WARNING_MESSAGE);
@@ -195,20 +315,15 @@ public abstract class BaseController<T, V extends Component & CRUDView, D extend
             }
 
             if (collectDataFromView()) {
-                if (consultas.modificar(modelo)) {
-                    JOptionPane.showMessageDialog(vista, "Modificación exitosa.", "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                    clearViewFields();
-                } else {
-                    JOptionPane.showMessageDialog(vista, "Error: No se pudo modificar. Verifique la consola.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                ejecutarCrud(() -> prepararModelo().thenCompose(v -> consultasAsync.modificar(modelo)), "Modificación exitosa.",
+                        "Error: No se pudo modificar. Verifique la consola.", alTerminar);
             }
         } catch (Exception e) {
             JOptionPane.showMessageDialog(vista, "Error al procesar la modificación: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
-    protected void eliminar() {
-        // ... lógica de eliminar ...
+    protected void eliminar(Runnable alTerminar) {
         int idAEliminar = getModelId();
 
         try {
@@ -223,19 +338,64 @@ public abstract class BaseController<T, V extends Component & CRUDView, D extend
             );
 
             if (confirm == JOptionPane.YES_OPTION) {
-                if (consultas.eliminar(idAEliminar)) {
-                    JOptionPane.showMessageDialog(vista, "Registro eliminado correctamente.", "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                    clearViewFields();
-                } else {
-                    JOptionPane.showMessageDialog(vista, "Error: No se pudo eliminar. Verifique la consola.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                ejecutarCrud(() -> consultasAsync.eliminar(idAEliminar), "Registro eliminado correctamente.",
+                        "Error: No se pudo eliminar. Verifique la consola.", alTerminar);
             }
         } catch (Exception e) {
             JOptionPane.showMessageDialog(vista, "Error al procesar la eliminación: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
+    /**
+     * Completa el modelo con lo que no debe calcularse en el EDT (p. ej. el hash de una contraseña),
+     * después de {@link #collectDataFromView()} y antes de escribirlo. Por defecto no hace nada.
+     */
+    protected CompletableFuture<Void> prepararModelo() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Ejecuta la operación del DAO fuera del EDT y muestra el resultado de vuelta en el EDT.
+     * Mientras corre se deshabilitan los botones CRUD y la tabla principal: el modelo está ligado
+     * al formulario y el hilo de fondo lo lee, así que no debe cambiar hasta que termine.
+     * Si tuvo éxito se limpia el formulario; en cualquier caso se ejecuta {@code alTerminar}.
+     */
+    private void ejecutarCrud(Supplier<CompletableFuture<Boolean>> operacion, String mensajeExito,
+                              String mensajeError, Runnable alTerminar) {
+        habilitarEdicion(false);
+        CompletableFuture<Boolean> futuro;
+        try {
+            futuro = operacion.get();
+        } catch (RuntimeException e) {
+            futuro = CompletableFuture.failedFuture(e);
+        }
+        futuro.whenCompleteAsync((exito, error) -> {
+            habilitarEdicion(true);
+            if (error == null && exito) {
+                JOptionPane.showMessageDialog(vista, mensajeExito, "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                clearViewFields();
+            } else {
+                if (error != null) {
+                    System.err.println("❌ ERROR en la operación CRUD: " + error.getMessage());
+                }
+                JOptionPane.showMessageDialog(vista, mensajeError, "Error", JOptionPane.ERROR_MESSAGE);
+            }
+            alTerminar.run();
+        }, EjecutorAsincrono.EDT);
+    }
+
+    private void habilitarEdicion(boolean habilitar) {
+        vista.getBtnAgregar().setEnabled(habilitar);
+        vista.getBtnModificar().setEnabled(habilitar);
+        vista.getBtnEliminar().setEnabled(habilitar);
+        vista.getBtnLimpiar().setEnabled(habilitar);
+        if (this.mainTable != null) {
+            this.mainTable.setEnabled(habilitar);
+        }
+    }
+
     protected void regresarAlMenu() {
+        cancelarCargaTabla();
         this.vista.setVisible(false);
         this.vistaPrincipal.setVisible(true);
     }
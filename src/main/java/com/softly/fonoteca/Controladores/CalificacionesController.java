@@ -1,10 +1,13 @@
 package com.softly.fonoteca.Controladores;
 
 import com.softly.fonoteca.Modelos.DAOs.CalificacionDAO;
+import com.softly.fonoteca.Modelos.DAOs.CalificacionDAOAsync;
 import com.softly.fonoteca.Modelos.DTOs.ComboBoxItem;
 import com.softly.fonoteca.Modelos.DTOs.Calificacion;
 import com.softly.fonoteca.Vistas.BaseView;
 import com.softly.fonoteca.Vistas.CalificacionesVista;
+import com.softly.fonoteca.utilities.EjecutorAsincrono;
+import com.softly.fonoteca.utilities.FiltroTabla;
 import com.softly.fonoteca.utilities.SQLQuerys;
 
 import javax.swing.*;
@@ -13,7 +16,10 @@ import javax.swing.table.DefaultTableModel;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Controlador para la visualización y gestión (CRUD) de las calificaciones registradas.
@@ -23,7 +29,7 @@ public class CalificacionesController {
 
     private final Calificacion modelo;
     private final CalificacionesVista vista;
-    private final CalificacionDAO consultas;
+    private final CalificacionDAOAsync consultasAsync;
     private final BaseView vistaPrincipal;
 
     /** Modelo de tabla con los datos crudos (contiene IDs) de la BD. */
@@ -35,9 +41,11 @@ public class CalificacionesController {
     public CalificacionesController(Calificacion modelo, CalificacionesVista vista, CalificacionDAO consultas, BaseView vistaPrincipal) {
         this.modelo = modelo;
         this.vista = vista;
-        this.consultas = consultas;
+        this.consultasAsync = new CalificacionDAOAsync(consultas);
         this.vistaPrincipal = vistaPrincipal;
 
+        // Filtro por texto sobre la tabla (las filas seleccionadas se convierten al índice del modelo)
+        FiltroTabla.instalar(vista.tablaCalificaciones, vista.txtSearch);
         cargarTablaCalificaciones();
 
         vista.cmbCanciones.setModel(SQLQuerys.consultarDatos("canciones", "idCancion", "titulo"));
@@ -92,13 +100,23 @@ public class CalificacionesController {
             return model;
         }
 
+        // Resolver todos los nombres en bloque (evita dos consultas por fila)
+        List<Integer> idsUsuarios = new ArrayList<>();
+        List<Integer> idsCanciones = new ArrayList<>();
+        for (int i = 0; i < model.getRowCount(); i++) {
+            if (model.getValueAt(i, col_idUsuario) instanceof Integer id) idsUsuarios.add(id);
+            if (model.getValueAt(i, col_idCancion) instanceof Integer id) idsCanciones.add(id);
+        }
+        Map<Integer, String> nombresUsuarios = SQLQuerys.getDisplayValuesByIds("usuarios", "idUsuario", idsUsuarios, "nombres");
+        Map<Integer, String> titulosCanciones = SQLQuerys.getDisplayValuesByIds("canciones", "idCancion", idsCanciones, "titulo");
+
         for (int i = 0; i < model.getRowCount(); i++) {
             try {
                 int idUsuario = (int) model.getValueAt(i, col_idUsuario);
                 int idCancion = (int) model.getValueAt(i, col_idCancion);
 
-                String nombreUsuario = SQLQuerys.getDisplayValueById("usuarios", "idUsuario", idUsuario, "nombres");
-                String nombreCancion = SQLQuerys.getDisplayValueById("canciones", "idCancion", idCancion, "titulo");
+                String nombreUsuario = nombresUsuarios.get(idUsuario);
+                String nombreCancion = titulosCanciones.get(idCancion);
 
                 Object[] newRow = new Object[]{
                         nombreUsuario != null ? nombreUsuario : "ID Invalido",
@@ -122,47 +140,58 @@ public class CalificacionesController {
     // ------------------------------------------------------------------------------------------
 
     /**
-     * Intenta agregar una nueva calificación. Si ya existe, lanza un mensaje de error
-     * e invita a usar Modificar.
+     * Guarda la calificación (inserta o, si el usuario ya había calificado la canción, actualiza)
+     * fuera del EDT; el resultado se informa de vuelta en el hilo de Swing.
      */
     private void agregarCalificacion() {
         if (!validarCampos() || !mapearVistaAModelo()) return;
 
-        if (consultas.existeCalificacion(modelo.getIdUsuario(), modelo.getIdCancion())) {
-            JOptionPane.showMessageDialog(vista, "Esta canción ya fue calificada por este usuario. Use Modificar.", "Advertencia", JOptionPane.WARNING_MESSAGE);
-            return;
-        }
-
-        if (consultas.vincular(modelo)) {
-            JOptionPane.showMessageDialog(vista, "Calificación agregada con éxito.", "Éxito", JOptionPane.INFORMATION_MESSAGE);
-            cargarTablaCalificaciones();
-        } else {
-            JOptionPane.showMessageDialog(vista, "Error al guardar la calificación.", "Error de BD", JOptionPane.ERROR_MESSAGE);
-        }
+        habilitarBotones(false);
+        consultasAsync.guardar(copiaDelModelo()).whenCompleteAsync((resultado, error) -> {
+            habilitarBotones(true);
+            if (error != null) {
+                System.err.println("❌ ERROR al guardar la calificación: " + error.getMessage());
+                JOptionPane.showMessageDialog(vista, "Error al guardar la calificación.", "Error de BD", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            switch (resultado) {
+                case ACTUALIZADO -> {
+                    JOptionPane.showMessageDialog(vista, "Esta canción ya estaba calificada por este usuario; se actualizó la calificación.", "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                    cargarTablaCalificaciones();
+                }
+                case SIN_CAMBIOS -> JOptionPane.showMessageDialog(vista, "Esta canción ya tenía esa misma calificación de este usuario; no hubo cambios.", "Sin cambios", JOptionPane.INFORMATION_MESSAGE);
+                case ERROR -> JOptionPane.showMessageDialog(vista, "Error al guardar la calificación.", "Error de BD", JOptionPane.ERROR_MESSAGE);
+                default -> {
+                    JOptionPane.showMessageDialog(vista, "Calificación agregada con éxito.", "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                    cargarTablaCalificaciones();
+                }
+            }
+        }, EjecutorAsincrono.EDT);
     }
 
     /**
-     * Modifica el registro de la calificación actualmente seleccionado.
+     * Modifica el registro de la calificación actualmente seleccionado, fuera del EDT.
      */
     private void modificarCalificacion() {
         if (!validarCampos() || !mapearVistaAModelo()) return;
 
-        // Si no existe, no se puede modificar, debe usarse Agregar
-        if (!consultas.existeCalificacion(modelo.getIdUsuario(), modelo.getIdCancion())) {
-            JOptionPane.showMessageDialog(vista, "No existe una calificación previa para modificar. Use Agregar.", "Advertencia", JOptionPane.WARNING_MESSAGE);
-            return;
-        }
-
-        if (consultas.modificar(modelo)) {
-            JOptionPane.showMessageDialog(vista, "Calificación modificada con éxito.", "Éxito", JOptionPane.INFORMATION_MESSAGE);
-            cargarTablaCalificaciones();
-        } else {
-            JOptionPane.showMessageDialog(vista, "Error al modificar la calificación.", "Error de BD", JOptionPane.ERROR_MESSAGE);
-        }
+        habilitarBotones(false);
+        consultasAsync.modificar(copiaDelModelo()).whenCompleteAsync((exito, error) -> {
+            habilitarBotones(true);
+            if (error == null && exito) {
+                JOptionPane.showMessageDialog(vista, "Calificación modificada con éxito.", "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                cargarTablaCalificaciones();
+            } else {
+                if (error != null) {
+                    System.err.println("❌ ERROR al modificar la calificación: " + error.getMessage());
+                }
+                JOptionPane.showMessageDialog(vista, "No se pudo modificar: no existe una calificación previa (use Agregar) o hubo un error de BD.", "Advertencia", JOptionPane.WARNING_MESSAGE);
+            }
+        }, EjecutorAsincrono.EDT);
     }
 
     /**
-     * Elimina el registro de la calificación actualmente seleccionado.
+     * Elimina el registro de la calificación actualmente seleccionado, fuera del EDT.
      */
     private void eliminarCalificacion() {
         if (!mapearVistaAModelo()) return;
@@ -172,15 +201,37 @@ public class CalificacionesController {
                 "Confirmar Eliminación", JOptionPane.YES_NO_OPTION);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            if (consultas.desvincular(modelo)) {
-                JOptionPane.showMessageDialog(vista, "Calificación eliminada con éxito.", "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                cargarTablaCalificaciones();
-            } else {
-                JOptionPane.showMessageDialog(vista, "Error al eliminar la calificación.", "Error de BD", JOptionPane.ERROR_MESSAGE);
-            }
+            habilitarBotones(false);
+            consultasAsync.desvincular(copiaDelModelo()).whenCompleteAsync((exito, error) -> {
+                habilitarBotones(true);
+                if (error == null && exito) {
+                    JOptionPane.showMessageDialog(vista, "Calificación eliminada con éxito.", "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                    cargarTablaCalificaciones();
+                } else {
+                    if (error != null) {
+                        System.err.println("❌ ERROR al eliminar la calificación: " + error.getMessage());
+                    }
+                    JOptionPane.showMessageDialog(vista, "Error al eliminar la calificación.", "Error de BD", JOptionPane.ERROR_MESSAGE);
+                }
+            }, EjecutorAsincrono.EDT);
         }
     }
 
+    /**
+     * El modelo está ligado al formulario: el hilo de fondo recibe una copia para que las
+     * ediciones o selecciones posteriores no cambien la calificación que se está guardando.
+     */
+    private Calificacion copiaDelModelo() {
+        return new Calificacion(modelo.getIdUsuario(), modelo.getIdCancion(), modelo.getCalificacion(),
+                modelo.getComentario(), modelo.getFechaCalificacion(), modelo.getHoraCalificacion());
+    }
+
+    private void habilitarBotones(boolean habilitar) {
+        vista.agregarButton.setEnabled(habilitar);
+        vista.modificarButton.setEnabled(habilitar);
+        vista.eliminarButton.setEnabled(habilitar);
+    }
+
     /**
      * Valida que los campos requeridos tengan datos y estén en el formato correcto.
      */
@@ -194,11 +245,14 @@ public class CalificacionesController {
             if (vista.txtCalificacion.getText().trim().isEmpty()) {
                 throw new IllegalArgumentException("La calificación no puede estar vacía.");
             }
+            if (Calificacion.puntajeDe(vista.txtCalificacion.getText()) == Calificacion.SIN_PUNTAJE) {
+                throw new NumberFormatException();
+            }
             // Comentario puede ser opcional, por lo que no lo validamos como requerido.
 
             return true;
         } catch (NumberFormatException e) {
-            JOptionPane.showMessageDialog(vista, "Formato de Calificación inválido.", "Error de Formato", JOptionPane.WARNING_MESSAGE);
+            JOptionPane.showMessageDialog(vista, "Formato de Calificación inválido (use un valor de 1 a 5, p. ej. \"4\", \"8/10\" o \"★★★★\").", "Error de Formato", JOptionPane.WARNING_MESSAGE);
             return false;
         } catch (DateTimeParseException e) {
             JOptionPane.showMessageDialog(vista, "Formato de Fecha/Hora inválido (debe ser YYYY-MM-DD y HH:MM:SS).", "Error de Formato", JOptionPane.WARNING_MESSAGE);
@@ -280,7 +334,8 @@ public class CalificacionesController {
      * Carga el detalle de la calificación seleccionada en los campos de la vista.
      */
     private void cargarDetalleFilaSeleccionada() {
-        int selectedRow = vista.tablaCalificaciones.getSelectedRow();
+        int filaVista = vista.tablaCalificaciones.getSelectedRow();
+        int selectedRow = filaVista == -1 ? -1 : vista.tablaCalificaciones.convertRowIndexToModel(filaVista);
 
         if (selectedRow != -1 && this.rawModel != null) {
             try {
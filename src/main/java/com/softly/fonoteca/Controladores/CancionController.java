@@ -73,18 +73,9 @@ public class CancionController extends BaseController<Cancion, CancionesVista, C
         this.vista.tablaCanciones.getSelectionModel().addListSelectionListener(this::cargarDetalleFilaSeleccionada);
 
         // Listeners CRUD
-        this.vista.getBtnAgregar().addActionListener(e -> {
-            registrar();
-            cargarTablaCanciones();
-        });
-        this.vista.getBtnModificar().addActionListener(e -> {
-            modificar();
-            cargarTablaCanciones();
-        });
-        this.vista.getBtnEliminar().addActionListener(e -> {
-            eliminar();
-            cargarTablaCanciones();
-        });
+        this.vista.getBtnAgregar().addActionListener(e -> registrar(this::cargarTablaCanciones));
+        this.vista.getBtnModificar().addActionListener(e -> modificar(this::cargarTablaCanciones));
+        this.vista.getBtnEliminar().addActionListener(e -> eliminar(this::cargarTablaCanciones));
         this.vista.getBtnLimpiar().addActionListener(e -> clearViewFields());
 
         // Listeners de navegación (BaseController)
@@ -244,7 +235,7 @@ public class CancionController extends BaseController<Cancion, CancionesVista, C
      */
     private void cargarTablaCanciones() {
         // Llama al método genérico del BaseController
-        cargarTabla(TABLE_NAME, DB_COLUMNS_TO_SHOW, DISPLAY_COLUMNS_HEADERS);
+        cargarTabla(TABLE_NAME, "idCancion", DB_COLUMNS_TO_SHOW, DISPLAY_COLUMNS_HEADERS);
     }
 
 
@@ -293,41 +284,47 @@ public class CancionController extends BaseController<Cancion, CancionesVista, C
      */
     private void cargarDetalleFilaSeleccionada(ListSelectionEvent e) {
         if (!e.getValueIsAdjusting() && vista.tablaCanciones.getSelectedRow() != -1 && this.rawModel != null) {
+            int selectedRow = filaSeleccionadaEnModelo();
+            // Las columnas no mostradas pueden requerir una consulta: el formulario se llena al tenerlas
+            conFilaCompleta(selectedRow, () -> mostrarDetalleFila(e, selectedRow));
+        }
+    }
 
-            int selectedRow = vista.tablaCanciones.getSelectedRow();
-
-            // 1. Mapeo de componentes simples
-            Map<String, Object> componentMappings = new HashMap<>();
-
-            // Mapeo a JTextFields/JCheckBox
-            componentMappings.put("titulo", vista.txtTitulo);
-            componentMappings.put("duracion", vista.txtDuracion);
-            componentMappings.put("tiempoBPM", vista.txtBPM);
-            componentMappings.put("idioma", vista.txtIdiomaCancion);
-            componentMappings.put("fechaLanzamiento", vista.txtFechaLanzamiento);
-            componentMappings.put("esInstrumental", vista.esInstrumentalCheckBox);
+    /**
+     * Carga en el formulario la fila seleccionada (índice del modelo), con todas sus columnas disponibles.
+     */
+    private void mostrarDetalleFila(ListSelectionEvent e, int selectedRow) {
+        // 1. Mapeo de componentes simples
+        Map<String, Object> componentMappings = new HashMap<>();
 
-            // Mapeo a ComboBoxes (IDs foráneos)
-            componentMappings.put("idAlbumOriginal", vista.cmbAlbum);
-            componentMappings.put("idGenero", vista.cmbGenero);
-            componentMappings.put("idInterpretePrincipal", vista.cmbInterprete);
+        // Mapeo a JTextFields/JCheckBox
+        componentMappings.put("titulo", vista.txtTitulo);
+        componentMappings.put("duracion", vista.txtDuracion);
+        componentMappings.put("tiempoBPM", vista.txtBPM);
+        componentMappings.put("idioma", vista.txtIdiomaCancion);
+        componentMappings.put("fechaLanzamiento", vista.txtFechaLanzamiento);
+        componentMappings.put("esInstrumental", vista.esInstrumentalCheckBox);
 
+        // Mapeo a ComboBoxes (IDs foráneos)
+        componentMappings.put("idAlbumOriginal", vista.cmbAlbum);
+        componentMappings.put("idGenero", vista.cmbGenero);
+        componentMappings.put("idInterpretePrincipal", vista.cmbInterprete);
 
-            // Usamos el método genérico para cargar los campos
-            loadTableDetailsToView(e, componentMappings);
 
-            try {
-                // 2. Manejo del ID y otros campos especiales para el DTO
-                int col_id = rawModel.findColumn("idCancion");
-                int idCancion = (int) rawModel.getValueAt(selectedRow, col_id);
-                modelo.setIdCancion(idCancion);
-                vista.txtIDCancion.setText(String.valueOf(idCancion));
-                // Cargar fechas y otros valores al modelo que no están en el mapeo principal
+        // Usamos el método genérico para cargar los campos
+        loadTableDetailsToView(e, componentMappings);
 
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(vista, "Error al cargar datos de la canción: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-                System.err.println("❌ ERROR al cargar detalles de la fila: " + ex.getMessage());
-            }
+        try {
+            // 2. Manejo del ID y otros campos especiales para el DTO
+            int col_id = rawModel.findColumn("idCancion");
+            int idCancion = (int) rawModel.getValueAt(selectedRow, col_id);
+            modelo.setIdCancion(idCancion);
+            vista.txtIDCancion.setText(String.valueOf(idCancion));
+            // Cargar fechas y otros valores al modelo que no están en el mapeo principal
+
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(vista, "Error al cargar datos de la canción: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            System.err.println("❌ ERROR al cargar detalles de la fila: " + ex.getMessage());
         }
     }
 }
\ No newline at end of file
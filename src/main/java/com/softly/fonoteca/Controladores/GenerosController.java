@@ -124,7 +124,7 @@ public class GenerosController extends BaseController<Genero, GenerosVista, Gene
     private void cargarDetalleFilaSeleccionada(ListSelectionEvent e) {
         if (!e.getValueIsAdjusting() && vista.tablaGeneros.getSelectedRow() != -1 && this.rawModel != null) {
 
-            int selectedRow = vista.tablaGeneros.getSelectedRow();
+            int selectedRow = filaSeleccionadaEnModelo();
 
             // 1. Mapeo de componentes (nombre de columna BD -> JTextField)
             Map<String, Object> componentMappings = new HashMap<>();
@@ -156,18 +156,9 @@ public class GenerosController extends BaseController<Genero, GenerosVista, Gene
         vista.tablaGeneros.getSelectionModel().addListSelectionListener(this::cargarDetalleFilaSeleccionada);
 
         // Listeners CRUD (Refrescar tabla después de la operación)
-        vista.agregarButton.addActionListener(e -> {
-            registrar();
-            cargarTablaGeneros();
-        });
-        vista.eliminarButton.addActionListener(e -> {
-            eliminar();
-            cargarTablaGeneros();
-        });
-        vista.modificarButton.addActionListener(e -> {
-            modificar();
-            cargarTablaGeneros();
-        });
+        vista.agregarButton.addActionListener(e -> registrar(this::cargarTablaGeneros));
+        vista.eliminarButton.addActionListener(e -> eliminar(this::cargarTablaGeneros));
+        vista.modificarButton.addActionListener(e -> modificar(this::cargarTablaGeneros));
 
         vista.limpiarCamposButton.addActionListener(e -> clearViewFields());
         vista.regresarButton.addActionListener(e -> regresarAlMenu());
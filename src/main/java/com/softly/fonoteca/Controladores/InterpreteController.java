@@ -82,7 +82,7 @@ public class InterpreteController extends BaseController<Interprete, Interpretes
      * Carga la tabla de intérpretes usando el método genérico del BaseController.
      */
     private void cargarTablaInterpretes() {
-        cargarTabla("interpretes", DB_COLUMNS_TO_SHOW, DISPLAY_COLUMNS_HEADERS);
+        cargarTabla("interpretes", "idInterprete", DB_COLUMNS_TO_SHOW, DISPLAY_COLUMNS_HEADERS);
     }
 
 
@@ -174,58 +174,64 @@ public class InterpreteController extends BaseController<Interprete, Interpretes
      */
     private void cargarDetalleFilaSeleccionada(ListSelectionEvent e) {
         if (!e.getValueIsAdjusting() && vista.tablaInterpretes.getSelectedRow() != -1 && this.rawModel != null) {
+            int selectedRow = filaSeleccionadaEnModelo();
+            // Las columnas no mostradas pueden requerir una consulta: el formulario se llena al tenerlas
+            conFilaCompleta(selectedRow, () -> mostrarDetalleFila(e, selectedRow));
+        }
+    }
 
-            int selectedRow = vista.tablaInterpretes.getSelectedRow();
-
-            // 1. Mapeo de componentes simples
-            Map<String, Object> componentMappings = new HashMap<>();
-            componentMappings.put("nombre", vista.txtNombre);
-            componentMappings.put("tituloInterprete", vista.txtTitulo);
-            componentMappings.put("idGeneroPrincipal", vista.cmbGenero); // ComboBox
+    /**
+     * Carga en el formulario la fila seleccionada (índice del modelo), con todas sus columnas disponibles.
+     */
+    private void mostrarDetalleFila(ListSelectionEvent e, int selectedRow) {
+        // 1. Mapeo de componentes simples
+        Map<String, Object> componentMappings = new HashMap<>();
+        componentMappings.put("nombre", vista.txtNombre);
+        componentMappings.put("tituloInterprete", vista.txtTitulo);
+        componentMappings.put("idGeneroPrincipal", vista.cmbGenero); // ComboBox
 
-            loadTableDetailsToView(e, componentMappings);
+        loadTableDetailsToView(e, componentMappings);
 
-            try {
-                // 2. Manejo de campos especiales (ID y Fechas NULAS)
+        try {
+            // 2. Manejo de campos especiales (ID y Fechas NULAS)
 
-                // Obtener ID
-                int col_id = rawModel.findColumn("idInterprete");
-                int idInterprete = (int) rawModel.getValueAt(selectedRow, col_id);
-                modelo.setIdInterprete(idInterprete);
-                vista.txtID.setText(String.valueOf(idInterprete));
+            // Obtener ID
+            int col_id = rawModel.findColumn("idInterprete");
+            int idInterprete = (int) rawModel.getValueAt(selectedRow, col_id);
+            modelo.setIdInterprete(idInterprete);
+            vista.txtID.setText(String.valueOf(idInterprete));
 
-                // Cargar Fechas al modelo y vista (Manejo de NULOS)
-                int col_fechaL = rawModel.findColumn("yearLanzamiento");
-                int col_fechaR = rawModel.findColumn("yearRetiro");
+            // Cargar Fechas al modelo y vista (Manejo de NULOS)
+            int col_fechaL = rawModel.findColumn("yearLanzamiento");
+            int col_fechaR = rawModel.findColumn("yearRetiro");
 
-                Object rawFechaL = rawModel.getValueAt(selectedRow, col_fechaL);
-                Object rawFechaR = rawModel.getValueAt(selectedRow, col_fechaR);
+            Object rawFechaL = rawModel.getValueAt(selectedRow, col_fechaL);
+            Object rawFechaR = rawModel.getValueAt(selectedRow, col_fechaR);
 
-                LocalDate fechaLanzamiento = null;
-                LocalDate fechaRetiro = null;
+            LocalDate fechaLanzamiento = null;
+            LocalDate fechaRetiro = null;
 
-                if (rawFechaL != null && !rawFechaL.toString().isEmpty()) {
-                    String fechaLanzamientoStr = rawFechaL.toString().substring(0, 10);
-                    fechaLanzamiento = LocalDate.parse(fechaLanzamientoStr);
-                }
+            if (rawFechaL != null && !rawFechaL.toString().isEmpty()) {
+                String fechaLanzamientoStr = rawFechaL.toString().substring(0, 10);
+                fechaLanzamiento = LocalDate.parse(fechaLanzamientoStr);
+            }
 
-                if (rawFechaR != null && !rawFechaR.toString().isEmpty()) {
-                    String fechaRetiroStr = rawFechaR.toString().substring(0, 10);
-                    fechaRetiro = LocalDate.parse(fechaRetiroStr);
-                }
+            if (rawFechaR != null && !rawFechaR.toString().isEmpty()) {
+                String fechaRetiroStr = rawFechaR.toString().substring(0, 10);
+                fechaRetiro = LocalDate.parse(fechaRetiroStr);
+            }
 
-                // Asignar al modelo DTO
-                modelo.setYearLanzamiento(fechaLanzamiento);
-                modelo.setYearRetiro(fechaRetiro);
+            // Asignar al modelo DTO
+            modelo.setYearLanzamiento(fechaLanzamiento);
+            modelo.setYearRetiro(fechaRetiro);
 
-                // Asignar a la vista (si es nulo, el campo se queda vacío)
-                vista.txtYearLanzamiento.setText(fechaLanzamiento != null ? fechaLanzamiento.toString() : "");
-                vista.txtYearRetiro.setText(fechaRetiro != null ? fechaRetiro.toString() : "");
+            // Asignar a la vista (si es nulo, el campo se queda vacío)
+            vista.txtYearLanzamiento.setText(fechaLanzamiento != null ? fechaLanzamiento.toString() : "");
+            vista.txtYearRetiro.setText(fechaRetiro != null ? fechaRetiro.toString() : "");
 
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(vista, "Error al cargar datos de fecha/ID: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-                System.err.println("❌ ERROR al cargar detalles de la fila: " + ex.getMessage());
-            }
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(vista, "Error al cargar datos de fecha/ID: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            System.err.println("❌ ERROR al cargar detalles de la fila: " + ex.getMessage());
         }
     }
 
@@ -239,18 +245,9 @@ public class InterpreteController extends BaseController<Interprete, Interpretes
         vista.tablaInterpretes.getSelectionModel().addListSelectionListener(this::cargarDetalleFilaSeleccionada);
 
         // Listeners CRUD (Refrescar después de la operación)
-        vista.agregarButton.addActionListener(e -> {
-            registrar();
-            cargarTablaInterpretes();
-        });
-        vista.modificarButton.addActionListener(e -> {
-            modificar();
-            cargarTablaInterpretes();
-        });
-        vista.eliminarButton.addActionListener(e -> {
-            eliminar();
-            cargarTablaInterpretes();
-        });
+        vista.agregarButton.addActionListener(e -> registrar(this::cargarTablaInterpretes));
+        vista.modificarButton.addActionListener(e -> modificar(this::cargarTablaInterpretes));
+        vista.eliminarButton.addActionListener(e -> eliminar(this::cargarTablaInterpretes));
 
         // Listeners Funcionales
         vista.regresarButton.addActionListener(e -> regresarAlMenu());
@@ -1,15 +1,22 @@
 package com.softly.fonoteca.Controladores;
 
 import com.softly.fonoteca.Modelos.DAOs.UsuarioDAO;
+import com.softly.fonoteca.Modelos.DTOs.CredencialUsuario;
 import com.softly.fonoteca.Modelos.DTOs.Usuario;
 import com.softly.fonoteca.Vistas.LoginVista;
 import com.softly.fonoteca.Vistas.MainView;
 import com.softly.fonoteca.Vistas.RegistroVista;
+import com.softly.fonoteca.utilities.EjecutorAsincrono;
+import com.softly.fonoteca.utilities.EjecutorBCrypt;
+import com.softly.fonoteca.utilities.GestorSesiones;
 import com.softly.fonoteca.utilities.SecurityUtils;
 
 import javax.swing.*;
 import java.awt.*;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 public class LoginController {
 
@@ -27,11 +34,18 @@ public class LoginController {
      *
      * @param email         Email del usuario.
      * @param passwordChars Contraseña en texto plano como char[].
-     * @return El objeto Usuario si la autenticación es exitosa, null en caso contrario.
+     * @return La credencial del usuario si la autenticación es exitosa, null en caso contrario.
      */
-    protected Usuario verificarSesion(String email, char[] passwordChars) {
+    protected CredencialUsuario verificarSesion(String email, char[] passwordChars) {
 
-        Usuario usuario = consultas.buscarPorEmail(email);
+        // Dentro de una sesión activa basta con el token (sin BCrypt ni BD)
+        CredencialUsuario enSesion = GestorSesiones.reautenticar(email, passwordChars);
+        if (enSesion != null) {
+            return enSesion;
+        }
+
+        // Solo ID, email y hash, desde la caché de credenciales
+        CredencialUsuario usuario = consultas.buscarCredencial(email);
 
         if (usuario == null) {
             return null;
@@ -40,30 +54,95 @@ public class LoginController {
         String storedHashedPassword = usuario.getHashedPassword();
 
         boolean isPasswordValid = SecurityUtils.verifyPassword(passwordChars, storedHashedPassword);
+        if (isPasswordValid) {
+            GestorSesiones.iniciar(usuario, passwordChars);
+            rehashSiHaceFalta(usuario, passwordChars);
+        }
 
         return isPasswordValid ? usuario : null;
     }
 
+    /**
+     * Si el hash del usuario tiene un costo menor al calibrado, lo regenera en segundo plano
+     * con la contraseña recién verificada. No retrasa el inicio de sesión; si el pool está
+     * saturado o falla la escritura, se reintentará en el próximo inicio de sesión.
+     */
+    private void rehashSiHaceFalta(CredencialUsuario usuario, char[] passwordChars) {
+        String hashAnterior = usuario.getHashedPassword();
+        if (!SecurityUtils.necesitaRehash(hashAnterior)) return;
+
+        EjecutorBCrypt.hash(passwordChars)
+                .thenCompose(hashNuevo -> EjecutorAsincrono.ejecutar(
+                        () -> consultas.actualizarHash(usuario.getIdUsuario(), hashAnterior, hashNuevo), null))
+                .whenComplete((actualizado, error) -> {
+                    if (error != null) {
+                        System.err.println("No se pudo regenerar el hash del usuario " + usuario.getIdUsuario() + ": " + error.getMessage());
+                    }
+                });
+    }
+
+    /**
+     * Variante asíncrona de {@link #verificarSesion}: si hay una sesión activa se valida contra su token;
+     * si no, la búsqueda corre en un hilo virtual y la verificación BCrypt en {@link EjecutorBCrypt}. La contraseña se copia al enviarla,
+     * por lo que el llamador puede borrar su arreglo al recibir el futuro.
+     *
+     * @return Futuro con la credencial si la autenticación es exitosa, o null en caso contrario.
+     */
+    protected CompletableFuture<CredencialUsuario> verificarSesionAsync(String email, char[] passwordChars) {
+        CredencialUsuario enSesion = GestorSesiones.reautenticar(email, passwordChars);
+        if (enSesion != null) {
+            return CompletableFuture.completedFuture(enSesion);
+        }
+
+        char[] copia = passwordChars.clone();
+        return EjecutorAsincrono.ejecutar(() -> consultas.buscarCredencial(email), null)
+                .thenCompose(usuario -> {
+                    if (usuario == null) {
+                        return CompletableFuture.completedFuture((CredencialUsuario) null);
+                    }
+                    return EjecutorBCrypt.verificar(copia, usuario.getHashedPassword())
+                            .thenApply(valida -> {
+                                if (valida) {
+                                    GestorSesiones.iniciar(usuario, copia);
+                                    rehashSiHaceFalta(usuario, copia);
+                                }
+                                return valida ? usuario : null;
+                            });
+                })
+                .whenComplete((usuario, error) -> Arrays.fill(copia, ' '));
+    }
+
+    /**
+     * Autentica fuera del EDT; mientras tanto se deshabilita el botón para evitar envíos repetidos.
+     */
     protected void iniciarSesion() {
-        vista.setMessageAlert("");
+        vista.setMessageAlert("Verificando...");
         String email = vista.getTxtEmail().getText();
         char[] passwdChars = vista.getTxtPasswd().getPassword();
-        Usuario usuarioAutenticado;
+        vista.getIniciarSesionButton().setEnabled(false);
 
         try {
-            usuarioAutenticado = verificarSesion(email, passwdChars);
-
-            if (usuarioAutenticado != null) {
-                MainView mainVista = new MainView();
-                MainController mainInicio = new MainController(mainVista,this.vista);
-                mainInicio.iniciar();
-                this.vista.setVisible(false);
-            } else {
-                vista.setMessageAlert("Datos invalidos, intente de nuevo");
-            }
-        } catch (Exception e) {
-            vista.setMessageAlert("Error interno del sistema durante la autenticación.");
-            System.err.println("Error al iniciar sesión: " + e.getMessage());
+            verificarSesionAsync(email, passwdChars).whenCompleteAsync((usuarioAutenticado, error) -> {
+                vista.getIniciarSesionButton().setEnabled(true);
+
+                if (error != null) {
+                    Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    if (causa instanceof RejectedExecutionException) {
+                        vista.setMessageAlert("El sistema está ocupado, intente de nuevo en unos segundos.");
+                    } else {
+                        vista.setMessageAlert("Error interno del sistema durante la autenticación.");
+                    }
+                    System.err.println("Error al iniciar sesión: " + causa.getMessage());
+                } else if (usuarioAutenticado != null) {
+                    vista.setMessageAlert("");
+                    MainView mainVista = new MainView();
+                    MainController mainInicio = new MainController(mainVista, this.vista);
+                    mainInicio.iniciar();
+                    this.vista.setVisible(false);
+                } else {
+                    vista.setMessageAlert("Datos invalidos, intente de nuevo");
+                }
+            }, EjecutorAsincrono.EDT);
         } finally {
             Arrays.fill(passwdChars, ' ');
         }
@@ -1,20 +1,45 @@
 package com.softly.fonoteca.Controladores;
 
+import com.softly.fonoteca.Modelos.DAOs.AlbumDAO;
 import com.softly.fonoteca.Modelos.DAOs.CalificacionDAO;
+import com.softly.fonoteca.Modelos.DAOs.InterpreteDAO;
 import com.softly.fonoteca.Modelos.DAOs.ReproduccionDAO;
+import com.softly.fonoteca.Modelos.DTOs.Album;
 import com.softly.fonoteca.Modelos.DTOs.Calificacion;
 import com.softly.fonoteca.Modelos.DTOs.Cancion;
 import com.softly.fonoteca.Modelos.DAOs.CancionDAO;
+import com.softly.fonoteca.Modelos.DTOs.Interprete;
 import com.softly.fonoteca.Modelos.DTOs.Reproduccion;
+import com.softly.fonoteca.Modelos.DTOs.ResultadoBusqueda;
 import com.softly.fonoteca.Modelos.DTOs.Usuario;
 import com.softly.fonoteca.Modelos.DAOs.UsuarioDAO;
 import com.softly.fonoteca.Vistas.*;
+import com.softly.fonoteca.utilities.EjecutorAsincrono;
+import com.softly.fonoteca.utilities.GestorSesiones;
+import com.softly.fonoteca.utilities.IndiceBusqueda;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
 
 public class MainController {
 
     private final MainView vistaPrincipal;
     private final LoginVista login;
 
+    /** Espera tras la última tecla antes de buscar, para no buscar en cada pulsación. */
+    private static final int ESPERA_BUSQUEDA_MS = 120;
+    private static final int MAX_RESULTADOS = 20;
+
+    private final Timer temporizadorBusqueda = new Timer(ESPERA_BUSQUEDA_MS, e -> buscar());
+    /** Solo se muestra la respuesta de la búsqueda más reciente (se modifica en el EDT). */
+    private int ultimaBusqueda = 0;
+
     public MainController(MainView vistaPrincipal, LoginVista login) {
         this.vistaPrincipal = vistaPrincipal;
         this.login = login;
@@ -27,13 +52,159 @@ public class MainController {
         this.vistaPrincipal.reproduccionesButton.addActionListener(e ->launchReproduccionesModule());
         this.vistaPrincipal.calificacionesButton.addActionListener(e ->launchComentariosModule());
         this.vistaPrincipal.salirButton.addActionListener(e -> salir());
+        this.vistaPrincipal.cerrarSesionButton.addActionListener(e -> cerrarSesion());
+        agregarListenersBusqueda();
+    }
+
+    private void agregarListenersBusqueda() {
+        temporizadorBusqueda.setRepeats(false);
+        JTextField txtBuscar = vistaPrincipal.txtBuscar;
+        JList<ResultadoBusqueda> lista = vistaPrincipal.listaResultados;
+
+        txtBuscar.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                temporizadorBusqueda.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                temporizadorBusqueda.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                temporizadorBusqueda.restart();
+            }
+        });
+
+        // Flechas para moverse por los resultados, Enter para abrir y Escape para cerrar
+        txtBuscar.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                int tamano = lista.getModel().getSize();
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_DOWN -> seleccionarResultado(Math.min(lista.getSelectedIndex() + 1, tamano - 1));
+                    case KeyEvent.VK_UP -> seleccionarResultado(Math.max(lista.getSelectedIndex() - 1, 0));
+                    case KeyEvent.VK_ENTER -> {
+                        if (tamano > 0) abrirResultado(lista.getSelectedIndex() >= 0 ? lista.getSelectedValue() : lista.getModel().getElementAt(0));
+                    }
+                    case KeyEvent.VK_ESCAPE -> vistaPrincipal.popupResultados.setVisible(false);
+                }
+            }
+        });
+
+        lista.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int indice = lista.locationToIndex(e.getPoint());
+                if (indice >= 0) {
+                    abrirResultado(lista.getModel().getElementAt(indice));
+                }
+            }
+        });
+    }
+
+    private void seleccionarResultado(int indice) {
+        if (indice >= 0) {
+            vistaPrincipal.listaResultados.setSelectedIndex(indice);
+            vistaPrincipal.listaResultados.ensureIndexIsVisible(indice);
+        }
     }
 
+    /**
+     * Busca en el índice en memoria fuera del EDT; si mientras tanto se escribió otra consulta,
+     * la respuesta se descarta.
+     */
+    private void buscar() {
+        String consulta = vistaPrincipal.txtBuscar.getText();
+        int busqueda = ++ultimaBusqueda;
+        if (consulta.isBlank()) {
+            mostrarResultados(List.of());
+            return;
+        }
+
+        EjecutorAsincrono.ejecutar(() -> IndiceBusqueda.compartido().buscar(consulta, MAX_RESULTADOS), null)
+                .whenCompleteAsync((resultados, error) -> {
+                    if (busqueda != ultimaBusqueda) return;
+                    if (error != null) {
+                        System.err.println("❌ Error en la búsqueda: " + error.getMessage());
+                        return;
+                    }
+                    mostrarResultados(resultados);
+                }, EjecutorAsincrono.EDT);
+    }
+
+    private void mostrarResultados(List<ResultadoBusqueda> resultados) {
+        DefaultListModel<ResultadoBusqueda> modelo = (DefaultListModel<ResultadoBusqueda>) vistaPrincipal.listaResultados.getModel();
+        modelo.clear();
+        modelo.addAll(resultados);
+
+        JPopupMenu popup = vistaPrincipal.popupResultados;
+        if (resultados.isEmpty()) {
+            popup.setVisible(false);
+            return;
+        }
+        vistaPrincipal.listaResultados.setVisibleRowCount(Math.min(resultados.size(), 10));
+        popup.setPopupSize(vistaPrincipal.txtBuscar.getWidth(), popup.getPreferredSize().height);
+        popup.pack();
+        popup.show(vistaPrincipal.txtBuscar, 0, vistaPrincipal.txtBuscar.getHeight());
+        vistaPrincipal.txtBuscar.requestFocusInWindow();
+    }
+
+    /**
+     * Abre el módulo de la entidad encontrada con su registro cargado.
+     */
+    private void abrirResultado(ResultadoBusqueda resultado) {
+        if (resultado == null) return;
+        GestorSesiones.registrarActividad();
+        vistaPrincipal.popupResultados.setVisible(false);
+        vistaPrincipal.setVisible(false);
+
+        switch (resultado.getTipo()) {
+            case CANCION -> {
+                CancionDAO consultasCancion = new CancionDAO();
+                CancionController controller = new CancionController(new Cancion(), new CancionesVista(), consultasCancion, this.vistaPrincipal);
+                controller.iniciar();
+                Cancion cancion = consultasCancion.buscarPorId(resultado.getId());
+                if (cancion != null) controller.loadDataToView(cancion);
+            }
+            case ALBUM -> {
+                AlbumDAO consultasAlbum = new AlbumDAO();
+                AlbumController controller = AlbumController.getInstance(new Album(), new AlbumVista(), consultasAlbum, this.vistaPrincipal);
+                Album album = consultasAlbum.buscarPorId(resultado.getId());
+                if (album != null) controller.loadDataToView(album);
+            }
+            case INTERPRETE -> {
+                InterpreteDAO consultasInterprete = new InterpreteDAO();
+                InterpreteController controller = InterpreteController.getInstance(new Interprete(), new InterpretesVista(), consultasInterprete, this.vistaPrincipal);
+                controller.iniciar();
+                Interprete interprete = consultasInterprete.buscarPorId(resultado.getId());
+                if (interprete != null) controller.loadDataToView(interprete);
+            }
+        }
+    }
+
+    /**
+     * Vuelve al login sin cerrar la sesión: mientras no expire, volver a entrar con la misma
+     * contraseña se valida contra el token de la sesión, sin BCrypt ni consulta a la BD.
+     */
     private void salir(){
+        temporizadorBusqueda.stop();
         this.vistaPrincipal.dispose();
         login.setVisible(true);
     }
+
+    /**
+     * Cierra la sesión (revoca el token en memoria) y vuelve al login.
+     */
+    private void cerrarSesion() {
+        GestorSesiones.revocar();
+        salir();
+    }
+
     private void launchReproduccionesModule() {
+        GestorSesiones.registrarActividad();
         this.vistaPrincipal.setVisible(false);
 
         Reproduccion modeloReproduccion = new Reproduccion();
@@ -45,6 +216,7 @@ public class MainController {
     }
 
     private void launchCancionModule() {
+        GestorSesiones.registrarActividad();
 
         this.vistaPrincipal.setVisible(false);
 
@@ -57,6 +229,7 @@ public class MainController {
     }
 
     private void launchUsuariosModule() {
+        GestorSesiones.registrarActividad();
 
         this.vistaPrincipal.setVisible(false);
 
@@ -70,6 +243,7 @@ public class MainController {
     }
 
     private void launchComentariosModule() {
+        GestorSesiones.registrarActividad();
         this.vistaPrincipal.setVisible(false);
 
         Calificacion modeloCalificacion = new Calificacion();
@@ -3,14 +3,18 @@ package com.softly.fonoteca.Controladores;
 import com.softly.fonoteca.Modelos.DAOs.UsuarioDAO;
 import com.softly.fonoteca.Modelos.DTOs.Usuario;
 import com.softly.fonoteca.Vistas.RegistroVista;
+import com.softly.fonoteca.utilities.EjecutorAsincrono;
+import com.softly.fonoteca.utilities.EjecutorBCrypt;
 import com.softly.fonoteca.utilities.FormatDates;
-import com.softly.fonoteca.utilities.SecurityUtils;
 
 import javax.swing.*;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Objects;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Controlador específico para el flujo de registro de nuevos usuarios.
@@ -36,18 +40,19 @@ public class RegisterController {
     }
 
     /**
-     * Intenta recolectar los datos de la vista, validarlos y hacer el hashing de la contraseña.
+     * Intenta recolectar los datos de la vista, validarlos e iniciar el hashing de la contraseña
+     * en {@link EjecutorBCrypt} (fuera del EDT).
      *
-     * @return true si los datos son válidos y listos para ser guardados.
+     * @return El hash en curso si los datos son válidos, o null en caso contrario.
      */
-    private boolean collectDataFromView() {
+    private CompletableFuture<String> collectDataFromView() {
         char[] passwordChars = null;
 
         try {
             // 1. Validar campos mínimos requeridos
             if (vista.txtEmail.getText().trim().isEmpty() || vista.txtNombre.getText().trim().isEmpty()) {
                 JOptionPane.showMessageDialog(vista, "El Email y Nombre son campos requeridos.", "Validación", JOptionPane.WARNING_MESSAGE);
-                return false;
+                return null;
             }
 
             passwordChars = vista.passField.getPassword();
@@ -56,17 +61,13 @@ public class RegisterController {
             // 2. Validación y Hashing de Contraseña
             if (passwordChars.length == 0) {
                 JOptionPane.showMessageDialog(vista, "La contraseña es requerida para el registro.", "Validación", JOptionPane.WARNING_MESSAGE);
-                return false;
+                return null;
             }
             if (!Arrays.equals(passwordChars, confirmPassChars)) {
                 JOptionPane.showMessageDialog(vista, "Las contraseñas no coinciden.", "Validación", JOptionPane.WARNING_MESSAGE);
-                return false;
+                return null;
             }
 
-            // Generar hash BCrypt
-            String nuevoHash = SecurityUtils.hashPassword(passwordChars);
-            modelo.setHashedPassword(nuevoHash);
-
             // 3. Recolectar datos restantes
 
             String fechaNacStr = vista.txtDateBirth.getText();
@@ -84,12 +85,13 @@ public class RegisterController {
             // Asignar fecha de registro actual (la hora se maneja a nivel de DB o DTO)
             modelo.setFechaRegistro(LocalDate.now().atStartOfDay());
 
-            return true;
+            // Generar hash BCrypt (el ejecutor copia la contraseña; el arreglo se puede borrar ya)
+            return EjecutorBCrypt.hash(passwordChars);
 
         } catch (Exception e) {
             System.err.println("Error de formato de fecha o datos: " + e.getMessage());
             JOptionPane.showMessageDialog(vista, "Error al procesar datos: " + e.getMessage(), "Error Crítico", JOptionPane.ERROR_MESSAGE);
-            return false;
+            return null;
         } finally {
             // Borrado seguro de memoria de las contraseñas
             if (passwordChars != null) Arrays.fill(passwordChars, ' ');
@@ -100,18 +102,42 @@ public class RegisterController {
     }
 
     /**
-     * Ejecuta el proceso de registro en la DB.
+     * Ejecuta el proceso de registro en la DB. El hash y el INSERT corren fuera del EDT;
+     * mientras tanto se deshabilita el botón de registro.
      */
     private void registrarUsuario() {
-        if (!collectDataFromView()) return;
-
-        // Se usa el método registrar() del DAO
-        if (consultas.registrar(modelo)) {
-            JOptionPane.showMessageDialog(vista, "Usuario registrado con éxito.", "Éxito", JOptionPane.INFORMATION_MESSAGE);
-            cerrarVista();
-        } else {
-            JOptionPane.showMessageDialog(vista, "Error al registrar el usuario. Verifique el log de la base de datos.", "Error de BD", JOptionPane.ERROR_MESSAGE);
-        }
+        CompletableFuture<String> hashEnCurso = collectDataFromView();
+        if (hashEnCurso == null) return;
+
+        // Copia tomada en el EDT: el hilo del hash no escribe sobre el modelo compartido con la vista
+        Usuario nuevo = new Usuario(modelo.getId(), modelo.getEmail(), null, modelo.getNombres(),
+                modelo.getApellidos(), modelo.getSexo(), modelo.getFechaNacimiento(), modelo.getPaisNacimiento(),
+                modelo.getPaisResidencia(), modelo.getIdioma(), modelo.getFechaRegistro());
+
+        vista.registrarButton.setEnabled(false);
+        hashEnCurso
+                .thenCompose(hash -> {
+                    nuevo.setHashedPassword(hash);
+                    // Se usa el método registrar() del DAO
+                    return EjecutorAsincrono.ejecutar(() -> consultas.registrar(nuevo), null);
+                })
+                .whenCompleteAsync((registrado, error) -> {
+                    vista.registrarButton.setEnabled(true);
+
+                    if (error != null) {
+                        Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                        String mensaje = causa instanceof RejectedExecutionException
+                                ? "El sistema está ocupado, intente de nuevo en unos segundos."
+                                : "Error al registrar el usuario: " + causa.getMessage();
+                        System.err.println("Error al registrar usuario: " + causa.getMessage());
+                        JOptionPane.showMessageDialog(vista, mensaje, "Error", JOptionPane.ERROR_MESSAGE);
+                    } else if (registrado) {
+                        JOptionPane.showMessageDialog(vista, "Usuario registrado con éxito.", "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                        cerrarVista();
+                    } else {
+                        JOptionPane.showMessageDialog(vista, "Error al registrar el usuario. Verifique el log de la base de datos.", "Error de BD", JOptionPane.ERROR_MESSAGE);
+                    }
+                }, EjecutorAsincrono.EDT);
     }
 
     private void agregarListeners() {
@@ -1,17 +1,24 @@
 package com.softly.fonoteca.Controladores;
 
+import com.softly.fonoteca.Modelos.DAOs.BufferReproducciones;
 import com.softly.fonoteca.Modelos.DAOs.ReproduccionDAO;
+import com.softly.fonoteca.Modelos.DAOs.ReproduccionDAOAsync;
 import com.softly.fonoteca.Modelos.DTOs.ComboBoxItem;
 import com.softly.fonoteca.Modelos.DTOs.Reproduccion;
 import com.softly.fonoteca.Vistas.BaseView;
 import com.softly.fonoteca.Vistas.ReproduccionesVista;
+import com.softly.fonoteca.utilities.EjecutorAsincrono;
+import com.softly.fonoteca.utilities.FiltroTabla;
 import com.softly.fonoteca.utilities.SQLQuerys;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -23,6 +30,7 @@ public class ReproduccionesController {
     private final Reproduccion modelo;
     private final ReproduccionesVista vista;
     private final ReproduccionDAO consultas;
+    private final ReproduccionDAOAsync consultasAsync;
     private final BaseView vistaPrincipal;
     private DefaultTableModel rawModel;
 
@@ -33,8 +41,11 @@ public class ReproduccionesController {
         this.modelo = modelo;
         this.vista = vista;
         this.consultas = consultas;
+        this.consultasAsync = new ReproduccionDAOAsync(consultas);
         this.vistaPrincipal = vistaPrincipal;
 
+        // Filtro por texto sobre la tabla (las filas seleccionadas se convierten al índice del modelo)
+        FiltroTabla.instalar(vista.tablaReproducciones, vista.txtSearch);
         cargarTablaReproducciones();
         // Inicializar ComboBoxes con datos
         vista.cmbCanciones.setModel(SQLQuerys.consultarDatos("canciones", "idCancion", "titulo"));
@@ -77,13 +88,23 @@ public class ReproduccionesController {
             return model;
         }
 
+        // Resolver todos los nombres en bloque (evita dos consultas por fila)
+        List<Integer> idsUsuarios = new ArrayList<>();
+        List<Integer> idsCanciones = new ArrayList<>();
+        for (int i = 0; i < model.getRowCount(); i++) {
+            if (model.getValueAt(i, col_idUsuario) instanceof Integer id) idsUsuarios.add(id);
+            if (model.getValueAt(i, col_idCancion) instanceof Integer id) idsCanciones.add(id);
+        }
+        Map<Integer, String> nombresUsuarios = SQLQuerys.getDisplayValuesByIds("usuarios", "idUsuario", idsUsuarios, "nombres");
+        Map<Integer, String> titulosCanciones = SQLQuerys.getDisplayValuesByIds("canciones", "idCancion", idsCanciones, "titulo");
+
         for (int i = 0; i < model.getRowCount(); i++) {
             try {
                 int idUsuario = (int) model.getValueAt(i, col_idUsuario);
                 int idCancion = (int) model.getValueAt(i, col_idCancion);
 
-                String nombreUsuario = SQLQuerys.getDisplayValueById("usuarios", "idUsuario", idUsuario, "nombres");
-                String nombreCancion = SQLQuerys.getDisplayValueById("canciones", "idCancion", idCancion, "titulo");
+                String nombreUsuario = nombresUsuarios.get(idUsuario);
+                String nombreCancion = titulosCanciones.get(idCancion);
 
                 Object[] newRow = new Object[]{
                         nombreUsuario != null ? nombreUsuario : "ID Invalido",
@@ -103,15 +124,42 @@ public class ReproduccionesController {
 
     // --- LÓGICA CRUD ---
 
+    /**
+     * Registra la reproducción en el buffer de escritura diferida, fuera del EDT; el resultado se
+     * muestra de vuelta en el hilo de Swing. La tabla se recarga cuando el buffer ya la escribió.
+     */
     private void agregarReproduccion() {
         if (!validarCampos() || !mapearVistaAModelo()) return;
-        // ... (Lógica CRUD sigue igual) ...
-        if (consultas.vincular(modelo)) {
-            JOptionPane.showMessageDialog(vista, "Reproducción guardada con éxito.", "Éxito", JOptionPane.INFORMATION_MESSAGE);
-            cargarTablaReproducciones();
-        } else {
-            JOptionPane.showMessageDialog(vista, "Error al guardar la reproducción.", "Error de BD", JOptionPane.ERROR_MESSAGE);
-        }
+
+        // El modelo está ligado al formulario: el hilo de fondo recibe una copia para que las
+        // ediciones o selecciones posteriores no cambien la fila que se está guardando.
+        Reproduccion aGuardar = new Reproduccion(modelo.getIdUsuario(), modelo.getIdCancion(),
+                modelo.getFechaReproduccion(), modelo.getHoraReproduccion(), modelo.getSegundosReproducidos());
+
+        vista.agregarButton.setEnabled(false);
+        consultasAsync.vincularDiferido(aGuardar).whenCompleteAsync((aceptada, error) -> {
+            vista.agregarButton.setEnabled(true);
+            if (error == null && aceptada) {
+                JOptionPane.showMessageDialog(vista, "Reproducción guardada con éxito.", "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                recargarTrasEscritura();
+            } else {
+                if (error != null) {
+                    System.err.println("❌ ERROR al guardar la reproducción: " + error.getMessage());
+                }
+                JOptionPane.showMessageDialog(vista, "Error al guardar la reproducción (la BD no responde o hay demasiadas pendientes).", "Error de BD", JOptionPane.ERROR_MESSAGE);
+            }
+        }, EjecutorAsincrono.EDT);
+    }
+
+    /**
+     * Recarga la tabla una vez pasado el intervalo de escritura del buffer, cuando la reproducción
+     * recién aceptada ya está en la BD.
+     */
+    private void recargarTrasEscritura() {
+        int espera = (int) BufferReproducciones.compartido().getIntervalo().toMillis();
+        Timer recarga = new Timer(espera, e -> cargarTablaReproducciones());
+        recarga.setRepeats(false);
+        recarga.start();
     }
 
     private void modificarReproduccion() {
@@ -220,7 +268,8 @@ public class ReproduccionesController {
      * Carga el detalle de la reproducción seleccionada en los campos de texto y Combos.
      */
     private void cargarDetalleFilaSeleccionada() {
-        int selectedRow = vista.tablaReproducciones.getSelectedRow();
+        int filaVista = vista.tablaReproducciones.getSelectedRow();
+        int selectedRow = filaVista == -1 ? -1 : vista.tablaReproducciones.convertRowIndexToModel(filaVista);
 
         if (selectedRow != -1 && this.rawModel != null) {
             try {
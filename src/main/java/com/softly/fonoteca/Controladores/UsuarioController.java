@@ -4,14 +4,15 @@ import com.softly.fonoteca.Modelos.DAOs.UsuarioDAO;
 import com.softly.fonoteca.Modelos.DTOs.Usuario;
 import com.softly.fonoteca.Vistas.BaseView;
 import com.softly.fonoteca.Vistas.UsuariosVista;
+import com.softly.fonoteca.utilities.EjecutorBCrypt;
 import com.softly.fonoteca.utilities.FormatDates;
-import com.softly.fonoteca.utilities.SecurityUtils;
 
 import javax.swing.*;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 // Importación necesaria para el mapeo de fechaRegistro
 
 
@@ -23,6 +24,11 @@ public class UsuarioController extends BaseController<Usuario, UsuariosVista, Us
     private static final String[] DISPLAY_COLUMNS_HEADERS =
             {"ID", "Email", "Nombre(s)", "País de Nacimiento"};
 
+    /**
+     * Nueva contraseña tomada del formulario, a hashear en {@link #prepararModelo()} (null si no se cambió).
+     */
+    private char[] passwordPendiente;
+
 
     public UsuarioController(Usuario modelo, UsuariosVista vista, UsuarioDAO consultas, BaseView vistaPrincipal) {
         super(modelo, vista, consultas, vistaPrincipal);
@@ -35,10 +41,11 @@ public class UsuarioController extends BaseController<Usuario, UsuariosVista, Us
     }
 
     /**
-     * Usa la implementación genérica del BaseController para cargar la tabla de usuarios.
+     * Usa la implementación paginada del BaseController: la tabla de usuarios es demasiado
+     * grande para cargarse completa.
      */
     private void cargarTablaUsuarios() {
-        cargarTabla("usuarios", DB_COLUMNS_TO_SHOW, DISPLAY_COLUMNS_HEADERS);
+        cargarTablaPaginada("usuarios", "idUsuario", DB_COLUMNS_TO_SHOW, DISPLAY_COLUMNS_HEADERS);
     }
 
     @Override
@@ -63,15 +70,11 @@ public class UsuarioController extends BaseController<Usuario, UsuariosVista, Us
             // Obtener contraseña como char[]
             nuevaPasswordChars = vista.passField.getPassword();
 
-            // Manejo y Hashing de la Contraseña (Solo si no está vacía)
-            if (nuevaPasswordChars != null && nuevaPasswordChars.length > 0) {
-                // Generar hash BCrypt usando el char[]
-                String nuevoHash = SecurityUtils.hashPassword(nuevaPasswordChars);
-                modelo.setHashedPassword(nuevoHash);
-            }
+            // La contraseña (solo si no está vacía) se hashea fuera del EDT, en prepararModelo()
+            boolean conPassword = nuevaPasswordChars != null && nuevaPasswordChars.length > 0;
 
             // Validación de contraseña requerida para NUEVOS registros
-            if (modelo.getId() == 0 && (nuevaPasswordChars == null || nuevaPasswordChars.length == 0)) {
+            if (modelo.getId() == 0 && !conPassword) {
                 JOptionPane.showMessageDialog(vista, "La contraseña es requerida para nuevos registros.", "Validación", JOptionPane.WARNING_MESSAGE);
                 success = false;
             }
@@ -91,6 +94,11 @@ public class UsuarioController extends BaseController<Usuario, UsuariosVista, Us
             modelo.setPaisResidencia(vista.txtPaisR.getText());
             modelo.setIdioma(vista.txtIdioma.getText());
 
+            if (conPassword) {
+                // prepararModelo() la borra después de hashearla
+                passwordPendiente = nuevaPasswordChars;
+                nuevaPasswordChars = null;
+            }
             return true;
 
         } catch (Exception e) {
@@ -107,6 +115,25 @@ public class UsuarioController extends BaseController<Usuario, UsuariosVista, Us
     }
 
 
+    /**
+     * Hashea la nueva contraseña (si se escribió una) en el pool de BCrypt ({@link EjecutorBCrypt}),
+     * fuera del EDT; el guardado continúa cuando el hash está en el modelo.
+     */
+    @Override
+    protected CompletableFuture<Void> prepararModelo() {
+        char[] password = passwordPendiente;
+        passwordPendiente = null;
+        if (password == null) {
+            return super.prepararModelo();
+        }
+        try {
+            return EjecutorBCrypt.hash(password).thenAccept(modelo::setHashedPassword);
+        } finally {
+            // hash() trabaja sobre su propia copia
+            Arrays.fill(password, ' ');
+        }
+    }
+
     @Override
     protected void loadDataToView(Usuario usuarioEncontrado) {
         // Se mantiene para el cumplimiento abstracto. Los datos se cargan desde la tabla.
@@ -143,63 +170,69 @@ public class UsuarioController extends BaseController<Usuario, UsuariosVista, Us
      */
     private void cargarDetalleFilaSeleccionada(javax.swing.event.ListSelectionEvent e) {
         if (!e.getValueIsAdjusting() && vista.tablaUsuarios.getSelectedRow() != -1 && this.rawModel != null) {
+            int selectedRow = filaSeleccionadaEnModelo();
+            // Las columnas no mostradas pueden requerir una consulta: el formulario se llena al tenerlas
+            conFilaCompleta(selectedRow, () -> mostrarDetalleFila(e, selectedRow));
+        }
+    }
 
-            int selectedRow = vista.tablaUsuarios.getSelectedRow();
-
-            // 1. Mapeo de componentes simples
-            Map<String, Object> componentMappings = new HashMap<>();
-            componentMappings.put("email", vista.txtEmail);
-            componentMappings.put("nombres", vista.txtNombre);
-            componentMappings.put("apellidos", vista.txtApellido);
-            componentMappings.put("sexo", vista.txtSexo);
-            componentMappings.put("paisNacimiento", vista.txtPaisN);
-            componentMappings.put("paisResidencia", vista.txtPaisR);
-            componentMappings.put("idioma", vista.txtIdioma);
-
-            // Usamos el método genérico para cargar los campos
-            loadTableDetailsToView(e, componentMappings);
+    /**
+     * Carga en el formulario la fila seleccionada (índice del modelo), con todas sus columnas disponibles.
+     */
+    private void mostrarDetalleFila(javax.swing.event.ListSelectionEvent e, int selectedRow) {
+        // 1. Mapeo de componentes simples
+        Map<String, Object> componentMappings = new HashMap<>();
+        componentMappings.put("email", vista.txtEmail);
+        componentMappings.put("nombres", vista.txtNombre);
+        componentMappings.put("apellidos", vista.txtApellido);
+        componentMappings.put("sexo", vista.txtSexo);
+        componentMappings.put("paisNacimiento", vista.txtPaisN);
+        componentMappings.put("paisResidencia", vista.txtPaisR);
+        componentMappings.put("idioma", vista.txtIdioma);
+
+        // Usamos el método genérico para cargar los campos
+        loadTableDetailsToView(e, componentMappings);
 
-            try {
-                // 2. Manejo de campos especiales (ID, Password, Fechas)
+        try {
+            // 2. Manejo de campos especiales (ID, Password, Fechas)
 
-                // Obtener ID (necesario para CRUD)
-                int col_id = rawModel.findColumn("idUsuario");
-                int idUsuario = (int) rawModel.getValueAt(selectedRow, col_id);
-                modelo.setId(idUsuario);
+            // Obtener ID (necesario para CRUD)
+            int col_id = rawModel.findColumn("idUsuario");
+            int idUsuario = (int) rawModel.getValueAt(selectedRow, col_id);
+            modelo.setId(idUsuario);
 
-                // Cargar Contraseña (solo marcador y valor hasheado para el modelo)
-                vista.passField.setText("********");
-                int col_password = rawModel.findColumn("password");
-                String hashedPassword = rawModel.getValueAt(selectedRow, col_password).toString();
-                modelo.setHashedPassword(hashedPassword);
+            // Cargar Contraseña (solo marcador y valor hasheado para el modelo)
+            vista.passField.setText("********");
+            int col_password = rawModel.findColumn("password");
+            String hashedPassword = rawModel.getValueAt(selectedRow, col_password).toString();
+            modelo.setHashedPassword(hashedPassword);
 
-                // Cargar Fechas y manejo de LocalDateTime
-                int col_fechaN = rawModel.findColumn("fechaNacimiento");
-                int col_fechaR = rawModel.findColumn("fechaRegistro");
+            // Cargar Fechas y manejo de LocalDateTime
+            int col_fechaN = rawModel.findColumn("fechaNacimiento");
+            int col_fechaR = rawModel.findColumn("fechaRegistro");
 
-                String fechaNacStr = rawModel.getValueAt(selectedRow, col_fechaN).toString();
-                String fechaRegStr = rawModel.getValueAt(selectedRow, col_fechaR).toString();
+            String fechaNacStr = rawModel.getValueAt(selectedRow, col_fechaN).toString();
+            String fechaRegStr = rawModel.getValueAt(selectedRow, col_fechaR).toString();
 
-                // Lógica de limpieza y corte para parsear a LocalDate
-                fechaNacStr = fechaNacStr.trim().replaceAll("\"", "");
-                fechaRegStr = fechaRegStr.trim().replaceAll("\"", "");
+            // Lógica de limpieza y corte para parsear a LocalDate
+            fechaNacStr = fechaNacStr.trim().replaceAll("\"", "");
+            fechaRegStr = fechaRegStr.trim().replaceAll("\"", "");
 
-                if (fechaNacStr.length() > 10) fechaNacStr = fechaNacStr.substring(0, 10);
-                if (fechaRegStr.length() > 10) fechaRegStr = fechaRegStr.substring(0, 10);
+            if (fechaNacStr.length() > 10) fechaNacStr = fechaNacStr.substring(0, 10);
+            if (fechaRegStr.length() > 10) fechaRegStr = fechaRegStr.substring(0, 10);
 
-                // Parsear a LocalDate
-                LocalDate fechaNacimiento = LocalDate.parse(fechaNacStr);
-                LocalDate fechaRegistroLocal = LocalDate.parse(fechaRegStr);
+            // Parsear a LocalDate
+            LocalDate fechaNacimiento = LocalDate.parse(fechaNacStr);
+            LocalDate fechaRegistroLocal = LocalDate.parse(fechaRegStr);
 
-                vista.txtFechaN.setText(fechaNacimiento.toString());
+            vista.txtFechaN.setText(fechaNacimiento.toString());
 
-                modelo.setFechaNacimiento(fechaNacimiento);
-                modelo.setFechaRegistro(fechaRegistroLocal.atStartOfDay());
+            modelo.setFechaNacimiento(fechaNacimiento);
+            modelo.setFechaRegistro(fechaRegistroLocal.atStartOfDay());
 
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(vista, "Error al cargar datos de fecha/ID: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-                System.err.println("❌ ERROR al cargar detalles de la fila: " + ex.getMessage());
-            }
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(vista, "Error al cargar datos de fecha/ID: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            System.err.println("❌ ERROR al cargar detalles de la fila: " + ex.getMessage());
         }
     }
 
@@ -209,19 +242,10 @@ public class UsuarioController extends BaseController<Usuario, UsuariosVista, Us
         // Listener de la tabla para cargar datos
         vista.tablaUsuarios.getSelectionModel().addListSelectionListener(this::cargarDetalleFilaSeleccionada);
 
-        // Listeners CRUD
-        vista.btnAgregar.addActionListener(e -> {
-            registrar();
-            cargarTablaUsuarios(); // Refrescar la tabla después del CRUD
-        });
-        vista.btnModificar.addActionListener(e -> {
-            modificar();
-            cargarTablaUsuarios(); // Refrescar la tabla después del CRUD
-        });
-        vista.btnEliminar.addActionListener(e -> {
-            eliminar();
-            cargarTablaUsuarios(); // Refrescar la tabla después del CRUD
-        });
+        // Listeners CRUD (la tabla se refresca al terminar cada operación)
+        vista.btnAgregar.addActionListener(e -> registrar(this::cargarTablaUsuarios));
+        vista.btnModificar.addActionListener(e -> modificar(this::cargarTablaUsuarios));
+        vista.btnEliminar.addActionListener(e -> eliminar(this::cargarTablaUsuarios));
         vista.btnLimpiar.addActionListener(e -> clearViewFields());
         vista.regresarAlMenuButton.addActionListener(e -> regresarAlMenu());
     }
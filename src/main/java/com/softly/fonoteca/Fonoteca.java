@@ -1,13 +1,39 @@
 package com.softly.fonoteca;
 
 import com.softly.fonoteca.Controladores.LoginController;
+import com.softly.fonoteca.Modelos.DAOs.BufferReproducciones;
 import com.softly.fonoteca.Modelos.DAOs.UsuarioDAO;
 import com.softly.fonoteca.Vistas.LoginVista;
+import com.softly.fonoteca.utilities.ConexionDB;
+import com.softly.fonoteca.utilities.IndiceAtributos;
+import com.softly.fonoteca.utilities.IndiceBusqueda;
+import com.softly.fonoteca.utilities.RecomendadorCanciones;
+import com.softly.fonoteca.utilities.SecurityUtils;
 
 public class Fonoteca {
 
     public static void main(String[] args) {
 
+        // Primero se escriben las reproducciones pendientes y después se cierra el pool
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            BufferReproducciones.cerrarCompartido();
+            RecomendadorCanciones.cerrarCompartido();
+            ConexionDB.cerrarPool();
+        }));
+
+        Thread.startVirtualThread(() -> {
+            // Primero se calibra el costo de BCrypt, con la CPU libre: medir junto a la construcción
+            // de los índices daría tiempos de más y un costo menor
+            SecurityUtils.getCosto();
+
+            // Los índices de la búsqueda global y de atributos se construyen en paralelo mientras el usuario inicia sesión
+            IndiceBusqueda.compartido().construirEnSegundoPlano();
+            IndiceAtributos.compartido().construirEnSegundoPlano();
+
+            // Vecinos de "quienes escucharon esto también escucharon" (persistidos; se recalculan solo si faltan)
+            RecomendadorCanciones.compartido().iniciarEnSegundoPlano();
+        });
+
         LoginController controller = new LoginController(new LoginVista(),  new UsuarioDAO());
         controller.iniciar();
     }
@@ -1,6 +1,9 @@
 package com.softly.fonoteca.Modelos.DAOs;
 
 import com.softly.fonoteca.Modelos.DTOs.Album;
+import com.softly.fonoteca.Modelos.DTOs.ResultadoBusqueda.Campo;
+import com.softly.fonoteca.Modelos.DTOs.ResultadoBusqueda.Tipo;
+import com.softly.fonoteca.utilities.IndiceBusqueda;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -26,6 +29,14 @@ public class AlbumDAO extends BaseDAO<Album> {
         };
     }
 
+    /**
+     * Habilita la caché de buscarPorId: los álbumes se consultan repetidamente desde las tablas.
+     */
+    @Override
+    protected int getTamanoCache() {
+        return 2_000;
+    }
+
     @Override
     protected int getIdFromDto(Album dto) {
         return dto.getIdAlbum();
@@ -50,4 +61,23 @@ public class AlbumDAO extends BaseDAO<Album> {
         album.setIdGeneroPrincipal(rs.getInt("idGeneroPrincipal"));
         return album;
     }
+
+    // --- Índice de búsqueda (IndiceBusqueda) ---
+
+    /**
+     * Mantiene el índice de búsqueda al día. Las altas de {@link #registrar} llegan sin ID (el INSERT
+     * simple no devuelve la clave generada), así que se indexan sincronizando las filas nuevas.
+     */
+    @Override
+    protected void alEscribir(TipoEscritura tipo, Album dto, int id) {
+        IndiceBusqueda indice = IndiceBusqueda.compartido();
+        if (tipo == TipoEscritura.BAJA) {
+            indice.eliminar(Tipo.ALBUM, id);
+        } else if (id > 0) {
+            indice.actualizar(Campo.TITULO_ALBUM, id, dto.getTitulo());
+            indice.actualizar(Campo.SELLO_ALBUM, id, dto.getSelloDiscografico());
+        } else {
+            indice.sincronizarNuevos(Tipo.ALBUM);
+        }
+    }
 }
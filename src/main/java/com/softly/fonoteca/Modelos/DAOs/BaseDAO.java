@@ -1,14 +1,30 @@
 package com.softly.fonoteca.Modelos.DAOs;
 
+import com.softly.fonoteca.utilities.CacheDimensiones;
+import com.softly.fonoteca.utilities.CacheLRU;
 import com.softly.fonoteca.utilities.ConexionDB;
+import com.softly.fonoteca.utilities.ConsultaPaginada;
 import com.softly.fonoteca.utilities.SQLQuerys;
 
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Plantilla Base para todos los Data Access Objects (DAOs).
@@ -18,6 +34,33 @@ import java.util.List;
  */
 public abstract class BaseDAO<T> {
 
+    /**
+     * SQL generado por cada clase DAO. Las consultas dependen solo de la tabla y las columnas
+     * (constantes por clase), por lo que se construyen una sola vez por clase.
+     */
+    private static final Map<Class<?>, Map<SQLQuerys.OperationType, String>> SQL_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Número de columnas de INSERT/UPDATE por clase DAO (evita reconstruir getAllColumns()).
+     */
+    private static final Map<Class<?>, Integer> NUM_COLUMNAS_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Caché de entidades (buscarPorId) por clase DAO, compartida por todas sus instancias
+     * para que la invalidación de una pantalla se vea en las demás.
+     */
+    private static final Map<Class<?>, CacheLRU<Integer, ?>> CACHE_ENTIDADES = new ConcurrentHashMap<>();
+
+    /**
+     * Número de filas por lote (y por transacción) en registrarLote/modificarLote.
+     */
+    private int tamanoLote = 500;
+
+    /**
+     * Filas que el driver trae por viaje al recorrer un cursor (streamTodos/recorrerTodos).
+     */
+    private int tamanoFetch = 1000;
+
     /**
      * El nombre de la tabla en la base de datos (ej: "usuarios").
      */
@@ -47,7 +90,7 @@ public abstract class BaseDAO<T> {
      * @return La cadena SQL.
      */
     protected String getSqlInsert() {
-        return SQLQuerys.buildQuery(SQLQuerys.OperationType.INSERT, getTableName(), getAllColumns(), null);
+        return sqlCacheado(SQLQuerys.OperationType.INSERT, () -> SQLQuerys.buildQuery(SQLQuerys.OperationType.INSERT, getTableName(), getAllColumns(), null));
     }
 
     /**
@@ -56,7 +99,7 @@ public abstract class BaseDAO<T> {
      * @return La cadena SQL.
      */
     protected String getSqlUpdate() {
-        return SQLQuerys.buildQuery(SQLQuerys.OperationType.UPDATE, getTableName(), getAllColumns(), getPrimaryKeyColumnName());
+        return sqlCacheado(SQLQuerys.OperationType.UPDATE, () -> SQLQuerys.buildQuery(SQLQuerys.OperationType.UPDATE, getTableName(), getAllColumns(), getPrimaryKeyColumnName()));
     }
 
     /**
@@ -65,7 +108,7 @@ public abstract class BaseDAO<T> {
      * @return La cadena SQL.
      */
     protected String getSqlDelete() {
-        return SQLQuerys.buildQuery(SQLQuerys.OperationType.DELETE, getTableName(), null, getPrimaryKeyColumnName());
+        return sqlCacheado(SQLQuerys.OperationType.DELETE, () -> SQLQuerys.buildQuery(SQLQuerys.OperationType.DELETE, getTableName(), null, getPrimaryKeyColumnName()));
     }
 
     /**
@@ -74,7 +117,7 @@ public abstract class BaseDAO<T> {
      * @return La cadena SQL.
      */
     protected String getSqlSelectAll() {
-        return SQLQuerys.buildQuery(SQLQuerys.OperationType.SELECT_ALL, getTableName(), null, null);
+        return sqlCacheado(SQLQuerys.OperationType.SELECT_ALL, () -> SQLQuerys.buildQuery(SQLQuerys.OperationType.SELECT_ALL, getTableName(), null, null));
     }
 
     /**
@@ -83,7 +126,86 @@ public abstract class BaseDAO<T> {
      * @return La cadena SQL.
      */
     protected String getSqlSelectById() {
-        return SQLQuerys.buildQuery(SQLQuerys.OperationType.SELECT_BY_ID, getTableName(), null, getPrimaryKeyColumnName());
+        return sqlCacheado(SQLQuerys.OperationType.SELECT_BY_ID, () -> SQLQuerys.buildQuery(SQLQuerys.OperationType.SELECT_BY_ID, getTableName(), null, getPrimaryKeyColumnName()));
+    }
+
+    /**
+     * Devuelve el SQL memoizado para esta clase DAO, construyéndolo la primera vez.
+     *
+     * @param type      Tipo de operación.
+     * @param generador Construye el SQL si aún no está en la caché.
+     * @return La cadena SQL.
+     */
+    private String sqlCacheado(SQLQuerys.OperationType type, Supplier<String> generador) {
+        Map<SQLQuerys.OperationType, String> porTipo = SQL_CACHE.computeIfAbsent(getClass(), c -> new ConcurrentHashMap<>());
+        return porTipo.computeIfAbsent(type, t -> generador.get());
+    }
+
+    /**
+     * Número de columnas usadas en INSERT/UPDATE, calculado una sola vez por clase DAO.
+     */
+    protected int getNumeroColumnas() {
+        return NUM_COLUMNAS_CACHE.computeIfAbsent(getClass(), c -> getAllColumns().length);
+    }
+
+    // --- Caché de Entidades (opcional) ---
+
+    /**
+     * Tamaño máximo de la caché de buscarPorId. 0 (por defecto) la deshabilita.
+     * Las clases hijas la habilitan sobrescribiendo este método.
+     */
+    protected int getTamanoCache() {
+        return 0;
+    }
+
+    /**
+     * Tiempo de vida de cada entrada de la caché de buscarPorId.
+     */
+    protected Duration getTtlCache() {
+        return Duration.ofMinutes(5);
+    }
+
+    /**
+     * Caché de entidades de esta clase DAO, o null si está deshabilitada.
+     * Expone los contadores de aciertos, fallos y desalojos.
+     */
+    @SuppressWarnings("unchecked")
+    public CacheLRU<Integer, T> getCacheEntidades() {
+        if (getTamanoCache() <= 0) {
+            return null;
+        }
+        return (CacheLRU<Integer, T>) CACHE_ENTIDADES.computeIfAbsent(getClass(),
+                c -> new CacheLRU<Integer, T>(getTamanoCache(), getTtlCache(), false));
+    }
+
+    private void invalidarCache(int id) {
+        CacheLRU<Integer, T> cache = getCacheEntidades();
+        if (cache != null) {
+            cache.invalidar(id);
+        }
+    }
+
+    /**
+     * Se invoca tras cada escritura exitosa en la tabla (registrar, modificar, eliminar y lotes).
+     * Las clases hijas la sobrescriben para invalidar sus propias cachés.
+     */
+    protected void alEscribir() {
+    }
+
+    /**
+     * Tipo de escritura que recibe {@link #alEscribir(TipoEscritura, Object, int)}.
+     */
+    protected enum TipoEscritura { ALTA, MODIFICACION, BAJA }
+
+    /**
+     * Se invoca por cada fila escrita con éxito, después de {@link #alEscribir()}.
+     * Las clases hijas la sobrescriben para mantener sus índices en memoria.
+     *
+     * @param tipo Alta, modificación o baja.
+     * @param dto  El DTO escrito (null en las bajas).
+     * @param id   El ID de la fila; 0 en las altas de {@link #registrar}, cuyo INSERT no devuelve la clave generada.
+     */
+    protected void alEscribir(TipoEscritura tipo, T dto, int id) {
     }
 
     /**
@@ -118,6 +240,9 @@ public abstract class BaseDAO<T> {
             mapToStatement(ps, dto);
 
             ps.executeUpdate();
+            CacheDimensiones.invalidarTabla(getTableName());
+            alEscribir();
+            alEscribir(TipoEscritura.ALTA, dto, 0);
             return true;
 
         } catch (SQLException e) {
@@ -142,13 +267,21 @@ public abstract class BaseDAO<T> {
 
             // 2. Mapear el ID para la cláusula WHERE (Parámetro N + 1)
             int id = getIdFromDto(dto);
-            int numSetParams = getAllColumns().length; // N (10 en el caso de Usuario)
+            int numSetParams = getNumeroColumnas(); // N (10 en el caso de Usuario)
 
             // El ID siempre es el último parámetro
             ps.setInt(numSetParams + 1, id);
 
             int filasAfectadas = ps.executeUpdate();
-            return filasAfectadas > 0;
+            if (filasAfectadas > 0) {
+                invalidarCache(id);
+                CacheDimensiones.invalidarTabla(getTableName());
+                alEscribir();
+                alEscribir(TipoEscritura.MODIFICACION, dto, id);
+                return true;
+            }
+            // 0 filas afectadas: no existe, o ya tenía esos mismos valores (no hay nada que invalidar)
+            return existe(con, id);
         } catch (SQLException e) {
             System.err.println("Error al modificar " + dto.getClass().getSimpleName());
             System.err.println("SQL Error: " + e.getMessage());
@@ -157,6 +290,163 @@ public abstract class BaseDAO<T> {
         }
     }
 
+    // --- Escritura por Lotes (JDBC batch) ---
+
+    public int getTamanoLote() {
+        return tamanoLote;
+    }
+
+    /**
+     * Define cuántas filas se envían por lote. Cada lote se confirma en su propia transacción.
+     */
+    public void setTamanoLote(int tamanoLote) {
+        if (tamanoLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor a 0.");
+        }
+        this.tamanoLote = tamanoLote;
+    }
+
+    /**
+     * Registra una lista de DTOs usando addBatch/executeBatch, en bloques de {@link #getTamanoLote()}.
+     * Cada bloque es una transacción: si falla, se revierte completo y sus filas se reportan con error.
+     *
+     * @param dtos Los DTOs a insertar.
+     * @return El resultado por fila, incluyendo las claves generadas.
+     */
+    public ResultadoLote registrarLote(List<T> dtos) {
+        return ejecutarLote(dtos, getSqlInsert(), true);
+    }
+
+    /**
+     * Modifica una lista de DTOs usando addBatch/executeBatch, en bloques de {@link #getTamanoLote()}.
+     * Cada bloque es una transacción: si falla, se revierte completo y sus filas se reportan con error.
+     *
+     * @param dtos Los DTOs a actualizar (con su ID establecido).
+     * @return El resultado por fila (una fila sin coincidencias en la BD se reporta como no exitosa).
+     */
+    public ResultadoLote modificarLote(List<T> dtos) {
+        ResultadoLote resultado = ejecutarLote(dtos, getSqlUpdate(), false);
+        for (int i = 0; i < dtos.size(); i++) {
+            if (resultado.isExitoso(i)) {
+                invalidarCache(getIdFromDto(dtos.get(i)));
+            }
+        }
+        return resultado;
+    }
+
+    private ResultadoLote ejecutarLote(List<T> dtos, String sql, boolean esInsert) {
+        ResultadoLote resultado = new ResultadoLote(dtos.size());
+        if (dtos.isEmpty()) {
+            return resultado;
+        }
+
+        try (Connection con = ConexionDB.getConnection();
+             PreparedStatement ps = esInsert
+                     ? con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                     : con.prepareStatement(sql)) {
+
+            con.setAutoCommit(false);
+            try {
+                for (int inicio = 0; inicio < dtos.size(); inicio += tamanoLote) {
+                    int fin = Math.min(inicio + tamanoLote, dtos.size());
+                    ejecutarBloque(con, ps, dtos, inicio, fin, esInsert, resultado);
+                }
+            } catch (SQLException | RuntimeException e) {
+                // Sin esto, setAutoCommit(true) confirmaría el bloque a medio ejecutar
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al ejecutar el lote en " + getTableName());
+            System.err.println("SQL Error: " + e.getMessage());
+            for (int i = 0; i < dtos.size(); i++) {
+                if (!resultado.isExitoso(i) && resultado.getError(i) == null) {
+                    resultado.marcarError(i, e.getMessage());
+                }
+            }
+        }
+
+        if (resultado.getTotalExitosos() > 0) {
+            CacheDimensiones.invalidarTabla(getTableName());
+            alEscribir();
+            for (int i = 0; i < dtos.size(); i++) {
+                if (resultado.isExitoso(i)) {
+                    T dto = dtos.get(i);
+                    alEscribir(esInsert ? TipoEscritura.ALTA : TipoEscritura.MODIFICACION, dto,
+                            esInsert ? resultado.getIdGenerado(i) : getIdFromDto(dto));
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Ejecuta y confirma las filas [inicio, fin) como una sola transacción.
+     */
+    private void ejecutarBloque(Connection con, PreparedStatement ps, List<T> dtos, int inicio, int fin,
+                                boolean esInsert, ResultadoLote resultado) throws SQLException {
+        int numSetParams = getNumeroColumnas();
+        try {
+            for (int i = inicio; i < fin; i++) {
+                T dto = dtos.get(i);
+                mapToStatement(ps, dto);
+                if (!esInsert) {
+                    ps.setInt(numSetParams + 1, getIdFromDto(dto));
+                }
+                ps.addBatch();
+            }
+
+            int[] conteos = ps.executeBatch();
+            con.commit();
+
+            int[] claves = esInsert ? leerClavesGeneradas(ps, fin - inicio) : null;
+            for (int i = inicio; i < fin; i++) {
+                int conteo = conteos.length == fin - inicio ? conteos[i - inicio] : Statement.SUCCESS_NO_INFO;
+                if (conteo > 0 || conteo == Statement.SUCCESS_NO_INFO
+                        || (!esInsert && conteo == 0 && existe(con, getIdFromDto(dtos.get(i))))) {
+                    resultado.marcarExito(i, claves != null ? claves[i - inicio] : 0);
+                } else {
+                    resultado.marcarError(i, "La fila no afectó ningún registro.");
+                }
+            }
+
+        } catch (BatchUpdateException e) {
+            con.rollback();
+            ps.clearBatch();
+            System.err.println("Lote revertido en " + getTableName() + " (filas " + inicio + "-" + (fin - 1) + "): " + e.getMessage());
+            for (int i = inicio; i < fin; i++) {
+                resultado.marcarError(i, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Indica si existe la fila con ese ID. Distingue, tras un UPDATE que no afectó filas, una fila
+     * inexistente de una que ya tenía los mismos valores (la conexión informa filas afectadas, no encontradas).
+     */
+    private boolean existe(Connection con, int id) throws SQLException {
+        String sql = "SELECT 1 FROM " + getTableName() + " WHERE " + getPrimaryKeyColumnName() + " = ?";
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private int[] leerClavesGeneradas(PreparedStatement ps, int filas) throws SQLException {
+        int[] claves = new int[filas];
+        try (ResultSet rs = ps.getGeneratedKeys()) {
+            for (int i = 0; i < filas && rs.next(); i++) {
+                claves[i] = rs.getInt(1);
+            }
+        }
+        return claves;
+    }
+
     /**
      * Elimina un registro por su ID.
      */
@@ -168,6 +458,12 @@ public abstract class BaseDAO<T> {
             ps.setInt(1, id);
 
             int filasAfectadas = ps.executeUpdate();
+            if (filasAfectadas > 0) {
+                invalidarCache(id);
+                CacheDimensiones.invalidarTabla(getTableName());
+                alEscribir();
+                alEscribir(TipoEscritura.BAJA, null, id);
+            }
             return filasAfectadas > 0;
 
         } catch (SQLException e) {
@@ -180,8 +476,15 @@ public abstract class BaseDAO<T> {
 
     /**
      * Busca un registro por su ID (clave primaria).
+     * Si la clase DAO tiene caché habilitada, se consulta primero la caché (read-through).
+     * El DTO devuelto puede ser compartido: no debe modificarse directamente.
      */
     public T buscarPorId(int id) {
+        CacheLRU<Integer, T> cache = getCacheEntidades();
+        return cache == null ? buscarEnBD(id) : cache.obtener(id, this::buscarEnBD);
+    }
+
+    private T buscarEnBD(int id) {
         String sql = getSqlSelectById();
         T dto = null;
 
@@ -224,4 +527,170 @@ public abstract class BaseDAO<T> {
         }
         return lista;
     }
-}
\ No newline at end of file
+
+    // --- Paginación por Clave (keyset) ---
+
+    /**
+     * Obtiene la página de registros que sigue al ID indicado, ordenada por la clave primaria.
+     * Usa {@code WHERE pk > ? ORDER BY pk LIMIT ?}, por lo que el costo no depende de la profundidad.
+     *
+     * @param afterId El último ID de la página anterior (0 para la primera página).
+     * @param limit   Cantidad máxima de registros.
+     * @return La página de DTOs (vacía al llegar al final o si hay error).
+     */
+    public List<T> obtenerPagina(int afterId, int limit) {
+        return obtenerPagina(null, afterId, limit, null);
+    }
+
+    /**
+     * Obtiene la página que sigue a la posición (afterValue, afterId) ordenando por otra columna.
+     * La clave primaria se usa como desempate para que el orden sea total y estable; los NULL de
+     * orderColumn van primero (ver {@link ConsultaPaginada}).
+     *
+     * @param afterValue  Valor de orderColumn del último registro de la página anterior
+     *                    (null para la primera página o si ese valor era NULL).
+     * @param afterId     ID del último registro de la página anterior (0 para la primera página).
+     * @param limit       Cantidad máxima de registros.
+     * @param orderColumn Columna de orden (debe ser una de getAllColumns() o la clave primaria).
+     * @return La página de DTOs (vacía al llegar al final o si hay error).
+     */
+    public List<T> obtenerPagina(Object afterValue, int afterId, int limit, String orderColumn) {
+        String pk = getPrimaryKeyColumnName();
+        if (orderColumn != null && !orderColumn.equals(pk) && !Arrays.asList(getAllColumns()).contains(orderColumn)) {
+            throw new IllegalArgumentException("Columna de orden no permitida: " + orderColumn);
+        }
+        ConsultaPaginada consulta = new ConsultaPaginada(getTableName(), null, pk, orderColumn);
+        List<T> pagina = new ArrayList<>(limit);
+
+        try (Connection con = ConexionDB.getConnection();
+             PreparedStatement ps = con.prepareStatement(consulta.sql(afterValue))) {
+
+            consulta.asignar(ps, afterValue, afterId, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    pagina.add(mapFromResultSet(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al obtener la página de " + getTableName() + ": " + e.getMessage());
+        }
+        return pagina;
+    }
+
+    // --- Lectura en Streaming (cursor) ---
+
+    public int getTamanoFetch() {
+        return tamanoFetch;
+    }
+
+    /**
+     * Define cuántas filas trae el driver por viaje al recorrer un cursor.
+     */
+    public void setTamanoFetch(int tamanoFetch) {
+        if (tamanoFetch <= 0) {
+            throw new IllegalArgumentException("El tamaño de fetch debe ser mayor a 0.");
+        }
+        this.tamanoFetch = tamanoFetch;
+    }
+
+    /**
+     * Recorre todos los registros con un cursor de solo avance, mapeando una fila a la vez
+     * en lugar de cargar la tabla completa en memoria.
+     * La conexión queda tomada hasta cerrar el Stream, por lo que debe usarse con try-with-resources:
+     * <pre>
+     * try (Stream&lt;Usuario&gt; usuarios = dao.streamTodos()) { ... }
+     * </pre>
+     *
+     * @return Un Stream secuencial de DTOs. Vacío si no se pudo abrir la consulta.
+     */
+    public Stream<T> streamTodos() {
+        Connection con = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            con = ConexionDB.getConnection();
+            ps = con.prepareStatement(getSqlSelectAll(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(tamanoFetch);
+            rs = ps.executeQuery();
+        } catch (SQLException e) {
+            System.err.println("Error al abrir el cursor de " + getTableName() + ": " + e.getMessage());
+            cerrarRecursos(rs, ps, con);
+            return Stream.empty();
+        }
+
+        final Connection conexion = con;
+        final PreparedStatement sentencia = ps;
+        final ResultSet cursor = rs;
+
+        Spliterator<T> filas = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> accion) {
+                try {
+                    if (!cursor.next()) {
+                        return false;
+                    }
+                    accion.accept(mapFromResultSet(cursor));
+                    return true;
+                } catch (SQLException e) {
+                    throw new ErrorCursor("Error al leer el cursor de " + getTableName() + ": " + e.getMessage(), e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(filas, false)
+                .onClose(() -> cerrarRecursos(cursor, sentencia, conexion));
+    }
+
+    /**
+     * Variante con callback de {@link #streamTodos()}: entrega cada registro al consumidor
+     * y libera la conexión al terminar.
+     *
+     * @param consumidor Recibe cada DTO en el orden del cursor.
+     * @return La cantidad de registros procesados.
+     */
+    public long recorrerTodos(Consumer<? super T> consumidor) {
+        long procesados = 0;
+        try (Stream<T> registros = streamTodos()) {
+            Iterator<T> it = registros.iterator();
+            while (true) {
+                T registro;
+                try {
+                    if (!it.hasNext()) break;
+                    registro = it.next();
+                } catch (ErrorCursor e) {
+                    System.err.println(e.getMessage());
+                    break;
+                }
+                // Las excepciones del consumidor se propagan tal cual
+                consumidor.accept(registro);
+                procesados++;
+            }
+        }
+        return procesados;
+    }
+
+    /**
+     * Fallo de SQL al avanzar el cursor de {@link #streamTodos()}; lo distingue de las
+     * excepciones que lance el código que consume el Stream.
+     */
+    private static final class ErrorCursor extends IllegalStateException {
+        private static final long serialVersionUID = 1L;
+
+        ErrorCursor(String mensaje, SQLException causa) {
+            super(mensaje, causa);
+        }
+    }
+
+    private static void cerrarRecursos(AutoCloseable... recursos) {
+        for (AutoCloseable recurso : recursos) {
+            if (recurso == null) continue;
+            try {
+                recurso.close();
+            } catch (Exception e) {
+                System.err.println("Error al cerrar recurso del cursor: " + e.getMessage());
+            }
+        }
+    }
+}
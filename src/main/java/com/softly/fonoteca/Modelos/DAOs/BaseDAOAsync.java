@@ -0,0 +1,80 @@
+package com.softly.fonoteca.Modelos.DAOs;
+
+import com.softly.fonoteca.utilities.EjecutorAsincrono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fachada asíncrona sobre un BaseDAO: cada operación se ejecuta en un hilo virtual
+ * y devuelve un CompletableFuture, para no bloquear el EDT desde los controladores.
+ * Los resultados deben volver a Swing con {@code thenAcceptAsync(..., EjecutorAsincrono.EDT)}.
+ *
+ * @param <T> El DTO.
+ * @param <D> El DAO envuelto.
+ */
+public class BaseDAOAsync<T, D extends BaseDAO<T>> {
+
+    /**
+     * Timeout por defecto de cada operación.
+     */
+    public static final Duration TIMEOUT_POR_DEFECTO = Duration.ofSeconds(10);
+
+    protected final D dao;
+    private final Duration timeout;
+
+    public BaseDAOAsync(D dao) {
+        this(dao, TIMEOUT_POR_DEFECTO);
+    }
+
+    /**
+     * @param dao     DAO síncrono a envolver.
+     * @param timeout Tiempo máximo por operación (null = sin límite).
+     */
+    public BaseDAOAsync(D dao, Duration timeout) {
+        this.dao = dao;
+        this.timeout = timeout;
+    }
+
+    public D getDao() {
+        return dao;
+    }
+
+    protected <R> CompletableFuture<R> ejecutar(Callable<R> tarea) {
+        return EjecutorAsincrono.ejecutar(tarea, timeout);
+    }
+
+    public CompletableFuture<Boolean> registrar(T dto) {
+        return ejecutar(() -> dao.registrar(dto));
+    }
+
+    public CompletableFuture<Boolean> modificar(T dto) {
+        return ejecutar(() -> dao.modificar(dto));
+    }
+
+    public CompletableFuture<Boolean> eliminar(int id) {
+        return ejecutar(() -> dao.eliminar(id));
+    }
+
+    public CompletableFuture<T> buscarPorId(int id) {
+        return ejecutar(() -> dao.buscarPorId(id));
+    }
+
+    public CompletableFuture<List<T>> obtenerTodos() {
+        return ejecutar(dao::obtenerTodos);
+    }
+
+    public CompletableFuture<List<T>> obtenerPagina(int afterId, int limit) {
+        return ejecutar(() -> dao.obtenerPagina(afterId, limit));
+    }
+
+    public CompletableFuture<ResultadoLote> registrarLote(List<T> dtos) {
+        return ejecutar(() -> dao.registrarLote(dtos));
+    }
+
+    public CompletableFuture<ResultadoLote> modificarLote(List<T> dtos) {
+        return ejecutar(() -> dao.modificarLote(dtos));
+    }
+}
@@ -0,0 +1,553 @@
+package com.softly.fonoteca.Modelos.DAOs;
+
+import com.softly.fonoteca.Modelos.DTOs.Reproduccion;
+
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffer de escritura diferida (write-behind) delante de {@link ReproduccionDAO}.
+ * <ul>
+ *     <li>Acotado: guarda como máximo {@code capacidad} claves (idUsuario, idCancion) pendientes.</li>
+ *     <li>Agrupa: un evento para una clave ya pendiente reemplaza al anterior (gana el último),
+ *     igual que haría el upsert de {@link ReproduccionDAO#vincular}.</li>
+ *     <li>Los resúmenes por hora/día ({@link ResumenReproduccionesDAO}) cuentan todos los eventos
+ *     aceptados, también los agrupados.</li>
+ *     <li>Escribe en lotes JDBC al llegar a {@code tamanoLote} claves o cada {@code intervalo}.</li>
+ *     <li>Si un lote falla por los datos de alguna fila, se aíslan y descartan esas filas;
+ *     si falla por la conexión, se reintenta entero.</li>
+ *     <li>Al cerrar, deja de aceptar eventos y escribe todo lo pendiente.</li>
+ * </ul>
+ * Cuando el buffer está lleno se aplica la {@link PoliticaSaturacion} configurada.
+ */
+public class BufferReproducciones {
+
+    /**
+     * Qué hacer cuando el buffer está lleno.
+     */
+    public enum PoliticaSaturacion {
+        /** Esperar a que se libere espacio, como máximo {@code esperaMaxima}; si no, rechazar. */
+        BLOQUEAR,
+        /** Rechazar el evento de inmediato (encolar devuelve false). */
+        RECHAZAR,
+        /** Escribir el evento directamente en la BD desde el hilo que llama. */
+        ESCRIBIR_DIRECTO
+    }
+
+    // Configuración del buffer compartido
+    private static final int CAPACIDAD = 10_000;
+    private static final int TAMANO_LOTE = 500;
+    private static final Duration INTERVALO = Duration.ofSeconds(1);
+    private static final Duration ESPERA_MAXIMA = Duration.ofMillis(500);
+
+    private static volatile BufferReproducciones compartido;
+
+    private final ReproduccionDAO dao;
+    private final int capacidad;
+    private final int tamanoLote;
+    private final Duration intervalo;
+    private final PoliticaSaturacion politica;
+    private final long esperaMaximaNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hayEspacio = lock.newCondition();
+    private LinkedHashMap<Long, Reproduccion> pendientes = new LinkedHashMap<>();
+    /** Incrementos de los resúmenes de reproducciones de todos los eventos aceptados (también los agrupados). */
+    private ResumenReproduccionesDAO.Acumulador resumen = new ResumenReproduccionesDAO.Acumulador();
+
+    private final ScheduledExecutorService escritor;
+    private final AtomicBoolean vaciadoSolicitado = new AtomicBoolean(false);
+    private volatile boolean cerrado = false;
+
+    // Métricas
+    private final AtomicLong recibidos = new AtomicLong();
+    private final AtomicLong coalescidos = new AtomicLong();
+    private final AtomicLong rechazados = new AtomicLong();
+    private final AtomicLong escritosDirecto = new AtomicLong();
+    private final AtomicLong escritos = new AtomicLong();
+    private final AtomicLong lotes = new AtomicLong();
+    private final AtomicLong lotesFallidos = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    private final AtomicLong nanosVaciado = new AtomicLong();
+    private final AtomicLong maxNanosVaciado = new AtomicLong();
+
+    /**
+     * @param dao          DAO usado para escribir.
+     * @param capacidad    Máximo de claves pendientes.
+     * @param tamanoLote   Claves pendientes que disparan una escritura inmediata.
+     * @param intervalo    Tiempo máximo que un evento espera antes de escribirse.
+     * @param politica     Comportamiento cuando el buffer está lleno.
+     * @param esperaMaxima Espera máxima con {@link PoliticaSaturacion#BLOQUEAR}.
+     */
+    public BufferReproducciones(ReproduccionDAO dao, int capacidad, int tamanoLote, Duration intervalo,
+                                PoliticaSaturacion politica, Duration esperaMaxima) {
+        if (capacidad <= 0 || tamanoLote <= 0) {
+            throw new IllegalArgumentException("La capacidad y el tamaño de lote deben ser mayores a 0.");
+        }
+        this.dao = dao;
+        this.capacidad = capacidad;
+        this.tamanoLote = Math.min(tamanoLote, capacidad);
+        this.intervalo = intervalo;
+        this.politica = politica;
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+
+        this.escritor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "buffer-reproducciones");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodo = intervalo.toMillis();
+        this.escritor.scheduleWithFixedDelay(this::vaciar, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Buffer compartido por la aplicación (se crea en el primer uso).
+     */
+    public static BufferReproducciones compartido() {
+        BufferReproducciones buffer = compartido;
+        if (buffer == null) {
+            synchronized (BufferReproducciones.class) {
+                buffer = compartido;
+                if (buffer == null) {
+                    buffer = new BufferReproducciones(new ReproduccionDAO(), CAPACIDAD, TAMANO_LOTE, INTERVALO,
+                            PoliticaSaturacion.BLOQUEAR, ESPERA_MAXIMA);
+                    compartido = buffer;
+                }
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Cierra el buffer compartido (si se llegó a crear), escribiendo lo pendiente.
+     * Debe llamarse antes de cerrar el pool de conexiones.
+     */
+    public static void cerrarCompartido() {
+        BufferReproducciones buffer = compartido;
+        if (buffer != null) {
+            buffer.cerrar();
+        }
+    }
+
+    /**
+     * @return Tiempo máximo que un evento aceptado espera antes de escribirse.
+     */
+    public Duration getIntervalo() {
+        return intervalo;
+    }
+
+    // -------------------------------------------------------------------------
+    // --- ENCOLADO ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Encola una reproducción para escribirla de forma diferida.
+     *
+     * @return true si fue aceptada (o escrita directamente); false si fue rechazada por saturación.
+     */
+    public boolean encolar(Reproduccion reproduccion) {
+        recibidos.incrementAndGet();
+        if (cerrado) {
+            return escribirDirecto(reproduccion);
+        }
+
+        Long clave = clave(reproduccion);
+        Reproduccion copia = copiar(reproduccion);
+        boolean directo = false;
+
+        lock.lock();
+        try {
+            if (pendientes.containsKey(clave)) {
+                pendientes.put(clave, copia);
+                resumen.agregar(copia);
+                coalescidos.incrementAndGet();
+                return true;
+            }
+
+            long restante = esperaMaximaNanos;
+            while (pendientes.size() >= capacidad && !cerrado) {
+                if (politica == PoliticaSaturacion.RECHAZAR) {
+                    rechazados.incrementAndGet();
+                    return false;
+                }
+                if (politica == PoliticaSaturacion.ESCRIBIR_DIRECTO) {
+                    directo = true;
+                    break;
+                }
+                solicitarVaciado();
+                if (restante <= 0) {
+                    rechazados.incrementAndGet();
+                    return false;
+                }
+                try {
+                    restante = hayEspacio.awaitNanos(restante);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    rechazados.incrementAndGet();
+                    return false;
+                }
+            }
+
+            if (!directo && !cerrado) {
+                pendientes.put(clave, copia);
+                resumen.agregar(copia);
+                if (pendientes.size() >= tamanoLote) {
+                    solicitarVaciado();
+                }
+                return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return escribirDirecto(reproduccion);
+    }
+
+    private boolean escribirDirecto(Reproduccion reproduccion) {
+        escritosDirecto.incrementAndGet();
+        return dao.vincular(reproduccion);
+    }
+
+    private static Long clave(Reproduccion reproduccion) {
+        return ((long) reproduccion.getIdUsuario() << 32) | (reproduccion.getIdCancion() & 0xFFFFFFFFL);
+    }
+
+    private static Reproduccion copiar(Reproduccion r) {
+        return new Reproduccion(r.getIdUsuario(), r.getIdCancion(), r.getFechaReproduccion(),
+                r.getHoraReproduccion(), r.getSegundosReproducidos());
+    }
+
+    // -------------------------------------------------------------------------
+    // --- VACIADO ---
+    // -------------------------------------------------------------------------
+
+    private void solicitarVaciado() {
+        if (vaciadoSolicitado.compareAndSet(false, true)) {
+            try {
+                escritor.execute(() -> {
+                    vaciadoSolicitado.set(false);
+                    vaciar();
+                });
+            } catch (RejectedExecutionException e) {
+                // Cerrando: cerrar() escribe lo pendiente
+                vaciadoSolicitado.set(false);
+            }
+        }
+    }
+
+    /**
+     * Toma todas las claves pendientes y las escribe en lotes. Solo corre en el hilo escritor.
+     * Si la escritura falla por un error transitorio (conexión, timeout, deadlock), los eventos vuelven
+     * al buffer (salvo que ya haya uno más reciente para la misma clave) y se reintentan en el siguiente
+     * vaciado. Si falla por los datos de alguna fila (clave foránea, fecha inválida...), el lote se parte
+     * en mitades hasta aislar las filas que fallan, que se descartan: reintentarlas no serviría de nada
+     * y bloquearían al resto.
+     */
+    private void vaciar() {
+        LinkedHashMap<Long, Reproduccion> lote;
+        ResumenReproduccionesDAO.Acumulador resumenLote;
+        lock.lock();
+        try {
+            if (pendientes.isEmpty()) return;
+            lote = pendientes;
+            resumenLote = resumen;
+            pendientes = new LinkedHashMap<>();
+            resumen = new ResumenReproduccionesDAO.Acumulador();
+            hayEspacio.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            escritos.addAndGet(dao.escribirLote(lote.values(), resumenLote));
+            lotes.incrementAndGet();
+        } catch (SQLException | RuntimeException e) {
+            lotesFallidos.incrementAndGet();
+            System.err.println("❌ Error al escribir el lote de reproducciones (" + lote.size() + " pendientes): " + e.getMessage());
+            if (esErrorDeDatos(e)) {
+                List<Reproduccion> reintentar = new ArrayList<>();
+                aislarFallidas(new ArrayList<>(lote.values()), resumenLote, reintentar);
+                if (!reintentar.isEmpty()) {
+                    reencolar(reintentar, resumenLote.soloDe(reintentar));
+                }
+            } else {
+                reencolar(lote.values(), resumenLote);
+            }
+        } finally {
+            long nanos = System.nanoTime() - inicio;
+            nanosVaciado.addAndGet(nanos);
+            maxNanosVaciado.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    /**
+     * Escribe las dos mitades de un lote que falló por un error de datos, recursivamente, hasta
+     * quedarse con las filas que fallan solas, que se descartan. Si aparece un error transitorio,
+     * esa parte y las que faltan se agregan a {@code reintentar}.
+     */
+    private void aislarFallidas(List<Reproduccion> filas, ResumenReproduccionesDAO.Acumulador resumenLote,
+                                List<Reproduccion> reintentar) {
+        if (filas.size() == 1) {
+            descartados.incrementAndGet();
+            Reproduccion r = filas.get(0);
+            System.err.println("❌ Se descarta la reproducción (usuario " + r.getIdUsuario() + ", canción "
+                    + r.getIdCancion() + "): sus datos no se pueden escribir.");
+            return;
+        }
+        int mitad = filas.size() / 2;
+        for (List<Reproduccion> parte : List.of(filas.subList(0, mitad), filas.subList(mitad, filas.size()))) {
+            if (!reintentar.isEmpty()) {
+                // Ya hubo un error transitorio: no tiene sentido seguir probando ahora
+                reintentar.addAll(parte);
+                continue;
+            }
+            try {
+                escritos.addAndGet(dao.escribirLote(parte, resumenLote.soloDe(parte)));
+            } catch (SQLException | RuntimeException e) {
+                if (esErrorDeDatos(e)) {
+                    aislarFallidas(parte, resumenLote, reintentar);
+                } else {
+                    reintentar.addAll(parte);
+                }
+            }
+        }
+    }
+
+    /**
+     * true si el error se debe a los datos de alguna fila (SQLState de clase 22 o 23, o un valor que no
+     * se pudo asignar a la sentencia) y no a la conexión o al servidor.
+     */
+    private static boolean esErrorDeDatos(Throwable e) {
+        if (e instanceof RuntimeException) {
+            return true;
+        }
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLIntegrityConstraintViolationException || t instanceof SQLDataException) {
+                return true;
+            }
+            if (t instanceof SQLException sql && sql.getSQLState() != null
+                    && (sql.getSQLState().startsWith("22") || sql.getSQLState().startsWith("23"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Devuelve al buffer un lote que no se pudo escribir, detrás de los eventos más recientes de las
+     * mismas claves, sin pasar de la capacidad: los eventos aceptados mientras tanto ya ocuparon su lugar,
+     * así que lo que no entra se trata según la {@link PoliticaSaturacion}. El hilo escritor no puede
+     * esperar a que haya espacio, de modo que con BLOQUEAR y RECHAZAR se rechazan los eventos más viejos
+     * del lote; con ESCRIBIR_DIRECTO se intenta escribirlos en el momento y, si falla, se descartan.
+     * Mientras el buffer siga lleno, {@link #encolar} aplica la política a los eventos nuevos.
+     */
+    private void reencolar(Collection<Reproduccion> lote, ResumenReproduccionesDAO.Acumulador resumenLote) {
+        List<Reproduccion> sobrantes = new ArrayList<>();
+        lock.lock();
+        try {
+            LinkedHashMap<Long, Reproduccion> nuevos = pendientes;
+            pendientes = new LinkedHashMap<>();
+            // Las claves que ya tienen un evento nuevo no ocupan lugar extra
+            List<Reproduccion> sinNuevo = new ArrayList<>();
+            List<Reproduccion> conservadas = new ArrayList<>();
+            for (Reproduccion reproduccion : lote) {
+                (nuevos.containsKey(clave(reproduccion)) ? conservadas : sinNuevo).add(reproduccion);
+            }
+            int lugar = Math.max(0, capacidad - nuevos.size());
+            int excedente = Math.max(0, sinNuevo.size() - lugar);
+            sobrantes.addAll(sinNuevo.subList(0, excedente));
+            conservadas.addAll(sinNuevo.subList(excedente, sinNuevo.size()));
+
+            for (Reproduccion reproduccion : conservadas) {
+                pendientes.put(clave(reproduccion), reproduccion);
+            }
+            pendientes.putAll(nuevos);
+            resumen.combinar(sobrantes.isEmpty() ? resumenLote : resumenLote.soloDe(conservadas));
+        } finally {
+            lock.unlock();
+        }
+        if (!sobrantes.isEmpty()) {
+            descartarSobrantes(sobrantes, resumenLote.soloDe(sobrantes));
+        }
+    }
+
+    /**
+     * Eventos de un lote fallido que ya no caben en el buffer (ver {@link #reencolar}).
+     */
+    private void descartarSobrantes(List<Reproduccion> sobrantes, ResumenReproduccionesDAO.Acumulador resumenSobrantes) {
+        if (politica == PoliticaSaturacion.ESCRIBIR_DIRECTO) {
+            try {
+                escritosDirecto.addAndGet(dao.escribirLote(sobrantes, resumenSobrantes));
+                return;
+            } catch (SQLException | RuntimeException e) {
+                System.err.println("❌ Error al escribir directamente las reproducciones que no caben en el buffer: " + e.getMessage());
+            }
+        }
+        rechazados.addAndGet(sobrantes.size());
+        System.err.println("❌ Se rechazan " + sobrantes.size() + " reproducciones de un lote fallido: el buffer está lleno.");
+    }
+
+    /**
+     * Deja de aceptar eventos (los siguientes se escriben directamente), escribe lo pendiente
+     * y detiene el hilo escritor.
+     */
+    public void cerrar() {
+        if (cerrado) return;
+        cerrado = true;
+
+        lock.lock();
+        try {
+            hayEspacio.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        escritor.shutdown();
+        try {
+            if (!escritor.awaitTermination(10, TimeUnit.SECONDS)) {
+                escritor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            escritor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        // Lo que quede (incluido un lote reencolado) se escribe en este hilo
+        vaciar();
+        if (!pendientes.isEmpty()) {
+            System.err.println("❌ Quedaron " + pendientes.size() + " reproducciones sin escribir al cerrar el buffer.");
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // --- MÉTRICAS ---
+    // -------------------------------------------------------------------------
+
+    public Estadisticas getEstadisticas() {
+        int profundidad;
+        lock.lock();
+        try {
+            profundidad = pendientes.size();
+        } finally {
+            lock.unlock();
+        }
+        long totalLotes = lotes.get() + lotesFallidos.get();
+        return new Estadisticas(profundidad, capacidad, recibidos.get(), coalescidos.get(), rechazados.get(),
+                escritosDirecto.get(), escritos.get(), lotes.get(), lotesFallidos.get(), descartados.get(),
+                totalLotes == 0 ? 0 : nanosVaciado.get() / 1e6 / totalLotes, maxNanosVaciado.get() / 1e6);
+    }
+
+    /**
+     * Instantánea inmutable de las métricas del buffer.
+     */
+    public static final class Estadisticas {
+        private final int profundidad;
+        private final int capacidad;
+        private final long recibidos;
+        private final long coalescidos;
+        private final long rechazados;
+        private final long escritosDirecto;
+        private final long escritos;
+        private final long lotes;
+        private final long lotesFallidos;
+        private final long descartados;
+        private final double latenciaVaciadoPromedioMs;
+        private final double latenciaVaciadoMaximaMs;
+
+        Estadisticas(int profundidad, int capacidad, long recibidos, long coalescidos, long rechazados,
+                     long escritosDirecto, long escritos, long lotes, long lotesFallidos, long descartados,
+                     double latenciaVaciadoPromedioMs, double latenciaVaciadoMaximaMs) {
+            this.profundidad = profundidad;
+            this.capacidad = capacidad;
+            this.recibidos = recibidos;
+            this.coalescidos = coalescidos;
+            this.rechazados = rechazados;
+            this.escritosDirecto = escritosDirecto;
+            this.escritos = escritos;
+            this.lotes = lotes;
+            this.lotesFallidos = lotesFallidos;
+            this.descartados = descartados;
+            this.latenciaVaciadoPromedioMs = latenciaVaciadoPromedioMs;
+            this.latenciaVaciadoMaximaMs = latenciaVaciadoMaximaMs;
+        }
+
+        /** Claves pendientes de escribir. */
+        public int getProfundidad() {
+            return profundidad;
+        }
+
+        public int getCapacidad() {
+            return capacidad;
+        }
+
+        public long getRecibidos() {
+            return recibidos;
+        }
+
+        /** Eventos que reemplazaron a uno pendiente de la misma clave (no generan escritura). */
+        public long getCoalescidos() {
+            return coalescidos;
+        }
+
+        public long getRechazados() {
+            return rechazados;
+        }
+
+        public long getEscritosDirecto() {
+            return escritosDirecto;
+        }
+
+        /** Filas escritas por los lotes. */
+        public long getEscritos() {
+            return escritos;
+        }
+
+        public long getLotes() {
+            return lotes;
+        }
+
+        public long getLotesFallidos() {
+            return lotesFallidos;
+        }
+
+        /** Reproducciones descartadas porque sus datos no se pueden escribir (p. ej. un usuario inexistente). */
+        public long getDescartados() {
+            return descartados;
+        }
+
+        public double getLatenciaVaciadoPromedioMs() {
+            return latenciaVaciadoPromedioMs;
+        }
+
+        public double getLatenciaVaciadoMaximaMs() {
+            return latenciaVaciadoMaximaMs;
+        }
+
+        /**
+         * @return Proporción de eventos recibidos que se agruparon con uno pendiente (0 si no hubo eventos).
+         */
+        public double getTasaCoalescencia() {
+            return recibidos == 0 ? 0 : coalescidos / (double) recibidos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("BufferReproducciones{profundidad=%d/%d, recibidos=%d, coalescidos=%d (%.2f), rechazados=%d, directos=%d, escritos=%d, lotes=%d, fallidos=%d, descartados=%d, vaciadoProm=%.3f ms, vaciadoMax=%.3f ms}",
+                    profundidad, capacidad, recibidos, coalescidos, getTasaCoalescencia(), rechazados, escritosDirecto,
+                    escritos, lotes, lotesFallidos, descartados, latenciaVaciadoPromedioMs, latenciaVaciadoMaximaMs);
+        }
+    }
+}
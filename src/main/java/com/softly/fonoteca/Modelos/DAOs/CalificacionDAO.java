@@ -2,40 +2,80 @@ package com.softly.fonoteca.Modelos.DAOs;
 
 import com.softly.fonoteca.Modelos.DTOs.Calificacion;
 import com.softly.fonoteca.utilities.ConexionDB;
+import com.softly.fonoteca.utilities.SQLQuerys;
 
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.sql.Statement;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class CalificacionDAO {
 
+    private static final String SQL_INSERT = "INSERT INTO calificaciones(idUsuario, idCancion, " +
+            "calificacion, comentario, fechaCalificacion, horaCalificacion) VALUES (?,?,?,?,?,?)";
+
+    private static final String SQL_UPDATE = "UPDATE calificaciones SET calificacion = ?, comentario = ?, " +
+            "fechaCalificacion = ?, horaCalificacion = ? WHERE idUsuario = ? AND idCancion = ?";
+
     /**
-     * Inserta una nueva calificación en la tabla.
+     * Filas por executeBatch en {@link #guardarLote(List)}.
+     */
+    private static final int TAMANO_LOTE = 500;
+
+    /** Veces que se intenta una transacción que el servidor aborta por deadlock. */
+    private static final int INTENTOS_TRANSACCION = 3;
+    /** Código de error de MariaDB/MySQL de una transacción abortada por deadlock. */
+    private static final int ER_LOCK_DEADLOCK = 1213;
+    /** Código de error de MariaDB/MySQL de clave duplicada. */
+    private static final int ER_DUP_ENTRY = 1062;
+    /** SQLState de "transacción abortada, reintentar" (serialization failure). */
+    private static final String ESTADO_REINTENTAR = "40001";
+
+    /**
+     * Inserta una nueva calificación en la tabla y la suma al resumen de la canción,
+     * en una transacción.
      *
      * @param calificacion DTO con los datos a insertar.
      * @return true si la inserción fue exitosa.
      */
     public boolean vincular(Calificacion calificacion) {
         // En una tabla de relación N:M, "vincular" es sinónimo de INSERT
-        String sql = "INSERT INTO calificaciones(idUsuario, idCancion, " +
-                "calificacion, comentario, fechaCalificacion, horaCalificacion) VALUES (?,?,?,?,?,?)";
+        ResumenCalificacionesDAO.asegurarTablas();
 
         try (Connection con = ConexionDB.getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
+             PreparedStatement ps = con.prepareStatement(SQL_INSERT)) {
 
-            ps.setInt(1, calificacion.getIdUsuario());
-            ps.setInt(2, calificacion.getIdCancion());
-            ps.setString(3, calificacion.getCalificacion());
-            ps.setString(4, calificacion.getComentario());
-            ps.setDate(5, java.sql.Date.valueOf(calificacion.getFechaCalificacion()));
-            ps.setTime(6, java.sql.Time.valueOf(calificacion.getHoraCalificacion()));
+            con.setAutoCommit(false);
+            try {
+                asignarParametrosInsert(ps, calificacion);
+                boolean insertada = ps.executeUpdate() > 0;
+                if (insertada) {
+                    ResumenCalificacionesDAO.Variacion variacion = new ResumenCalificacionesDAO.Variacion();
+                    variacion.agregar(calificacion.getIdCancion(), calificacion.getPuntaje());
+                    ResumenCalificacionesDAO.aplicar(con, variacion);
+                }
+                con.commit();
+                return insertada;
 
-            return ps.executeUpdate() > 0;
+            } catch (SQLException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
         } catch (SQLException e) {
             System.err.println("❌ Error al vincular Cancion y usuario: " + e.getMessage());
             return false;
@@ -43,21 +83,376 @@ public class CalificacionDAO {
     }
 
     /**
-     * Elimina una calificación existente usando la clave compuesta (idUsuario, idCancion).
+     * Inserta la calificación o, si el usuario ya calificó la canción, la actualiza, sin consultar
+     * {@link #existeCalificacion} antes. En la misma transacción se lee con bloqueo el puntaje anterior
+     * para corregir el resumen de la canción.
+     * <p>
+     * Inserción o actualización se decide por lo que ocurre, no por las filas afectadas: la existencia se
+     * sondea sin bloqueo (un {@code FOR UPDATE} sobre una fila inexistente bloquea el hueco del índice, y
+     * dos primeras calificaciones concurrentes del mismo hueco se bloquearían mutuamente en el INSERT).
+     * Si no existe se intenta el INSERT; si otra transacción la insertó antes (clave duplicada), se lee
+     * con bloqueo y se actualiza como cualquier calificación existente.
+     *
+     * @param calificacion DTO con los datos a guardar.
+     * @return INSERTADO, ACTUALIZADO, SIN_CAMBIOS o ERROR (los errores se registran en consola).
+     */
+    public ResultadoUpsert guardar(Calificacion calificacion) {
+        ResumenCalificacionesDAO.asegurarTablas();
+
+        try {
+            return enTransaccion(con -> {
+                int idUsuario = calificacion.getIdUsuario();
+                int idCancion = calificacion.getIdCancion();
+                ResumenCalificacionesDAO.Variacion variacion = new ResumenCalificacionesDAO.Variacion();
+                // Solo se bloquea una fila que existe; su puntaje anterior se descuenta del resumen
+                boolean existe = puntajeActual(con, idUsuario, idCancion, false) != null;
+                Integer anterior = existe ? puntajeActual(con, idUsuario, idCancion, true) : null;
+
+                if (anterior == null) {
+                    if (insertar(con, calificacion)) {
+                        variacion.agregar(idCancion, calificacion.getPuntaje());
+                        ResumenCalificacionesDAO.aplicar(con, variacion);
+                        return ResultadoUpsert.INSERTADO;
+                    }
+                    // Otra transacción la insertó después del sondeo: ahora existe y se puede bloquear
+                    anterior = puntajeActual(con, idUsuario, idCancion, true);
+                    if (anterior == null) {
+                        throw new SQLTransactionRollbackException("La calificación cambió de forma concurrente.", ESTADO_REINTENTAR);
+                    }
+                }
+
+                // La fila está bloqueada: 0 filas afectadas significa que ya tenía esos valores
+                if (!actualizar(con, calificacion)) {
+                    return ResultadoUpsert.SIN_CAMBIOS;
+                }
+                variacion.reemplazar(idCancion, anterior, calificacion.getPuntaje());
+                ResumenCalificacionesDAO.aplicar(con, variacion);
+                return ResultadoUpsert.ACTUALIZADO;
+            });
+        } catch (SQLException e) {
+            System.err.println("❌ Error al guardar la calificación: " + e.getMessage());
+            return ResultadoUpsert.ERROR;
+        }
+    }
+
+    /**
+     * Variante por lotes de {@link #guardar(Calificacion)}: una sola transacción, en bloques de
+     * {@value #TAMANO_LOTE}. Las calificaciones que ya existen se bloquean y se actualizan; las demás
+     * se insertan. Si otra transacción inserta alguna entre el sondeo y el INSERT (clave duplicada),
+     * o si los bloqueos producen un deadlock, el lote se reintenta. Si falla, se hace rollback y todas
+     * las posiciones quedan en ERROR.
+     *
+     * @return El resultado de cada calificación, en el mismo orden de la lista.
+     */
+    public ResultadoUpsert[] guardarLote(List<Calificacion> calificaciones) {
+        ResultadoUpsert[] resultados = new ResultadoUpsert[calificaciones.size()];
+        if (calificaciones.isEmpty()) return resultados;
+        ResumenCalificacionesDAO.asegurarTablas();
+
+        try {
+            enTransaccion(con -> {
+                try (PreparedStatement insercion = con.prepareStatement(SQL_INSERT);
+                     PreparedStatement actualizacion = con.prepareStatement(SQL_UPDATE)) {
+                    // Puntaje vigente de las calificaciones que existen: el de la BD o el último escrito en este lote
+                    Map<Long, Integer> puntajes = new HashMap<>();
+                    ResumenCalificacionesDAO.Variacion variacion = new ResumenCalificacionesDAO.Variacion();
+                    for (int desde = 0; desde < calificaciones.size(); desde += TAMANO_LOTE) {
+                        int hasta = Math.min(desde + TAMANO_LOTE, calificaciones.size());
+                        cargarPuntajesActuales(con, calificaciones.subList(desde, hasta), puntajes);
+
+                        // Si un par se repite en el bloque, su primera aparición lo inserta y las siguientes
+                        // lo actualizan: las inserciones se ejecutan antes que las actualizaciones
+                        List<Integer> insertadas = new ArrayList<>();
+                        List<Integer> actualizadas = new ArrayList<>();
+                        for (int i = desde; i < hasta; i++) {
+                            Calificacion calificacion = calificaciones.get(i);
+                            Integer anterior = puntajes.put(clave(calificacion), calificacion.getPuntaje());
+                            if (anterior == null) {
+                                variacion.agregar(calificacion.getIdCancion(), calificacion.getPuntaje());
+                                asignarParametrosInsert(insercion, calificacion);
+                                insercion.addBatch();
+                                insertadas.add(i);
+                            } else {
+                                variacion.reemplazar(calificacion.getIdCancion(), anterior, calificacion.getPuntaje());
+                                asignarParametrosUpdate(actualizacion, calificacion);
+                                actualizacion.addBatch();
+                                actualizadas.add(i);
+                            }
+                        }
+                        insertarBloque(insercion, insertadas, resultados);
+                        actualizarBloque(actualizacion, actualizadas, resultados);
+                    }
+                    ResumenCalificacionesDAO.aplicar(con, variacion);
+                    return null;
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("❌ Error al guardar el lote de calificaciones: " + e.getMessage());
+            Arrays.fill(resultados, ResultadoUpsert.ERROR);
+        }
+        return resultados;
+    }
+
+    /**
+     * Ejecuta las inserciones acumuladas del bloque. Una clave duplicada significa que otra transacción
+     * insertó la calificación después del sondeo; se pide reintentar el lote, que ya la verá existente.
+     */
+    private static void insertarBloque(PreparedStatement ps, List<Integer> posiciones, ResultadoUpsert[] resultados) throws SQLException {
+        if (posiciones.isEmpty()) return;
+        try {
+            ps.executeBatch();
+        } catch (BatchUpdateException e) {
+            if (!esClaveDuplicada(e)) throw e;
+            throw new SQLTransactionRollbackException("Una calificación del lote se insertó de forma concurrente.", ESTADO_REINTENTAR, e);
+        }
+        for (int i : posiciones) {
+            resultados[i] = ResultadoUpsert.INSERTADO;
+        }
+    }
+
+    /**
+     * Ejecuta las actualizaciones acumuladas del bloque (sobre filas ya bloqueadas o insertadas por este lote).
+     */
+    private static void actualizarBloque(PreparedStatement ps, List<Integer> posiciones, ResultadoUpsert[] resultados) throws SQLException {
+        if (posiciones.isEmpty()) return;
+        int[] conteos = ps.executeBatch();
+        for (int j = 0; j < posiciones.size(); j++) {
+            int conteo = conteos.length == posiciones.size() ? conteos[j] : Statement.SUCCESS_NO_INFO;
+            resultados[posiciones.get(j)] = conteo > 0 ? ResultadoUpsert.ACTUALIZADO
+                    : conteo == 0 ? ResultadoUpsert.SIN_CAMBIOS
+                    : ResultadoUpsert.SIN_DETALLE;
+        }
+    }
+
+    /**
+     * Inserta la calificación.
+     *
+     * @return false si ya existía (clave duplicada); la transacción sigue siendo utilizable.
+     */
+    private static boolean insertar(Connection con, Calificacion calificacion) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(SQL_INSERT)) {
+            asignarParametrosInsert(ps, calificacion);
+            ps.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            if (esClaveDuplicada(e)) return false;
+            throw e;
+        }
+    }
+
+    /**
+     * Actualiza los datos de la calificación.
+     *
+     * @return false si no afectó filas (ya tenía esos valores, o no existe).
+     */
+    private static boolean actualizar(Connection con, Calificacion calificacion) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(SQL_UPDATE)) {
+            asignarParametrosUpdate(ps, calificacion);
+            return ps.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Trabajo a ejecutar dentro de una transacción de {@link #enTransaccion}.
+     */
+    @FunctionalInterface
+    private interface Transaccion<T> {
+        T ejecutar(Connection con) throws SQLException;
+    }
+
+    /**
+     * Ejecuta el trabajo en una transacción y hace commit. Si el servidor la elige como víctima de un
+     * deadlock (o el trabajo pide reintentar con {@link #ESTADO_REINTENTAR}), la repite desde el
+     * principio, hasta {@value #INTENTOS_TRANSACCION} veces.
+     *
+     * @throws SQLException El error del último intento (ya con rollback).
+     */
+    private static <T> T enTransaccion(Transaccion<T> trabajo) throws SQLException {
+        for (int intento = 1; ; intento++) {
+            try (Connection con = ConexionDB.getConnection()) {
+                con.setAutoCommit(false);
+                try {
+                    T resultado = trabajo.ejecutar(con);
+                    con.commit();
+                    return resultado;
+
+                } catch (SQLException | RuntimeException e) {
+                    con.rollback();
+                    throw e;
+                } finally {
+                    con.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                if (intento >= INTENTOS_TRANSACCION || !debeReintentarse(e)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static boolean esClaveDuplicada(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql && sql.getErrorCode() == ER_DUP_ENTRY) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean debeReintentarse(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql
+                    && (sql.getErrorCode() == ER_LOCK_DEADLOCK || ESTADO_REINTENTAR.equals(sql.getSQLState()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lee el puntaje actual de la calificación; con {@code bloquear}, la fila queda bloqueada hasta el commit.
+     *
+     * @return El puntaje ({@link Calificacion#SIN_PUNTAJE} si no es válido), o null si la calificación no existe.
+     */
+    private static Integer puntajeActual(Connection con, int idUsuario, int idCancion, boolean bloquear) throws SQLException {
+        String sql = "SELECT calificacion FROM calificaciones WHERE idUsuario = ? AND idCancion = ?" + (bloquear ? " FOR UPDATE" : "");
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setInt(1, idUsuario);
+            ps.setInt(2, idCancion);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Calificacion.puntajeDe(rs.getString(1)) : null;
+            }
+        }
+    }
+
+    /**
+     * Lee (con bloqueo hasta el commit) el puntaje actual de la calificación.
+     *
+     * @return El puntaje, o {@link Calificacion#SIN_PUNTAJE} si no existe o no es válido.
+     */
+    private static int puntajeActual(Connection con, int idUsuario, int idCancion) throws SQLException {
+        Integer puntaje = puntajeActual(con, idUsuario, idCancion, true);
+        return puntaje == null ? Calificacion.SIN_PUNTAJE : puntaje;
+    }
+
+    /**
+     * Agrega a {@code puntajes} el puntaje actual de las calificaciones del bloque que existen y aún no
+     * están en el mapa, con bloqueo hasta el commit. La existencia se sondea primero sin bloqueo y solo
+     * se bloquean las filas encontradas: un {@code FOR UPDATE} sobre pares inexistentes tomaría bloqueos
+     * de hueco (next-key) que frenan las inserciones de otras transacciones.
+     */
+    private static void cargarPuntajesActuales(Connection con, List<Calificacion> bloque, Map<Long, Integer> puntajes) throws SQLException {
+        List<Calificacion> pendientes = new ArrayList<>();
+        Set<Long> vistas = new HashSet<>();
+        for (Calificacion calificacion : bloque) {
+            long clave = clave(calificacion);
+            if (!puntajes.containsKey(clave) && vistas.add(clave)) {
+                pendientes.add(calificacion);
+            }
+        }
+        if (pendientes.isEmpty()) return;
+
+        Map<Long, Integer> existentes = new HashMap<>();
+        leerPuntajes(con, pendientes, false, existentes);
+        List<Calificacion> aBloquear = new ArrayList<>();
+        for (Calificacion calificacion : pendientes) {
+            if (existentes.containsKey(clave(calificacion))) {
+                aBloquear.add(calificacion);
+            }
+        }
+        if (!aBloquear.isEmpty()) {
+            leerPuntajes(con, aBloquear, true, puntajes);
+        }
+    }
+
+    /**
+     * Lee en {@code destino} el puntaje de las calificaciones dadas que existen; con {@code bloquear},
+     * las filas quedan bloqueadas hasta el commit. La lista IN se rellena a una de las longitudes fijas
+     * de {@link SQLQuerys#tamanoListaIn(int)} para reutilizar la sentencia preparada.
+     */
+    private static void leerPuntajes(Connection con, List<Calificacion> calificaciones, boolean bloquear,
+                                     Map<Long, Integer> destino) throws SQLException {
+        int tamano = SQLQuerys.tamanoListaIn(calificaciones.size());
+        String sql = "SELECT idUsuario, idCancion, calificacion FROM calificaciones WHERE (idUsuario, idCancion) IN (" +
+                String.join(",", Collections.nCopies(tamano, "(?,?)")) + ")" + (bloquear ? " FOR UPDATE" : "");
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            int i = 1;
+            for (int j = 0; j < tamano; j++) {
+                Calificacion calificacion = calificaciones.get(Math.min(j, calificaciones.size() - 1));
+                ps.setInt(i++, calificacion.getIdUsuario());
+                ps.setInt(i++, calificacion.getIdCancion());
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    destino.put(clave(rs.getInt(1), rs.getInt(2)), Calificacion.puntajeDe(rs.getString(3)));
+                }
+            }
+        }
+    }
+
+    private static long clave(Calificacion calificacion) {
+        return clave(calificacion.getIdUsuario(), calificacion.getIdCancion());
+    }
+
+    private static long clave(int idUsuario, int idCancion) {
+        return ((long) idUsuario << 32) | (idCancion & 0xFFFFFFFFL);
+    }
+
+    private static void asignarParametrosInsert(PreparedStatement ps, Calificacion calificacion) throws SQLException {
+        ps.setInt(1, calificacion.getIdUsuario());
+        ps.setInt(2, calificacion.getIdCancion());
+        ps.setString(3, calificacion.getCalificacion());
+        ps.setString(4, calificacion.getComentario());
+        ps.setDate(5, java.sql.Date.valueOf(calificacion.getFechaCalificacion()));
+        ps.setTime(6, java.sql.Time.valueOf(calificacion.getHoraCalificacion()));
+    }
+
+    private static void asignarParametrosUpdate(PreparedStatement ps, Calificacion calificacion) throws SQLException {
+        // Parámetros de SET
+        ps.setString(1, calificacion.getCalificacion());
+        ps.setString(2, calificacion.getComentario());
+        ps.setDate(3, java.sql.Date.valueOf(calificacion.getFechaCalificacion()));
+        ps.setTime(4, java.sql.Time.valueOf(calificacion.getHoraCalificacion()));
+
+        // Parámetros de WHERE
+        ps.setInt(5, calificacion.getIdUsuario());
+        ps.setInt(6, calificacion.getIdCancion());
+    }
+
+    /**
+     * Elimina una calificación existente usando la clave compuesta (idUsuario, idCancion)
+     * y la descuenta del resumen de la canción, en una transacción.
      *
      * @param calificacion DTO con las claves a eliminar.
      * @return true si la eliminación fue exitosa.
      */
     public boolean desvincular(Calificacion calificacion) {
         String sql = "DELETE FROM calificaciones WHERE idCancion = ? AND idUsuario = ?";
+        ResumenCalificacionesDAO.asegurarTablas();
 
         try (Connection con = ConexionDB.getConnection();
              PreparedStatement ps = con.prepareStatement(sql)) {
 
-            ps.setInt(1, calificacion.getIdCancion());
-            ps.setInt(2, calificacion.getIdUsuario());
+            con.setAutoCommit(false);
+            try {
+                int anterior = puntajeActual(con, calificacion.getIdUsuario(), calificacion.getIdCancion());
+                ps.setInt(1, calificacion.getIdCancion());
+                ps.setInt(2, calificacion.getIdUsuario());
+                boolean eliminada = ps.executeUpdate() > 0;
+                if (eliminada) {
+                    ResumenCalificacionesDAO.Variacion variacion = new ResumenCalificacionesDAO.Variacion();
+                    variacion.quitar(calificacion.getIdCancion(), anterior);
+                    ResumenCalificacionesDAO.aplicar(con, variacion);
+                }
+                con.commit();
+                return eliminada;
 
-            return ps.executeUpdate() > 0;
+            } catch (SQLException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
         } catch (SQLException e) {
             System.err.println("❌ Error al desvincular Cancion y usuario: " + e.getMessage());
             return false;
@@ -65,29 +460,40 @@ public class CalificacionDAO {
     }
 
     /**
-     * Modifica los detalles de una calificación existente.
+     * Modifica los detalles de una calificación existente y actualiza el resumen de la canción
+     * si cambió el puntaje, en una transacción.
      *
      * @param calificacion DTO con los nuevos datos y las claves.
      * @return true si la modificación fue exitosa.
      */
     public boolean modificar(Calificacion calificacion) {
-        String sql = "UPDATE calificaciones SET calificacion = ?, comentario = ?, fechaCalificacion = ?, horaCalificacion = ? " +
-                "WHERE idUsuario = ? AND idCancion = ?";
+        ResumenCalificacionesDAO.asegurarTablas();
 
-        try (Connection con = ConexionDB.getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
+        try (Connection con = ConexionDB.getConnection()) {
 
-            // Parámetros de SET
-            ps.setString(1, calificacion.getCalificacion());
-            ps.setString(2, calificacion.getComentario());
-            ps.setDate(3, java.sql.Date.valueOf(calificacion.getFechaCalificacion()));
-            ps.setTime(4, java.sql.Time.valueOf(calificacion.getHoraCalificacion()));
+            con.setAutoCommit(false);
+            try {
+                Integer anterior = puntajeActual(con, calificacion.getIdUsuario(), calificacion.getIdCancion(), true);
+                if (anterior == null) {
+                    con.rollback();
+                    return false;
+                }
 
-            // Parámetros de WHERE
-            ps.setInt(5, calificacion.getIdUsuario());
-            ps.setInt(6, calificacion.getIdCancion());
+                // 0 filas afectadas: la fila (ya bloqueada) tenía esos mismos valores
+                if (actualizar(con, calificacion)) {
+                    ResumenCalificacionesDAO.Variacion variacion = new ResumenCalificacionesDAO.Variacion();
+                    variacion.reemplazar(calificacion.getIdCancion(), anterior, calificacion.getPuntaje());
+                    ResumenCalificacionesDAO.aplicar(con, variacion);
+                }
+                con.commit();
+                return true;
 
-            return ps.executeUpdate() > 0;
+            } catch (SQLException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
         } catch (SQLException e) {
             System.err.println("❌ Error al modificar la calificación: " + e.getMessage());
             return false;
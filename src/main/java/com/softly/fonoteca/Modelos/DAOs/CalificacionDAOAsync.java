@@ -0,0 +1,63 @@
+package com.softly.fonoteca.Modelos.DAOs;
+
+import com.softly.fonoteca.Modelos.DTOs.Calificacion;
+import com.softly.fonoteca.utilities.EjecutorAsincrono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fachada asíncrona de CalificacionDAO. Cada operación corre en un hilo virtual.
+ */
+public class CalificacionDAOAsync {
+
+    private final CalificacionDAO dao;
+    private final Duration timeout;
+
+    public CalificacionDAOAsync(CalificacionDAO dao) {
+        this(dao, BaseDAOAsync.TIMEOUT_POR_DEFECTO);
+    }
+
+    public CalificacionDAOAsync(CalificacionDAO dao, Duration timeout) {
+        this.dao = dao;
+        this.timeout = timeout;
+    }
+
+    private <R> CompletableFuture<R> ejecutar(Callable<R> tarea) {
+        return EjecutorAsincrono.ejecutar(tarea, timeout);
+    }
+
+    public CompletableFuture<Boolean> vincular(Calificacion calificacion) {
+        return ejecutar(() -> dao.vincular(calificacion));
+    }
+
+    public CompletableFuture<ResultadoUpsert> guardar(Calificacion calificacion) {
+        return ejecutar(() -> dao.guardar(calificacion));
+    }
+
+    public CompletableFuture<ResultadoUpsert[]> guardarLote(List<Calificacion> calificaciones) {
+        return ejecutar(() -> dao.guardarLote(calificaciones));
+    }
+
+    public CompletableFuture<Boolean> desvincular(Calificacion calificacion) {
+        return ejecutar(() -> dao.desvincular(calificacion));
+    }
+
+    public CompletableFuture<Boolean> modificar(Calificacion calificacion) {
+        return ejecutar(() -> dao.modificar(calificacion));
+    }
+
+    public CompletableFuture<Boolean> existeCalificacion(int idUsuario, int idCancion) {
+        return ejecutar(() -> dao.existeCalificacion(idUsuario, idCancion));
+    }
+
+    public CompletableFuture<Calificacion> getCalificacion(Calificacion calificacion) {
+        return ejecutar(() -> dao.getCalificacion(calificacion));
+    }
+
+    public CompletableFuture<List<Calificacion>> getCalificaciones() {
+        return ejecutar(dao::getCalificaciones);
+    }
+}
@@ -1,6 +1,10 @@
 package com.softly.fonoteca.Modelos.DAOs;
 
 import com.softly.fonoteca.Modelos.DTOs.Cancion;
+import com.softly.fonoteca.Modelos.DTOs.ResultadoBusqueda.Campo;
+import com.softly.fonoteca.Modelos.DTOs.ResultadoBusqueda.Tipo;
+import com.softly.fonoteca.utilities.IndiceAtributos;
+import com.softly.fonoteca.utilities.IndiceBusqueda;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -27,6 +31,14 @@ public class CancionDAO extends BaseDAO<Cancion> {
         };
     }
 
+    /**
+     * Habilita la caché de buscarPorId: las canciones se consultan repetidamente desde las tablas.
+     */
+    @Override
+    protected int getTamanoCache() {
+        return 10_000;
+    }
+
     @Override
     protected int getIdFromDto(Cancion dto) {
         return dto.getIdCancion();
@@ -63,4 +75,25 @@ public class CancionDAO extends BaseDAO<Cancion> {
 
         return cancion;
     }
+
+    // --- Índices en memoria (IndiceBusqueda, IndiceAtributos) ---
+
+    /**
+     * Mantiene los índices al día. Las altas de {@link #registrar} llegan sin ID (el INSERT simple
+     * no devuelve la clave generada), así que se indexan sincronizando las filas nuevas.
+     */
+    @Override
+    protected void alEscribir(TipoEscritura tipo, Cancion dto, int id) {
+        IndiceBusqueda indice = IndiceBusqueda.compartido();
+        if (tipo == TipoEscritura.BAJA) {
+            indice.eliminar(Tipo.CANCION, id);
+            IndiceAtributos.compartido().eliminar(id);
+        } else if (id > 0) {
+            indice.actualizar(Campo.TITULO_CANCION, id, dto.getTitulo());
+            IndiceAtributos.compartido().actualizar(id, dto);
+        } else {
+            indice.sincronizarNuevos(Tipo.CANCION);
+            IndiceAtributos.compartido().sincronizarNuevos();
+        }
+    }
 }
@@ -1,6 +1,9 @@
 package com.softly.fonoteca.Modelos.DAOs;
 
 import com.softly.fonoteca.Modelos.DTOs.Interprete;
+import com.softly.fonoteca.Modelos.DTOs.ResultadoBusqueda.Campo;
+import com.softly.fonoteca.Modelos.DTOs.ResultadoBusqueda.Tipo;
+import com.softly.fonoteca.utilities.IndiceBusqueda;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -25,6 +28,14 @@ public class InterpreteDAO extends BaseDAO<Interprete> {
         };
     }
 
+    /**
+     * Habilita la caché de buscarPorId: los intérpretes se consultan repetidamente desde las tablas.
+     */
+    @Override
+    protected int getTamanoCache() {
+        return 2_000;
+    }
+
     @Override
     protected int getIdFromDto(Interprete interprete) {
         return interprete.getIdInterprete();
@@ -54,4 +65,22 @@ public class InterpreteDAO extends BaseDAO<Interprete> {
         return interprete;
 
     }
+
+    // --- Índice de búsqueda (IndiceBusqueda) ---
+
+    /**
+     * Mantiene el índice de búsqueda al día. Las altas de {@link #registrar} llegan sin ID (el INSERT
+     * simple no devuelve la clave generada), así que se indexan sincronizando las filas nuevas.
+     */
+    @Override
+    protected void alEscribir(TipoEscritura tipo, Interprete dto, int id) {
+        IndiceBusqueda indice = IndiceBusqueda.compartido();
+        if (tipo == TipoEscritura.BAJA) {
+            indice.eliminar(Tipo.INTERPRETE, id);
+        } else if (id > 0) {
+            indice.actualizar(Campo.NOMBRE_INTERPRETE, id, dto.getNombre());
+        } else {
+            indice.sincronizarNuevos(Tipo.INTERPRETE);
+        }
+    }
 }
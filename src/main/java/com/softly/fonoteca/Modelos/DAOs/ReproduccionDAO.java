@@ -2,6 +2,7 @@ package com.softly.fonoteca.Modelos.DAOs;
 
 import com.softly.fonoteca.Modelos.DTOs.Reproduccion;
 import com.softly.fonoteca.utilities.ConexionDB;
+import com.softly.fonoteca.utilities.RecomendadorCanciones;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -9,61 +10,209 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 
 public class ReproduccionDAO extends BaseDAO<Reproduccion> {
 
+    private static final String SQL_UPSERT = "INSERT INTO reproducciones(idUsuario, idCancion, " +
+            "fechaReproduccion, horaReproduccion, segundosReproducidos) VALUES (?,?,?,?,?) " +
+            "ON DUPLICATE KEY UPDATE fechaReproduccion = VALUES(fechaReproduccion), " +
+            "horaReproduccion = VALUES(horaReproduccion), segundosReproducidos = VALUES(segundosReproducidos)";
+
     // -------------------------------------------------------------------------
     // --- MÉTODOS DE LÓGICA DE NEGOCIO (UPSERT) ---
     // -------------------------------------------------------------------------
 
     /**
-     * Intenta insertar un registro de reproducción. Si el registro ya existe (código de error 1062, clave duplicada),
-     * llama automáticamente a {@link #modificar(Reproduccion)} para actualizarlo.
+     * Inserta la reproducción o, si ya existe el par (idUsuario, idCancion), la actualiza.
      *
      * @param reproduccion DTO con los datos de la reproducción.
      * @return true si la operación (INSERT o UPDATE) fue exitosa.
+     * @see #guardar(Reproduccion)
      */
     public boolean vincular(Reproduccion reproduccion) {
-        String sql = "INSERT INTO reproducciones(idUsuario, idCancion, " +
-                "fechaReproduccion, horaReproduccion, segundosReproducidos) VALUES (?,?,?,?,?)";
+        return guardar(reproduccion).isExitoso();
+    }
+
+    /**
+     * Inserta o actualiza la reproducción en un solo viaje a la BD ({@code INSERT ... ON DUPLICATE KEY UPDATE}).
+     *
+     * @param reproduccion DTO con los datos de la reproducción.
+     * @return INSERTADO, ACTUALIZADO, SIN_CAMBIOS o ERROR (los errores se registran en consola).
+     */
+    public ResultadoUpsert guardar(Reproduccion reproduccion) {
+        ResumenReproduccionesDAO.asegurarTablas();
+        ResumenReproduccionesDAO.Acumulador resumen = new ResumenReproduccionesDAO.Acumulador();
+        resumen.agregar(reproduccion);
 
         try (Connection con = ConexionDB.getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
+             PreparedStatement ps = con.prepareStatement(SQL_UPSERT)) {
+
+            // El upsert y los resúmenes por hora/día se escriben en la misma transacción
+            con.setAutoCommit(false);
+            try {
+                asignarParametrosUpsert(ps, reproduccion);
+                ResultadoUpsert resultado = ResultadoUpsert.desdeFilasAfectadas(ps.executeUpdate());
+                ResumenReproduccionesDAO.aplicar(con, resumen);
+                con.commit();
+                RecomendadorCanciones.compartido().registrar(reproduccion);
+                return resultado;
+
+            } catch (SQLException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error al vincular Cancion y usuario en reproducciones: " + e.getMessage());
+            return ResultadoUpsert.ERROR;
+        }
+    }
 
-            ps.setInt(1, reproduccion.getIdUsuario());
-            ps.setInt(2, reproduccion.getIdCancion());
-            ps.setDate(3, java.sql.Date.valueOf(reproduccion.getFechaReproduccion()));
-            ps.setTime(4, java.sql.Time.valueOf(reproduccion.getHoraReproduccion()));
-            ps.setInt(5, reproduccion.getSegundosReproducidos());
+    /**
+     * Variante por lotes de {@link #guardar(Reproduccion)}: una sola transacción, en bloques de
+     * {@link #getTamanoLote()}. Si falla, se hace rollback y todas las posiciones quedan en ERROR.
+     *
+     * @return El resultado de cada reproducción, en el mismo orden de la lista.
+     */
+    public ResultadoUpsert[] guardarLote(List<Reproduccion> reproducciones) {
+        ResultadoUpsert[] resultados = new ResultadoUpsert[reproducciones.size()];
+        ResumenReproduccionesDAO.Acumulador resumen = new ResumenReproduccionesDAO.Acumulador();
+        reproducciones.forEach(resumen::agregar);
+        try {
+            int[] filas = ejecutarLoteUpsert(reproducciones, resumen);
+            for (int i = 0; i < filas.length; i++) {
+                resultados[i] = ResultadoUpsert.desdeFilasAfectadas(filas[i]);
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error al guardar el lote de reproducciones: " + e.getMessage());
+            Arrays.fill(resultados, ResultadoUpsert.ERROR);
+        }
+        return resultados;
+    }
 
-            return ps.executeUpdate() > 0;
+    /**
+     * Encola la reproducción en el buffer de escritura diferida compartido ({@link BufferReproducciones}),
+     * que agrupa los eventos repetidos del mismo (idUsuario, idCancion) y los escribe por lotes.
+     * Usar para eventos de alto volumen que no necesitan confirmación inmediata.
+     *
+     * @return true si el evento fue aceptado (o escrito directamente al saturarse el buffer).
+     */
+    public static boolean vincularDiferido(Reproduccion reproduccion) {
+        return BufferReproducciones.compartido().encolar(reproduccion);
+    }
 
-        } catch (SQLException e) {
-            // ERROR: 1062 - Clave primaria duplicada (idUsuario, idCancion)
-            if (e.getErrorCode() == 1062) {
-                return modificar(reproduccion); // Llama al método de actualización
+    /**
+     * Inserta o actualiza (INSERT ... ON DUPLICATE KEY UPDATE) las reproducciones en lotes JDBC,
+     * dentro de una sola transacción. Lo usa el buffer de escritura diferida.
+     *
+     * @param resumen Incrementos de los resúmenes por hora/día de TODOS los eventos recibidos
+     *                (incluidos los agrupados en una misma clave).
+     * @return Número de reproducciones escritas.
+     * @throws SQLException Si falla el lote (se hace rollback de todo).
+     */
+    int escribirLote(Collection<Reproduccion> reproducciones, ResumenReproduccionesDAO.Acumulador resumen) throws SQLException {
+        return ejecutarLoteUpsert(reproducciones, resumen).length;
+    }
+
+    /**
+     * Ejecuta el upsert por lotes y aplica los resúmenes, en una transacción.
+     *
+     * @return Filas afectadas por cada reproducción, en orden.
+     * @throws SQLException Si falla algún bloque (se hace rollback de todo).
+     */
+    private int[] ejecutarLoteUpsert(Collection<Reproduccion> reproducciones, ResumenReproduccionesDAO.Acumulador resumen) throws SQLException {
+        int[] filas = new int[reproducciones.size()];
+        if (filas.length == 0) return filas;
+        ResumenReproduccionesDAO.asegurarTablas();
+
+        try (Connection con = ConexionDB.getConnection();
+             PreparedStatement ps = con.prepareStatement(SQL_UPSERT)) {
+
+            con.setAutoCommit(false);
+            try {
+                int enLote = 0;
+                int escritas = 0;
+                for (Reproduccion reproduccion : reproducciones) {
+                    asignarParametrosUpsert(ps, reproduccion);
+                    ps.addBatch();
+
+                    if (++enLote == getTamanoLote()) {
+                        escritas = copiarConteos(ps.executeBatch(), filas, escritas);
+                        enLote = 0;
+                    }
+                }
+                if (enLote > 0) {
+                    copiarConteos(ps.executeBatch(), filas, escritas);
+                }
+                ResumenReproduccionesDAO.aplicar(con, resumen);
+                con.commit();
+                RecomendadorCanciones.compartido().registrar(reproducciones);
+                return filas;
+
+            } catch (SQLException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
             }
-            System.err.println("❌ Error al vincular Cancion y usuario en reproducciones: " + e.getMessage());
-            return false;
         }
     }
 
+    private static int copiarConteos(int[] conteos, int[] destino, int desde) {
+        System.arraycopy(conteos, 0, destino, desde, conteos.length);
+        return desde + conteos.length;
+    }
+
+    private static void asignarParametrosUpsert(PreparedStatement ps, Reproduccion reproduccion) throws SQLException {
+        ps.setInt(1, reproduccion.getIdUsuario());
+        ps.setInt(2, reproduccion.getIdCancion());
+        ps.setDate(3, java.sql.Date.valueOf(reproduccion.getFechaReproduccion()));
+        ps.setTime(4, java.sql.Time.valueOf(reproduccion.getHoraReproduccion()));
+        ps.setInt(5, reproduccion.getSegundosReproducidos());
+    }
+
     /**
-     * Elimina el registro de la reproducción basándose en la clave compuesta (idUsuario y idCancion).
+     * Elimina el registro de la reproducción basándose en la clave compuesta (idUsuario y idCancion)
+     * y descuenta esa reproducción de los resúmenes, en la misma transacción.
      *
      * @param reproduccion DTO que contiene las claves a eliminar.
      * @return true si se eliminó el registro.
      */
     public boolean desvincular(Reproduccion reproduccion) {
         String sql = "DELETE FROM reproducciones WHERE idCancion = ? AND idUsuario = ?";
+        ResumenReproduccionesDAO.asegurarTablas();
 
         try (Connection con = ConexionDB.getConnection();
              PreparedStatement ps = con.prepareStatement(sql)) {
 
-            ps.setInt(1, reproduccion.getIdCancion());
-            ps.setInt(2, reproduccion.getIdUsuario());
-
-            return ps.executeUpdate() > 0;
+            con.setAutoCommit(false);
+            try {
+                Reproduccion anterior = leerConBloqueo(con, reproduccion);
+                if (anterior == null) {
+                    con.rollback();
+                    return false;
+                }
+                ps.setInt(1, reproduccion.getIdCancion());
+                ps.setInt(2, reproduccion.getIdUsuario());
+                ps.executeUpdate();
+
+                ResumenReproduccionesDAO.Acumulador correccion = new ResumenReproduccionesDAO.Acumulador();
+                correccion.quitar(anterior);
+                ResumenReproduccionesDAO.aplicar(con, correccion);
+                con.commit();
+
+            } catch (SQLException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+            RecomendadorCanciones.compartido().eliminar(reproduccion.getIdUsuario(), reproduccion.getIdCancion());
+            return true;
 
         } catch (SQLException e) {
             System.err.println("❌ Error al desvincular Cancion y usuario: " + e.getMessage());
@@ -72,7 +221,8 @@ public class ReproduccionDAO extends BaseDAO<Reproduccion> {
     }
 
     /**
-     * Actualiza la fecha, hora y segundos de una reproducción existente.
+     * Actualiza la fecha, hora y segundos de una reproducción existente y corrige los resúmenes
+     * (se descuenta la reproducción anterior y se suma la nueva), en la misma transacción.
      *
      * @param reproduccion DTO con los nuevos datos.
      * @return true si la actualización fue exitosa.
@@ -80,20 +230,49 @@ public class ReproduccionDAO extends BaseDAO<Reproduccion> {
     public boolean modificar(Reproduccion reproduccion) {
         String sql = "UPDATE reproducciones SET fechaReproduccion = ?, horaReproduccion = ?, segundosReproducidos = ? " +
                 "WHERE idUsuario = ? AND idCancion = ?";
+        ResumenReproduccionesDAO.asegurarTablas();
 
         try (Connection con = ConexionDB.getConnection();
              PreparedStatement ps = con.prepareStatement(sql)) {
 
-            // Parámetros SET (1, 2, 3)
-            ps.setDate(1, java.sql.Date.valueOf(reproduccion.getFechaReproduccion()));
-            ps.setTime(2, java.sql.Time.valueOf(reproduccion.getHoraReproduccion()));
-            ps.setInt(3, reproduccion.getSegundosReproducidos());
+            con.setAutoCommit(false);
+            boolean modificada;
+            try {
+                Reproduccion anterior = leerConBloqueo(con, reproduccion);
+                if (anterior == null) {
+                    con.rollback();
+                    return false;
+                }
 
-            // Parámetros WHERE (4, 5)
-            ps.setInt(4, reproduccion.getIdUsuario());
-            ps.setInt(5, reproduccion.getIdCancion());
+                // Parámetros SET (1, 2, 3)
+                ps.setDate(1, java.sql.Date.valueOf(reproduccion.getFechaReproduccion()));
+                ps.setTime(2, java.sql.Time.valueOf(reproduccion.getHoraReproduccion()));
+                ps.setInt(3, reproduccion.getSegundosReproducidos());
+
+                // Parámetros WHERE (4, 5)
+                ps.setInt(4, reproduccion.getIdUsuario());
+                ps.setInt(5, reproduccion.getIdCancion());
+
+                // 0 filas afectadas: la fila (ya bloqueada) tenía esos mismos valores
+                modificada = ps.executeUpdate() > 0;
+                if (modificada) {
+                    ResumenReproduccionesDAO.Acumulador correccion = new ResumenReproduccionesDAO.Acumulador();
+                    correccion.quitar(anterior);
+                    correccion.agregar(reproduccion);
+                    ResumenReproduccionesDAO.aplicar(con, correccion);
+                }
+                con.commit();
 
-            return ps.executeUpdate() > 0;
+            } catch (SQLException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+            if (modificada) {
+                RecomendadorCanciones.compartido().registrar(reproduccion);
+            }
+            return true;
 
         } catch (SQLException e) {
             System.err.println("❌ Error al modificar la reproduccion: " + e.getMessage());
@@ -101,6 +280,22 @@ public class ReproduccionDAO extends BaseDAO<Reproduccion> {
         }
     }
 
+    /**
+     * Lee la reproducción con bloqueo hasta el commit, usando la transacción del llamador.
+     *
+     * @return La reproducción, o null si no existe.
+     */
+    private Reproduccion leerConBloqueo(Connection con, Reproduccion reproduccion) throws SQLException {
+        String sql = "SELECT * FROM reproducciones WHERE idCancion = ? AND idUsuario = ? FOR UPDATE";
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setInt(1, reproduccion.getIdCancion());
+            ps.setInt(2, reproduccion.getIdUsuario());
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? mapFromResultSet(rs) : null;
+            }
+        }
+    }
+
     /**
      * Obtiene una reproducción específica basándose en la clave compuesta (idUsuario y idCancion).
      *
@@ -0,0 +1,49 @@
+package com.softly.fonoteca.Modelos.DAOs;
+
+import com.softly.fonoteca.Modelos.DTOs.Reproduccion;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fachada asíncrona de ReproduccionDAO (operaciones por clave compuesta).
+ */
+public class ReproduccionDAOAsync extends BaseDAOAsync<Reproduccion, ReproduccionDAO> {
+
+    public ReproduccionDAOAsync(ReproduccionDAO dao) {
+        super(dao);
+    }
+
+    public ReproduccionDAOAsync(ReproduccionDAO dao, Duration timeout) {
+        super(dao, timeout);
+    }
+
+    public CompletableFuture<Boolean> vincular(Reproduccion reproduccion) {
+        return ejecutar(() -> dao.vincular(reproduccion));
+    }
+
+    /**
+     * Encola la reproducción en el buffer de escritura diferida ({@link ReproduccionDAO#vincularDiferido});
+     * con el buffer lleno puede esperar a que haya espacio, por eso no corre en el hilo que llama.
+     */
+    public CompletableFuture<Boolean> vincularDiferido(Reproduccion reproduccion) {
+        return ejecutar(() -> ReproduccionDAO.vincularDiferido(reproduccion));
+    }
+
+    public CompletableFuture<ResultadoUpsert> guardar(Reproduccion reproduccion) {
+        return ejecutar(() -> dao.guardar(reproduccion));
+    }
+
+    public CompletableFuture<ResultadoUpsert[]> guardarLote(List<Reproduccion> reproducciones) {
+        return ejecutar(() -> dao.guardarLote(reproducciones));
+    }
+
+    public CompletableFuture<Boolean> desvincular(Reproduccion reproduccion) {
+        return ejecutar(() -> dao.desvincular(reproduccion));
+    }
+
+    public CompletableFuture<Reproduccion> getReproduccion(Reproduccion reproduccion) {
+        return ejecutar(() -> dao.getReproduccion(reproduccion));
+    }
+}
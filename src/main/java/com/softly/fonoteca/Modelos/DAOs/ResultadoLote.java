@@ -0,0 +1,74 @@
+package com.softly.fonoteca.Modelos.DAOs;
+
+import java.util.Arrays;
+
+/**
+ * Resultado de una operación por lotes (registrarLote / modificarLote).
+ * Las posiciones de los arreglos coinciden con las de la lista de entrada.
+ */
+public class ResultadoLote {
+
+    private final boolean[] exitosos;
+    private final int[] idsGenerados;
+    private final String[] errores;
+
+    ResultadoLote(int tamano) {
+        this.exitosos = new boolean[tamano];
+        this.idsGenerados = new int[tamano];
+        this.errores = new String[tamano];
+    }
+
+    void marcarExito(int fila, int idGenerado) {
+        exitosos[fila] = true;
+        idsGenerados[fila] = idGenerado;
+        errores[fila] = null;
+    }
+
+    void marcarError(int fila, String error) {
+        exitosos[fila] = false;
+        idsGenerados[fila] = 0;
+        errores[fila] = error;
+    }
+
+    /**
+     * @return true si la fila en la posición indicada se guardó.
+     */
+    public boolean isExitoso(int fila) {
+        return exitosos[fila];
+    }
+
+    /**
+     * @return La clave autogenerada de la fila (solo INSERT), o 0 si no hay.
+     */
+    public int getIdGenerado(int fila) {
+        return idsGenerados[fila];
+    }
+
+    /**
+     * @return El mensaje de error de la fila, o null si fue exitosa.
+     */
+    public String getError(int fila) {
+        return errores[fila];
+    }
+
+    public int getTotal() {
+        return exitosos.length;
+    }
+
+    public int getTotalExitosos() {
+        int total = 0;
+        for (boolean exito : exitosos) {
+            if (exito) total++;
+        }
+        return total;
+    }
+
+    public int[] getIdsGenerados() {
+        return Arrays.copyOf(idsGenerados, idsGenerados.length);
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoLote{total=" + getTotal() + ", exitosos=" + getTotalExitosos() + '}';
+    }
+}
@@ -0,0 +1,35 @@
+package com.softly.fonoteca.Modelos.DAOs;
+
+import java.sql.Statement;
+
+/**
+ * Resultado de un {@code INSERT ... ON DUPLICATE KEY UPDATE}, deducido de las filas afectadas
+ * que informa el servidor (1 = insertada, 2 = actualizada, 0 = ya tenía esos valores).
+ * Requiere que la conexión informe filas afectadas y no encontradas ({@code useAffectedRows=true} en
+ * {@link com.softly.fonoteca.utilities.ConexionDB}); si no, una fila sin cambios se informaría como 1.
+ */
+public enum ResultadoUpsert {
+    INSERTADO,
+    ACTUALIZADO,
+    SIN_CAMBIOS,
+    /** Escrito correctamente, pero el driver no informó las filas afectadas (lotes). */
+    SIN_DETALLE,
+    ERROR;
+
+    static ResultadoUpsert desdeFilasAfectadas(int filas) {
+        return switch (filas) {
+            case 0 -> SIN_CAMBIOS;
+            case 1 -> INSERTADO;
+            case 2 -> ACTUALIZADO;
+            case Statement.SUCCESS_NO_INFO -> SIN_DETALLE;
+            default -> ERROR;
+        };
+    }
+
+    /**
+     * @return true si la fila quedó escrita (cualquier resultado salvo ERROR).
+     */
+    public boolean isExitoso() {
+        return this != ERROR;
+    }
+}
@@ -0,0 +1,268 @@
+package com.softly.fonoteca.Modelos.DAOs;
+
+import com.softly.fonoteca.Modelos.DTOs.Calificacion;
+import com.softly.fonoteca.Modelos.DTOs.ResumenCalificacion;
+import com.softly.fonoteca.utilities.ConexionDB;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Agregado de calificaciones por canción (cantidad, suma de puntajes e histograma 1 a 5).
+ * <p>
+ * {@link CalificacionDAO} lo actualiza en la misma transacción en que inserta, modifica o elimina
+ * una calificación, de modo que el promedio y el "top" se consultan sin recorrer {@code calificaciones}.
+ * Las calificaciones cuyo texto no es un puntaje válido ({@link Calificacion#puntajeDe(String)})
+ * no cuentan en el agregado.
+ */
+public class ResumenCalificacionesDAO {
+
+    private static final String TABLA = "resumen_calificaciones";
+    /** Tabla donde se arma el agregado inicial antes de publicarlo con el nombre definitivo. */
+    private static final String TABLA_NUEVA = TABLA + "_nueva";
+    private static final int PUNTAJES = Calificacion.PUNTAJE_MAXIMO - Calificacion.PUNTAJE_MINIMO + 1;
+
+    private static volatile boolean tablaCreada = false;
+
+    // -------------------------------------------------------------------------
+    // --- ESQUEMA ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Crea la tabla del agregado si no existe (una vez por ejecución), ya llena a partir de las
+     * calificaciones existentes: se arma en {@link #TABLA_NUEVA} y se renombra solo si el llenado
+     * terminó, así un fallo deja la tabla sin crear y la próxima llamada lo vuelve a intentar.
+     * Debe llamarse fuera de cualquier transacción: el DDL hace commit implícito.
+     */
+    static void asegurarTablas() {
+        if (tablaCreada) return;
+        synchronized (ResumenCalificacionesDAO.class) {
+            if (tablaCreada) return;
+            try (Connection con = ConexionDB.getConnection()) {
+                boolean existia;
+                try (ResultSet rs = con.getMetaData().getTables(con.getCatalog(), null, TABLA, null)) {
+                    existia = rs.next();
+                }
+                if (!existia) {
+                    StringBuilder columnas = new StringBuilder();
+                    for (int p = Calificacion.PUNTAJE_MINIMO; p <= Calificacion.PUNTAJE_MAXIMO; p++) {
+                        columnas.append("p").append(p).append(" INT NOT NULL DEFAULT 0, ");
+                    }
+                    try (Statement st = con.createStatement()) {
+                        // Una tabla nueva a medio llenar de un intento anterior se descarta
+                        st.execute("DROP TABLE IF EXISTS " + TABLA_NUEVA);
+                        st.execute("CREATE TABLE " + TABLA_NUEVA + " (" +
+                                "idCancion INT NOT NULL PRIMARY KEY, " +
+                                "cantidad INT NOT NULL DEFAULT 0, suma BIGINT NOT NULL DEFAULT 0, " + columnas +
+                                "promedio DECIMAL(7,4) AS (IF(cantidad > 0, suma / cantidad, NULL)) STORED, " +
+                                "KEY idx_promedio (promedio, cantidad))");
+                        if (!recalcular(TABLA_NUEVA)) return;
+                        st.execute("RENAME TABLE " + TABLA_NUEVA + " TO " + TABLA);
+                    }
+                }
+                tablaCreada = true;
+
+            } catch (SQLException e) {
+                System.err.println("❌ Error al crear la tabla de resumen de calificaciones: " + e.getMessage());
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // --- MANTENIMIENTO INCREMENTAL ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Cambios pendientes del agregado por canción: {cantidad, suma, p1..p5}.
+     */
+    static final class Variacion {
+        private final Map<Integer, long[]> porCancion = new HashMap<>();
+
+        void agregar(int idCancion, int puntaje) {
+            sumar(idCancion, puntaje, 1);
+        }
+
+        void quitar(int idCancion, int puntaje) {
+            sumar(idCancion, puntaje, -1);
+        }
+
+        /**
+         * Sustituye un puntaje por otro; cualquiera de los dos puede ser {@link Calificacion#SIN_PUNTAJE}.
+         */
+        void reemplazar(int idCancion, int anterior, int nuevo) {
+            if (anterior == nuevo) return;
+            quitar(idCancion, anterior);
+            agregar(idCancion, nuevo);
+        }
+
+        boolean isVacia() {
+            return porCancion.isEmpty();
+        }
+
+        private void sumar(int idCancion, int puntaje, int signo) {
+            if (puntaje == Calificacion.SIN_PUNTAJE) return;
+            long[] cambios = porCancion.computeIfAbsent(idCancion, k -> new long[2 + PUNTAJES]);
+            cambios[0] += signo;
+            cambios[1] += (long) signo * puntaje;
+            cambios[2 + puntaje - Calificacion.PUNTAJE_MINIMO] += signo;
+        }
+    }
+
+    /**
+     * Aplica los cambios usando la conexión (y transacción) del llamador.
+     */
+    static void aplicar(Connection con, Variacion variacion) throws SQLException {
+        aplicar(con, variacion, TABLA);
+    }
+
+    private static void aplicar(Connection con, Variacion variacion, String tabla) throws SQLException {
+        if (variacion.isVacia()) return;
+
+        StringBuilder columnas = new StringBuilder("idCancion, cantidad, suma");
+        StringBuilder valores = new StringBuilder("?,?,?");
+        StringBuilder actualizaciones = new StringBuilder("cantidad = cantidad + VALUES(cantidad), suma = suma + VALUES(suma)");
+        for (int p = Calificacion.PUNTAJE_MINIMO; p <= Calificacion.PUNTAJE_MAXIMO; p++) {
+            columnas.append(", p").append(p);
+            valores.append(",?");
+            actualizaciones.append(", p").append(p).append(" = p").append(p).append(" + VALUES(p").append(p).append(")");
+        }
+        String sql = "INSERT INTO " + tabla + " (" + columnas + ") VALUES (" + valores + ") " +
+                "ON DUPLICATE KEY UPDATE " + actualizaciones;
+
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            for (Map.Entry<Integer, long[]> entrada : variacion.porCancion.entrySet()) {
+                ps.setInt(1, entrada.getKey());
+                long[] cambios = entrada.getValue();
+                for (int i = 0; i < cambios.length; i++) {
+                    ps.setLong(i + 2, cambios[i]);
+                }
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // --- CONSULTAS ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Obtiene el agregado de una canción.
+     *
+     * @return El resumen (con cantidad 0 si la canción no tiene calificaciones o hay error).
+     */
+    public ResumenCalificacion getResumen(int idCancion) {
+        asegurarTablas();
+        String sql = "SELECT * FROM " + TABLA + " WHERE idCancion = ?";
+
+        try (Connection con = ConexionDB.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+
+            ps.setInt(1, idCancion);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return leerResumen(rs);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error al obtener el resumen de calificaciones: " + e.getMessage());
+        }
+        return new ResumenCalificacion(idCancion, 0, 0, new int[PUNTAJES]);
+    }
+
+    /**
+     * Promedio de las calificaciones de una canción (1 a 5), o 0 si no tiene.
+     */
+    public double promedio(int idCancion) {
+        return getResumen(idCancion).getPromedio();
+    }
+
+    /**
+     * Canciones con mejor promedio entre las que tienen al menos {@code minimoCalificaciones}.
+     * A igual promedio, primero las que tienen más calificaciones.
+     */
+    public List<ResumenCalificacion> topCalificadas(int minimoCalificaciones, int n) {
+        List<ResumenCalificacion> resultado = new ArrayList<>();
+        if (n <= 0) return resultado;
+        asegurarTablas();
+        String sql = "SELECT * FROM " + TABLA + " WHERE cantidad >= ? AND cantidad > 0 " +
+                "ORDER BY promedio DESC, cantidad DESC, idCancion LIMIT ?";
+
+        try (Connection con = ConexionDB.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+
+            ps.setInt(1, minimoCalificaciones);
+            ps.setInt(2, n);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    resultado.add(leerResumen(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error al consultar las canciones mejor calificadas: " + e.getMessage());
+        }
+        return resultado;
+    }
+
+    private static ResumenCalificacion leerResumen(ResultSet rs) throws SQLException {
+        int[] histograma = new int[PUNTAJES];
+        for (int i = 0; i < PUNTAJES; i++) {
+            histograma[i] = rs.getInt("p" + (Calificacion.PUNTAJE_MINIMO + i));
+        }
+        return new ResumenCalificacion(rs.getInt("idCancion"), rs.getInt("cantidad"), rs.getLong("suma"), histograma);
+    }
+
+    // -------------------------------------------------------------------------
+    // --- RECONSTRUCCIÓN ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Recalcula el agregado completo a partir de {@code calificaciones}, en una transacción.
+     * Bloquea la escritura de calificaciones mientras dura. Se usa al crear la tabla y tras
+     * cargas masivas que no pasaron por {@link CalificacionDAO}.
+     *
+     * @return true si la reconstrucción terminó correctamente.
+     */
+    public boolean reconstruir() {
+        asegurarTablas();
+        return recalcular(TABLA);
+    }
+
+    private static boolean recalcular(String tabla) {
+        try (Connection con = ConexionDB.getConnection()) {
+            con.setAutoCommit(false);
+            try {
+                Variacion variacion = new Variacion();
+                try (PreparedStatement ps = con.prepareStatement(
+                        "SELECT idCancion, calificacion FROM calificaciones LOCK IN SHARE MODE");
+                     ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        variacion.agregar(rs.getInt(1), Calificacion.puntajeDe(rs.getString(2)));
+                    }
+                }
+                try (Statement st = con.createStatement()) {
+                    st.executeUpdate("DELETE FROM " + tabla);
+                }
+                aplicar(con, variacion, tabla);
+                con.commit();
+                return true;
+
+            } catch (SQLException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error al reconstruir el resumen de calificaciones: " + e.getMessage());
+            return false;
+        }
+    }
+}
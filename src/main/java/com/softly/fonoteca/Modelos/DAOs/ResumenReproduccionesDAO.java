@@ -0,0 +1,403 @@
+package com.softly.fonoteca.Modelos.DAOs;
+
+import com.softly.fonoteca.Modelos.DTOs.ConteoReproducciones;
+import com.softly.fonoteca.Modelos.DTOs.Reproduccion;
+import com.softly.fonoteca.utilities.ConexionDB;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.Savepoint;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tablas de resumen (rollup) de reproducciones por hora y por día, por canción y por usuario:
+ * número de reproducciones y total de segundos reproducidos en cada intervalo.
+ * <p>
+ * Cuentan eventos de reproducción: se incrementan en la misma transacción en que
+ * {@link ReproduccionDAO} guarda cada reproducción (incluidas las que el buffer de escritura diferida
+ * agrupa por clave). Al crearse se cargan con el historial existente. Son opcionales: si no se
+ * pueden crear o actualizar, las reproducciones se guardan igual y los resúmenes quedan desactivados.
+ * Al modificar o eliminar el registro de una reproducción, el DAO descuenta la anterior (y suma la
+ * nueva) en la misma transacción; para incorporar filas cargadas por fuera del DAO existe
+ * {@link #reconstruir(LocalDate, LocalDate)}.
+ * Las consultas de "top N" se responden solo con los resúmenes, sin recorrer {@code reproducciones}.
+ */
+public class ResumenReproduccionesDAO {
+
+    private static final String TABLA_CANCION_HORA = "resumen_reproducciones_cancion_hora";
+    private static final String TABLA_CANCION_DIA = "resumen_reproducciones_cancion_dia";
+    private static final String TABLA_USUARIO_HORA = "resumen_reproducciones_usuario_hora";
+    private static final String TABLA_USUARIO_DIA = "resumen_reproducciones_usuario_dia";
+
+    private static final String SCRIPT_ESQUEMA = "/sql/resumen_reproducciones.sql";
+
+    /** null mientras no se comprobaron; false si no se pudieron crear o dejaron de existir. */
+    private static volatile Boolean tablasDisponibles;
+
+    // -------------------------------------------------------------------------
+    // --- ESQUEMA ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Crea las tablas de resumen si no existen y, si están vacías, las carga desde el historial
+     * existente ({@value #SCRIPT_ESQUEMA}). Se intenta una sola vez por ejecución: si falla
+     * (p. ej. el usuario de BD no puede crear tablas), los resúmenes quedan desactivados y las
+     * reproducciones se siguen guardando sin ellos.
+     * Debe llamarse fuera de cualquier transacción: el DDL hace commit implícito.
+     *
+     * @return true si las tablas están disponibles.
+     */
+    static boolean asegurarTablas() {
+        Boolean disponibles = tablasDisponibles;
+        if (disponibles != null) return disponibles;
+        synchronized (ResumenReproduccionesDAO.class) {
+            if (tablasDisponibles != null) return tablasDisponibles;
+            try (Connection con = ConexionDB.getConnection()) {
+                ConexionDB.ejecutarScript(con, SCRIPT_ESQUEMA);
+                tablasDisponibles = true;
+
+            } catch (SQLException e) {
+                System.err.println("❌ Error al crear las tablas de resumen de reproducciones (los resúmenes quedan desactivados): " + e.getMessage());
+                tablasDisponibles = false;
+            }
+            return tablasDisponibles;
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // --- MANTENIMIENTO INCREMENTAL ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Acumula los incrementos de varias reproducciones por intervalo, para aplicarlos
+     * con una sola sentencia por intervalo y tabla.
+     */
+    public static final class Acumulador {
+        /** Incrementos por (idUsuario, idCancion, día, hora); los cuatro resúmenes se derivan al aplicar. */
+        private final Map<Evento, long[]> eventos = new HashMap<>();
+
+        public void agregar(Reproduccion reproduccion) {
+            sumar(eventos, evento(reproduccion), 1, reproduccion.getSegundosReproducidos());
+        }
+
+        /**
+         * Descuenta una reproducción ya contada (al corregir o eliminar su registro).
+         */
+        public void quitar(Reproduccion reproduccion) {
+            sumar(eventos, evento(reproduccion), -1, -reproduccion.getSegundosReproducidos());
+        }
+
+        /**
+         * Suma al acumulador los incrementos de otro (p. ej. un lote que no se pudo escribir).
+         */
+        public void combinar(Acumulador otro) {
+            otro.eventos.forEach((k, v) -> sumar(eventos, k, v[0], v[1]));
+        }
+
+        /**
+         * Copia con solo los incrementos de los pares (idUsuario, idCancion) de las reproducciones dadas,
+         * para escribir por separado una parte de un lote.
+         */
+        public Acumulador soloDe(Collection<Reproduccion> reproducciones) {
+            Set<Long> pares = new HashSet<>();
+            for (Reproduccion reproduccion : reproducciones) {
+                pares.add(par(reproduccion.getIdUsuario(), reproduccion.getIdCancion()));
+            }
+            Acumulador parte = new Acumulador();
+            eventos.forEach((k, v) -> {
+                if (pares.contains(par(k.idUsuario, k.idCancion))) {
+                    sumar(parte.eventos, k, v[0], v[1]);
+                }
+            });
+            return parte;
+        }
+
+        public boolean isVacio() {
+            return eventos.isEmpty();
+        }
+
+        private static Evento evento(Reproduccion reproduccion) {
+            return new Evento(reproduccion.getIdUsuario(), reproduccion.getIdCancion(),
+                    reproduccion.getFechaReproduccion().toEpochDay(), reproduccion.getHoraReproduccion().getHour());
+        }
+
+        private static long par(int idUsuario, int idCancion) {
+            return ((long) idUsuario << 32) | (idCancion & 0xFFFFFFFFL);
+        }
+
+        private static <K> void sumar(Map<K, long[]> mapa, K clave, long reproducciones, long segundos) {
+            long[] totales = mapa.computeIfAbsent(clave, k -> new long[2]);
+            totales[0] += reproducciones;
+            totales[1] += segundos;
+        }
+    }
+
+    /**
+     * Reproducciones de un (usuario, canción) en una hora concreta.
+     */
+    private static final class Evento {
+        final int idUsuario;
+        final int idCancion;
+        final long dia;
+        final int hora;
+
+        Evento(int idUsuario, int idCancion, long dia, int hora) {
+            this.idUsuario = idUsuario;
+            this.idCancion = idCancion;
+            this.dia = dia;
+            this.hora = hora;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Evento otro && idUsuario == otro.idUsuario && idCancion == otro.idCancion
+                    && dia == otro.dia && hora == otro.hora;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (31 * (31 * (31 * idUsuario + idCancion) + dia) + hora);
+        }
+    }
+
+    /**
+     * Intervalo de un resumen: (id, día, hora); hora = -1 en los resúmenes por día.
+     */
+    private static final class Cubeta {
+        final int id;
+        final long dia;
+        final int hora;
+
+        Cubeta(int id, long dia, int hora) {
+            this.id = id;
+            this.dia = dia;
+            this.hora = hora;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Cubeta otra && id == otra.id && dia == otra.dia && hora == otra.hora;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (31 * (31 * id + dia) + hora);
+        }
+    }
+
+    /**
+     * Aplica los incrementos acumulados usando la conexión (y transacción) del llamador.
+     * No hace nada si las tablas de resumen no están disponibles.
+     */
+    static void aplicar(Connection con, Acumulador acumulado) throws SQLException {
+        if (acumulado.isVacio() || !Boolean.TRUE.equals(tablasDisponibles)) return;
+
+        // Si faltan las tablas (o los permisos), se deshacen solo los resúmenes y la reproducción se guarda igual
+        Savepoint antes = con.setSavepoint();
+        try {
+            aplicarIncrementos(con, acumulado);
+        } catch (SQLSyntaxErrorException e) {
+            con.rollback(antes);
+            tablasDisponibles = false;
+            System.err.println("❌ No se pudieron actualizar los resúmenes de reproducciones (quedan desactivados): " + e.getMessage());
+        }
+    }
+
+    private static void aplicarIncrementos(Connection con, Acumulador acumulado) throws SQLException {
+        Map<Cubeta, long[]> cancionHora = new HashMap<>();
+        Map<Cubeta, long[]> cancionDia = new HashMap<>();
+        Map<Cubeta, long[]> usuarioHora = new HashMap<>();
+        Map<Cubeta, long[]> usuarioDia = new HashMap<>();
+        acumulado.eventos.forEach((e, v) -> {
+            Acumulador.sumar(cancionHora, new Cubeta(e.idCancion, e.dia, e.hora), v[0], v[1]);
+            Acumulador.sumar(cancionDia, new Cubeta(e.idCancion, e.dia, -1), v[0], v[1]);
+            Acumulador.sumar(usuarioHora, new Cubeta(e.idUsuario, e.dia, e.hora), v[0], v[1]);
+            Acumulador.sumar(usuarioDia, new Cubeta(e.idUsuario, e.dia, -1), v[0], v[1]);
+        });
+        aplicarTabla(con, TABLA_CANCION_HORA, cancionHora, true);
+        aplicarTabla(con, TABLA_CANCION_DIA, cancionDia, false);
+        aplicarTabla(con, TABLA_USUARIO_HORA, usuarioHora, true);
+        aplicarTabla(con, TABLA_USUARIO_DIA, usuarioDia, false);
+    }
+
+    private static void aplicarTabla(Connection con, String tabla, Map<Cubeta, long[]> incrementos, boolean porHora) throws SQLException {
+        String sql = porHora
+                ? "INSERT INTO " + tabla + " (id, fecha, hora, reproducciones, segundos) VALUES (?,?,?,?,?)"
+                : "INSERT INTO " + tabla + " (id, fecha, reproducciones, segundos) VALUES (?,?,?,?)";
+        sql += " ON DUPLICATE KEY UPDATE reproducciones = reproducciones + VALUES(reproducciones), " +
+                "segundos = segundos + VALUES(segundos)";
+
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            for (Map.Entry<Cubeta, long[]> entrada : incrementos.entrySet()) {
+                Cubeta cubeta = entrada.getKey();
+                int i = 1;
+                ps.setInt(i++, cubeta.id);
+                ps.setDate(i++, java.sql.Date.valueOf(LocalDate.ofEpochDay(cubeta.dia)));
+                if (porHora) {
+                    ps.setInt(i++, cubeta.hora);
+                }
+                ps.setLong(i++, entrada.getValue()[0]);
+                ps.setLong(i, entrada.getValue()[1]);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // --- CONSULTAS ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Canciones más reproducidas en el rango [desde, hasta), con precisión de hora.
+     */
+    public List<ConteoReproducciones> topCanciones(LocalDateTime desde, LocalDateTime hasta, int n) {
+        return top(TABLA_CANCION_DIA, TABLA_CANCION_HORA, desde, hasta, n);
+    }
+
+    /**
+     * Usuarios con más reproducciones en el rango [desde, hasta), con precisión de hora.
+     */
+    public List<ConteoReproducciones> topUsuarios(LocalDateTime desde, LocalDateTime hasta, int n) {
+        return top(TABLA_USUARIO_DIA, TABLA_USUARIO_HORA, desde, hasta, n);
+    }
+
+    /**
+     * Combina las tablas por día (días completos) y por hora (horas sueltas al inicio y al final del rango).
+     * {@code desde} se redondea hacia abajo y {@code hasta} hacia arriba a la hora completa.
+     */
+    private List<ConteoReproducciones> top(String tablaDia, String tablaHora, LocalDateTime desde, LocalDateTime hasta, int n) {
+        List<ConteoReproducciones> resultado = new ArrayList<>();
+        LocalDateTime inicio = desde.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime fin = hasta.truncatedTo(ChronoUnit.HOURS).equals(hasta) ? hasta : hasta.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        if (!inicio.isBefore(fin) || n <= 0 || !asegurarTablas()) return resultado;
+
+        List<String> partes = new ArrayList<>();
+        List<Object> parametros = new ArrayList<>();
+        LocalDate diaInicio = inicio.toLocalDate();
+        LocalDate diaFin = fin.toLocalDate();
+
+        if (diaInicio.equals(diaFin)) {
+            agregarHoras(tablaHora, diaInicio, inicio.getHour(), fin.getHour(), partes, parametros);
+        } else {
+            LocalDate primerDiaCompleto = diaInicio;
+            if (inicio.getHour() > 0) {
+                agregarHoras(tablaHora, diaInicio, inicio.getHour(), 24, partes, parametros);
+                primerDiaCompleto = diaInicio.plusDays(1);
+            }
+            if (primerDiaCompleto.isBefore(diaFin)) {
+                partes.add("SELECT id, reproducciones, segundos FROM " + tablaDia + " WHERE fecha >= ? AND fecha < ?");
+                parametros.add(java.sql.Date.valueOf(primerDiaCompleto));
+                parametros.add(java.sql.Date.valueOf(diaFin));
+            }
+            if (fin.getHour() > 0) {
+                agregarHoras(tablaHora, diaFin, 0, fin.getHour(), partes, parametros);
+            }
+        }
+
+        String sql = "SELECT id, SUM(reproducciones) AS total, SUM(segundos) AS segundos FROM (" +
+                String.join(" UNION ALL ", partes) + ") r GROUP BY id ORDER BY total DESC, id LIMIT ?";
+
+        try (Connection con = ConexionDB.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+
+            int i = 1;
+            for (Object parametro : parametros) {
+                ps.setObject(i++, parametro);
+            }
+            ps.setInt(i, n);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    resultado.add(new ConteoReproducciones(rs.getInt(1), rs.getLong(2), rs.getLong(3)));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error al consultar el top de reproducciones: " + e.getMessage());
+        }
+        return resultado;
+    }
+
+    private static void agregarHoras(String tablaHora, LocalDate dia, int desdeHora, int hastaHora, List<String> partes, List<Object> parametros) {
+        partes.add("SELECT id, reproducciones, segundos FROM " + tablaHora + " WHERE fecha = ? AND hora >= ? AND hora < ?");
+        parametros.add(java.sql.Date.valueOf(dia));
+        parametros.add(desdeHora);
+        parametros.add(hastaHora);
+    }
+
+    // -------------------------------------------------------------------------
+    // --- RECONSTRUCCIÓN ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Completa los resúmenes de las fechas [desde, hasta] (inclusive) a partir de la tabla
+     * {@code reproducciones}, en una transacción. Útil tras cargas masivas que no pasaron por el DAO.
+     * <p>
+     * La tabla cruda guarda solo la última reproducción de cada (usuario, canción), así que cuenta
+     * menos eventos que los resúmenes. Por eso no reemplaza los conteos: cada intervalo queda con el
+     * mayor entre su conteo actual y el de la tabla cruda. Nunca se pierden eventos ya contados.
+     *
+     * @return true si la reconstrucción terminó correctamente.
+     */
+    public boolean reconstruir(LocalDate desde, LocalDate hasta) {
+        if (!asegurarTablas()) return false;
+        String[][] definiciones = {
+                {TABLA_CANCION_HORA, "idCancion", "true"},
+                {TABLA_CANCION_DIA, "idCancion", "false"},
+                {TABLA_USUARIO_HORA, "idUsuario", "true"},
+                {TABLA_USUARIO_DIA, "idUsuario", "false"}
+        };
+
+        try (Connection con = ConexionDB.getConnection()) {
+            con.setAutoCommit(false);
+            try {
+                for (String[] definicion : definiciones) {
+                    String tabla = definicion[0];
+                    String columnaId = definicion[1];
+                    boolean porHora = Boolean.parseBoolean(definicion[2]);
+
+                    String sql = porHora
+                            ? "INSERT INTO " + tabla + " (id, fecha, hora, reproducciones, segundos) " +
+                            "SELECT " + columnaId + ", fechaReproduccion, HOUR(horaReproduccion), COUNT(*), SUM(segundosReproducidos) " +
+                            "FROM reproducciones WHERE fechaReproduccion BETWEEN ? AND ? " +
+                            "GROUP BY " + columnaId + ", fechaReproduccion, HOUR(horaReproduccion)"
+                            : "INSERT INTO " + tabla + " (id, fecha, reproducciones, segundos) " +
+                            "SELECT " + columnaId + ", fechaReproduccion, COUNT(*), SUM(segundosReproducidos) " +
+                            "FROM reproducciones WHERE fechaReproduccion BETWEEN ? AND ? " +
+                            "GROUP BY " + columnaId + ", fechaReproduccion";
+                    sql += " ON DUPLICATE KEY UPDATE " +
+                            "segundos = IF(VALUES(reproducciones) > reproducciones, VALUES(segundos), segundos), " +
+                            "reproducciones = GREATEST(reproducciones, VALUES(reproducciones))";
+                    try (PreparedStatement ps = con.prepareStatement(sql)) {
+                        ps.setDate(1, java.sql.Date.valueOf(desde));
+                        ps.setDate(2, java.sql.Date.valueOf(hasta));
+                        ps.executeUpdate();
+                    }
+                }
+                con.commit();
+                return true;
+
+            } catch (SQLException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error al reconstruir los resúmenes de reproducciones: " + e.getMessage());
+            return false;
+        }
+    }
+}
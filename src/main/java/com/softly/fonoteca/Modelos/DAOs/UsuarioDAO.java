@@ -1,18 +1,33 @@
 package com.softly.fonoteca.Modelos.DAOs;
 
-import at.favre.lib.crypto.bcrypt.BCrypt;
+import com.softly.fonoteca.Modelos.DTOs.CredencialUsuario;
 import com.softly.fonoteca.Modelos.DTOs.Usuario;
+import com.softly.fonoteca.utilities.CacheLRU;
 import com.softly.fonoteca.utilities.ConexionDB;
+import com.softly.fonoteca.utilities.EjecutorBCrypt;
+import com.softly.fonoteca.utilities.GestorSesiones;
+import com.softly.fonoteca.utilities.SecurityUtils;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionException;
 
 public class UsuarioDAO extends BaseDAO<Usuario> {
 
-    // Costo recomendado para BCrypt
-    private static final int BCRYPT_COST = 12;
+    /**
+     * Emails sin usuario (caché negativa), compartida por todas las instancias: los intentos repetidos
+     * con un email desconocido no consultan la BD. Las credenciales encontradas no se cachean: la BD se
+     * comparte con otros clientes, y un hash cacheado seguiría aceptando una contraseña ya cambiada.
+     * Se vacía con cada escritura en usuarios.
+     */
+    private static final CacheLRU<String, Boolean> CACHE_EMAILS_INEXISTENTES =
+            new CacheLRU<>(256, Duration.ofSeconds(30), false);
 
     @Override
     protected String getTableName() {
@@ -46,11 +61,11 @@ public class UsuarioDAO extends BaseDAO<Usuario> {
         String passwordValue = usuario.getHashedPassword();
         String finalHash;
 
-        // 1. Detección y Hashing de Contraseña
-        if (passwordValue != null && passwordValue.length() < 60 && !passwordValue.startsWith("$2")) {
+        // 1. Detección y Hashing de Contraseña (los lotes llegan ya hasheados: ver hashearPendientes)
+        if (esTextoPlano(passwordValue)) {
 
-            // Usamos el método de BCrypt para hashear
-            finalHash = BCrypt.withDefaults().hashToString(BCRYPT_COST, passwordValue.toCharArray());
+            // Usamos el método de BCrypt para hashear (con el costo calibrado)
+            finalHash = SecurityUtils.hashPassword(passwordValue.toCharArray());
         } else {
             // Es un hash existente (viene de la DB o ya fue hasheado) o es nulo.
             finalHash = passwordValue;
@@ -87,6 +102,90 @@ public class UsuarioDAO extends BaseDAO<Usuario> {
         return usuario;
     }
 
+    /**
+     * Modifica el usuario; si cambió la contraseña, revoca su sesión en memoria.
+     */
+    @Override
+    public boolean modificar(Usuario usuario) {
+        boolean modificado = super.modificar(usuario);
+        if (modificado) {
+            GestorSesiones.revocarSiCambioPassword(usuario.getId(), usuario.getHashedPassword());
+        }
+        return modificado;
+    }
+
+    /**
+     * Registra los usuarios por lotes, con las contraseñas en texto plano ya hasheadas (ver {@link #hashearPendientes}).
+     */
+    @Override
+    public ResultadoLote registrarLote(List<Usuario> usuarios) {
+        hashearPendientes(usuarios);
+        return super.registrarLote(usuarios);
+    }
+
+    @Override
+    public ResultadoLote modificarLote(List<Usuario> usuarios) {
+        hashearPendientes(usuarios);
+        ResultadoLote resultado = super.modificarLote(usuarios);
+        for (int i = 0; i < usuarios.size(); i++) {
+            if (resultado.isExitoso(i)) {
+                GestorSesiones.revocarSiCambioPassword(usuarios.get(i).getId(), usuarios.get(i).getHashedPassword());
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Hashea de una vez, en paralelo ({@link EjecutorBCrypt#hashLote}), las contraseñas en texto plano
+     * del lote y deja el hash en cada DTO, en lugar de hashearlas una por una al asignar los parámetros.
+     * Si el pool de BCrypt rechaza el trabajo, las contraseñas quedan como estaban y
+     * {@link #mapToStatement} las hashea una por una.
+     */
+    private static void hashearPendientes(List<Usuario> usuarios) {
+        List<Usuario> pendientes = new ArrayList<>();
+        List<char[]> passwords = new ArrayList<>();
+        for (Usuario usuario : usuarios) {
+            if (esTextoPlano(usuario.getHashedPassword())) {
+                pendientes.add(usuario);
+                passwords.add(usuario.getHashedPassword().toCharArray());
+            }
+        }
+        if (pendientes.isEmpty()) return;
+
+        try {
+            List<String> hashes = EjecutorBCrypt.hashLote(passwords).join();
+            for (int i = 0; i < pendientes.size(); i++) {
+                pendientes.get(i).setHashedPassword(hashes.get(i));
+            }
+        } catch (CompletionException e) {
+            System.err.println("❌ No se pudieron hashear en paralelo las contraseñas del lote: " + e.getMessage());
+        } finally {
+            passwords.forEach(password -> Arrays.fill(password, '\0'));
+        }
+    }
+
+    /**
+     * true si el valor no es un hash BCrypt (una contraseña en texto plano a hashear).
+     */
+    private static boolean esTextoPlano(String password) {
+        return password != null && password.length() < 60 && !password.startsWith("$2");
+    }
+
+    /**
+     * Elimina el usuario y revoca su sesión en memoria.
+     */
+    @Override
+    public boolean eliminar(int id) {
+        boolean eliminado = super.eliminar(id);
+        if (eliminado) {
+            GestorSesiones.revocarUsuario(id);
+        }
+        return eliminado;
+    }
+
+    /**
+     * Busca un usuario completo por email. Para autenticar, usar {@link #buscarCredencial(String)}.
+     */
     public Usuario buscarPorEmail(String email) {
 
         String sql = "SELECT * FROM usuarios WHERE email = ?";
@@ -112,4 +211,86 @@ public class UsuarioDAO extends BaseDAO<Usuario> {
             return null;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Reemplaza el hash de la contraseña solo si sigue siendo {@code hashAnterior}
+     * (no pisa un cambio de contraseña concurrente). Lo usa el rehash al iniciar sesión.
+     *
+     * @return true si se actualizó el hash.
+     */
+    public boolean actualizarHash(int idUsuario, String hashAnterior, String hashNuevo) {
+        String sql = "UPDATE usuarios SET password = ? WHERE idUsuario = ? AND password = ?";
+
+        try (Connection con = ConexionDB.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+
+            ps.setString(1, hashNuevo);
+            ps.setInt(2, idUsuario);
+            ps.setString(3, hashAnterior);
+            boolean actualizado = ps.executeUpdate() > 0;
+            if (actualizado) {
+                alEscribir();
+                // Misma contraseña con otro costo: la sesión sigue siendo válida
+                GestorSesiones.actualizarHash(idUsuario, hashAnterior, hashNuevo);
+            }
+            return actualizado;
+
+        } catch (SQLException e) {
+            System.err.println("Error al actualizar el hash del usuario " + idUsuario + ": " + e.getLocalizedMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Obtiene solo los datos necesarios para autenticar (ID, email y hash). Los emails inexistentes
+     * se recuerdan unos segundos. El email se compara tal como se escribió (sin los espacios de los
+     * extremos), con la intercalación de la columna; la búsqueda usa el índice de
+     * {@code sql/indices_usuarios.sql}.
+     *
+     * @return La credencial, o null si no existe un usuario con ese email o hay error.
+     */
+    public CredencialUsuario buscarCredencial(String email) {
+        if (email == null || email.isBlank()) return null;
+
+        // Solo se cachea el "no existe" (Boolean.TRUE); una credencial encontrada se devuelve sin guardarla
+        CredencialUsuario[] encontrada = new CredencialUsuario[1];
+        Boolean inexistente = CACHE_EMAILS_INEXISTENTES.obtener(email.trim(), clave -> {
+            encontrada[0] = consultarCredencial(clave);
+            return encontrada[0] == null ? Boolean.TRUE : null;
+        });
+        return inexistente != null ? null : encontrada[0];
+    }
+
+    private CredencialUsuario consultarCredencial(String email) {
+        String sql = "SELECT idUsuario, email, password FROM usuarios WHERE email = ? LIMIT 1";
+
+        try (Connection con = ConexionDB.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+
+            ps.setString(1, email);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? new CredencialUsuario(rs.getInt(1), rs.getString(2), rs.getString(3)) : null;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error critico en la busqueda de credenciales por email: " + e.getLocalizedMessage());
+            // Un error no debe quedar cacheado como "no existe"
+            throw new IllegalStateException("No se pudo consultar la credencial.", e);
+        }
+    }
+
+    /**
+     * Un alta o un cambio de email puede dar usuario a un email de la caché negativa:
+     * con cada escritura se vacía la caché de emails inexistentes.
+     */
+    @Override
+    protected void alEscribir() {
+        CACHE_EMAILS_INEXISTENTES.limpiar();
+    }
+
+    /**
+     * Caché de emails inexistentes (expone aciertos, fallos y desalojos).
+     */
+    public static CacheLRU<String, Boolean> getCacheEmailsInexistentes() {
+        return CACHE_EMAILS_INEXISTENTES;
+    }
+}
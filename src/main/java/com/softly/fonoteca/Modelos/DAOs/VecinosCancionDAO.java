@@ -0,0 +1,174 @@
+package com.softly.fonoteca.Modelos.DAOs;
+
+import com.softly.fonoteca.Modelos.DTOs.CancionRecomendada;
+import com.softly.fonoteca.utilities.ConexionDB;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Listas de vecinos por canción ("quienes escucharon esto también escucharon") calculadas por
+ * {@link com.softly.fonoteca.utilities.RecomendadorCanciones}: para cada canción, sus vecinos más
+ * similares ordenados por posición. La consulta de una canción es una lectura por clave primaria.
+ */
+public class VecinosCancionDAO {
+
+    private static final String TABLA = "vecinos_cancion";
+    private static final int FILAS_POR_LOTE = 1000;
+
+    private static volatile boolean tablaCreada = false;
+
+    /**
+     * Recibe cada fila persistida al recorrer la tabla.
+     */
+    @FunctionalInterface
+    public interface ConsumidorVecino {
+        void aceptar(int idCancion, int posicion, int idVecino, float similitud);
+    }
+
+    /**
+     * Crea la tabla si no existe (una vez por ejecución).
+     * Debe llamarse fuera de cualquier transacción: el DDL hace commit implícito.
+     */
+    static void asegurarTabla() {
+        if (tablaCreada) return;
+        synchronized (VecinosCancionDAO.class) {
+            if (tablaCreada) return;
+            try (Connection con = ConexionDB.getConnection();
+                 Statement st = con.createStatement()) {
+
+                st.execute("CREATE TABLE IF NOT EXISTS " + TABLA + " (" +
+                        "idCancion INT NOT NULL, posicion SMALLINT NOT NULL, " +
+                        "idVecino INT NOT NULL, similitud FLOAT NOT NULL, " +
+                        "PRIMARY KEY (idCancion, posicion))");
+                tablaCreada = true;
+
+            } catch (SQLException e) {
+                System.err.println("❌ Error al crear la tabla de vecinos por canción: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Canciones más similares a la indicada, de mayor a menor similitud.
+     */
+    public List<CancionRecomendada> obtenerSimilares(int idCancion, int n) {
+        List<CancionRecomendada> similares = new ArrayList<>();
+        if (n <= 0) return similares;
+        asegurarTabla();
+
+        String sql = "SELECT idVecino, similitud FROM " + TABLA + " WHERE idCancion = ? ORDER BY posicion LIMIT ?";
+        try (Connection con = ConexionDB.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+
+            ps.setInt(1, idCancion);
+            ps.setInt(2, n);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    similares.add(new CancionRecomendada(rs.getInt(1), rs.getFloat(2)));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error al consultar las canciones similares: " + e.getMessage());
+        }
+        return similares;
+    }
+
+    /**
+     * Recorre todas las listas persistidas (con cursor), en orden de canción y posición.
+     *
+     * @return Filas leídas, o -1 si falló la lectura.
+     */
+    public long recorrer(ConsumidorVecino consumidor) {
+        asegurarTabla();
+        String sql = "SELECT idCancion, posicion, idVecino, similitud FROM " + TABLA + " ORDER BY idCancion, posicion";
+        long leidas = 0;
+
+        try (Connection con = ConexionDB.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            ps.setFetchSize(FILAS_POR_LOTE);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    consumidor.aceptar(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getFloat(4));
+                    leidas++;
+                }
+            }
+            return leidas;
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error al leer los vecinos por canción: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Reemplaza las listas de las canciones indicadas en una transacción.
+     *
+     * @param idsCancion        Canciones cuyas listas se reemplazan.
+     * @param idsVecinos        Vecinos de cada canción, {@code vecinosPorCancion} posiciones por canción
+     *                          en el orden de {@code idsCancion}; 0 marca una posición vacía.
+     * @param similitudes       Similitud de cada vecino, con la misma disposición.
+     * @param reemplazarTodo    Si es true, se borra la tabla completa antes de escribir (reconstrucción).
+     * @return true si la escritura terminó correctamente.
+     */
+    public boolean guardar(int[] idsCancion, int[] idsVecinos, float[] similitudes, int vecinosPorCancion, boolean reemplazarTodo) {
+        asegurarTabla();
+
+        try (Connection con = ConexionDB.getConnection()) {
+            con.setAutoCommit(false);
+            try {
+                if (reemplazarTodo) {
+                    try (Statement st = con.createStatement()) {
+                        st.executeUpdate("DELETE FROM " + TABLA);
+                    }
+                } else {
+                    try (PreparedStatement ps = con.prepareStatement("DELETE FROM " + TABLA + " WHERE idCancion = ?")) {
+                        for (int i = 0; i < idsCancion.length; i++) {
+                            ps.setInt(1, idsCancion[i]);
+                            ps.addBatch();
+                            if ((i + 1) % FILAS_POR_LOTE == 0) ps.executeBatch();
+                        }
+                        ps.executeBatch();
+                    }
+                }
+
+                String sql = "INSERT INTO " + TABLA + " (idCancion, posicion, idVecino, similitud) VALUES (?,?,?,?)";
+                try (PreparedStatement ps = con.prepareStatement(sql)) {
+                    int enLote = 0;
+                    for (int i = 0; i < idsCancion.length; i++) {
+                        int base = i * vecinosPorCancion;
+                        for (int posicion = 0; posicion < vecinosPorCancion && idsVecinos[base + posicion] != 0; posicion++) {
+                            ps.setInt(1, idsCancion[i]);
+                            ps.setInt(2, posicion);
+                            ps.setInt(3, idsVecinos[base + posicion]);
+                            ps.setFloat(4, similitudes[base + posicion]);
+                            ps.addBatch();
+                            if (++enLote == FILAS_POR_LOTE) {
+                                ps.executeBatch();
+                                enLote = 0;
+                            }
+                        }
+                    }
+                    if (enLote > 0) ps.executeBatch();
+                }
+                con.commit();
+                return true;
+
+            } catch (SQLException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error al guardar los vecinos por canción: " + e.getMessage());
+            return false;
+        }
+    }
+}
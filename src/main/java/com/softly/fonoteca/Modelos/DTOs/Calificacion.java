@@ -2,8 +2,17 @@ package com.softly.fonoteca.Modelos.DTOs;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.regex.Pattern;
 
 public class Calificacion {
+    /** Escala numérica de las calificaciones: 1 a 5. */
+    public static final int PUNTAJE_MINIMO = 1;
+    public static final int PUNTAJE_MAXIMO = 5;
+    /** Valor de {@link #puntajeDe(String)} cuando el texto no es una calificación válida. */
+    public static final int SIN_PUNTAJE = 0;
+
+    private static final Pattern NUMERO = Pattern.compile("\\d{1,9}(\\.\\d{1,9})?");
+
     private int idUsuario;
     private int idCancion;
     private String calificacion;
@@ -70,4 +79,48 @@ public class Calificacion {
     public void setHoraCalificacion(LocalTime horaCalificacion) {
         this.horaCalificacion = horaCalificacion;
     }
+
+    /**
+     * Puntaje numérico (1 a 5) de esta calificación, o {@link #SIN_PUNTAJE}.
+     */
+    public int getPuntaje() {
+        return puntajeDe(calificacion);
+    }
+
+    /**
+     * Interpreta el texto libre de la columna {@code calificacion} en la escala 1 a 5.
+     * Acepta un número decimal ("4", "4.5", "4,5"; se redondea), una fracción ("8/10"; se escala a 5)
+     * o estrellas ("★★★", "***"). Otras notaciones numéricas ("0x4", "4e0", "4f", "NaN") no se aceptan.
+     *
+     * @return El puntaje, o {@link #SIN_PUNTAJE} si el texto no representa una calificación válida.
+     */
+    public static int puntajeDe(String texto) {
+        if (texto == null) return SIN_PUNTAJE;
+        String limpio = texto.trim().replace(',', '.');
+        if (limpio.isEmpty()) return SIN_PUNTAJE;
+
+        if (limpio.chars().allMatch(c -> c == '★' || c == '*')) {
+            return acotar(limpio.length());
+        }
+        int barra = limpio.indexOf('/');
+        if (barra > 0) {
+            double valor = numeroDe(limpio.substring(0, barra).trim());
+            double escala = numeroDe(limpio.substring(barra + 1).trim());
+            if (Double.isNaN(valor) || Double.isNaN(escala) || escala <= 0) return SIN_PUNTAJE;
+            return acotar((int) Math.round(valor / escala * PUNTAJE_MAXIMO));
+        }
+        double valor = numeroDe(limpio);
+        return Double.isNaN(valor) ? SIN_PUNTAJE : acotar((int) Math.round(valor));
+    }
+
+    /**
+     * @return El valor de un decimal simple ("4", "4.5"), o NaN si el texto tiene otra forma.
+     */
+    private static double numeroDe(String texto) {
+        return NUMERO.matcher(texto).matches() ? Double.parseDouble(texto) : Double.NaN;
+    }
+
+    private static int acotar(int puntaje) {
+        return puntaje >= PUNTAJE_MINIMO && puntaje <= PUNTAJE_MAXIMO ? puntaje : SIN_PUNTAJE;
+    }
 }
@@ -0,0 +1,32 @@
+package com.softly.fonoteca.Modelos.DTOs;
+
+/**
+ * Canción sugerida, con su puntaje (mayor = más parecida):
+ * <ul>
+ *     <li>Recomendador por reproducciones: la similitud coseno con otra canción, o la suma de similitudes
+ *     en las recomendaciones para un usuario.</li>
+ *     <li>Índice de atributos: {@code 1 / (1 + distancia)} por BPM y duración.</li>
+ * </ul>
+ */
+public class CancionRecomendada {
+    private final int idCancion;
+    private final float puntaje;
+
+    public CancionRecomendada(int idCancion, float puntaje) {
+        this.idCancion = idCancion;
+        this.puntaje = puntaje;
+    }
+
+    public int getIdCancion() {
+        return idCancion;
+    }
+
+    public float getPuntaje() {
+        return puntaje;
+    }
+
+    @Override
+    public String toString() {
+        return idCancion + ": " + puntaje;
+    }
+}
@@ -0,0 +1,36 @@
+package com.softly.fonoteca.Modelos.DTOs;
+
+/**
+ * Total de reproducciones (y segundos reproducidos) de una canción o de un usuario en un rango de tiempo.
+ */
+public class ConteoReproducciones {
+    private final int id;
+    private final long reproducciones;
+    private final long segundos;
+
+    public ConteoReproducciones(int id, long reproducciones, long segundos) {
+        this.id = id;
+        this.reproducciones = reproducciones;
+        this.segundos = segundos;
+    }
+
+    /**
+     * @return idCancion o idUsuario, según la consulta.
+     */
+    public int getId() {
+        return id;
+    }
+
+    public long getReproducciones() {
+        return reproducciones;
+    }
+
+    public long getSegundos() {
+        return segundos;
+    }
+
+    @Override
+    public String toString() {
+        return id + ": " + reproducciones + " reproducciones, " + segundos + " s";
+    }
+}
@@ -0,0 +1,35 @@
+package com.softly.fonoteca.Modelos.DTOs;
+
+/**
+ * Datos mínimos para autenticar a un usuario: ID, email y hash BCrypt de la contraseña.
+ * Inmutable, porque se comparte desde la caché de credenciales de UsuarioDAO.
+ */
+public class CredencialUsuario {
+    private final int idUsuario;
+    private final String email;
+    private final String hashedPassword;
+
+    public CredencialUsuario(int idUsuario, String email, String hashedPassword) {
+        this.idUsuario = idUsuario;
+        this.email = email;
+        this.hashedPassword = hashedPassword;
+    }
+
+    public int getIdUsuario() {
+        return idUsuario;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getHashedPassword() {
+        return hashedPassword;
+    }
+
+    @Override
+    public String toString() {
+        // El hash no se incluye para no filtrarlo en logs
+        return "CredencialUsuario{idUsuario=" + idUsuario + ", email=" + email + "}";
+    }
+}
@@ -0,0 +1,76 @@
+package com.softly.fonoteca.Modelos.DTOs;
+
+/**
+ * Resultado de la búsqueda global del catálogo: la entidad encontrada, el campo que coincidió y su puntaje.
+ */
+public class ResultadoBusqueda {
+
+    public enum Tipo {CANCION, ALBUM, INTERPRETE}
+
+    /**
+     * Campos indexados por la búsqueda global.
+     */
+    public enum Campo {
+        TITULO_CANCION(Tipo.CANCION, "Canción"),
+        TITULO_ALBUM(Tipo.ALBUM, "Álbum"),
+        SELLO_ALBUM(Tipo.ALBUM, "Sello"),
+        NOMBRE_INTERPRETE(Tipo.INTERPRETE, "Intérprete");
+
+        private final Tipo tipo;
+        private final String etiqueta;
+
+        Campo(Tipo tipo, String etiqueta) {
+            this.tipo = tipo;
+            this.etiqueta = etiqueta;
+        }
+
+        public Tipo getTipo() {
+            return tipo;
+        }
+
+        public String getEtiqueta() {
+            return etiqueta;
+        }
+    }
+
+    private final Campo campo;
+    private final int id;
+    private final String texto;
+    private final float puntaje;
+
+    public ResultadoBusqueda(Campo campo, int id, String texto, float puntaje) {
+        this.campo = campo;
+        this.id = id;
+        this.texto = texto;
+        this.puntaje = puntaje;
+    }
+
+    public Campo getCampo() {
+        return campo;
+    }
+
+    public Tipo getTipo() {
+        return campo.getTipo();
+    }
+
+    /**
+     * @return idCancion, idAlbum o idInterprete, según el tipo.
+     */
+    public int getId() {
+        return id;
+    }
+
+    public String getTexto() {
+        return texto;
+    }
+
+    public float getPuntaje() {
+        return puntaje;
+    }
+
+    // Es lo que muestra la lista de resultados
+    @Override
+    public String toString() {
+        return campo.getEtiqueta() + ": " + texto;
+    }
+}
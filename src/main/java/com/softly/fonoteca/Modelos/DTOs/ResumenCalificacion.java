@@ -0,0 +1,54 @@
+package com.softly.fonoteca.Modelos.DTOs;
+
+/**
+ * Agregado de las calificaciones de una canción: cantidad, suma de puntajes e histograma por puntaje.
+ */
+public class ResumenCalificacion {
+    private final int idCancion;
+    private final int cantidad;
+    private final long suma;
+    private final int[] histograma;
+
+    /**
+     * @param histograma Cantidad de calificaciones por puntaje; la posición 0 corresponde a
+     *                   {@link Calificacion#PUNTAJE_MINIMO}.
+     */
+    public ResumenCalificacion(int idCancion, int cantidad, long suma, int[] histograma) {
+        this.idCancion = idCancion;
+        this.cantidad = cantidad;
+        this.suma = suma;
+        this.histograma = histograma;
+    }
+
+    public int getIdCancion() {
+        return idCancion;
+    }
+
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    public long getSuma() {
+        return suma;
+    }
+
+    /**
+     * @return Promedio de los puntajes, o 0 si la canción no tiene calificaciones.
+     */
+    public double getPromedio() {
+        return cantidad > 0 ? (double) suma / cantidad : 0;
+    }
+
+    /**
+     * @return Cantidad de calificaciones con el puntaje dado (1 a 5).
+     */
+    public int getCantidadConPuntaje(int puntaje) {
+        int i = puntaje - Calificacion.PUNTAJE_MINIMO;
+        return i >= 0 && i < histograma.length ? histograma[i] : 0;
+    }
+
+    @Override
+    public String toString() {
+        return idCancion + ": " + String.format("%.2f", getPromedio()) + " (" + cantidad + " calificaciones)";
+    }
+}
@@ -31,7 +31,8 @@ public class AlbumVista extends JFrame implements CRUDView {
     public JTextField txtSearch;
 
     public AlbumVista() {
-        super.setContentPane(contentPane);
+        txtSearch = new JTextField();
+        super.setContentPane(PanelFiltro.envolver(contentPane, txtSearch));
     }
 
 
@@ -65,6 +66,11 @@ public class AlbumVista extends JFrame implements CRUDView {
         return txtSearch.getText();
     }
 
+    @Override
+    public JTextField getTxtSearch() {
+        return txtSearch;
+    }
+
     {
 // GUI initializer generated by IntelliJ IDEA GUI Designer
 // >>> IMPORTANT!! <<<
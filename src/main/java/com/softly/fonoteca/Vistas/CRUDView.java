@@ -12,4 +12,6 @@ public interface CRUDView extends BaseView {
 
     String getSearchText(); // Un método que devuelve el contenido del txtSearch
 
+    JTextField getTxtSearch(); // Campo que filtra la tabla principal (FiltroTabla)
+
 }
@@ -22,9 +22,11 @@ public class CalificacionesVista extends JFrame {
     public JButton eliminarButton;
     public JButton regresarButton;
     public JTextField txtCalificacion;
+    public JTextField txtSearch;
 
     public CalificacionesVista() {
-        setContentPane(contentPane);
+        txtSearch = new JTextField();
+        setContentPane(PanelFiltro.envolver(contentPane, txtSearch));
     }
 
 
@@ -35,7 +35,8 @@ public class CancionesVista extends JFrame implements CRUDView {
 
 
     public CancionesVista() {
-        super.setContentPane(contentPane);
+        txtBuscarCancion = new JTextField();
+        super.setContentPane(PanelFiltro.envolver(contentPane, txtBuscarCancion));
     }
 
     @Override
@@ -68,6 +69,11 @@ public class CancionesVista extends JFrame implements CRUDView {
         return txtBuscarCancion.getText();
     }
 
+    @Override
+    public JTextField getTxtSearch() {
+        return txtBuscarCancion;
+    }
+
     {
 // GUI initializer generated by IntelliJ IDEA GUI Designer
 // >>> IMPORTANT!! <<<
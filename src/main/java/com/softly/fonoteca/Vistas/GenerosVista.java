@@ -23,7 +23,8 @@ public class GenerosVista extends JFrame implements CRUDView {
     public JTable tablaGeneros;
 
     public GenerosVista() {
-        super.setContentPane(contentPane);
+        txtSearch = new JTextField();
+        super.setContentPane(PanelFiltro.envolver(contentPane, txtSearch));
         Color colorDelTema = UIManager.getColor("MenuBar.borderColor");
         txtDescripcion.setBorder(BorderFactory.createLineBorder(colorDelTema, 1));
     }
@@ -58,6 +59,11 @@ public class GenerosVista extends JFrame implements CRUDView {
         return txtSearch.getText();
     }
 
+    @Override
+    public JTextField getTxtSearch() {
+        return txtSearch;
+    }
+
     {
 // GUI initializer generated by IntelliJ IDEA GUI Designer
 // >>> IMPORTANT!! <<<
@@ -27,7 +27,8 @@ public class InterpretesVista extends JFrame implements CRUDView {
     public JTable tablaInterpretes;
 
     public InterpretesVista() {
-        super.setContentPane(contentPane);
+        txtSearch = new JTextField();
+        super.setContentPane(PanelFiltro.envolver(contentPane, txtSearch));
     }
 
     @Override
@@ -60,6 +61,11 @@ public class InterpretesVista extends JFrame implements CRUDView {
         return txtSearch.getText();
     }
 
+    @Override
+    public JTextField getTxtSearch() {
+        return txtSearch;
+    }
+
     {
 // GUI initializer generated by IntelliJ IDEA GUI Designer
 // >>> IMPORTANT!! <<<
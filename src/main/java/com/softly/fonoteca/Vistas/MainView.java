@@ -2,6 +2,7 @@ package com.softly.fonoteca.Vistas;
 
 import com.intellij.uiDesigner.core.GridConstraints;
 import com.intellij.uiDesigner.core.GridLayoutManager;
+import com.softly.fonoteca.Modelos.DTOs.ResultadoBusqueda;
 
 import javax.swing.*;
 import javax.swing.plaf.FontUIResource;
@@ -21,13 +22,63 @@ public class MainView extends JFrame implements BaseView {
     public JButton salirButton;
     public JButton calificacionesButton;
 
+    // Búsqueda global del catálogo (creada en código, fuera del diseñador)
+    public JTextField txtBuscar;
+    public JList<ResultadoBusqueda> listaResultados;
+    public JPopupMenu popupResultados;
+    // "Salir" vuelve al login conservando la sesión; este botón la cierra
+    public JButton cerrarSesionButton;
+
     public MainView() {
         // Usamos la implementación de JFrame (super) para configurar la ventana
-        super.setContentPane(contentPane); // Usa el contentPane generado por el diseñador
+        super.setContentPane(crearPanelConBusqueda()); // Envuelve el contentPane generado por el diseñador
         super.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         super.pack();
     }
 
+    /**
+     * Agrega la caja de búsqueda global (y el botón para cerrar la sesión) sobre el contentPane del diseñador.
+     * Los resultados se muestran en un popup debajo de la caja, sin quitarle el foco.
+     */
+    private JPanel crearPanelConBusqueda() {
+        txtBuscar = new JTextField();
+        txtBuscar.setFont(txtBuscar.getFont().deriveFont(18f));
+        txtBuscar.setToolTipText("Buscar canciones, álbumes, sellos e intérpretes");
+
+        JLabel etiqueta = new JLabel("Buscar:");
+        etiqueta.setFont(etiqueta.getFont().deriveFont(18f));
+
+        JPanel barra = new JPanel(new BorderLayout(10, 0));
+        barra.setBackground(contentPane.getBackground());
+        barra.setBorder(BorderFactory.createEmptyBorder(15, 50, 0, 50));
+        barra.add(etiqueta, BorderLayout.WEST);
+        barra.add(txtBuscar, BorderLayout.CENTER);
+
+        cerrarSesionButton = new JButton("Cerrar sesión");
+        cerrarSesionButton.setFont(cerrarSesionButton.getFont().deriveFont(16f));
+        cerrarSesionButton.setBackground(salirButton.getBackground());
+        cerrarSesionButton.setFocusPainted(false);
+        cerrarSesionButton.setToolTipText("Cierra la sesión y vuelve al inicio de sesión");
+        barra.add(cerrarSesionButton, BorderLayout.EAST);
+        salirButton.setToolTipText("Vuelve al inicio de sesión sin cerrar la sesión");
+
+        listaResultados = new JList<>(new DefaultListModel<>());
+        listaResultados.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        listaResultados.setFocusable(false);
+        listaResultados.setVisibleRowCount(10);
+
+        popupResultados = new JPopupMenu();
+        popupResultados.setFocusable(false);
+        popupResultados.setLayout(new BorderLayout());
+        popupResultados.add(new JScrollPane(listaResultados), BorderLayout.CENTER);
+
+        JPanel raiz = new JPanel(new BorderLayout());
+        raiz.setBackground(contentPane.getBackground());
+        raiz.add(barra, BorderLayout.NORTH);
+        raiz.add(contentPane, BorderLayout.CENTER);
+        return raiz;
+    }
+
     {
 // GUI initializer generated by IntelliJ IDEA GUI Designer
 // >>> IMPORTANT!! <<<
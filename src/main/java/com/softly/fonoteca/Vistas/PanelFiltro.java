@@ -0,0 +1,35 @@
+package com.softly.fonoteca.Vistas;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Barra "Filtrar" sobre el contenido generado por el diseñador, con el campo que filtra la tabla de la vista.
+ * Se agrega en código para no tocar los .form.
+ */
+final class PanelFiltro {
+
+    private PanelFiltro() {
+    }
+
+    /**
+     * @param contenido contentPane generado por el diseñador.
+     * @param campo     Campo de filtro (lo crea la vista; el controlador lo conecta con FiltroTabla).
+     * @return Panel raíz a usar como contentPane de la ventana.
+     */
+    static JPanel envolver(JPanel contenido, JTextField campo) {
+        campo.setToolTipText("Filtrar las filas de la tabla (todas las palabras, en cualquier columna)");
+
+        JPanel barra = new JPanel(new BorderLayout(8, 0));
+        barra.setBackground(contenido.getBackground());
+        barra.setBorder(BorderFactory.createEmptyBorder(10, 50, 0, 50));
+        barra.add(new JLabel("Filtrar:"), BorderLayout.WEST);
+        barra.add(campo, BorderLayout.CENTER);
+
+        JPanel raiz = new JPanel(new BorderLayout());
+        raiz.setBackground(contenido.getBackground());
+        raiz.add(barra, BorderLayout.NORTH);
+        raiz.add(contenido, BorderLayout.CENTER);
+        return raiz;
+    }
+}
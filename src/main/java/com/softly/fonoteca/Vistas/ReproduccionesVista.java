@@ -27,11 +27,13 @@ public class ReproduccionesVista extends JFrame implements CRUDView {
     public JComboBox cmbCanciones;
     public DatePicker txtFechaReproduccion;
     public TimePicker txtHoraReproduccion;
+    public JTextField txtSearch;
 
 
     public ReproduccionesVista() {
         $$$setupUI$$$();
-        setContentPane(contentPane);
+        txtSearch = new JTextField();
+        setContentPane(PanelFiltro.envolver(contentPane, txtSearch));
     }
 
 
@@ -73,7 +75,12 @@ public class ReproduccionesVista extends JFrame implements CRUDView {
 
     @Override
     public String getSearchText() {
-        return "";
+        return txtSearch.getText();
+    }
+
+    @Override
+    public JTextField getTxtSearch() {
+        return txtSearch;
     }
 
     /**
@@ -33,7 +33,8 @@ public class UsuariosVista extends JFrame implements CRUDView {
 
 
     public UsuariosVista() {
-        super.setContentPane(contentPane);
+        txtSearch = new JTextField();
+        super.setContentPane(PanelFiltro.envolver(contentPane, txtSearch));
     }
 
     @Override
@@ -66,6 +67,11 @@ public class UsuariosVista extends JFrame implements CRUDView {
         return txtSearch.getText();
     }
 
+    @Override
+    public JTextField getTxtSearch() {
+        return txtSearch;
+    }
+
     {
 // GUI initializer generated by IntelliJ IDEA GUI Designer
 // >>> IMPORTANT!! <<<
@@ -0,0 +1,163 @@
+package com.softly.fonoteca.utilities;
+
+import com.softly.fonoteca.Modelos.DTOs.ComboBoxItem;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché global de las tablas de consulta (géneros, álbumes, intérpretes, canciones, usuarios)
+ * que alimentan los JComboBox. Cada combinación (tabla, columnaID, columnaDisplay) se carga
+ * una sola vez y se comparte como lista inmutable de ComboBoxItem.
+ * <ul>
+ *     <li>Si la entrada supera el TTL, se devuelve la lista actual y se recarga en segundo plano.</li>
+ *     <li>Cuando un DAO escribe en la tabla, se marca inválida y se recarga en segundo plano;
+ *     si alguien la pide antes de que termine, se recarga de forma síncrona.</li>
+ * </ul>
+ */
+public class CacheDimensiones {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private static final Map<String, Dimension> DIMENSIONES = new ConcurrentHashMap<>();
+
+    private CacheDimensiones() {
+    }
+
+    /**
+     * Obtiene los elementos de la dimensión, incluyendo el primer elemento "--- Seleccionar ---" (ID 0).
+     *
+     * @return Lista inmutable compartida; vacía si la consulta falla.
+     */
+    public static List<ComboBoxItem> obtener(String tabla, String columnaID, String columnaDisplay) {
+        Dimension dimension = DIMENSIONES.computeIfAbsent(clave(tabla, columnaID, columnaDisplay),
+                k -> new Dimension(tabla, columnaID, columnaDisplay));
+        return dimension.obtenerInstantanea().items;
+    }
+
+    /**
+     * Construye un modelo de combo sobre la dimensión cacheada, reutilizando su índice ID -> posición.
+     */
+    public static ModeloComboPorId obtenerModelo(String tabla, String columnaID, String columnaDisplay) {
+        Dimension dimension = DIMENSIONES.computeIfAbsent(clave(tabla, columnaID, columnaDisplay),
+                k -> new Dimension(tabla, columnaID, columnaDisplay));
+        Instantanea instantanea = dimension.obtenerInstantanea();
+        return new ModeloComboPorId(instantanea.items, instantanea.indice);
+    }
+
+    /**
+     * Marca como inválidas todas las dimensiones de la tabla y las recarga en segundo plano.
+     * La invocan los DAOs tras escribir en la tabla.
+     */
+    public static void invalidarTabla(String tabla) {
+        for (Dimension dimension : DIMENSIONES.values()) {
+            if (dimension.tabla.equalsIgnoreCase(tabla)) {
+                dimension.invalidar();
+            }
+        }
+    }
+
+    private static String clave(String tabla, String columnaID, String columnaDisplay) {
+        return tabla + "|" + columnaID + "|" + columnaDisplay;
+    }
+
+    /**
+     * Lista publicada junto con su índice ID -> posición (se reemplazan juntos).
+     */
+    private static final class Instantanea {
+        static final Instantanea VACIA = new Instantanea(Collections.emptyList());
+
+        final List<ComboBoxItem> items;
+        final IndiceEnteros indice;
+
+        Instantanea(List<ComboBoxItem> items) {
+            this.items = items;
+            this.indice = ModeloComboPorId.construirIndice(items);
+        }
+    }
+
+    private static final class Dimension {
+        final String tabla;
+        final String columnaID;
+        final String columnaDisplay;
+
+        private volatile Instantanea actual;
+        private volatile long cargadaEn;
+        private volatile boolean invalida;
+        private volatile boolean recargando;
+
+        Dimension(String tabla, String columnaID, String columnaDisplay) {
+            this.tabla = tabla;
+            this.columnaID = columnaID;
+            this.columnaDisplay = columnaDisplay;
+        }
+
+        Instantanea obtenerInstantanea() {
+            Instantanea actuales = actual;
+            if (actuales == null || invalida) {
+                synchronized (this) {
+                    if (actual == null || invalida) {
+                        recargar();
+                    }
+                    return actual != null ? actual : Instantanea.VACIA;
+                }
+            }
+            if (System.nanoTime() - cargadaEn > TTL.toNanos()) {
+                recargarEnSegundoPlano();
+            }
+            return actuales;
+        }
+
+        void invalidar() {
+            invalida = true;
+            recargarEnSegundoPlano();
+        }
+
+        private void recargarEnSegundoPlano() {
+            if (recargando) return;
+            recargando = true;
+            EjecutorAsincrono.ejecutar(() -> {
+                synchronized (this) {
+                    recargar();
+                }
+                return null;
+            }, null).whenComplete((r, e) -> recargando = false);
+        }
+
+        /**
+         * Consulta la tabla y publica una nueva lista. Si falla, se conserva la anterior.
+         */
+        private void recargar() {
+            // La marca se limpia antes de consultar: una escritura concurrente vuelve a marcarla.
+            invalida = false;
+            String sql = "SELECT " + columnaID + ", " + columnaDisplay + " FROM " + tabla;
+
+            try (Connection con = ConexionDB.getConnection();
+                 PreparedStatement ps = con.prepareStatement(sql);
+                 ResultSet rs = ps.executeQuery()) {
+
+                List<ComboBoxItem> nuevos = new ArrayList<>();
+                nuevos.add(new ComboBoxItem(0, "--- Seleccionar ---"));
+                while (rs.next()) {
+                    int id = rs.getInt(1);
+                    if (id > 0) {
+                        nuevos.add(new ComboBoxItem(id, rs.getString(2)));
+                    }
+                }
+                actual = new Instantanea(Collections.unmodifiableList(nuevos));
+                cargadaEn = System.nanoTime();
+
+            } catch (SQLException e) {
+                System.out.println("Error al consultar la base de datos: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.softly.fonoteca.utilities;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Caché en memoria acotada, con desalojo LRU y expiración por tiempo (TTL).
+ * Pensada como caché de lectura (read-through) delante de consultas a la BD.
+ *
+ * @param <K> Tipo de la clave.
+ * @param <V> Tipo del valor.
+ */
+public class CacheLRU<K, V> {
+
+    /** Marca un resultado "no existe" cacheado (caché negativa). */
+    private static final Object NULO = new Object();
+
+    private final int maximo;
+    private final long ttlNanos;
+    private final boolean cachearNulos;
+
+    private final LinkedHashMap<K, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Se incrementa con cada invalidación; una carga iniciada antes de una invalidación
+     * no se guarda, para no reinstalar un valor obsoleto.
+     */
+    private long generacion = 0;
+
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong desalojos = new AtomicLong();
+    private final AtomicLong expirados = new AtomicLong();
+
+    /**
+     * @param maximo       Número máximo de entradas.
+     * @param ttl          Tiempo de vida de cada entrada (null = sin expiración).
+     * @param cachearNulos Si es true, los resultados null del cargador también se cachean.
+     */
+    public CacheLRU(int maximo, Duration ttl, boolean cachearNulos) {
+        if (maximo <= 0) {
+            throw new IllegalArgumentException("El tamaño máximo de la caché debe ser mayor a 0.");
+        }
+        this.maximo = maximo;
+        this.ttlNanos = ttl == null ? Long.MAX_VALUE : ttl.toNanos();
+        this.cachearNulos = cachearNulos;
+    }
+
+    /**
+     * Devuelve el valor cacheado o lo carga con el cargador (fuera del bloqueo) y lo guarda.
+     *
+     * @param clave    La clave a buscar.
+     * @param cargador Consulta el valor cuando no está en la caché.
+     * @return El valor (puede ser null si el cargador devuelve null).
+     */
+    @SuppressWarnings("unchecked")
+    public V obtener(K clave, Function<K, V> cargador) {
+        long generacionInicial;
+        synchronized (this) {
+            Entrada entrada = entradas.get(clave);
+            if (entrada != null && !entrada.expirada()) {
+                aciertos.incrementAndGet();
+                return entrada.valor == NULO ? null : (V) entrada.valor;
+            }
+            if (entrada != null) {
+                entradas.remove(clave);
+                expirados.incrementAndGet();
+            }
+            fallos.incrementAndGet();
+            generacionInicial = generacion;
+        }
+
+        V valor = cargador.apply(clave);
+
+        if (valor != null || cachearNulos) {
+            synchronized (this) {
+                if (generacion == generacionInicial) {
+                    guardar(clave, valor);
+                }
+            }
+        }
+        return valor;
+    }
+
+    /**
+     * Guarda (o reemplaza) un valor en la caché.
+     */
+    public synchronized void put(K clave, V valor) {
+        if (valor == null && !cachearNulos) {
+            entradas.remove(clave);
+            return;
+        }
+        guardar(clave, valor);
+    }
+
+    private void guardar(K clave, V valor) {
+        entradas.put(clave, new Entrada(valor == null ? NULO : valor, System.nanoTime()));
+        if (entradas.size() > maximo) {
+            Iterator<Map.Entry<K, Entrada>> it = entradas.entrySet().iterator();
+            it.next();
+            it.remove();
+            desalojos.incrementAndGet();
+        }
+    }
+
+    /**
+     * Elimina la entrada de la clave (tras modificar o eliminar el registro en la BD).
+     */
+    public synchronized void invalidar(K clave) {
+        generacion++;
+        entradas.remove(clave);
+    }
+
+    /**
+     * Vacía la caché completa.
+     */
+    public synchronized void limpiar() {
+        generacion++;
+        entradas.clear();
+    }
+
+    public synchronized int getTamano() {
+        return entradas.size();
+    }
+
+    public int getMaximo() {
+        return maximo;
+    }
+
+    public long getAciertos() {
+        return aciertos.get();
+    }
+
+    public long getFallos() {
+        return fallos.get();
+    }
+
+    public long getDesalojos() {
+        return desalojos.get();
+    }
+
+    public long getExpirados() {
+        return expirados.get();
+    }
+
+    /**
+     * @return Proporción de aciertos sobre el total de consultas (0 si no hubo consultas).
+     */
+    public double getTasaAciertos() {
+        long total = aciertos.get() + fallos.get();
+        return total == 0 ? 0 : aciertos.get() / (double) total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheLRU{tamano=%d/%d, aciertos=%d, fallos=%d, desalojos=%d, expirados=%d, tasa=%.2f}",
+                getTamano(), maximo, getAciertos(), getFallos(), getDesalojos(), getExpirados(), getTasaAciertos());
+    }
+
+    private final class Entrada {
+        final Object valor;
+        final long creada;
+
+        Entrada(Object valor, long creada) {
+            this.valor = valor;
+            this.creada = creada;
+        }
+
+        boolean expirada() {
+            return System.nanoTime() - creada > ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.softly.fonoteca.utilities;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Carga una tabla de la BD en segundo plano y la publica por lotes:
+ * <ul>
+ *     <li>El modelo crudo ({@link ModeloTablaColumnar}) guarda TODAS las columnas (el rawModel de los controladores).</li>
+ *     <li>El modelo visible ({@link ModeloProyeccion}) muestra solo las columnas solicitadas, sin copiar datos.</li>
+ * </ul>
+ * Ambos modelos comparten las filas, por lo que los índices de fila siempre coinciden.
+ * Si se indica la clave primaria, solo se consultan ella y las columnas a mostrar; el modelo crudo
+ * pasa a ser un {@link ModeloDetalleBajoDemanda} que trae las columnas restantes al seleccionar una fila.
+ * El primer lote se publica en cuanto pasa {@link #PRIMER_LOTE_MS} (o se leen
+ * {@link #FILAS_PRIMER_LOTE} filas), para que las primeras filas aparezcan sin esperar al resto.
+ */
+public class CargadorTabla extends SwingWorker<Integer, Integer> {
+
+    /** Presupuesto de latencia para mostrar las primeras filas. */
+    public static final long PRIMER_LOTE_MS = 100;
+    private static final int FILAS_PRIMER_LOTE = 200;
+
+    /** Los lotes siguientes se publican cada este intervalo o al llegar a este número de filas. */
+    private static final long INTERVALO_LOTE_MS = 250;
+    private static final int FILAS_POR_LOTE = 5000;
+
+    private static final int TAMANO_FETCH = 1000;
+
+    private final String table;
+    private final String sql;
+    private final ModeloTablaColumnar modeloColumnar = new ModeloTablaColumnar();
+    private final ModeloProyeccion modeloVisible;
+    /** Solo en modo proyección: expone todas las columnas sobre el modelo columnar. */
+    private final ModeloDetalleBajoDemanda modeloDetalle;
+    private final IndicadorCarga indicador;
+
+    /**
+     * Sentencia en ejecución, para poder cancelarla en el servidor. Se protege con su propio
+     * candado para no cancelar una sentencia que ya volvió a la caché del pool.
+     */
+    private final Object candadoSentencia = new Object();
+    private PreparedStatement sentenciaEnCurso;
+
+    /**
+     * @param table              Nombre de la tabla de la BD.
+     * @param columnsToShow      (Opcional) Columnas BD a mostrar. Si es null o vacío, se muestran todas.
+     * @param displayColumnNames (Opcional) Cabeceras; deben coincidir en longitud con columnsToShow.
+     * @param indicador          (Opcional) Indicador de progreso a mostrar durante la carga.
+     */
+    public CargadorTabla(String table, String[] columnsToShow, String[] displayColumnNames, IndicadorCarga indicador) {
+        this(table, null, columnsToShow, displayColumnNames, indicador);
+    }
+
+    /**
+     * @param table              Nombre de la tabla de la BD.
+     * @param pkColumn           (Opcional) Clave primaria. Si se indica junto con columnsToShow,
+     *                           la consulta proyecta solo la clave y las columnas a mostrar.
+     * @param columnsToShow      (Opcional) Columnas BD a mostrar. Si es null o vacío, se muestran todas.
+     * @param displayColumnNames (Opcional) Cabeceras; deben coincidir en longitud con columnsToShow.
+     * @param indicador          (Opcional) Indicador de progreso a mostrar durante la carga.
+     */
+    public CargadorTabla(String table, String pkColumn, String[] columnsToShow, String[] displayColumnNames, IndicadorCarga indicador) {
+        this.table = table;
+        this.indicador = indicador;
+
+        boolean proyectar = pkColumn != null && columnsToShow != null && columnsToShow.length > 0;
+        this.sql = SQLQuerys.buildQuery(SQLQuerys.OperationType.SELECT_ALL, table,
+                proyectar ? SQLQuerys.columnasConClave(pkColumn, columnsToShow) : null, null);
+        this.modeloDetalle = proyectar ? new ModeloDetalleBajoDemanda(modeloColumnar, table, pkColumn) : null;
+
+        // Mientras llegan las primeras filas, la tabla muestra las cabeceras provistas (si las hay)
+        this.modeloVisible = new ModeloProyeccion(modeloColumnar, columnsToShow, displayColumnNames);
+    }
+
+    /**
+     * Modelo con TODAS las columnas de la BD (rawModel); se llena a medida que avanza la carga.
+     */
+    public AbstractTableModel getModeloCrudo() {
+        return modeloDetalle != null ? modeloDetalle : modeloColumnar;
+    }
+
+    /**
+     * Modelo con las columnas a mostrar; se llena a medida que avanza la carga.
+     */
+    public ModeloProyeccion getModeloVisible() {
+        return modeloVisible;
+    }
+
+    /**
+     * Inicia la carga mostrando el indicador. Debe llamarse en el EDT.
+     */
+    public void iniciar() {
+        if (indicador != null) {
+            indicador.mostrar("Cargando " + table + "...");
+        }
+        execute();
+    }
+
+    /**
+     * Cancela la carga. Además de marcar el worker como cancelado, cancela la consulta en el servidor:
+     * con un cursor en streaming, cerrar el ResultSet obligaría a leer todas las filas restantes
+     * y la conexión quedaría tomada mientras tanto.
+     */
+    public void cancelar() {
+        cancel(true);
+        synchronized (candadoSentencia) {
+            if (sentenciaEnCurso != null) {
+                try {
+                    sentenciaEnCurso.cancel();
+                } catch (SQLException e) {
+                    System.err.println("No se pudo cancelar la consulta de " + table + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    protected Integer doInBackground() throws SQLException {
+        if (modeloDetalle != null) {
+            modeloDetalle.definirColumnas(SQLQuerys.consultarColumnas(table));
+        }
+
+        try (Connection con = ConexionDB.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            ps.setFetchSize(TAMANO_FETCH);
+            synchronized (candadoSentencia) {
+                if (isCancelled()) {
+                    return 0;
+                }
+                sentenciaEnCurso = ps;
+            }
+
+            try (ResultSet rs = ps.executeQuery()) {
+                modeloColumnar.definirColumnas(rs.getMetaData());
+
+                boolean primerLote = true;
+                long ultimoEnvio = System.nanoTime();
+                int pendientes = 0;
+
+                while (rs.next()) {
+                    if (isCancelled()) {
+                        // Sin esto, cerrar el ResultSet leería el resto de las filas
+                        ps.cancel();
+                        return modeloColumnar.getFilasEscritas();
+                    }
+                    modeloColumnar.agregarFila(rs);
+                    pendientes++;
+
+                    long ahora = System.nanoTime();
+                    long limiteMs = primerLote ? PRIMER_LOTE_MS : INTERVALO_LOTE_MS;
+                    int limiteFilas = primerLote ? FILAS_PRIMER_LOTE : FILAS_POR_LOTE;
+                    if (pendientes >= limiteFilas || (ahora - ultimoEnvio) / 1_000_000 >= limiteMs) {
+                        publish(modeloColumnar.confirmarFilas());
+                        pendientes = 0;
+                        primerLote = false;
+                        ultimoEnvio = ahora;
+                    }
+                }
+
+                if (primerLote || pendientes > 0) {
+                    publish(modeloColumnar.confirmarFilas());
+                }
+            } catch (SQLException e) {
+                if (isCancelled()) {
+                    // La consulta se interrumpió por cancelar(): no es un error
+                    return modeloColumnar.getFilasEscritas();
+                }
+                throw e;
+            } finally {
+                synchronized (candadoSentencia) {
+                    sentenciaEnCurso = null;
+                }
+            }
+        }
+        return modeloColumnar.getFilasEscritas();
+    }
+
+    /**
+     * Hace visibles las filas escritas hasta el último lote publicado (EDT).
+     */
+    @Override
+    protected void process(List<Integer> lotes) {
+        if (isCancelled()) return;
+
+        int filas = lotes.get(lotes.size() - 1);
+        modeloColumnar.publicarHasta(filas);
+        if (indicador != null) {
+            indicador.actualizar("Cargando " + table + "... " + filas + " filas");
+        }
+    }
+
+    /**
+     * Si se canceló, no toca el indicador: quien canceló ya lanzó (o no) otra carga y es dueño de él.
+     */
+    @Override
+    protected void done() {
+        if (isCancelled()) return;
+
+        if (indicador != null) {
+            indicador.ocultar();
+        }
+
+        try {
+            get();
+        } catch (Exception e) {
+            Throwable causa = e.getCause() != null ? e.getCause() : e;
+            System.err.println("Error al cargar la tabla " + table + ": " + causa.getMessage());
+            JOptionPane.showMessageDialog(null, "Error al cargar la tabla:" + causa.getMessage(), "Error de BD", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
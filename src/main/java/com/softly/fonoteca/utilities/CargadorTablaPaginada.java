@@ -0,0 +1,82 @@
+package com.softly.fonoteca.utilities;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Prepara un {@link ModeloTablaPaginado} en segundo plano: consulta los nombres de todas las columnas
+ * (en modo proyección) y la primera página fuera del EDT, y la publica en el EDT al terminar.
+ * El modelo no debe asignarse a un JTable hasta que se entregue a {@code alCargar}; mientras tanto
+ * se muestra el indicador de progreso. Las páginas siguientes las pide el propio modelo al hacer scroll.
+ */
+public class CargadorTablaPaginada extends SwingWorker<List<Object[]>, Void> {
+
+    private final String table;
+    private final ModeloTablaPaginado paginado;
+    /** Solo en modo proyección: expone todas las columnas sobre el modelo paginado. */
+    private final ModeloDetalleBajoDemanda modeloDetalle;
+    private final IndicadorCarga indicador;
+    private final Consumer<AbstractTableModel> alCargar;
+
+    /**
+     * @param table         Nombre de la tabla de la BD.
+     * @param pkColumn      Columna de clave primaria usada como cursor.
+     * @param columnsToShow (Opcional) Columnas a consultar además de la clave. Null o vacío = todas.
+     * @param tamanoPagina  Filas por página.
+     * @param indicador     (Opcional) Indicador de progreso a mostrar durante la carga.
+     * @param alCargar      Recibe el modelo crudo (rawModel) ya con la primera página, en el EDT.
+     */
+    public CargadorTablaPaginada(String table, String pkColumn, String[] columnsToShow, int tamanoPagina,
+                                 IndicadorCarga indicador, Consumer<AbstractTableModel> alCargar) {
+        this.table = table;
+        this.indicador = indicador;
+        this.alCargar = alCargar;
+
+        boolean proyectar = columnsToShow != null && columnsToShow.length > 0;
+        this.paginado = new ModeloTablaPaginado(table, pkColumn,
+                proyectar ? SQLQuerys.columnasConClave(pkColumn, columnsToShow) : null, tamanoPagina);
+        this.modeloDetalle = proyectar ? new ModeloDetalleBajoDemanda(paginado, table, pkColumn) : null;
+    }
+
+    /**
+     * Inicia la carga mostrando el indicador. Debe llamarse en el EDT.
+     */
+    public void iniciar() {
+        if (indicador != null) {
+            indicador.mostrar("Cargando " + table + "...");
+        }
+        execute();
+    }
+
+    @Override
+    protected List<Object[]> doInBackground() throws SQLException {
+        if (modeloDetalle != null) {
+            modeloDetalle.definirColumnas(SQLQuerys.consultarColumnas(table));
+        }
+        return paginado.consultarPrimeraPagina();
+    }
+
+    /**
+     * Si se canceló, no publica nada ni toca el indicador: quien canceló ya lanzó (o no) otra carga
+     * y es dueño del indicador.
+     */
+    @Override
+    protected void done() {
+        if (isCancelled()) return;
+
+        if (indicador != null) {
+            indicador.ocultar();
+        }
+        try {
+            paginado.publicarPrimeraPagina(get());
+            alCargar.accept(modeloDetalle != null ? modeloDetalle : paginado);
+        } catch (Exception e) {
+            Throwable causa = e.getCause() != null ? e.getCause() : e;
+            System.err.println("❌ Error al cargar la tabla " + table + ": " + causa.getMessage());
+            JOptionPane.showMessageDialog(null, "Error al cargar la tabla:" + causa.getMessage(), "Error de BD", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.softly.fonoteca.utilities;
+
+import com.softly.fonoteca.Modelos.DAOs.BaseDAO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Ciclo de vida común de los índices en memoria ({@link IndiceBusqueda}, {@link IndiceAtributos}):
+ * <ul>
+ *     <li>Construcción en segundo plano: mientras se construye, las escrituras se aplican al índice anterior
+ *     y se guardan para repetirlas sobre el nuevo al publicarlo.</li>
+ *     <li>Sincronización de altas ({@link Sincronizacion}): lee por páginas (keyset) las filas con ID mayor
+ *     al último indexado; las llamadas que llegan durante una sincronización se agrupan en ella.</li>
+ * </ul>
+ * Comparte el candado del índice: {@link #registrar(Runnable)} y {@link #publicar()} deben llamarse
+ * con el candado de escritura tomado.
+ */
+public class CicloIndice {
+
+    private final ReentrantReadWriteLock lock;
+    private final String descripcion;
+    private boolean construyendo = false;
+    private final List<Runnable> cambiosDuranteConstruccion = new ArrayList<>();
+
+    /**
+     * @param lock        Candado del índice.
+     * @param descripcion Nombre del índice en los mensajes de error (p. ej. "índice de búsqueda").
+     */
+    public CicloIndice(ReentrantReadWriteLock lock, String descripcion) {
+        this.lock = lock;
+        this.descripcion = descripcion;
+    }
+
+    /**
+     * Lanza la construcción, salvo que ya haya una en curso. La construcción debe terminar llamando
+     * a {@link #publicar()} junto con el reemplazo del contenido del índice.
+     *
+     * @param construccion Lee los datos y publica el índice nuevo.
+     * @return El futuro de la construcción (ya completado si había una en curso).
+     */
+    public CompletableFuture<Void> construir(Supplier<CompletableFuture<Void>> construccion) {
+        lock.writeLock().lock();
+        try {
+            if (construyendo) return CompletableFuture.completedFuture(null);
+            construyendo = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        return construccion.get().whenComplete((v, error) -> {
+            if (error != null) {
+                System.err.println("❌ Error al construir el " + descripcion + ": " + error.getMessage());
+                lock.writeLock().lock();
+                try {
+                    construyendo = false;
+                    cambiosDuranteConstruccion.clear();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        });
+    }
+
+    /**
+     * @return true si hay una construcción en curso (con el candado tomado).
+     */
+    public boolean isConstruyendo() {
+        return construyendo;
+    }
+
+    /**
+     * Guarda la escritura para repetirla sobre el índice en construcción, si lo hay (con el candado de escritura).
+     */
+    public void registrar(Runnable cambio) {
+        if (construyendo) {
+            cambiosDuranteConstruccion.add(cambio);
+        }
+    }
+
+    /**
+     * Termina la construcción repitiendo las escrituras recibidas mientras tanto. Se llama con el candado
+     * de escritura, después de reemplazar el contenido del índice.
+     */
+    public void publicar() {
+        construyendo = false;
+        for (Runnable cambio : cambiosDuranteConstruccion) {
+            cambio.run();
+        }
+        cambiosDuranteConstruccion.clear();
+    }
+
+    /**
+     * Indexa las filas del DAO con ID mayor a {@code ultimoId}, por páginas de 1000 (keyset).
+     */
+    public static <T> void indexarDesde(BaseDAO<T> dao, int ultimoId, ToIntFunction<T> id, Consumer<T> indexar) {
+        int ultimo = ultimoId;
+        List<T> pagina;
+        while (!(pagina = dao.obtenerPagina(ultimo, 1_000)).isEmpty()) {
+            for (T dto : pagina) {
+                indexar.accept(dto);
+                ultimo = Math.max(ultimo, id.applyAsInt(dto));
+            }
+        }
+    }
+
+    /**
+     * Sincronización de altas de un índice (o de un tipo de entidad del índice). Cada llamada a
+     * {@link #solicitar()} marca que hay altas por leer; una sola tarea a la vez las lee y vuelve a
+     * leer mientras lleguen nuevas marcas, así ninguna llamada se pierde.
+     */
+    public static class Sincronizacion {
+
+        private final String descripcion;
+        private final Runnable sincronizar;
+        private final AtomicBoolean enCurso = new AtomicBoolean();
+        private final AtomicBoolean pendiente = new AtomicBoolean();
+
+        /**
+         * @param descripcion Qué se indexa, para los mensajes de error (p. ej. "canciones nuevas por atributos").
+         * @param sincronizar Lee e indexa las filas nuevas (normalmente con {@link #indexarDesde}).
+         */
+        public Sincronizacion(String descripcion, Runnable sincronizar) {
+            this.descripcion = descripcion;
+            this.sincronizar = sincronizar;
+        }
+
+        public void solicitar() {
+            pendiente.set(true);
+            iniciar();
+        }
+
+        private void iniciar() {
+            if (!enCurso.compareAndSet(false, true)) return;
+
+            EjecutorAsincrono.ejecutar(() -> {
+                while (pendiente.getAndSet(false)) {
+                    sincronizar.run();
+                }
+                return null;
+            }, null).whenComplete((v, error) -> {
+                enCurso.set(false);
+                if (error != null) {
+                    System.err.println("❌ Error al indexar " + descripcion + ": " + error.getMessage());
+                } else if (pendiente.get()) {
+                    // Llegó una llamada entre la última vuelta y la liberación del indicador
+                    iniciar();
+                }
+            });
+        }
+    }
+}
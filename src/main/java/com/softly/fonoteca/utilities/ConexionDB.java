@@ -1,21 +1,91 @@
-
 package com.softly.fonoteca.utilities;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 public class ConexionDB {
 
-    private static final String URL = "jdbc:mariadb://localhost:3306/fonoteca";
+    // useServerPrepStmts: las sentencias se preparan en el servidor y se reutilizan desde la caché del pool.
+    // useAffectedRows: un UPDATE (o upsert) que no cambia nada informa 0 filas en lugar de las encontradas.
+    private static final String URL = "jdbc:mariadb://localhost:3306/fonoteca?useServerPrepStmts=true&useAffectedRows=true";
     private static final String USER = "root";
     private static final String PASSWORD = "asd";
 
+    // Configuración del pool de conexiones
+    private static final int POOL_MIN = 2;
+    private static final int POOL_MAX = 10;
+    private static final long TIMEOUT_ADQUISICION_MS = 5_000;
+    private static final long TIMEOUT_INACTIVIDAD_MS = 5 * 60_000;
+    // La detección de fugas captura la pila en cada préstamo; se activa con -Dfonoteca.pool.detectarFugas=true
+    private static final long UMBRAL_FUGA_MS = Boolean.getBoolean("fonoteca.pool.detectarFugas") ? 30_000 : 0;
+    private static final int CACHE_SENTENCIAS_POR_CONEXION = 64;
+
+    private static final PoolConexiones POOL = new PoolConexiones(
+            URL, USER, PASSWORD, POOL_MIN, POOL_MAX,
+            TIMEOUT_ADQUISICION_MS, TIMEOUT_INACTIVIDAD_MS, UMBRAL_FUGA_MS,
+            CACHE_SENTENCIAS_POR_CONEXION);
+
     private ConexionDB() {
     }
 
+    /**
+     * Obtiene una conexión del pool. Al cerrarla (try-with-resources) vuelve al pool.
+     */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        return POOL.getConnection();
+    }
+
+    /**
+     * Ejecuta, en orden, las sentencias de un script SQL del classpath (separadas por ';' al final de
+     * línea; se ignoran las líneas que empiezan con "--").
+     *
+     * @param recurso Ruta del script en el classpath (p. ej. "/sql/esquema.sql").
+     * @throws SQLException Si el script no existe o falla alguna sentencia.
+     */
+    public static void ejecutarScript(Connection con, String recurso) throws SQLException {
+        String script;
+        try (InputStream in = ConexionDB.class.getResourceAsStream(recurso)) {
+            if (in == null) {
+                throw new SQLException("No se encontró el script " + recurso);
+            }
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("No se pudo leer el script " + recurso, e);
+        }
+
+        try (Statement st = con.createStatement()) {
+            StringBuilder sentencia = new StringBuilder();
+            for (String linea : script.split("\\R")) {
+                String limpia = linea.strip();
+                if (limpia.isEmpty() || limpia.startsWith("--")) continue;
+                sentencia.append(limpia).append('\n');
+                if (limpia.endsWith(";")) {
+                    sentencia.setLength(sentencia.length() - 2);
+                    st.execute(sentencia.toString());
+                    sentencia.setLength(0);
+                }
+            }
+            if (!sentencia.isEmpty()) {
+                st.execute(sentencia.toString());
+            }
+        }
+    }
+
+    /**
+     * Métricas actuales del pool (activas, libres, en espera y latencia de adquisición).
+     */
+    public static PoolConexiones.Estadisticas getEstadisticas() {
+        return POOL.getEstadisticas();
+    }
 
+    /**
+     * Cierra las conexiones del pool. Se invoca al terminar la aplicación.
+     */
+    public static void cerrarPool() {
+        POOL.cerrar();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+package com.softly.fonoteca.utilities;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * SQL de paginación por clave (keyset) de una tabla, compartido por {@code BaseDAO.obtenerPagina}
+ * y {@link ModeloTablaPaginado}. Cada página sigue a la posición (valor de orden, ID) de la última
+ * fila de la anterior:
+ * <ul>
+ *     <li>Solo por clave primaria: {@code WHERE pk > ? ORDER BY pk LIMIT ?}.</li>
+ *     <li>Por otra columna, con la clave como desempate:
+ *     {@code WHERE col > ? OR (col = ? AND pk > ?) ORDER BY col, pk LIMIT ?}. Se expande en lugar de
+ *     usar {@code (col, pk) > (?, ?)}, que MariaDB no siempre resuelve como rango sobre el índice.</li>
+ * </ul>
+ * Los NULL de la columna de orden van primero (como en {@code ORDER BY} de MariaDB). Mientras la
+ * última fila tenga NULL, la página sigue con {@code (col IS NULL AND pk > ?) OR col IS NOT NULL};
+ * una comparación con NULL nunca es verdadera, así que sin esto esas filas se saltarían.
+ * La primera página se pide con valor null e ID menor que cualquier clave (p. ej. 0).
+ */
+public final class ConsultaPaginada {
+
+    private final String sqlPorClave;
+    private final String sqlTrasValor;
+    private final String sqlTrasNulo;
+
+    /**
+     * @param table       Nombre de la tabla.
+     * @param columnas    (Opcional) Columnas a consultar; null = todas.
+     * @param pkColumn    Clave primaria (numérica, indexada).
+     * @param orderColumn (Opcional) Columna de orden; null o la clave = ordenar solo por la clave.
+     */
+    public ConsultaPaginada(String table, String[] columnas, String pkColumn, String orderColumn) {
+        String select = SQLQuerys.buildQuery(SQLQuerys.OperationType.SELECT_ALL, table, columnas, null);
+        if (orderColumn == null || orderColumn.equalsIgnoreCase(pkColumn)) {
+            this.sqlPorClave = select + " WHERE " + pkColumn + " > ? ORDER BY " + pkColumn + " LIMIT ?";
+            this.sqlTrasValor = null;
+            this.sqlTrasNulo = null;
+        } else {
+            String orden = " ORDER BY " + orderColumn + ", " + pkColumn + " LIMIT ?";
+            this.sqlPorClave = null;
+            this.sqlTrasValor = select + " WHERE " + orderColumn + " > ? OR (" + orderColumn + " = ? AND "
+                    + pkColumn + " > ?)" + orden;
+            this.sqlTrasNulo = select + " WHERE (" + orderColumn + " IS NULL AND " + pkColumn + " > ?) OR "
+                    + orderColumn + " IS NOT NULL" + orden;
+        }
+    }
+
+    /**
+     * @param afterValue Valor de la columna de orden en la última fila de la página anterior
+     *                   (se ignora si se ordena solo por la clave).
+     * @return El SQL de la página que sigue a esa posición.
+     */
+    public String sql(Object afterValue) {
+        if (sqlPorClave != null) return sqlPorClave;
+        return afterValue == null ? sqlTrasNulo : sqlTrasValor;
+    }
+
+    /**
+     * Asigna el cursor y el límite a una sentencia preparada con {@link #sql(Object)} para el mismo afterValue.
+     */
+    public void asignar(PreparedStatement ps, Object afterValue, long afterId, int limit) throws SQLException {
+        int i = 1;
+        if (sqlPorClave == null && afterValue != null) {
+            ps.setObject(i++, afterValue);
+            ps.setObject(i++, afterValue);
+        }
+        ps.setLong(i++, afterId);
+        ps.setInt(i, limit);
+    }
+}
@@ -0,0 +1,62 @@
+package com.softly.fonoteca.utilities;
+
+import javax.swing.*;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Ejecuta tareas (normalmente consultas a la BD) en hilos virtuales, uno por tarea,
+ * y las expone como CompletableFuture con timeout y cancelación.
+ * Cancelar el futuro o superar el timeout interrumpe el hilo virtual que ejecuta la tarea.
+ */
+public class EjecutorAsincrono {
+
+    private static final ExecutorService HILOS_VIRTUALES = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Ejecutor que corre las continuaciones en el hilo de Swing (EDT).
+     * Uso: {@code futuro.thenAcceptAsync(resultado -> ..., EjecutorAsincrono.EDT)}
+     */
+    public static final Executor EDT = SwingUtilities::invokeLater;
+
+    private EjecutorAsincrono() {
+    }
+
+    /**
+     * Ejecuta la tarea en un hilo virtual.
+     *
+     * @param tarea   La tarea a ejecutar.
+     * @param timeout Tiempo máximo; null para esperar indefinidamente.
+     * @return Un futuro que se completa con el resultado, con la excepción de la tarea,
+     * o con TimeoutException si se supera el timeout.
+     */
+    public static <R> CompletableFuture<R> ejecutar(Callable<R> tarea, Duration timeout) {
+        CompletableFuture<R> resultado = new CompletableFuture<>();
+
+        Future<?> ejecucion = HILOS_VIRTUALES.submit(() -> {
+            try {
+                resultado.complete(tarea.call());
+            } catch (Throwable e) {
+                resultado.completeExceptionally(e);
+            }
+        });
+
+        resultado.whenComplete((valor, error) -> {
+            if (resultado.isCancelled() || error instanceof TimeoutException) {
+                ejecucion.cancel(true);
+            }
+        });
+
+        if (timeout != null) {
+            resultado.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,240 @@
+package com.softly.fonoteca.utilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool dedicado para BCrypt (hash y verificación de contraseñas), que consume cientos de
+ * milisegundos de CPU por operación.
+ * <ul>
+ *     <li>Un hilo de plataforma por núcleo: BCrypt es CPU pura, más hilos solo añaden cambios de contexto
+ *     (por eso no se usan los hilos virtuales de {@link EjecutorAsincrono}).</li>
+ *     <li>Cola acotada a {@value #TAREAS_EN_COLA_POR_NUCLEO} tareas por núcleo: con el pool saturado,
+ *     las nuevas operaciones fallan enseguida con RejectedExecutionException en lugar de acumular espera.</li>
+ *     <li>Las contraseñas se copian al recibirlas y la copia se borra al terminar: el llamador puede
+ *     limpiar su arreglo en cuanto obtiene el futuro.</li>
+ * </ul>
+ */
+public class EjecutorBCrypt {
+
+    private static final int NUCLEOS = Runtime.getRuntime().availableProcessors();
+    private static final int TAREAS_EN_COLA_POR_NUCLEO = 8;
+
+    private static final ThreadPoolExecutor POOL = crearPool();
+
+    // --- Métricas ---
+    private static final AtomicLong COMPLETADAS = new AtomicLong();
+    private static final AtomicLong FALLIDAS = new AtomicLong();
+    private static final AtomicLong RECHAZADAS = new AtomicLong();
+    private static final AtomicLong NANOS_ESPERA = new AtomicLong();
+    private static final AtomicLong NANOS_EJECUCION = new AtomicLong();
+    private static final AtomicLong MAX_NANOS_TOTAL = new AtomicLong();
+    private static final long INICIO = System.nanoTime();
+
+    private EjecutorBCrypt() {
+    }
+
+    private static ThreadPoolExecutor crearPool() {
+        AtomicInteger contador = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(NUCLEOS, NUCLEOS, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(NUCLEOS * TAREAS_EN_COLA_POR_NUCLEO),
+                r -> {
+                    Thread hilo = new Thread(r, "bcrypt-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Genera el hash BCrypt de la contraseña en el pool.
+     *
+     * @return Futuro con el hash; falla con RejectedExecutionException si el pool está saturado.
+     */
+    public static CompletableFuture<String> hash(char[] password) {
+        char[] copia = password.clone();
+        return enviar(() -> {
+            try {
+                return SecurityUtils.hashPassword(copia);
+            } finally {
+                Arrays.fill(copia, '\0');
+            }
+        });
+    }
+
+    /**
+     * Verifica la contraseña contra el hash almacenado en el pool.
+     *
+     * @return Futuro con true si coincide; falla con RejectedExecutionException si el pool está saturado.
+     */
+    public static CompletableFuture<Boolean> verificar(char[] password, String hashAlmacenado) {
+        char[] copia = password.clone();
+        return enviar(() -> {
+            try {
+                return SecurityUtils.verifyPassword(copia, hashAlmacenado);
+            } finally {
+                Arrays.fill(copia, '\0');
+            }
+        });
+    }
+
+    /**
+     * Genera los hashes de muchas contraseñas usando todos los núcleos. Las reparte en un bloque
+     * por núcleo, de modo que ocupa el pool sin llenar la cola ni desplazar a los inicios de sesión.
+     *
+     * @return Futuro con los hashes, en el mismo orden de la lista.
+     */
+    public static CompletableFuture<List<String>> hashLote(List<char[]> passwords) {
+        List<char[]> copias = new ArrayList<>(passwords.size());
+        for (char[] password : passwords) {
+            copias.add(password.clone());
+        }
+        String[] hashes = new String[copias.size()];
+        int tamanoBloque = Math.max(1, (copias.size() + NUCLEOS - 1) / NUCLEOS);
+
+        List<CompletableFuture<Void>> bloques = new ArrayList<>();
+        for (int desde = 0; desde < copias.size(); desde += tamanoBloque) {
+            int inicio = desde;
+            int fin = Math.min(desde + tamanoBloque, copias.size());
+            bloques.add(enviar(() -> {
+                for (int i = inicio; i < fin; i++) {
+                    hashes[i] = SecurityUtils.hashPassword(copias.get(i));
+                    Arrays.fill(copias.get(i), '\0');
+                }
+                return null;
+            }));
+        }
+        return CompletableFuture.allOf(bloques.toArray(new CompletableFuture<?>[0]))
+                .thenApply(v -> Arrays.asList(hashes));
+    }
+
+    private static <R> CompletableFuture<R> enviar(Callable<R> tarea) {
+        CompletableFuture<R> resultado = new CompletableFuture<>();
+        long encolada = System.nanoTime();
+        try {
+            POOL.execute(() -> {
+                long inicio = System.nanoTime();
+                NANOS_ESPERA.addAndGet(inicio - encolada);
+                try {
+                    resultado.complete(tarea.call());
+                    COMPLETADAS.incrementAndGet();
+                } catch (Throwable e) {
+                    FALLIDAS.incrementAndGet();
+                    resultado.completeExceptionally(e);
+                } finally {
+                    long fin = System.nanoTime();
+                    NANOS_EJECUCION.addAndGet(fin - inicio);
+                    MAX_NANOS_TOTAL.accumulateAndGet(fin - encolada, Math::max);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            RECHAZADAS.incrementAndGet();
+            resultado.completeExceptionally(e);
+        }
+        return resultado;
+    }
+
+    /**
+     * Instantánea de las métricas del pool.
+     */
+    public static Estadisticas getEstadisticas() {
+        long terminadas = COMPLETADAS.get() + FALLIDAS.get();
+        double segundos = (System.nanoTime() - INICIO) / 1e9;
+        return new Estadisticas(NUCLEOS, POOL.getActiveCount(), POOL.getQueue().size(),
+                COMPLETADAS.get(), FALLIDAS.get(), RECHAZADAS.get(),
+                terminadas == 0 ? 0 : NANOS_ESPERA.get() / 1e6 / terminadas,
+                terminadas == 0 ? 0 : NANOS_EJECUCION.get() / 1e6 / terminadas,
+                MAX_NANOS_TOTAL.get() / 1e6,
+                segundos == 0 ? 0 : COMPLETADAS.get() / segundos);
+    }
+
+    public static final class Estadisticas {
+        private final int hilos;
+        private final int activas;
+        private final int enCola;
+        private final long completadas;
+        private final long fallidas;
+        private final long rechazadas;
+        private final double esperaPromedioMs;
+        private final double ejecucionPromedioMs;
+        private final double latenciaMaximaMs;
+        private final double operacionesPorSegundo;
+
+        Estadisticas(int hilos, int activas, int enCola, long completadas, long fallidas, long rechazadas,
+                     double esperaPromedioMs, double ejecucionPromedioMs, double latenciaMaximaMs,
+                     double operacionesPorSegundo) {
+            this.hilos = hilos;
+            this.activas = activas;
+            this.enCola = enCola;
+            this.completadas = completadas;
+            this.fallidas = fallidas;
+            this.rechazadas = rechazadas;
+            this.esperaPromedioMs = esperaPromedioMs;
+            this.ejecucionPromedioMs = ejecucionPromedioMs;
+            this.latenciaMaximaMs = latenciaMaximaMs;
+            this.operacionesPorSegundo = operacionesPorSegundo;
+        }
+
+        public int getHilos() {
+            return hilos;
+        }
+
+        public int getActivas() {
+            return activas;
+        }
+
+        public int getEnCola() {
+            return enCola;
+        }
+
+        public long getCompletadas() {
+            return completadas;
+        }
+
+        public long getFallidas() {
+            return fallidas;
+        }
+
+        /** Operaciones descartadas por pool saturado. */
+        public long getRechazadas() {
+            return rechazadas;
+        }
+
+        /** Tiempo promedio en cola antes de empezar. */
+        public double getEsperaPromedioMs() {
+            return esperaPromedioMs;
+        }
+
+        public double getEjecucionPromedioMs() {
+            return ejecucionPromedioMs;
+        }
+
+        /** Mayor tiempo total (cola + ejecución) observado. */
+        public double getLatenciaMaximaMs() {
+            return latenciaMaximaMs;
+        }
+
+        /** Tareas completadas por segundo desde el arranque (un bloque de {@link #hashLote} cuenta como una). */
+        public double getOperacionesPorSegundo() {
+            return operacionesPorSegundo;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("EjecutorBCrypt{hilos=%d, activas=%d, enCola=%d, completadas=%d, fallidas=%d, rechazadas=%d, esperaProm=%.1f ms, ejecucionProm=%.1f ms, latenciaMax=%.1f ms, %.2f ops/s}",
+                    hilos, activas, enCola, completadas, fallidas, rechazadas,
+                    esperaPromedioMs, ejecucionPromedioMs, latenciaMaximaMs, operacionesPorSegundo);
+        }
+    }
+}
@@ -0,0 +1,416 @@
+package com.softly.fonoteca.utilities;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+import javax.swing.table.TableModel;
+import javax.swing.table.TableRowSorter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+/**
+ * Filtro "mientras se escribe" para las tablas de los controladores:
+ * <ul>
+ *     <li>Espera {@link #ESPERA_MS} tras la última tecla (una sola evaluación por ráfaga de tecleo).</li>
+ *     <li>Evalúa en un hilo virtual sobre una copia en minúsculas y sin acentos de las columnas visibles,
+ *     calculada una sola vez por fila (los valores repetidos se normalizan una vez). Las tablas grandes
+ *     se recorren en paralelo por bloques.</li>
+ *     <li>El resultado es un mapa de bits de filas del modelo; el RowFilter del sorter solo consulta ese bit,
+ *     así que el EDT no compara texto.</li>
+ *     <li>Si la consulta nueva solo agrega letras o palabras a la anterior, se evalúan únicamente las filas
+ *     que ya coincidían. Una respuesta que llega tarde (hubo otra tecla) se descarta.</li>
+ * </ul>
+ * Cada palabra del filtro debe aparecer en alguna columna visible de la fila.
+ * Los valores de las celdas se leen en el EDT, y solo mientras hay texto en el filtro; el hilo de fondo
+ * solo lee esa copia. Se leen sin anticipar páginas del modelo (ver {@link ModeloTablaPaginado#getValorCrudo}). La tabla queda con un TableRowSorter, por lo que los índices de fila seleccionados
+ * deben convertirse con {@link JTable#convertRowIndexToModel(int)} antes de leer el modelo.
+ */
+public class FiltroTabla {
+
+    public static final int ESPERA_MS = 150;
+    /** Filas por bloque al evaluar en paralelo (múltiplo de 64: cada bloque escribe sus propias palabras del mapa). */
+    private static final int FILAS_POR_BLOQUE = 64 * 1024;
+
+    private final JTable tabla;
+    private final JTextField campo;
+    private final Timer temporizador;
+
+    /** Consulta más reciente; el hilo de fondo la lee para abandonar evaluaciones obsoletas. */
+    private volatile int ultimaConsulta = 0;
+
+    // --- Estado del EDT ---
+    private TableModel modeloObservado;
+    private Instantanea instantanea;
+    private Resultado ultimoResultado;
+
+    private final TableModelListener escuchaModelo = this::modeloCambiado;
+
+    private FiltroTabla(JTable tabla, JTextField campo) {
+        this.tabla = tabla;
+        this.campo = campo;
+        this.temporizador = new Timer(ESPERA_MS, e -> filtrar());
+        this.temporizador.setRepeats(false);
+    }
+
+    /**
+     * Instala el filtro: el JTable crea un TableRowSorter para cada modelo que reciba y el campo
+     * filtra sus filas. Debe llamarse en el EDT, antes o después de asignar el modelo.
+     *
+     * @param tabla Tabla a filtrar.
+     * @param campo Campo de texto con el filtro.
+     * @return El filtro instalado.
+     */
+    public static FiltroTabla instalar(JTable tabla, JTextField campo) {
+        FiltroTabla filtro = new FiltroTabla(tabla, campo);
+        tabla.setAutoCreateRowSorter(true);
+        tabla.addPropertyChangeListener("rowSorter", e -> filtro.reiniciar());
+        campo.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                filtro.temporizador.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                filtro.temporizador.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                filtro.temporizador.restart();
+            }
+        });
+        filtro.reiniciar();
+        return filtro;
+    }
+
+    /**
+     * Borra el texto del filtro (se muestran todas las filas).
+     */
+    public void limpiar() {
+        campo.setText("");
+    }
+
+    /**
+     * @return Filas que muestra la tabla con el filtro actual.
+     */
+    public int getFilasVisibles() {
+        return tabla.getRowCount();
+    }
+
+    /**
+     * Nuevo modelo (y sorter) en la tabla: se descarta la copia anterior y se vuelve a aplicar el texto actual.
+     */
+    private void reiniciar() {
+        if (modeloObservado != null) {
+            modeloObservado.removeTableModelListener(escuchaModelo);
+        }
+        modeloObservado = tabla.getModel();
+        modeloObservado.addTableModelListener(escuchaModelo);
+        instantanea = null;
+        ultimoResultado = null;
+        ultimaConsulta++;
+
+        // Las columnas visibles se terminan de definir después de asignar el modelo (ver BaseController)
+        SwingUtilities.invokeLater(() -> {
+            if (!campo.getText().isBlank()) {
+                asegurarInstantanea();
+                temporizador.restart();
+            }
+        });
+    }
+
+    /**
+     * Filas agregadas al final: la instantánea sigue siendo válida y, con un filtro activo, se copian
+     * y se vuelve a evaluar (las filas nuevas quedan ocultas hasta entonces). Cualquier otro cambio la invalida.
+     */
+    private void modeloCambiado(TableModelEvent e) {
+        boolean activo = !campo.getText().isBlank();
+        if (instantanea != null && e.getType() == TableModelEvent.INSERT
+                && e.getFirstRow() >= instantanea.filas && e.getFirstRow() != TableModelEvent.HEADER_ROW) {
+            if (activo) {
+                instantanea.copiarHasta(modeloObservado, modeloObservado.getRowCount());
+            }
+        } else {
+            instantanea = null;
+            ultimoResultado = null;
+        }
+        if (activo) {
+            temporizador.restart();
+        }
+    }
+
+    /**
+     * Crea o completa la copia de las columnas visibles (EDT).
+     */
+    private Instantanea asegurarInstantanea() {
+        int[] columnas = columnasVisibles();
+        if (instantanea == null || !Arrays.equals(instantanea.columnas, columnas)) {
+            instantanea = new Instantanea(columnas);
+            ultimoResultado = null;
+        }
+        instantanea.copiarHasta(modeloObservado, modeloObservado.getRowCount());
+        return instantanea;
+    }
+
+    private int[] columnasVisibles() {
+        int[] columnas = new int[tabla.getColumnModel().getColumnCount()];
+        for (int i = 0; i < columnas.length; i++) {
+            columnas[i] = tabla.getColumnModel().getColumn(i).getModelIndex();
+        }
+        return columnas;
+    }
+
+    /**
+     * Lanza la evaluación del texto actual (EDT, al vencer la espera).
+     */
+    private void filtrar() {
+        int consulta = ++ultimaConsulta;
+        String[] palabras = palabras(campo.getText());
+        if (palabras.length == 0) {
+            ultimoResultado = null;
+            aplicar(null);
+            return;
+        }
+
+        Instantanea copia = asegurarInstantanea();
+        Object[][] valores = copia.valores;
+        int filas = copia.filas;
+        Resultado previo = ultimoResultado;
+        BooleanSupplier obsoleta = () -> consulta != ultimaConsulta;
+
+        EjecutorAsincrono.ejecutar(() -> evaluar(copia, valores, filas, palabras, previo, obsoleta), null)
+                .whenCompleteAsync((resultado, error) -> {
+                    if (consulta != ultimaConsulta || copia != instantanea) return;
+                    if (error != null) {
+                        System.err.println("❌ Error al filtrar la tabla: " + error.getMessage());
+                        return;
+                    }
+                    if (resultado != null) {
+                        ultimoResultado = resultado;
+                        aplicar(resultado);
+                    }
+                }, EjecutorAsincrono.EDT);
+    }
+
+    /**
+     * Entrega el mapa de bits al sorter (EDT). El sorter solo consulta un bit por fila.
+     */
+    @SuppressWarnings("unchecked")
+    private void aplicar(Resultado resultado) {
+        if (!(tabla.getRowSorter() instanceof TableRowSorter<?> sorter)) return;
+        ((TableRowSorter<TableModel>) sorter).setRowFilter(resultado == null ? null : new RowFilter<>() {
+            @Override
+            public boolean include(Entry<? extends TableModel, ? extends Integer> entrada) {
+                int fila = entrada.getIdentifier();
+                return fila < resultado.filas && (resultado.bits[fila >>> 6] & (1L << fila)) != 0;
+            }
+        });
+    }
+
+    // -------------------------------------------------------------------------
+    // --- EVALUACIÓN (hilo de fondo) ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * @return El mapa de filas que coinciden, o null si la consulta quedó obsoleta durante la evaluación.
+     */
+    private static Resultado evaluar(Instantanea copia, Object[][] valores, int filas, String[] palabras,
+                                     Resultado previo, BooleanSupplier obsoleta) {
+        String[][] minusculas = copia.normalizarHasta(valores, filas);
+        int palabrasMapa = (filas + 63) >>> 6;
+
+        // Consulta más restrictiva que la anterior: solo pueden coincidir las filas que ya coincidían
+        long[] candidatas = null;
+        if (previo != null && previo.filas <= filas && esMasRestrictiva(palabras, previo.palabras)) {
+            candidatas = Arrays.copyOf(previo.bits, palabrasMapa);
+            for (int fila = previo.filas; fila < filas; fila++) {
+                candidatas[fila >>> 6] |= 1L << fila;
+            }
+        }
+
+        long[] bits = new long[palabrasMapa];
+        long[] origen = candidatas;
+        int bloques = (filas + FILAS_POR_BLOQUE - 1) / FILAS_POR_BLOQUE;
+        IntStream rango = IntStream.range(0, bloques);
+        (bloques > 1 ? rango.parallel() : rango).forEach(b -> {
+            if (obsoleta.getAsBoolean()) return;
+            int desde = b * (FILAS_POR_BLOQUE >>> 6);
+            int hasta = Math.min(palabrasMapa, desde + (FILAS_POR_BLOQUE >>> 6));
+            for (int w = desde; w < hasta; w++) {
+                long pendientes = origen != null ? origen[w] : -1L;
+                if (w == palabrasMapa - 1 && (filas & 63) != 0) {
+                    pendientes &= (1L << filas) - 1; // últimas filas de la tabla
+                }
+                long coincidencias = 0;
+                while (pendientes != 0) {
+                    int bit = Long.numberOfTrailingZeros(pendientes);
+                    pendientes &= pendientes - 1;
+                    if (coincide(minusculas, (w << 6) + bit, palabras)) {
+                        coincidencias |= 1L << bit;
+                    }
+                }
+                bits[w] = coincidencias;
+            }
+        });
+        return obsoleta.getAsBoolean() ? null : new Resultado(palabras, filas, bits);
+    }
+
+    private static boolean coincide(String[][] minusculas, int fila, String[] palabras) {
+        for (String palabra : palabras) {
+            boolean encontrada = false;
+            for (String[] columna : minusculas) {
+                String valor = columna[fila];
+                if (valor != null && valor.contains(palabra)) {
+                    encontrada = true;
+                    break;
+                }
+            }
+            if (!encontrada) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Cada palabra anterior está contenida en alguna de las nuevas (p. ej. "ro" -> "rock", "rock" -> "rock 80"),
+     * por lo que toda fila que coincide con las nuevas coincidía con las anteriores.
+     */
+    private static boolean esMasRestrictiva(String[] nuevas, String[] anteriores) {
+        for (String anterior : anteriores) {
+            boolean contenida = false;
+            for (String nueva : nuevas) {
+                if (nueva.contains(anterior)) {
+                    contenida = true;
+                    break;
+                }
+            }
+            if (!contenida) return false;
+        }
+        return true;
+    }
+
+    private static String[] palabras(String texto) {
+        String normal = IndiceBusqueda.normalizar(texto).trim();
+        return normal.isEmpty() ? new String[0] : normal.split("\\s+");
+    }
+
+    // -------------------------------------------------------------------------
+    // --- ESTRUCTURAS ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Copia de los valores de las columnas visibles (escrita en el EDT, solo agregando filas) y su versión
+     * normalizada (escrita por los hilos de fondo, de a una evaluación a la vez).
+     * Los arreglos se reemplazan al crecer, por lo que una referencia tomada en el EDT sigue siendo válida
+     * para las filas que tenía en ese momento.
+     */
+    private static final class Instantanea {
+        private static final int MAX_MEMO = 50_000;
+
+        final int[] columnas;
+        Object[][] valores;
+        int filas;
+
+        private String[][] minusculas;
+        private int filasNormalizadas;
+        private final Map<Object, String>[] normalizados;
+
+        @SuppressWarnings("unchecked")
+        Instantanea(int[] columnas) {
+            this.columnas = columnas;
+            this.valores = new Object[columnas.length][0];
+            this.minusculas = new String[columnas.length][0];
+            this.normalizados = (Map<Object, String>[]) new Map<?, ?>[columnas.length];
+            for (int c = 0; c < columnas.length; c++) {
+                normalizados[c] = new HashMap<>();
+            }
+        }
+
+        /**
+         * Copia las filas [filas, hasta) del modelo (EDT).
+         */
+        void copiarHasta(TableModel modelo, int hasta) {
+            if (hasta <= filas) return;
+            Object[][] nuevos = valores;
+            if (columnas.length > 0 && hasta > valores[0].length) {
+                int capacidad = Math.max(hasta, filas + (filas >> 1));
+                nuevos = new Object[columnas.length][];
+                for (int c = 0; c < columnas.length; c++) {
+                    nuevos[c] = Arrays.copyOf(valores[c], capacidad);
+                }
+            }
+            for (int c = 0; c < columnas.length; c++) {
+                Object[] columna = nuevos[c];
+                for (int fila = filas; fila < hasta; fila++) {
+                    columna[fila] = valorCrudo(modelo, fila, columnas[c]);
+                }
+            }
+            valores = nuevos;
+            filas = hasta;
+        }
+
+        /**
+         * Lee la celda sin que el modelo pida más filas (recorrer la tabla no debe paginarla entera).
+         */
+        private static Object valorCrudo(TableModel modelo, int fila, int columna) {
+            if (modelo instanceof ModeloProyeccion proyeccion) return proyeccion.getValorCrudo(fila, columna);
+            if (modelo instanceof ModeloTablaPaginado paginado) return paginado.getValorCrudo(fila, columna);
+            return modelo.getValueAt(fila, columna);
+        }
+
+        /**
+         * Normaliza las filas pendientes hasta {@code hasta} y devuelve las columnas normalizadas.
+         */
+        synchronized String[][] normalizarHasta(Object[][] origen, int hasta) {
+            if (hasta > filasNormalizadas) {
+                String[][] destino = minusculas;
+                if (columnas.length > 0 && hasta > destino[0].length) {
+                    int capacidad = Math.max(hasta, filasNormalizadas + (filasNormalizadas >> 1));
+                    destino = new String[columnas.length][];
+                    for (int c = 0; c < columnas.length; c++) {
+                        destino[c] = Arrays.copyOf(minusculas[c], capacidad);
+                    }
+                }
+                for (int c = 0; c < columnas.length; c++) {
+                    Map<Object, String> memo = normalizados[c];
+                    for (int fila = filasNormalizadas; fila < hasta; fila++) {
+                        Object valor = origen[c][fila];
+                        if (valor != null) {
+                            // Los valores repetidos (género, idioma...) se normalizan una vez; en columnas
+                            // casi únicas (títulos, emails) el memo deja de crecer al llegar a su límite
+                            String normal = memo.get(valor);
+                            if (normal == null) {
+                                normal = IndiceBusqueda.normalizar(valor.toString());
+                                if (memo.size() < MAX_MEMO) memo.put(valor, normal);
+                            }
+                            destino[c][fila] = normal;
+                        }
+                    }
+                }
+                minusculas = destino;
+                filasNormalizadas = hasta;
+            }
+            return minusculas;
+        }
+    }
+
+    /**
+     * Filas del modelo que coinciden con las palabras.
+     */
+    private static final class Resultado {
+        final String[] palabras;
+        final int filas;
+        final long[] bits;
+
+        Resultado(String[] palabras, int filas, long[] bits) {
+            this.palabras = palabras;
+            this.filas = filas;
+            this.bits = bits;
+        }
+    }
+}
@@ -53,4 +53,30 @@ public class FormatDates {
         }
     }
 
+    /**
+     * Convierte la duración de una canción ("m:ss", "mm:ss" o "h:mm:ss") a segundos.
+     *
+     * @return Los segundos, o -1 si el texto no tiene ese formato.
+     */
+    public static int duracionEnSegundos(String texto) {
+        if (texto == null) return -1;
+        String[] partes = texto.trim().split(":");
+        if (partes.length < 2 || partes.length > 3) return -1;
+
+        int total = 0;
+        for (int i = 0; i < partes.length; i++) {
+            String parte = partes[i];
+            if (parte.isEmpty() || (i > 0 && parte.length() > 2)) return -1;
+            int valor = 0;
+            for (int j = 0; j < parte.length(); j++) {
+                char c = parte.charAt(j);
+                if (c < '0' || c > '9' || j >= 4) return -1;
+                valor = valor * 10 + (c - '0');
+            }
+            if (i > 0 && valor > 59) return -1;
+            total = total * 60 + valor;
+        }
+        return total;
+    }
+
 }
@@ -0,0 +1,228 @@
+package com.softly.fonoteca.utilities;
+
+import com.softly.fonoteca.Modelos.DTOs.CredencialUsuario;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sesión en memoria del usuario autenticado, para que volver a autenticarse dentro de la sesión
+ * no pague otra verificación BCrypt ni la consulta a la BD.
+ * <ul>
+ *     <li>Tras una verificación BCrypt exitosa se emite un token: HMAC-SHA256 de la contraseña con una
+ *     clave aleatoria propia de la sesión. Reautenticar es calcular un HMAC y compararlo en tiempo constante
+ *     (microsegundos). Ni la contraseña ni la clave salen de esta clase.</li>
+ *     <li>La sesión expira tras {@link #getInactividadMaxima()} sin actividad; al expirar o revocarse,
+ *     el token y la clave se sobrescriben con ceros.</li>
+ *     <li>Se revoca al cerrar sesión (MainController) y cuando UsuarioDAO modifica la contraseña
+ *     o elimina al usuario.</li>
+ * </ul>
+ * La aplicación es de escritorio con un usuario a la vez: hay como máximo una sesión activa.
+ */
+public class GestorSesiones {
+
+    public static final Duration INACTIVIDAD_POR_DEFECTO = Duration.ofMinutes(15);
+
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+
+    private static final ScheduledExecutorService TEMPORIZADOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread hilo = new Thread(r, "expiracion-sesion");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private static volatile Duration inactividadMaxima = INACTIVIDAD_POR_DEFECTO;
+    private static Sesion actual;
+
+    private GestorSesiones() {
+    }
+
+    /**
+     * Inicia la sesión del usuario recién verificado con BCrypt (reemplaza a la anterior).
+     *
+     * @param credencial    Credencial verificada.
+     * @param passwordChars Contraseña que se acaba de verificar (no se guarda; solo su HMAC).
+     */
+    public static synchronized void iniciar(CredencialUsuario credencial, char[] passwordChars) {
+        revocar();
+        byte[] clave = new byte[32];
+        ALEATORIO.nextBytes(clave);
+        actual = new Sesion(credencial, clave, calcularToken(clave, passwordChars));
+        programarExpiracion(actual, inactividadMaxima);
+    }
+
+    /**
+     * Valida el email y la contraseña contra el token de la sesión activa.
+     *
+     * @return La credencial de la sesión si coincide, o null (sin sesión, expirada, otro email o
+     * contraseña distinta); en ese caso se debe verificar contra la BD.
+     */
+    public static synchronized CredencialUsuario reautenticar(String email, char[] passwordChars) {
+        Sesion sesion = actual;
+        if (sesion == null || email == null) return null;
+        if (sesion.expirada(inactividadMaxima)) {
+            revocar();
+            return null;
+        }
+        if (!sesion.email.equals(normalizar(email))) return null;
+
+        byte[] token = calcularToken(sesion.clave, passwordChars);
+        boolean valido = MessageDigest.isEqual(token, sesion.token);
+        Arrays.fill(token, (byte) 0);
+        if (!valido) return null;
+
+        sesion.ultimoUso = System.nanoTime();
+        return sesion.credencial;
+    }
+
+    /**
+     * Marca actividad en la sesión (reinicia el plazo de inactividad).
+     */
+    public static synchronized void registrarActividad() {
+        if (actual != null && !actual.expirada(inactividadMaxima)) {
+            actual.ultimoUso = System.nanoTime();
+        }
+    }
+
+    /**
+     * @return El ID del usuario de la sesión activa, o -1 si no hay sesión.
+     */
+    public static synchronized int getIdUsuarioActual() {
+        return actual != null && !actual.expirada(inactividadMaxima) ? actual.credencial.getIdUsuario() : -1;
+    }
+
+    /**
+     * Cierra la sesión activa y borra su token.
+     */
+    public static synchronized void revocar() {
+        if (actual != null) {
+            actual.borrar();
+            actual = null;
+        }
+    }
+
+    /**
+     * Revoca la sesión si pertenece al usuario (p. ej. al eliminarlo).
+     */
+    public static synchronized void revocarUsuario(int idUsuario) {
+        if (actual != null && actual.credencial.getIdUsuario() == idUsuario) {
+            revocar();
+        }
+    }
+
+    /**
+     * Revoca la sesión del usuario si su hash de contraseña ya no es el que se verificó
+     * (cambio de contraseña). La invoca UsuarioDAO tras modificar.
+     */
+    public static synchronized void revocarSiCambioPassword(int idUsuario, String hashActual) {
+        if (actual != null && actual.credencial.getIdUsuario() == idUsuario
+                && !Objects.equals(actual.credencial.getHashedPassword(), hashActual)) {
+            revocar();
+        }
+    }
+
+    /**
+     * Registra un nuevo hash de la misma contraseña (rehash por costo) sin revocar la sesión.
+     */
+    public static synchronized void actualizarHash(int idUsuario, String hashAnterior, String hashNuevo) {
+        if (actual != null && actual.credencial.getIdUsuario() == idUsuario
+                && Objects.equals(actual.credencial.getHashedPassword(), hashAnterior)) {
+            actual.credencial = new CredencialUsuario(idUsuario, actual.credencial.getEmail(), hashNuevo);
+        }
+    }
+
+    public static Duration getInactividadMaxima() {
+        return inactividadMaxima;
+    }
+
+    /**
+     * Cambia el plazo de inactividad; se aplica también a la sesión activa.
+     */
+    public static synchronized void setInactividadMaxima(Duration inactividad) {
+        if (inactividad == null || inactividad.isNegative() || inactividad.isZero()) {
+            throw new IllegalArgumentException("La inactividad máxima debe ser positiva.");
+        }
+        inactividadMaxima = inactividad;
+        if (actual != null) {
+            programarExpiracion(actual, inactividad);
+        }
+    }
+
+    /**
+     * Revisa la sesión al cumplirse el plazo: si hubo actividad entretanto, se reprograma;
+     * si no, se revoca (y se borra) sin esperar a que alguien intente usarla.
+     */
+    private static void programarExpiracion(Sesion sesion, Duration espera) {
+        TEMPORIZADOR.schedule(() -> {
+            synchronized (GestorSesiones.class) {
+                if (actual != sesion) return;
+                if (sesion.expirada(inactividadMaxima)) {
+                    revocar();
+                } else {
+                    long restante = inactividadMaxima.toNanos() - (System.nanoTime() - sesion.ultimoUso);
+                    programarExpiracion(sesion, Duration.ofNanos(Math.max(restante, 1)));
+                }
+            }
+        }, espera.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private static byte[] calcularToken(byte[] clave, char[] passwordChars) {
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(passwordChars));
+        byte[] password = new byte[bytes.remaining()];
+        bytes.get(password);
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(new SecretKeySpec(clave, ALGORITMO));
+            return mac.doFinal(password);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 no disponible.", e);
+        } finally {
+            Arrays.fill(password, (byte) 0);
+            if (bytes.hasArray()) {
+                Arrays.fill(bytes.array(), (byte) 0);
+            }
+        }
+    }
+
+    private static String normalizar(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Sesion {
+        final String email;
+        final byte[] clave;
+        final byte[] token;
+        CredencialUsuario credencial;
+        long ultimoUso = System.nanoTime();
+
+        Sesion(CredencialUsuario credencial, byte[] clave, byte[] token) {
+            this.credencial = credencial;
+            this.email = normalizar(credencial.getEmail());
+            this.clave = clave;
+            this.token = token;
+        }
+
+        boolean expirada(Duration inactividad) {
+            return System.nanoTime() - ultimoUso > inactividad.toNanos();
+        }
+
+        void borrar() {
+            Arrays.fill(clave, (byte) 0);
+            Arrays.fill(token, (byte) 0);
+        }
+    }
+}
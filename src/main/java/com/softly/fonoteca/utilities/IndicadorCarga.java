@@ -0,0 +1,63 @@
+package com.softly.fonoteca.utilities;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Barra de progreso delgada que se superpone en la parte inferior de una ventana
+ * (a través de su glass pane) mientras dura una carga en segundo plano.
+ * No bloquea la interacción con la ventana.
+ */
+public class IndicadorCarga {
+
+    private final RootPaneContainer contenedor;
+    private final JProgressBar barra = new JProgressBar();
+    private Component glassPaneAnterior;
+    /** Glass pane propio mientras el indicador está visible. */
+    private JPanel panel;
+
+    /**
+     * @param componente Cualquier componente de la ventana donde se mostrará el indicador.
+     */
+    public IndicadorCarga(Component componente) {
+        Component raiz = componente instanceof RootPaneContainer ? componente : SwingUtilities.getWindowAncestor(componente);
+        this.contenedor = raiz instanceof RootPaneContainer rpc ? rpc : null;
+        barra.setIndeterminate(true);
+        barra.setStringPainted(true);
+    }
+
+    /**
+     * Muestra el indicador. Debe llamarse en el EDT.
+     */
+    public void mostrar(String texto) {
+        barra.setString(texto);
+        if (contenedor == null || glassPaneAnterior != null) return;
+
+        panel = new JPanel(new BorderLayout());
+        panel.setOpaque(false);
+        panel.add(barra, BorderLayout.SOUTH);
+
+        glassPaneAnterior = contenedor.getGlassPane();
+        contenedor.setGlassPane(panel);
+        panel.setVisible(true);
+    }
+
+    public void actualizar(String texto) {
+        barra.setString(texto);
+    }
+
+    /**
+     * Oculta el indicador y restaura el glass pane original. Debe llamarse en el EDT.
+     * Si otro componente reemplazó el glass pane mientras tanto, no lo toca.
+     */
+    public void ocultar() {
+        if (contenedor == null || glassPaneAnterior == null) return;
+        if (contenedor.getGlassPane() == panel) {
+            panel.setVisible(false);
+            contenedor.setGlassPane(glassPaneAnterior);
+            glassPaneAnterior.setVisible(false);
+        }
+        glassPaneAnterior = null;
+        panel = null;
+    }
+}
@@ -0,0 +1,452 @@
+package com.softly.fonoteca.utilities;
+
+import com.softly.fonoteca.Modelos.DAOs.CancionDAO;
+import com.softly.fonoteca.Modelos.DTOs.Cancion;
+import com.softly.fonoteca.Modelos.DTOs.CancionRecomendada;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice en memoria de "canciones parecidas a esta" por sus atributos, sin consultar {@code canciones}.
+ * <ul>
+ *     <li>Las canciones se reparten en particiones por los campos categóricos (género, idioma normalizado
+ *     e instrumental). Cada partición guarda BPM, duración en segundos e ID en arreglos primitivos
+ *     ordenados por BPM.</li>
+ *     <li>Distancia: {@code (ΔBPM / 10)² + (Δduración / 60 s)²}. La búsqueda parte de la posición del BPM
+ *     pedido (búsqueda binaria) y se expande hacia ambos lados en orden de ΔBPM; se detiene al salir de la
+ *     tolerancia o cuando la cota por BPM ya no puede mejorar los {@code n} mejores encontrados.</li>
+ *     <li>Se construye en paralelo al arrancar ({@link #construirEnSegundoPlano()}) y {@link CancionDAO}
+ *     lo actualiza al escribir.</li>
+ * </ul>
+ */
+public class IndiceAtributos {
+
+    private static final IndiceAtributos COMPARTIDO = new IndiceAtributos();
+
+    // Escalas de normalización: 10 BPM pesan lo mismo que 60 segundos de duración
+    private static final float ESCALA_BPM = 10f;
+    private static final float ESCALA_DURACION = 60f;
+    // Término de duración cuando una de las dos canciones no tiene una duración válida
+    private static final float DISTANCIA_SIN_DURACION = 1f;
+    private static final int SIN_DURACION = -1;
+    private static final int AUSENTE = -1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Particion> particiones = new ArrayList<>();
+    private final Map<String, Integer> numeroDeParticion = new HashMap<>();
+    // idCancion -> número de partición (AUSENTE si se eliminó) y BPM con que se indexó
+    private IndiceEnteros particionDe = new IndiceEnteros(1024);
+    private IndiceEnteros bpmDe = new IndiceEnteros(1024);
+    private int tamano;
+    private int ultimoId;
+
+    private final CicloIndice ciclo = new CicloIndice(lock, "índice de atributos");
+    private final CicloIndice.Sincronizacion altas = new CicloIndice.Sincronizacion("canciones nuevas por atributos",
+            () -> CicloIndice.indexarDesde(new CancionDAO(), getUltimoId(), Cancion::getIdCancion, this::actualizar));
+
+    IndiceAtributos() {
+    }
+
+    /**
+     * Índice compartido por la aplicación.
+     */
+    public static IndiceAtributos compartido() {
+        return COMPARTIDO;
+    }
+
+    /**
+     * Canciones de una combinación de género, idioma e instrumental, ordenadas por BPM.
+     */
+    private static final class Particion {
+        final int genero;
+        final String idioma;
+        final boolean instrumental;
+        int[] bpm = new int[8];
+        int[] duracion = new int[8];
+        int[] ids = new int[8];
+        int tamano;
+
+        Particion(int genero, String idioma, boolean instrumental) {
+            this.genero = genero;
+            this.idioma = idioma;
+            this.instrumental = instrumental;
+        }
+
+        /**
+         * Primera posición con BPM mayor o igual a {@code valor}.
+         */
+        int primeraDesde(int valor) {
+            int bajo = 0;
+            int alto = tamano;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (bpm[medio] < valor) bajo = medio + 1;
+                else alto = medio;
+            }
+            return bajo;
+        }
+
+        int posicionDe(int id, int valorBpm) {
+            for (int i = primeraDesde(valorBpm); i < tamano && bpm[i] == valorBpm; i++) {
+                if (ids[i] == id) return i;
+            }
+            return -1;
+        }
+
+        void insertar(int id, int valorBpm, int segundos) {
+            if (tamano == ids.length) {
+                int capacidad = tamano * 2;
+                bpm = Arrays.copyOf(bpm, capacidad);
+                duracion = Arrays.copyOf(duracion, capacidad);
+                ids = Arrays.copyOf(ids, capacidad);
+            }
+            int posicion = primeraDesde(valorBpm + 1);
+            System.arraycopy(bpm, posicion, bpm, posicion + 1, tamano - posicion);
+            System.arraycopy(duracion, posicion, duracion, posicion + 1, tamano - posicion);
+            System.arraycopy(ids, posicion, ids, posicion + 1, tamano - posicion);
+            bpm[posicion] = valorBpm;
+            duracion[posicion] = segundos;
+            ids[posicion] = id;
+            tamano++;
+        }
+
+        void quitar(int posicion) {
+            System.arraycopy(bpm, posicion + 1, bpm, posicion, tamano - posicion - 1);
+            System.arraycopy(duracion, posicion + 1, duracion, posicion, tamano - posicion - 1);
+            System.arraycopy(ids, posicion + 1, ids, posicion, tamano - posicion - 1);
+            tamano--;
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // --- CONSTRUCCIÓN ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Lee las canciones desde su DAO (con cursor) y construye el índice. Mientras tanto, las consultas
+     * responden con el índice anterior (vacío al arrancar).
+     */
+    public CompletableFuture<Void> construirEnSegundoPlano() {
+        long inicio = System.nanoTime();
+        return ciclo.construir(() -> EjecutorAsincrono.ejecutar(() -> {
+            List<Cancion> canciones = new ArrayList<>();
+            new CancionDAO().recorrerTodos(canciones::add);
+            cargar(canciones);
+            System.out.println("Índice de atributos: " + canciones.size() + " canciones en "
+                    + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+            return (Void) null;
+        }, null));
+    }
+
+    /**
+     * Reemplaza el contenido del índice. Las particiones se arman fuera del bloqueo (agrupando y ordenando
+     * por BPM una sola vez) y se publican juntas; luego se aplican los cambios recibidos mientras tanto.
+     */
+    void cargar(List<Cancion> canciones) {
+        List<Particion> nuevas = new ArrayList<>();
+        Map<String, Integer> numeros = new HashMap<>();
+        IndiceEnteros nuevaParticionDe = new IndiceEnteros(canciones.size());
+        IndiceEnteros nuevoBpmDe = new IndiceEnteros(canciones.size());
+        int[] particionDeCada = new int[canciones.size()];
+        int[] conteo = new int[16];
+        int maximo = 0;
+        // Hay pocos idiomas distintos: se normaliza cada uno una sola vez
+        Map<String, String> idiomas = new HashMap<>();
+
+        for (int i = 0; i < canciones.size(); i++) {
+            Cancion cancion = canciones.get(i);
+            String idioma = idiomas.computeIfAbsent(cancion.getIdioma(), IndiceAtributos::normalizarIdioma);
+            String clave = clave(cancion.getGenero(), idioma, cancion.isInstrumental());
+            Integer numero = numeros.get(clave);
+            if (numero == null) {
+                numero = nuevas.size();
+                numeros.put(clave, numero);
+                nuevas.add(new Particion(cancion.getGenero(), idioma, cancion.isInstrumental()));
+                if (numero == conteo.length) conteo = Arrays.copyOf(conteo, numero * 2);
+            }
+            particionDeCada[i] = numero;
+            conteo[numero]++;
+            maximo = Math.max(maximo, cancion.getIdCancion());
+        }
+
+        // Cada partición se ordena por (BPM, posición) empaquetados en un long
+        long[][] claves = new long[nuevas.size()][];
+        for (int p = 0; p < nuevas.size(); p++) {
+            claves[p] = new long[conteo[p]];
+            conteo[p] = 0;
+        }
+        for (int i = 0; i < canciones.size(); i++) {
+            int p = particionDeCada[i];
+            claves[p][conteo[p]++] = ((long) bpmValido(canciones.get(i).getBpm()) << 32) | i;
+        }
+        for (int p = 0; p < nuevas.size(); p++) {
+            Arrays.sort(claves[p]);
+            Particion particion = nuevas.get(p);
+            int capacidad = Math.max(8, claves[p].length);
+            particion.bpm = new int[capacidad];
+            particion.duracion = new int[capacidad];
+            particion.ids = new int[capacidad];
+            for (long clave : claves[p]) {
+                Cancion cancion = canciones.get((int) clave);
+                int k = particion.tamano++;
+                particion.bpm[k] = (int) (clave >>> 32);
+                particion.duracion[k] = duracion(cancion);
+                particion.ids[k] = cancion.getIdCancion();
+                nuevaParticionDe.put(cancion.getIdCancion(), p);
+                nuevoBpmDe.put(cancion.getIdCancion(), particion.bpm[k]);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            particiones.clear();
+            particiones.addAll(nuevas);
+            numeroDeParticion.clear();
+            numeroDeParticion.putAll(numeros);
+            particionDe = nuevaParticionDe;
+            bpmDe = nuevoBpmDe;
+            tamano = canciones.size();
+            ultimoId = maximo;
+            ciclo.publicar();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // --- ACTUALIZACIÓN INCREMENTAL ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Indexa (o reindexa) la canción con el ID indicado.
+     */
+    public void actualizar(int idCancion, Cancion cancion) {
+        if (idCancion <= 0) return;
+        int genero = cancion.getGenero();
+        String idioma = normalizarIdioma(cancion.getIdioma());
+        boolean instrumental = cancion.isInstrumental();
+        int bpm = bpmValido(cancion.getBpm());
+        int segundos = duracion(cancion);
+
+        lock.writeLock().lock();
+        try {
+            Runnable cambio = () -> {
+                quitarSinBloqueo(idCancion);
+                String clave = clave(genero, idioma, instrumental);
+                Integer numero = numeroDeParticion.get(clave);
+                if (numero == null) {
+                    numero = particiones.size();
+                    numeroDeParticion.put(clave, numero);
+                    particiones.add(new Particion(genero, idioma, instrumental));
+                }
+                particiones.get(numero).insertar(idCancion, bpm, segundos);
+                particionDe.put(idCancion, numero);
+                bpmDe.put(idCancion, bpm);
+                tamano++;
+                ultimoId = Math.max(ultimoId, idCancion);
+            };
+            ciclo.registrar(cambio);
+            cambio.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void actualizar(Cancion cancion) {
+        actualizar(cancion.getIdCancion(), cancion);
+    }
+
+    public void eliminar(int idCancion) {
+        lock.writeLock().lock();
+        try {
+            ciclo.registrar(() -> quitarSinBloqueo(idCancion));
+            quitarSinBloqueo(idCancion);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void quitarSinBloqueo(int idCancion) {
+        int numero = particionDe.get(idCancion, AUSENTE);
+        if (numero == AUSENTE) return;
+        Particion particion = particiones.get(numero);
+        int posicion = particion.posicionDe(idCancion, bpmDe.get(idCancion, 0));
+        if (posicion >= 0) {
+            particion.quitar(posicion);
+            tamano--;
+        }
+        particionDe.put(idCancion, AUSENTE);
+    }
+
+    /**
+     * Indexa las canciones con ID mayor a la última indexada (altas), leyendo por páginas (keyset) del DAO.
+     * Las llamadas mientras hay una sincronización en curso se agrupan en la siguiente.
+     */
+    public void sincronizarNuevos() {
+        altas.solicitar();
+    }
+
+    private int getUltimoId() {
+        lock.readLock().lock();
+        try {
+            return ultimoId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // --- CONSULTAS ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Las {@code n} canciones más parecidas a la indicada: mismo género, idioma e instrumental,
+     * y BPM y duración más cercanos. No incluye a la canción consultada.
+     */
+    public List<CancionRecomendada> similares(int idCancion, int n) {
+        if (n <= 0) return List.of();
+        lock.readLock().lock();
+        try {
+            int numero = particionDe.get(idCancion, AUSENTE);
+            if (numero == AUSENTE) return List.of();
+            Particion particion = particiones.get(numero);
+            int posicion = particion.posicionDe(idCancion, bpmDe.get(idCancion, 0));
+            if (posicion < 0) return List.of();
+
+            MejoresK mejores = new MejoresK(n);
+            buscarEn(particion, particion.bpm[posicion], Integer.MAX_VALUE, particion.duracion[posicion], idCancion, mejores);
+            return aLista(mejores);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Las {@code n} canciones con BPM dentro de {@code bpm ± toleranciaBpm} más cercanas al BPM pedido,
+     * filtradas por los campos categóricos indicados.
+     *
+     * @param genero       ID del género, o 0 para cualquiera.
+     * @param idioma       Idioma (sin distinguir mayúsculas ni acentos), o null para cualquiera.
+     * @param instrumental true/false, o null para cualquiera.
+     */
+    public List<CancionRecomendada> buscar(int genero, String idioma, Boolean instrumental, int bpm, int toleranciaBpm, int n) {
+        return buscar(genero, idioma, instrumental, bpm, toleranciaBpm, SIN_DURACION, n);
+    }
+
+    /**
+     * Como {@link #buscar(int, String, Boolean, int, int, int)}, ordenando además por cercanía a la duración indicada.
+     *
+     * @param duracionSegundos Duración de referencia en segundos, o -1 para ordenar solo por BPM.
+     */
+    public List<CancionRecomendada> buscar(int genero, String idioma, Boolean instrumental, int bpm, int toleranciaBpm,
+                                           int duracionSegundos, int n) {
+        if (n <= 0 || toleranciaBpm < 0) return List.of();
+        String idiomaNormalizado = idioma == null ? null : normalizarIdioma(idioma);
+        MejoresK mejores = new MejoresK(n);
+
+        lock.readLock().lock();
+        try {
+            if (genero > 0 && idiomaNormalizado != null && instrumental != null) {
+                Integer numero = numeroDeParticion.get(clave(genero, idiomaNormalizado, instrumental));
+                if (numero != null) {
+                    buscarEn(particiones.get(numero), bpm, toleranciaBpm, duracionSegundos, AUSENTE, mejores);
+                }
+            } else {
+                for (Particion particion : particiones) {
+                    if ((genero <= 0 || particion.genero == genero)
+                            && (idiomaNormalizado == null || particion.idioma.equals(idiomaNormalizado))
+                            && (instrumental == null || particion.instrumental == instrumental)) {
+                        buscarEn(particion, bpm, toleranciaBpm, duracionSegundos, AUSENTE, mejores);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return aLista(mejores);
+    }
+
+    /**
+     * Recorre la partición desde el BPM pedido hacia ambos lados, siempre por el lado con menor ΔBPM,
+     * así que la cota {@code (ΔBPM / escala)²} solo crece y se puede cortar en cuanto no mejora a los mejores.
+     * Los mejores guardan la distancia negada (conservan los de mayor puntaje).
+     */
+    private static void buscarEn(Particion particion, int bpm, int tolerancia, int duracion, int excluir, MejoresK mejores) {
+        int derecha = particion.primeraDesde(bpm);
+        int izquierda = derecha - 1;
+
+        while (true) {
+            long deltaIzquierda = izquierda >= 0 ? (long) bpm - particion.bpm[izquierda] : Long.MAX_VALUE;
+            long deltaDerecha = derecha < particion.tamano ? (long) particion.bpm[derecha] - bpm : Long.MAX_VALUE;
+            long delta = Math.min(deltaIzquierda, deltaDerecha);
+            if (delta == Long.MAX_VALUE || delta > tolerancia) return;
+
+            float cota = (delta / ESCALA_BPM) * (delta / ESCALA_BPM);
+            if (mejores.isLleno() && cota >= -mejores.peor()) return;
+
+            int posicion = deltaIzquierda <= deltaDerecha ? izquierda-- : derecha++;
+            int id = particion.ids[posicion];
+            if (id == excluir) continue;
+            mejores.ofrecer(id, -(cota + distanciaDuracion(duracion, particion.duracion[posicion])));
+        }
+    }
+
+    /**
+     * De la más cercana a la más lejana (a igual distancia, por ID); el puntaje es {@code 1 / (1 + distancia)}.
+     */
+    private static List<CancionRecomendada> aLista(MejoresK mejores) {
+        int tamano = mejores.getTamano();
+        Integer[] orden = new Integer[tamano];
+        for (int i = 0; i < tamano; i++) orden[i] = i;
+        Arrays.sort(orden, (a, b) -> mejores.getPuntaje(a) != mejores.getPuntaje(b)
+                ? Float.compare(mejores.getPuntaje(b), mejores.getPuntaje(a))
+                : Integer.compare(mejores.getId(a), mejores.getId(b)));
+        List<CancionRecomendada> lista = new ArrayList<>(tamano);
+        for (int i : orden) {
+            lista.add(new CancionRecomendada(mejores.getId(i), 1f / (1f - mejores.getPuntaje(i))));
+        }
+        return lista;
+    }
+
+    private static float distanciaDuracion(int referencia, int candidata) {
+        if (referencia == SIN_DURACION) return 0f;
+        if (candidata == SIN_DURACION) return DISTANCIA_SIN_DURACION;
+        float delta = (referencia - candidata) / ESCALA_DURACION;
+        return delta * delta;
+    }
+
+    public int getTamano() {
+        lock.readLock().lock();
+        try {
+            return tamano;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // --- UTILIDADES ---
+    // -------------------------------------------------------------------------
+
+    private static String clave(int genero, String idioma, boolean instrumental) {
+        return genero + "|" + idioma + "|" + instrumental;
+    }
+
+    private static String normalizarIdioma(String idioma) {
+        return idioma == null ? "" : IndiceBusqueda.normalizar(idioma.trim());
+    }
+
+    private static int bpmValido(int bpm) {
+        return Math.max(0, bpm);
+    }
+
+    private static int duracion(Cancion cancion) {
+        return FormatDates.duracionEnSegundos(cancion.getDuracion());
+    }
+}
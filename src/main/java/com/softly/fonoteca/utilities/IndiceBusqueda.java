@@ -0,0 +1,903 @@
+package com.softly.fonoteca.utilities;
+
+import com.softly.fonoteca.Modelos.DAOs.AlbumDAO;
+import com.softly.fonoteca.Modelos.DAOs.BaseDAO;
+import com.softly.fonoteca.Modelos.DAOs.CancionDAO;
+import com.softly.fonoteca.Modelos.DAOs.InterpreteDAO;
+import com.softly.fonoteca.Modelos.DTOs.Album;
+import com.softly.fonoteca.Modelos.DTOs.Cancion;
+import com.softly.fonoteca.Modelos.DTOs.Interprete;
+import com.softly.fonoteca.Modelos.DTOs.ResultadoBusqueda;
+import com.softly.fonoteca.Modelos.DTOs.ResultadoBusqueda.Campo;
+import com.softly.fonoteca.Modelos.DTOs.ResultadoBusqueda.Tipo;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Motor de búsqueda en memoria sobre el catálogo: títulos de canciones, títulos y sellos de álbumes
+ * y nombres de intérpretes.
+ * <ul>
+ *     <li>Índice invertido término -> documentos, con los términos ordenados (TreeMap) para buscar por prefijo.</li>
+ *     <li>Índice de trigramas término -> términos, para encontrar términos parecidos (errores de tipeo),
+ *     confirmados con distancia de edición (1 error hasta 7 letras, 2 desde 8).</li>
+ *     <li>Las consultas de varias palabras exigen que coincidan todas (AND). Puntaje por palabra: exacta &gt;
+ *     prefijo &gt; un error &gt; dos errores &gt; similitud de trigramas; se favorecen los textos más cortos.</li>
+ *     <li>Los puntajes se acumulan en arreglos reutilizables por hilo (sin mapas ni objetos por documento),
+ *     y la expansión de prefijos cortos está acotada, para responder en pocos milisegundos con un millón de canciones.</li>
+ *     <li>Se construye en paralelo al arrancar ({@link #construirEnSegundoPlano()}) y los DAOs lo actualizan al escribir.
+ *     Los documentos modificados o eliminados quedan marcados y se compactan en segundo plano.</li>
+ * </ul>
+ */
+public class IndiceBusqueda {
+
+    private static final IndiceBusqueda COMPARTIDO = new IndiceBusqueda();
+
+    // --- Puntajes por palabra ---
+    private static final float PUNTAJE_EXACTO = 10f;
+    private static final float PUNTAJE_PREFIJO = 7f;
+    private static final float PUNTAJE_UN_ERROR = 5f;
+    private static final float PUNTAJE_DOS_ERRORES = 3.5f;
+    private static final float PUNTAJE_TRIGRAMAS = 3f;
+    private static final float SIMILITUD_TRIGRAMAS_MINIMA = 0.45f;
+
+    /** Límite de términos y de documentos que aporta un prefijo (p. ej. "a"), para acotar la latencia. */
+    private static final int MAX_TERMINOS_PREFIJO = 2_000;
+    private static final int MAX_DOCUMENTOS_POR_PALABRA = 30_000;
+    /** Con una sola palabra, documentos candidatos a reunir por cada resultado pedido. */
+    private static final int CANDIDATOS_POR_RESULTADO = 50;
+    /** Compactar cuando los documentos obsoletos superan esta fracción. */
+    private static final double FRACCION_COMPACTACION = 0.25;
+
+    private static final char BORDE = '\u0001';
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segmento segmento = new Segmento();
+    /** Se incrementa con cada carga completa; una compactación iniciada antes de la carga se descarta. */
+    private long generacion = 0;
+    private final CicloIndice ciclo = new CicloIndice(lock, "índice de búsqueda");
+    private final AtomicBoolean compactando = new AtomicBoolean();
+    /** Escrituras recibidas mientras se compacta; se repiten sobre el segmento compactado al publicarlo. */
+    private final List<Runnable> cambiosDuranteCompactacion = new ArrayList<>();
+    private final Map<Tipo, CicloIndice.Sincronizacion> altas = new EnumMap<>(Tipo.class);
+
+    private final ThreadLocal<Trabajo> trabajo = ThreadLocal.withInitial(Trabajo::new);
+
+    IndiceBusqueda() {
+        altas.put(Tipo.CANCION, new CicloIndice.Sincronizacion("nuevos registros (CANCION)", () -> CicloIndice.indexarDesde(
+                new CancionDAO(), getUltimoId(Tipo.CANCION), Cancion::getIdCancion, this::actualizar)));
+        altas.put(Tipo.ALBUM, new CicloIndice.Sincronizacion("nuevos registros (ALBUM)", () -> CicloIndice.indexarDesde(
+                new AlbumDAO(), getUltimoId(Tipo.ALBUM), Album::getIdAlbum, this::actualizar)));
+        altas.put(Tipo.INTERPRETE, new CicloIndice.Sincronizacion("nuevos registros (INTERPRETE)", () -> CicloIndice.indexarDesde(
+                new InterpreteDAO(), getUltimoId(Tipo.INTERPRETE), Interprete::getIdInterprete, this::actualizar)));
+    }
+
+    /**
+     * Índice compartido por la aplicación.
+     */
+    public static IndiceBusqueda compartido() {
+        return COMPARTIDO;
+    }
+
+    // -------------------------------------------------------------------------
+    // --- CONSTRUCCIÓN ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Lee canciones, álbumes e intérpretes en paralelo desde sus DAOs (con cursor) y construye el índice.
+     * Mientras tanto, las búsquedas responden con el índice anterior (vacío al arrancar).
+     */
+    public CompletableFuture<Void> construirEnSegundoPlano() {
+        return ciclo.construir(() -> {
+            long inicio = System.nanoTime();
+            CompletableFuture<List<Entrada>> canciones = EjecutorAsincrono.ejecutar(() -> leer(new CancionDAO(),
+                    c -> List.of(new Entrada(Campo.TITULO_CANCION, c.getIdCancion(), c.getTitulo()))), null);
+            CompletableFuture<List<Entrada>> albumes = EjecutorAsincrono.ejecutar(() -> leer(new AlbumDAO(),
+                    a -> List.of(new Entrada(Campo.TITULO_ALBUM, a.getIdAlbum(), a.getTitulo()),
+                            new Entrada(Campo.SELLO_ALBUM, a.getIdAlbum(), a.getSelloDiscografico()))), null);
+            CompletableFuture<List<Entrada>> interpretes = EjecutorAsincrono.ejecutar(() -> leer(new InterpreteDAO(),
+                    i -> List.of(new Entrada(Campo.NOMBRE_INTERPRETE, i.getIdInterprete(), i.getNombre()))), null);
+
+            return CompletableFuture.allOf(canciones, albumes, interpretes)
+                    .thenRunAsync(() -> {
+                        List<Entrada> entradas = new ArrayList<>(canciones.join());
+                        entradas.addAll(albumes.join());
+                        entradas.addAll(interpretes.join());
+                        cargar(entradas);
+                        System.out.println("Índice de búsqueda: " + entradas.size() + " textos en "
+                                + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+                    });
+        });
+    }
+
+    private static <T> List<Entrada> leer(BaseDAO<T> dao, java.util.function.Function<T, List<Entrada>> aEntradas) {
+        List<Entrada> entradas = new ArrayList<>();
+        dao.recorrerTodos(dto -> entradas.addAll(aEntradas.apply(dto)));
+        return entradas;
+    }
+
+    /**
+     * Reemplaza el contenido del índice por las entradas dadas (construcción en paralelo).
+     * Los cambios recibidos durante la construcción se aplican después sobre el nuevo índice.
+     */
+    void cargar(List<Entrada> entradas) {
+        Segmento nuevo = Segmento.construir(entradas);
+        lock.writeLock().lock();
+        try {
+            segmento = nuevo;
+            generacion++;
+            ciclo.publicar();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // --- ACTUALIZACIÓN INCREMENTAL ---
+    // -------------------------------------------------------------------------
+
+    public void actualizar(Cancion cancion) {
+        actualizar(Campo.TITULO_CANCION, cancion.getIdCancion(), cancion.getTitulo());
+    }
+
+    public void actualizar(Album album) {
+        actualizar(Campo.TITULO_ALBUM, album.getIdAlbum(), album.getTitulo());
+        actualizar(Campo.SELLO_ALBUM, album.getIdAlbum(), album.getSelloDiscografico());
+    }
+
+    public void actualizar(Interprete interprete) {
+        actualizar(Campo.NOMBRE_INTERPRETE, interprete.getIdInterprete(), interprete.getNombre());
+    }
+
+    /**
+     * Indexa (o reindexa) el texto de un campo de la entidad.
+     */
+    public void actualizar(Campo campo, int id, String texto) {
+        lock.writeLock().lock();
+        try {
+            registrarCambio(() -> segmento.agregar(campo, id, texto));
+            segmento.agregar(campo, id, texto);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        compactarSiHaceFalta();
+    }
+
+    /**
+     * Quita del índice todos los campos de la entidad.
+     */
+    public void eliminar(Tipo tipo, int id) {
+        lock.writeLock().lock();
+        try {
+            registrarCambio(() -> segmento.eliminar(tipo, id));
+            segmento.eliminar(tipo, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        compactarSiHaceFalta();
+    }
+
+    /**
+     * Guarda el cambio para repetirlo sobre el segmento que se está construyendo o compactando
+     * (con el candado de escritura tomado).
+     */
+    private void registrarCambio(Runnable cambio) {
+        ciclo.registrar(cambio);
+        if (compactando.get()) {
+            cambiosDuranteCompactacion.add(cambio);
+        }
+    }
+
+    /**
+     * Indexa las filas con ID mayor al último indexado del tipo (altas), leyendo por páginas (keyset) del DAO.
+     * Las llamadas mientras hay una sincronización en curso del mismo tipo se agrupan en la siguiente.
+     */
+    public void sincronizarNuevos(Tipo tipo) {
+        altas.get(tipo).solicitar();
+    }
+
+    private int getUltimoId(Tipo tipo) {
+        lock.readLock().lock();
+        try {
+            return segmento.ultimoId[tipo.ordinal()];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reconstruye el índice solo con los documentos vigentes cuando hay demasiados obsoletos.
+     * Se construye sin bloquear las búsquedas; las escrituras recibidas entretanto se repiten
+     * sobre el segmento compactado al publicarlo (como en {@link #cargar(List)}).
+     */
+    private void compactarSiHaceFalta() {
+        List<Entrada> vigentes;
+        long generacionInicial;
+        lock.readLock().lock();
+        try {
+            if (ciclo.isConstruyendo() || segmento.numDocs < 10_000
+                    || segmento.obsoletos < segmento.numDocs * FRACCION_COMPACTACION
+                    || !compactando.compareAndSet(false, true)) {
+                return;
+            }
+            vigentes = segmento.vigentes();
+            generacionInicial = generacion;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        EjecutorAsincrono.ejecutar(() -> {
+            Segmento nuevo = Segmento.construir(vigentes);
+            lock.writeLock().lock();
+            try {
+                if (generacion == generacionInicial) {
+                    segmento = nuevo;
+                    for (Runnable cambio : cambiosDuranteCompactacion) {
+                        cambio.run();
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return null;
+        }, null).whenComplete((v, e) -> {
+            lock.writeLock().lock();
+            try {
+                cambiosDuranteCompactacion.clear();
+                compactando.set(false);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // -------------------------------------------------------------------------
+    // --- BÚSQUEDA ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Busca en el catálogo.
+     *
+     * @param consulta Texto libre; se ignoran mayúsculas, acentos y signos de puntuación.
+     * @param limite   Máximo de resultados.
+     * @return Resultados ordenados por puntaje (una entrada por entidad, con su mejor campo).
+     */
+    public List<ResultadoBusqueda> buscar(String consulta, int limite) {
+        String[] palabras = tokenizar(consulta);
+        if (palabras.length == 0 || limite <= 0) return Collections.emptyList();
+
+        lock.readLock().lock();
+        try {
+            return segmento.buscar(palabras, limite, trabajo.get());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Cantidad de textos indexados vigentes.
+     */
+    public int getTamano() {
+        lock.readLock().lock();
+        try {
+            return segmento.numDocs - segmento.obsoletos;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isConstruyendo() {
+        lock.readLock().lock();
+        try {
+            return ciclo.isConstruyendo();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // --- TEXTO ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Minúsculas y sin acentos ("Canción" -> "cancion").
+     */
+    static String normalizar(String texto) {
+        String minusculas = texto.toLowerCase(java.util.Locale.ROOT);
+        for (int i = 0; i < minusculas.length(); i++) {
+            if (minusculas.charAt(i) > 127) {
+                return Normalizer.normalize(minusculas, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+            }
+        }
+        return minusculas;
+    }
+
+    /**
+     * Palabras (letras y dígitos) distintas del texto normalizado, en orden de aparición.
+     */
+    static String[] tokenizar(String texto) {
+        if (texto == null || texto.isBlank()) return new String[0];
+        String normal = normalizar(texto);
+        Set<String> palabras = new LinkedHashSet<>();
+        int inicio = -1;
+        for (int i = 0; i <= normal.length(); i++) {
+            boolean letra = i < normal.length() && Character.isLetterOrDigit(normal.charAt(i));
+            if (letra && inicio < 0) {
+                inicio = i;
+            } else if (!letra && inicio >= 0) {
+                palabras.add(normal.substring(inicio, i));
+                inicio = -1;
+            }
+        }
+        return palabras.toArray(new String[0]);
+    }
+
+    private static long trigrama(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    /**
+     * Trigramas del término con bordes ("$ab", "abc", "bc$"): tantos como letras tiene.
+     */
+    private static long[] trigramas(String termino) {
+        int n = termino.length();
+        long[] resultado = new long[n];
+        for (int i = 0; i < n; i++) {
+            char a = i == 0 ? BORDE : termino.charAt(i - 1);
+            char b = termino.charAt(i);
+            char c = i == n - 1 ? BORDE : termino.charAt(i + 1);
+            resultado[i] = trigrama(a, b, c);
+        }
+        return resultado;
+    }
+
+    /**
+     * Distancia de Damerau-Levenshtein (transposiciones adyacentes), o {@code maximo + 1} si la supera.
+     */
+    static int distancia(String a, String b, int maximo) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > maximo) return maximo + 1;
+
+        int[] anterior2 = new int[m + 1];
+        int[] anterior = new int[m + 1];
+        int[] actual = new int[m + 1];
+        for (int j = 0; j <= m; j++) anterior[j] = j;
+
+        for (int i = 1; i <= n; i++) {
+            actual[0] = i;
+            int minimoFila = actual[0];
+            for (int j = 1; j <= m; j++) {
+                int costo = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int valor = Math.min(Math.min(anterior[j] + 1, actual[j - 1] + 1), anterior[j - 1] + costo);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    valor = Math.min(valor, anterior2[j - 2] + 1);
+                }
+                actual[j] = valor;
+                minimoFila = Math.min(minimoFila, valor);
+            }
+            if (minimoFila > maximo) return maximo + 1;
+            int[] temporal = anterior2;
+            anterior2 = anterior;
+            anterior = actual;
+            actual = temporal;
+        }
+        return anterior[m];
+    }
+
+    // -------------------------------------------------------------------------
+    // --- ESTRUCTURAS ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Texto a indexar: un campo de una entidad.
+     */
+    static final class Entrada {
+        final Campo campo;
+        final int id;
+        final String texto;
+
+        Entrada(Campo campo, int id, String texto) {
+            this.campo = campo;
+            this.id = id;
+            this.texto = texto;
+        }
+    }
+
+    /**
+     * Arreglo de enteros que crece (evita Integer en las listas de documentos y de términos).
+     */
+    private static final class ListaEnteros {
+        int[] valores = new int[4];
+        int tamano;
+
+        void agregar(int valor) {
+            if (tamano == valores.length) {
+                valores = Arrays.copyOf(valores, tamano * 2);
+            }
+            valores[tamano++] = valor;
+        }
+
+        void agregarTodos(ListaEnteros otra) {
+            if (tamano + otra.tamano > valores.length) {
+                valores = Arrays.copyOf(valores, Math.max(valores.length * 2, tamano + otra.tamano));
+            }
+            System.arraycopy(otra.valores, 0, valores, tamano, otra.tamano);
+            tamano += otra.tamano;
+        }
+    }
+
+    private static final class Termino {
+        final int id;
+        final String texto;
+        final ListaEnteros documentos = new ListaEnteros();
+        /** Los primeros {@code ordenados} documentos están ordenados por cercanía; el resto se agregó después. */
+        int ordenados;
+
+        Termino(int id, String texto) {
+            this.id = id;
+            this.texto = texto;
+        }
+    }
+
+    /**
+     * Palabra candidata de la consulta: un término del índice y su puntaje.
+     */
+    private static final class Coincidencia {
+        final Termino termino;
+        final float puntaje;
+
+        Coincidencia(Termino termino, float puntaje) {
+            this.termino = termino;
+            this.puntaje = puntaje;
+        }
+    }
+
+    /**
+     * Arreglos de trabajo por hilo, reutilizados entre búsquedas. Una marca de generación
+     * evita limpiarlos: una posición solo es válida si su sello coincide con la búsqueda actual.
+     */
+    private static final class Trabajo {
+        int generacion;
+        int[] selloDoc = new int[0];
+        int[] aciertosDoc = new int[0];
+        float[] puntajeDoc = new float[0];
+        float[] puntajePalabraDoc = new float[0];
+        final ListaEnteros tocados = new ListaEnteros();
+
+        int generacionTermino;
+        int[] selloTermino = new int[0];
+        int[] conteoTermino = new int[0];
+        final ListaEnteros terminosTocados = new ListaEnteros();
+
+        void preparar(int documentos, int terminos) {
+            if (selloDoc.length < documentos) {
+                int n = Math.max(documentos, selloDoc.length * 3 / 2);
+                selloDoc = new int[n];
+                aciertosDoc = new int[n];
+                puntajeDoc = new float[n];
+                puntajePalabraDoc = new float[n];
+            }
+            if (selloTermino.length < terminos) {
+                int n = Math.max(terminos, selloTermino.length * 3 / 2);
+                selloTermino = new int[n];
+                conteoTermino = new int[n];
+            }
+            if (++generacion == Integer.MAX_VALUE) {
+                generacion = 1;
+                Arrays.fill(selloDoc, 0);
+            }
+            tocados.tamano = 0;
+        }
+
+        /**
+         * Nueva generación para los arreglos de términos (una por palabra de la consulta).
+         */
+        int siguienteGeneracionTermino() {
+            if (++generacionTermino == Integer.MAX_VALUE) {
+                generacionTermino = 1;
+                Arrays.fill(selloTermino, 0);
+            }
+            terminosTocados.tamano = 0;
+            return generacionTermino;
+        }
+    }
+
+    /**
+     * Contenido del índice. Se modifica con el bloqueo de escritura del índice.
+     */
+    private static final class Segmento {
+        int numDocs;
+        byte[] campoDoc = new byte[16];
+        int[] idDoc = new int[16];
+        String[] textoDoc = new String[16];
+        short[] palabrasDoc = new short[16];
+        final BitSet obsoletosDoc = new BitSet();
+        int obsoletos;
+        /** (campo, id) -> documento vigente. */
+        final Map<Long, Integer> docPorClave = new HashMap<>();
+        final int[] ultimoId = new int[Tipo.values().length];
+
+        final TreeMap<String, Termino> terminos = new TreeMap<>();
+        final List<Termino> terminosPorId = new ArrayList<>();
+        final Map<Long, ListaEnteros> terminosPorTrigrama = new HashMap<>();
+
+        private static long clave(Campo campo, int id) {
+            return ((long) campo.ordinal() << 32) | (id & 0xFFFFFFFFL);
+        }
+
+        /**
+         * Construye el segmento en paralelo: tokenización por documento y listas parciales por bloque,
+         * que luego se combinan en orden (las listas de documentos quedan ordenadas).
+         */
+        static Segmento construir(List<Entrada> entradas) {
+            Segmento s = new Segmento();
+            int n = entradas.size();
+            String[][] tokens = new String[n][];
+            IntStream.range(0, n).parallel().forEach(i -> tokens[i] = tokenizar(entradas.get(i).texto));
+
+            // Los documentos se numeran de menos a más palabras (y de más corto a más largo): así cada
+            // lista de documentos queda ordenada por cercanía y basta recorrer su inicio (ver buscar)
+            long[] orden = new long[n];
+            for (int i = 0; i < n; i++) {
+                long palabrasTexto = Math.min(tokens[i].length, 0x7FF);
+                long largo = Math.min(entradas.get(i).texto.length(), 0xFFFFF);
+                orden[i] = (palabrasTexto << 52) | (largo << 32) | i;
+            }
+            Arrays.parallelSort(orden);
+            String[][] palabras = new String[n][];
+
+            s.campoDoc = new byte[Math.max(16, n)];
+            s.idDoc = new int[Math.max(16, n)];
+            s.textoDoc = new String[Math.max(16, n)];
+            s.palabrasDoc = new short[Math.max(16, n)];
+            for (int i = 0; i < n; i++) {
+                int original = (int) orden[i];
+                palabras[i] = tokens[original];
+                Entrada entrada = entradas.get(original);
+                s.campoDoc[i] = (byte) entrada.campo.ordinal();
+                s.idDoc[i] = entrada.id;
+                s.textoDoc[i] = entrada.texto;
+                s.palabrasDoc[i] = (short) Math.min(Short.MAX_VALUE, palabras[i].length);
+                Integer anterior = s.docPorClave.put(clave(entrada.campo, entrada.id), i);
+                if (anterior != null) {
+                    s.obsoletosDoc.set(anterior);
+                    s.obsoletos++;
+                }
+                int tipo = entrada.campo.getTipo().ordinal();
+                s.ultimoId[tipo] = Math.max(s.ultimoId[tipo], entrada.id);
+            }
+            s.numDocs = n;
+
+            int bloques = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 4, n / 10_000));
+            int tamanoBloque = (n + bloques - 1) / Math.max(1, bloques);
+            List<Map<String, ListaEnteros>> parciales = IntStream.range(0, bloques).parallel()
+                    .mapToObj(b -> {
+                        Map<String, ListaEnteros> parcial = new HashMap<>();
+                        for (int i = b * tamanoBloque; i < Math.min(n, (b + 1) * tamanoBloque); i++) {
+                            for (String palabra : palabras[i]) {
+                                parcial.computeIfAbsent(palabra, k -> new ListaEnteros()).agregar(i);
+                            }
+                        }
+                        return parcial;
+                    })
+                    .toList();
+
+            Map<String, ListaEnteros> combinadas = new HashMap<>(parciales.get(0));
+            for (int b = 1; b < parciales.size(); b++) {
+                parciales.get(b).forEach((palabra, docs) -> {
+                    ListaEnteros existente = combinadas.putIfAbsent(palabra, docs);
+                    if (existente != null) existente.agregarTodos(docs);
+                });
+            }
+
+            String[] ordenadas = combinadas.keySet().toArray(new String[0]);
+            Arrays.parallelSort(ordenadas);
+            for (String palabra : ordenadas) {
+                Termino termino = new Termino(s.terminosPorId.size(), palabra);
+                ListaEnteros docs = combinadas.get(palabra);
+                termino.documentos.valores = docs.valores;
+                termino.documentos.tamano = docs.tamano;
+                termino.ordenados = docs.tamano;
+                s.terminosPorId.add(termino);
+                s.terminos.put(palabra, termino);
+            }
+
+            // Trigramas de los términos, también por bloques en paralelo
+            List<Termino> lista = s.terminosPorId;
+            int bloquesT = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 4, lista.size() / 5_000));
+            int tamanoT = (lista.size() + bloquesT - 1) / bloquesT;
+            List<Map<Long, ListaEnteros>> parcialesT = IntStream.range(0, bloquesT).parallel()
+                    .mapToObj(b -> {
+                        Map<Long, ListaEnteros> parcial = new HashMap<>();
+                        for (int t = b * tamanoT; t < Math.min(lista.size(), (b + 1) * tamanoT); t++) {
+                            for (long trigrama : distintos(trigramas(lista.get(t).texto))) {
+                                parcial.computeIfAbsent(trigrama, k -> new ListaEnteros()).agregar(t);
+                            }
+                        }
+                        return parcial;
+                    })
+                    .toList();
+            for (Map<Long, ListaEnteros> parcial : parcialesT) {
+                parcial.forEach((trigrama, ids) -> {
+                    ListaEnteros existente = s.terminosPorTrigrama.putIfAbsent(trigrama, ids);
+                    if (existente != null) existente.agregarTodos(ids);
+                });
+            }
+            return s;
+        }
+
+        private static long[] distintos(long[] valores) {
+            return Arrays.stream(valores).distinct().toArray();
+        }
+
+        void agregar(Campo campo, int id, String texto) {
+            long clave = clave(campo, id);
+            Integer anterior = docPorClave.get(clave);
+            if (anterior != null) {
+                if (java.util.Objects.equals(textoDoc[anterior], texto)) return;
+                marcarObsoleto(anterior);
+                docPorClave.remove(clave);
+            }
+            int tipo = campo.getTipo().ordinal();
+            ultimoId[tipo] = Math.max(ultimoId[tipo], id);
+            if (texto == null || texto.isBlank()) return;
+
+            if (numDocs == idDoc.length) {
+                int n = numDocs * 2;
+                campoDoc = Arrays.copyOf(campoDoc, n);
+                idDoc = Arrays.copyOf(idDoc, n);
+                textoDoc = Arrays.copyOf(textoDoc, n);
+                palabrasDoc = Arrays.copyOf(palabrasDoc, n);
+            }
+            int doc = numDocs++;
+            String[] palabras = tokenizar(texto);
+            campoDoc[doc] = (byte) campo.ordinal();
+            idDoc[doc] = id;
+            textoDoc[doc] = texto;
+            palabrasDoc[doc] = (short) Math.min(Short.MAX_VALUE, palabras.length);
+            docPorClave.put(clave, doc);
+
+            for (String palabra : palabras) {
+                Termino termino = terminos.get(palabra);
+                if (termino == null) {
+                    termino = new Termino(terminosPorId.size(), palabra);
+                    terminosPorId.add(termino);
+                    terminos.put(palabra, termino);
+                    for (long trigrama : distintos(trigramas(palabra))) {
+                        terminosPorTrigrama.computeIfAbsent(trigrama, k -> new ListaEnteros()).agregar(termino.id);
+                    }
+                }
+                termino.documentos.agregar(doc);
+            }
+        }
+
+        void eliminar(Tipo tipo, int id) {
+            for (Campo campo : Campo.values()) {
+                if (campo.getTipo() != tipo) continue;
+                Integer doc = docPorClave.remove(clave(campo, id));
+                if (doc != null) {
+                    marcarObsoleto(doc);
+                }
+            }
+        }
+
+        private void marcarObsoleto(int doc) {
+            if (!obsoletosDoc.get(doc)) {
+                obsoletosDoc.set(doc);
+                obsoletos++;
+            }
+        }
+
+        List<Entrada> vigentes() {
+            List<Entrada> entradas = new ArrayList<>(numDocs - obsoletos);
+            Campo[] campos = Campo.values();
+            for (int doc = 0; doc < numDocs; doc++) {
+                if (!obsoletosDoc.get(doc)) {
+                    entradas.add(new Entrada(campos[campoDoc[doc]], idDoc[doc], textoDoc[doc]));
+                }
+            }
+            return entradas;
+        }
+
+        // --- Búsqueda ---
+
+        List<ResultadoBusqueda> buscar(String[] palabras, int limite, Trabajo t) {
+            t.preparar(numDocs, terminosPorId.size());
+
+            // Términos candidatos por palabra; se procesa primero la palabra más selectiva
+            List<List<Coincidencia>> porPalabra = new ArrayList<>();
+            for (String palabra : palabras) {
+                List<Coincidencia> coincidencias = candidatos(palabra, t);
+                if (coincidencias.isEmpty()) return Collections.emptyList(); // AND: una palabra sin coincidencias
+                porPalabra.add(coincidencias);
+            }
+            porPalabra.sort((a, b) -> Long.compare(totalDocumentos(a), totalDocumentos(b)));
+
+            // Con una sola palabra todos los documentos de un término tienen el mismo puntaje base y solo
+            // los desempata su cercanía, así que basta el inicio de cada lista (más las altas posteriores);
+            // los términos vienen del más al menos parecido, y se corta al reunir suficientes candidatos
+            boolean unaPalabra = porPalabra.size() == 1;
+            int porTermino = unaPalabra ? limite * 4 : Integer.MAX_VALUE;
+            int presupuestoPorPalabra = unaPalabra ? limite * CANDIDATOS_POR_RESULTADO : MAX_DOCUMENTOS_POR_PALABRA;
+
+            int gen = t.generacion;
+            for (int p = 0; p < porPalabra.size(); p++) {
+                int presupuesto = presupuestoPorPalabra;
+                for (Coincidencia c : porPalabra.get(p)) {
+                    int[] docs = c.termino.documentos.valores;
+                    int tamano = c.termino.documentos.tamano;
+                    int ordenados = c.termino.ordenados;
+                    int recorridos = 0;
+                    for (int k = 0; k < tamano; k++) {
+                        if (k == porTermino && k < ordenados) {
+                            k = ordenados - 1; // saltar al final de la parte ordenada
+                            continue;
+                        }
+                        acumular(t, gen, docs[k], p, c.puntaje);
+                        recorridos++;
+                    }
+                    if ((presupuesto -= recorridos) <= 0) break;
+                }
+            }
+            return mejores(t, gen, porPalabra.size(), limite);
+        }
+
+        private static long totalDocumentos(List<Coincidencia> coincidencias) {
+            long total = 0;
+            for (Coincidencia c : coincidencias) total += c.termino.documentos.tamano;
+            return total;
+        }
+
+        /**
+         * Suma el puntaje de la palabra {@code p} al documento. Un documento solo sigue siendo
+         * candidato si coincidió con todas las palabras anteriores; si varios términos de la misma
+         * palabra coinciden, cuenta el mejor.
+         */
+        private static void acumular(Trabajo t, int gen, int doc, int p, float puntaje) {
+            if (t.selloDoc[doc] != gen) {
+                if (p > 0) return;
+                t.selloDoc[doc] = gen;
+                t.aciertosDoc[doc] = 1;
+                t.puntajeDoc[doc] = puntaje;
+                t.puntajePalabraDoc[doc] = puntaje;
+                t.tocados.agregar(doc);
+                return;
+            }
+            int aciertos = t.aciertosDoc[doc];
+            if (aciertos == p) {
+                t.aciertosDoc[doc] = p + 1;
+                t.puntajeDoc[doc] += puntaje;
+                t.puntajePalabraDoc[doc] = puntaje;
+            } else if (aciertos == p + 1 && puntaje > t.puntajePalabraDoc[doc]) {
+                t.puntajeDoc[doc] += puntaje - t.puntajePalabraDoc[doc];
+                t.puntajePalabraDoc[doc] = puntaje;
+            }
+        }
+
+        /**
+         * Exacta, prefijo, errores de tipeo y trigramas para una palabra de la consulta.
+         */
+        private List<Coincidencia> candidatos(String palabra, Trabajo t) {
+            List<Coincidencia> resultado = new ArrayList<>();
+            int gen = t.siguienteGeneracionTermino();
+
+            Termino exacto = terminos.get(palabra);
+            if (exacto != null) {
+                resultado.add(new Coincidencia(exacto, PUNTAJE_EXACTO));
+                t.selloTermino[exacto.id] = gen;
+                t.conteoTermino[exacto.id] = -1; // ya usado
+            }
+
+            // Prefijo: los términos más cortos primero (más cercanos a lo escrito)
+            NavigableMap<String, Termino> conPrefijo = terminos.subMap(palabra, false, palabra + Character.MAX_VALUE, false);
+            List<Termino> prefijos = new ArrayList<>();
+            for (Termino termino : conPrefijo.values()) {
+                prefijos.add(termino);
+                if (prefijos.size() == MAX_TERMINOS_PREFIJO) break;
+            }
+            prefijos.sort((a, b) -> Integer.compare(a.texto.length(), b.texto.length()));
+            for (Termino termino : prefijos) {
+                float cercania = palabra.length() / (float) termino.texto.length();
+                resultado.add(new Coincidencia(termino, PUNTAJE_PREFIJO * (0.5f + 0.5f * cercania)));
+                t.selloTermino[termino.id] = gen;
+                t.conteoTermino[termino.id] = -1;
+            }
+
+            // Errores de tipeo y similitud por trigramas (palabras de 3 letras o más que no existen tal cual)
+            if (exacto == null && palabra.length() >= 3) {
+                long[] trigramasPalabra = distintos(trigramas(palabra));
+                for (long trigrama : trigramasPalabra) {
+                    ListaEnteros ids = terminosPorTrigrama.get(trigrama);
+                    if (ids == null) continue;
+                    for (int k = 0; k < ids.tamano; k++) {
+                        int id = ids.valores[k];
+                        if (t.selloTermino[id] != gen) {
+                            t.selloTermino[id] = gen;
+                            t.conteoTermino[id] = 1;
+                            t.terminosTocados.agregar(id);
+                        } else if (t.conteoTermino[id] > 0) {
+                            t.conteoTermino[id]++;
+                        }
+                    }
+                }
+
+                int maxErrores = palabra.length() >= 8 ? 2 : 1;
+                for (int k = 0; k < t.terminosTocados.tamano; k++) {
+                    int id = t.terminosTocados.valores[k];
+                    int compartidos = t.conteoTermino[id];
+                    Termino termino = terminosPorId.get(id);
+                    int trigramasTermino = termino.texto.length();
+                    // Cada error destruye a lo sumo 3 trigramas
+                    if (palabra.length() >= 4 && compartidos >= trigramasPalabra.length - 3 * maxErrores) {
+                        int d = distancia(palabra, termino.texto, maxErrores);
+                        if (d <= maxErrores) {
+                            resultado.add(new Coincidencia(termino, d == 1 ? PUNTAJE_UN_ERROR : PUNTAJE_DOS_ERRORES));
+                            continue;
+                        }
+                    }
+                    float similitud = compartidos / (float) (trigramasPalabra.length + trigramasTermino - compartidos);
+                    if (similitud >= SIMILITUD_TRIGRAMAS_MINIMA) {
+                        resultado.add(new Coincidencia(termino, PUNTAJE_TRIGRAMAS * similitud));
+                    }
+                }
+            }
+            resultado.sort((a, b) -> Float.compare(b.puntaje, a.puntaje)); // estable: los prefijos siguen por largo
+            return resultado;
+        }
+
+        /**
+         * Selecciona los mejores documentos con un montículo de tamaño fijo y deja uno por entidad.
+         */
+        private List<ResultadoBusqueda> mejores(Trabajo t, int gen, int palabras, int limite) {
+            MejoresK monticulo = new MejoresK(limite * 3);
+
+            for (int k = 0; k < t.tocados.tamano; k++) {
+                int doc = t.tocados.valores[k];
+                if (t.aciertosDoc[doc] != palabras || obsoletosDoc.get(doc)) continue;
+
+                // Se favorecen los textos que coinciden completos y los más cortos
+                int sobrantes = Math.max(0, palabrasDoc[doc] - palabras);
+                float puntaje = t.puntajeDoc[doc] + (sobrantes == 0 ? 1f : 0f) - 0.1f * Math.min(sobrantes, 10);
+                if (campoDoc[doc] == Campo.SELLO_ALBUM.ordinal()) puntaje -= 0.5f;
+
+                monticulo.ofrecer(doc, puntaje);
+            }
+
+            Integer[] orden = new Integer[monticulo.getTamano()];
+            for (int i = 0; i < orden.length; i++) orden[i] = i;
+            Arrays.sort(orden, (a, b) -> {
+                int porPuntaje = Float.compare(monticulo.getPuntaje(b), monticulo.getPuntaje(a));
+                return porPuntaje != 0 ? porPuntaje
+                        : Integer.compare(textoDoc[monticulo.getId(a)].length(), textoDoc[monticulo.getId(b)].length());
+            });
+
+            Campo[] campos = Campo.values();
+            Set<Long> entidades = new java.util.HashSet<>();
+            List<ResultadoBusqueda> resultado = new ArrayList<>(limite);
+            for (Integer i : orden) {
+                int doc = monticulo.getId(i);
+                Campo campo = campos[campoDoc[doc]];
+                if (!entidades.add(((long) campo.getTipo().ordinal() << 32) | (idDoc[doc] & 0xFFFFFFFFL))) continue;
+                resultado.add(new ResultadoBusqueda(campo, idDoc[doc], textoDoc[doc], monticulo.getPuntaje(i)));
+                if (resultado.size() == limite) break;
+            }
+            return resultado;
+        }
+    }
+}
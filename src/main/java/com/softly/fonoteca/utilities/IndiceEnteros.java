@@ -0,0 +1,91 @@
+package com.softly.fonoteca.utilities;
+
+import java.util.Arrays;
+
+/**
+ * Mapa int -> int con direccionamiento abierto (sondeo lineal), sin objetos Integer.
+ * Se usa para ubicar en O(1) la posición de un ID dentro de una lista.
+ */
+public class IndiceEnteros {
+
+    private static final int VACIO = Integer.MIN_VALUE;
+
+    private int[] claves;
+    private int[] valores;
+    private int tamano;
+
+    public IndiceEnteros(int capacidadEsperada) {
+        int capacidad = Integer.highestOneBit(Math.max(4, capacidadEsperada * 2 - 1)) << 1;
+        this.claves = new int[capacidad];
+        this.valores = new int[capacidad];
+        Arrays.fill(claves, VACIO);
+    }
+
+    /**
+     * Copia independiente de otro índice.
+     */
+    public IndiceEnteros(IndiceEnteros otro) {
+        this.claves = otro.claves.clone();
+        this.valores = otro.valores.clone();
+        this.tamano = otro.tamano;
+    }
+
+    /**
+     * Asocia el valor a la clave (reemplaza el anterior si existe).
+     * La clave Integer.MIN_VALUE no está permitida.
+     */
+    public void put(int clave, int valor) {
+        if (clave == VACIO) {
+            throw new IllegalArgumentException("Clave no soportada: " + clave);
+        }
+        if ((tamano + 1) * 2 > claves.length) {
+            redimensionar();
+        }
+        int i = posicion(clave, claves.length);
+        while (claves[i] != VACIO && claves[i] != clave) {
+            i = (i + 1) & (claves.length - 1);
+        }
+        if (claves[i] == VACIO) {
+            tamano++;
+        }
+        claves[i] = clave;
+        valores[i] = valor;
+    }
+
+    /**
+     * @return El valor asociado, o {@code porDefecto} si la clave no existe.
+     */
+    public int get(int clave, int porDefecto) {
+        int i = posicion(clave, claves.length);
+        while (claves[i] != VACIO) {
+            if (claves[i] == clave) {
+                return valores[i];
+            }
+            i = (i + 1) & (claves.length - 1);
+        }
+        return porDefecto;
+    }
+
+    public int size() {
+        return tamano;
+    }
+
+    private void redimensionar() {
+        int[] clavesAnteriores = claves;
+        int[] valoresAnteriores = valores;
+        claves = new int[clavesAnteriores.length * 2];
+        valores = new int[valoresAnteriores.length * 2];
+        Arrays.fill(claves, VACIO);
+        tamano = 0;
+        for (int i = 0; i < clavesAnteriores.length; i++) {
+            if (clavesAnteriores[i] != VACIO) {
+                put(clavesAnteriores[i], valoresAnteriores[i]);
+            }
+        }
+    }
+
+    private static int posicion(int clave, int capacidad) {
+        int h = clave * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (capacidad - 1);
+    }
+}
@@ -0,0 +1,383 @@
+package com.softly.fonoteca.utilities;
+
+import java.util.Arrays;
+
+/**
+ * Matriz dispersa usuario × canción (peso de la interacción de cada usuario con cada canción),
+ * inmutable y guardada en arreglos primitivos en los dos sentidos:
+ * <ul>
+ *     <li>Por canción: los oyentes de cada canción, ordenados por usuario
+ *     ({@code inicioCancion}, {@code oyentes}, {@code pesosPorCancion}).</li>
+ *     <li>Por usuario: las canciones de cada usuario, ordenadas por canción
+ *     ({@code inicioUsuario}, {@code escuchadas}, {@code pesosPorUsuario}).</li>
+ * </ul>
+ * Los IDs se traducen a índices densos (0..n-1). {@link #conCambios} conserva los índices existentes
+ * y agrega los nuevos al final, para que los resultados calculados por índice sigan siendo válidos.
+ * Las versiones no comparten arreglos mutables, así que una versión publicada puede leerse sin bloqueo.
+ */
+final class MatrizInteracciones {
+
+    final int canciones;
+    final int usuarios;
+    final int[] idsCancion;
+    final int[] idsUsuario;
+    private final IndiceEnteros indiceCancion;
+    private final IndiceEnteros indiceUsuario;
+
+    final int[] inicioCancion;
+    final int[] oyentes;
+    final float[] pesosPorCancion;
+
+    final int[] inicioUsuario;
+    final int[] escuchadas;
+    final float[] pesosPorUsuario;
+
+    /**
+     * Norma L2 de cada canción, sin contar a los usuarios ignorados.
+     */
+    final float[] normas;
+
+    /**
+     * Los usuarios con más canciones que esto no participan en las similitudes: el costo del cálculo
+     * crece con el cuadrado de las canciones de cada usuario y esas cuentas (reproducción automática,
+     * cuentas compartidas) aportan poca señal.
+     */
+    final int maxCancionesPorUsuario;
+
+    private MatrizInteracciones(int canciones, int[] idsCancion, IndiceEnteros indiceCancion,
+                                int usuarios, int[] idsUsuario, IndiceEnteros indiceUsuario,
+                                Dispersa porCancion, Dispersa porUsuario, float[] normas, int maxCancionesPorUsuario) {
+        this.canciones = canciones;
+        this.usuarios = usuarios;
+        this.idsCancion = idsCancion;
+        this.idsUsuario = idsUsuario;
+        this.indiceCancion = indiceCancion;
+        this.indiceUsuario = indiceUsuario;
+        this.inicioCancion = porCancion.inicio;
+        this.oyentes = porCancion.indices;
+        this.pesosPorCancion = porCancion.pesos;
+        this.inicioUsuario = porUsuario.inicio;
+        this.escuchadas = porUsuario.indices;
+        this.pesosPorUsuario = porUsuario.pesos;
+        this.maxCancionesPorUsuario = maxCancionesPorUsuario;
+
+        if (normas == null) {
+            normas = new float[canciones];
+            for (int c = 0; c < canciones; c++) {
+                normas[c] = calcularNorma(c);
+            }
+        }
+        this.normas = normas;
+    }
+
+    private float calcularNorma(int cancion) {
+        double suma = 0;
+        for (int p = inicioCancion[cancion]; p < inicioCancion[cancion + 1]; p++) {
+            if (!isIgnorado(oyentes[p])) {
+                suma += (double) pesosPorCancion[p] * pesosPorCancion[p];
+            }
+        }
+        return (float) Math.sqrt(suma);
+    }
+
+    /**
+     * @return El índice de la canción, o -1 si no tiene interacciones registradas.
+     */
+    int indiceDeCancion(int idCancion) {
+        return indiceCancion.get(idCancion, -1);
+    }
+
+    /**
+     * @return El índice del usuario, o -1 si no tiene interacciones registradas.
+     */
+    int indiceDeUsuario(int idUsuario) {
+        return indiceUsuario.get(idUsuario, -1);
+    }
+
+    boolean isIgnorado(int usuario) {
+        return inicioUsuario[usuario + 1] - inicioUsuario[usuario] > maxCancionesPorUsuario;
+    }
+
+    /**
+     * Interacciones distintas de cero.
+     */
+    int getTamano() {
+        return oyentes.length;
+    }
+
+    /**
+     * Nueva matriz con las interacciones indicadas reemplazadas (peso 0 = eliminar). En lugar de volver a
+     * ordenar todo, intercala los cambios ordenados en cada fila y copia tal cual los tramos sin cambios.
+     */
+    MatrizInteracciones conCambios(int[] idsUsuarios, int[] idsCanciones, float[] pesos, int cantidad) {
+        IndiceEnteros nuevoIndiceCancion = new IndiceEnteros(indiceCancion);
+        IndiceEnteros nuevoIndiceUsuario = new IndiceEnteros(indiceUsuario);
+        int[] nuevosIdsCancion = Arrays.copyOf(idsCancion, canciones + cantidad);
+        int[] nuevosIdsUsuario = Arrays.copyOf(idsUsuario, usuarios + cantidad);
+        int nuevasCanciones = canciones;
+        int nuevosUsuarios = usuarios;
+
+        int[] cancionDe = new int[cantidad];
+        int[] usuarioDe = new int[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            int c = nuevoIndiceCancion.get(idsCanciones[i], -1);
+            if (c < 0) {
+                c = nuevasCanciones++;
+                nuevosIdsCancion[c] = idsCanciones[i];
+                nuevoIndiceCancion.put(idsCanciones[i], c);
+            }
+            int u = nuevoIndiceUsuario.get(idsUsuarios[i], -1);
+            if (u < 0) {
+                u = nuevosUsuarios++;
+                nuevosIdsUsuario[u] = idsUsuarios[i];
+                nuevoIndiceUsuario.put(idsUsuarios[i], u);
+            }
+            cancionDe[i] = c;
+            usuarioDe[i] = u;
+        }
+
+        Dispersa porCancion = fusionar(inicioCancion, oyentes, pesosPorCancion, canciones, nuevasCanciones,
+                cancionDe, usuarioDe, pesos, cantidad);
+        Dispersa porUsuario = fusionar(inicioUsuario, escuchadas, pesosPorUsuario, usuarios, nuevosUsuarios,
+                usuarioDe, cancionDe, pesos, cantidad);
+
+        MatrizInteracciones nueva = new MatrizInteracciones(nuevasCanciones, Arrays.copyOf(nuevosIdsCancion, nuevasCanciones),
+                nuevoIndiceCancion, nuevosUsuarios, Arrays.copyOf(nuevosIdsUsuario, nuevosUsuarios), nuevoIndiceUsuario,
+                porCancion, porUsuario, Arrays.copyOf(normas, nuevasCanciones), maxCancionesPorUsuario);
+
+        // Solo cambian las normas de las canciones modificadas y las de los usuarios que cruzaron el límite
+        boolean[] recalcular = new boolean[nuevasCanciones];
+        for (int i = 0; i < cantidad; i++) {
+            recalcular[cancionDe[i]] = true;
+            int u = usuarioDe[i];
+            if (u < usuarios && isIgnorado(u) != nueva.isIgnorado(u)) {
+                for (int q = nueva.inicioUsuario[u]; q < nueva.inicioUsuario[u + 1]; q++) {
+                    recalcular[nueva.escuchadas[q]] = true;
+                }
+            }
+        }
+        for (int c = 0; c < nuevasCanciones; c++) {
+            if (recalcular[c]) nueva.normas[c] = nueva.calcularNorma(c);
+        }
+        return nueva;
+    }
+
+    /**
+     * Una dirección de la matriz: para cada fila, sus columnas en orden creciente y sus pesos.
+     */
+    private static final class Dispersa {
+        final int[] inicio;
+        final int[] indices;
+        final float[] pesos;
+
+        Dispersa(int[] inicio, int[] indices, float[] pesos) {
+            this.inicio = inicio;
+            this.indices = indices;
+            this.pesos = pesos;
+        }
+    }
+
+    /**
+     * Intercala en cada fila los cambios (fila, columna, peso) ordenados por (fila, columna); si un cambio
+     * repite una pareja gana el último, y el peso 0 la elimina.
+     */
+    private static Dispersa fusionar(int[] inicio, int[] indices, float[] valores, int filas, int nuevasFilas,
+                                   int[] cambioFila, int[] cambioColumna, float[] cambioPeso, int cantidad) {
+        Integer[] orden = new Integer[cantidad];
+        for (int i = 0; i < cantidad; i++) orden[i] = i;
+        Arrays.sort(orden, (a, b) -> cambioFila[a] != cambioFila[b] ? Integer.compare(cambioFila[a], cambioFila[b])
+                : cambioColumna[a] != cambioColumna[b] ? Integer.compare(cambioColumna[a], cambioColumna[b])
+                : Integer.compare(a, b));
+
+        int[] nuevoInicio = new int[nuevasFilas + 1];
+        int[] nuevosIndices = new int[indices.length + cantidad];
+        float[] nuevosValores = new float[nuevosIndices.length];
+        int escritas = 0;
+        int k = 0;
+        for (int fila = 0; fila < nuevasFilas; fila++) {
+            nuevoInicio[fila] = escritas;
+            int p = fila < filas ? inicio[fila] : 0;
+            int fin = fila < filas ? inicio[fila + 1] : 0;
+
+            if (k == cantidad || cambioFila[orden[k]] != fila) {
+                System.arraycopy(indices, p, nuevosIndices, escritas, fin - p);
+                System.arraycopy(valores, p, nuevosValores, escritas, fin - p);
+                escritas += fin - p;
+                continue;
+            }
+            while (k < cantidad && cambioFila[orden[k]] == fila) {
+                int cambio = orden[k++];
+                // Gana el último cambio de la misma pareja
+                if (k < cantidad && cambioFila[orden[k]] == fila && cambioColumna[orden[k]] == cambioColumna[cambio]) continue;
+
+                int columna = cambioColumna[cambio];
+                while (p < fin && indices[p] < columna) {
+                    nuevosIndices[escritas] = indices[p];
+                    nuevosValores[escritas++] = valores[p++];
+                }
+                if (p < fin && indices[p] == columna) p++;
+                if (cambioPeso[cambio] > 0f) {
+                    nuevosIndices[escritas] = columna;
+                    nuevosValores[escritas++] = cambioPeso[cambio];
+                }
+            }
+            System.arraycopy(indices, p, nuevosIndices, escritas, fin - p);
+            System.arraycopy(valores, p, nuevosValores, escritas, fin - p);
+            escritas += fin - p;
+        }
+        nuevoInicio[nuevasFilas] = escritas;
+        return new Dispersa(nuevoInicio, Arrays.copyOf(nuevosIndices, escritas), Arrays.copyOf(nuevosValores, escritas));
+    }
+
+    /**
+     * Acumula interacciones (idUsuario, idCancion, peso) en arreglos paralelos que crecen según se necesite.
+     * Si una misma pareja aparece más de una vez, gana la última; un peso 0 la elimina.
+     */
+    static final class Constructor {
+        private final IndiceEnteros indiceCancion;
+        private final IndiceEnteros indiceUsuario;
+        private int[] idsCancion;
+        private int[] idsUsuario;
+        private int canciones;
+        private int usuarios;
+
+        private int[] filas;
+        private int[] columnas;
+        private float[] pesos;
+        private int tamano;
+
+        Constructor(int capacidadEsperada) {
+            int capacidad = Math.max(16, capacidadEsperada);
+            indiceCancion = new IndiceEnteros(1024);
+            indiceUsuario = new IndiceEnteros(1024);
+            idsCancion = new int[1024];
+            idsUsuario = new int[1024];
+            filas = new int[capacidad];
+            columnas = new int[capacidad];
+            pesos = new float[capacidad];
+        }
+
+        void agregar(int idUsuario, int idCancion, float peso) {
+            if (tamano == filas.length) {
+                int capacidad = filas.length + (filas.length >> 1);
+                filas = Arrays.copyOf(filas, capacidad);
+                columnas = Arrays.copyOf(columnas, capacidad);
+                pesos = Arrays.copyOf(pesos, capacidad);
+            }
+            filas[tamano] = indiceDe(idUsuario, false);
+            columnas[tamano] = indiceDe(idCancion, true);
+            pesos[tamano++] = peso;
+        }
+
+        private int indiceDe(int id, boolean cancion) {
+            IndiceEnteros indice = cancion ? indiceCancion : indiceUsuario;
+            int i = indice.get(id, -1);
+            if (i >= 0) return i;
+
+            if (cancion) {
+                if (canciones == idsCancion.length) idsCancion = Arrays.copyOf(idsCancion, canciones * 2);
+                idsCancion[canciones] = id;
+                i = canciones++;
+            } else {
+                if (usuarios == idsUsuario.length) idsUsuario = Arrays.copyOf(idsUsuario, usuarios * 2);
+                idsUsuario[usuarios] = id;
+                i = usuarios++;
+            }
+            indice.put(id, i);
+            return i;
+        }
+
+        /**
+         * Ordena las interacciones con tres pasadas de conteo (estables, O(n)):
+         * por usuario, luego por canción (queda ordenado por usuario dentro de cada canción, lo que
+         * permite descartar los duplicados) y de nuevo por usuario (ordenado por canción dentro de cada usuario).
+         */
+        MatrizInteracciones construir(int maxCancionesPorUsuario) {
+            // 1) Por usuario, en orden de llegada
+            int[] inicio = contar(filas, tamano, usuarios);
+            int[] cursor = Arrays.copyOf(inicio, usuarios);
+            int[] columnasPorUsuario = new int[tamano];
+            float[] pesosPorUsuario = new float[tamano];
+            for (int k = 0; k < tamano; k++) {
+                int destino = cursor[filas[k]]++;
+                columnasPorUsuario[destino] = columnas[k];
+                pesosPorUsuario[destino] = pesos[k];
+            }
+            filas = null;
+            columnas = null;
+            pesos = null;
+
+            // 2) Por canción; dentro de cada canción los usuarios quedan en orden creciente
+            int[] conteoCancion = new int[canciones + 1];
+            for (int k = 0; k < tamano; k++) {
+                conteoCancion[columnasPorUsuario[k] + 1]++;
+            }
+            for (int c = 0; c < canciones; c++) {
+                conteoCancion[c + 1] += conteoCancion[c];
+            }
+            cursor = Arrays.copyOf(conteoCancion, canciones);
+            int[] oyentes = new int[tamano];
+            float[] pesosPorCancion = new float[tamano];
+            for (int u = 0; u < usuarios; u++) {
+                for (int k = inicio[u]; k < inicio[u + 1]; k++) {
+                    int destino = cursor[columnasPorUsuario[k]]++;
+                    oyentes[destino] = u;
+                    pesosPorCancion[destino] = pesosPorUsuario[k];
+                }
+            }
+            columnasPorUsuario = null;
+
+            // Compacta: de cada pareja repetida queda la última; se descartan los pesos 0
+            int[] inicioCancion = new int[canciones + 1];
+            int escritas = 0;
+            for (int c = 0; c < canciones; c++) {
+                inicioCancion[c] = escritas;
+                for (int k = conteoCancion[c]; k < conteoCancion[c + 1]; k++) {
+                    if (escritas > inicioCancion[c] && oyentes[escritas - 1] == oyentes[k]) {
+                        escritas--;
+                    }
+                    oyentes[escritas] = oyentes[k];
+                    pesosPorCancion[escritas++] = pesosPorCancion[k];
+                    if (pesosPorCancion[escritas - 1] <= 0f) {
+                        escritas--;
+                    }
+                }
+            }
+            inicioCancion[canciones] = escritas;
+            oyentes = Arrays.copyOf(oyentes, escritas);
+            pesosPorCancion = Arrays.copyOf(pesosPorCancion, escritas);
+
+            // 3) Por usuario otra vez, ahora ordenado por canción
+            int[] inicioUsuario = contar(oyentes, escritas, usuarios);
+            cursor = Arrays.copyOf(inicioUsuario, usuarios);
+            int[] escuchadas = new int[escritas];
+            pesosPorUsuario = new float[escritas];
+            for (int c = 0; c < canciones; c++) {
+                for (int p = inicioCancion[c]; p < inicioCancion[c + 1]; p++) {
+                    int destino = cursor[oyentes[p]]++;
+                    escuchadas[destino] = c;
+                    pesosPorUsuario[destino] = pesosPorCancion[p];
+                }
+            }
+
+            return new MatrizInteracciones(canciones, Arrays.copyOf(idsCancion, canciones), indiceCancion,
+                    usuarios, Arrays.copyOf(idsUsuario, usuarios), indiceUsuario,
+                    new Dispersa(inicioCancion, oyentes, pesosPorCancion),
+                    new Dispersa(inicioUsuario, escuchadas, pesosPorUsuario), null, maxCancionesPorUsuario);
+        }
+
+        /**
+         * Posición inicial de cada grupo (n + 1 posiciones) según el conteo de {@code grupos}.
+         */
+        private static int[] contar(int[] grupos, int cantidad, int numeroGrupos) {
+            int[] inicio = new int[numeroGrupos + 1];
+            for (int k = 0; k < cantidad; k++) {
+                inicio[grupos[k] + 1]++;
+            }
+            for (int g = 0; g < numeroGrupos; g++) {
+                inicio[g + 1] += inicio[g];
+            }
+            return inicio;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.softly.fonoteca.utilities;
+
+/**
+ * Los {@code k} elementos de mayor puntaje vistos hasta ahora: un montículo mínimo de tamaño fijo
+ * sobre arreglos primitivos (ID y puntaje), sin objetos por candidato. Para quedarse con los de menor
+ * valor (p. ej. distancias), se ofrece el valor negado.
+ * Se puede reutilizar con {@link #limpiar()}; no es seguro entre hilos.
+ */
+public class MejoresK {
+
+    private final int[] ids;
+    private final float[] puntajes;
+    private int tamano;
+
+    public MejoresK(int k) {
+        ids = new int[k];
+        puntajes = new float[k];
+    }
+
+    public int getTamano() {
+        return tamano;
+    }
+
+    public boolean isLleno() {
+        return tamano == ids.length;
+    }
+
+    /**
+     * @return El menor puntaje conservado (el que sale al entrar uno mejor). Solo válido si no está vacío.
+     */
+    public float peor() {
+        return puntajes[0];
+    }
+
+    /**
+     * Conserva el elemento si todavía hay lugar o si supera al peor (a igual puntaje se queda el anterior).
+     */
+    public void ofrecer(int id, float puntaje) {
+        if (!isLleno()) {
+            int k = tamano++;
+            ids[k] = id;
+            puntajes[k] = puntaje;
+            while (k > 0) {
+                int padre = (k - 1) >>> 1;
+                if (puntajes[padre] <= puntajes[k]) break;
+                intercambiar(padre, k);
+                k = padre;
+            }
+        } else if (puntaje > puntajes[0]) {
+            ids[0] = id;
+            puntajes[0] = puntaje;
+            bajar();
+        }
+    }
+
+    /**
+     * ID en la posición {@code i} del montículo (sin orden; {@code 0 <= i < getTamano()}).
+     */
+    public int getId(int i) {
+        return ids[i];
+    }
+
+    public float getPuntaje(int i) {
+        return puntajes[i];
+    }
+
+    /**
+     * Escribe los elementos de mayor a menor puntaje a partir de {@code desde} y deja el montículo vacío.
+     *
+     * @return Cantidad de elementos escritos.
+     */
+    public int extraerOrdenados(int[] destinoIds, float[] destinoPuntajes, int desde) {
+        int cantidad = tamano;
+        // Se saca siempre el menor, llenando desde el final
+        for (int k = cantidad - 1; k >= 0; k--) {
+            destinoIds[desde + k] = ids[0];
+            destinoPuntajes[desde + k] = puntajes[0];
+            tamano--;
+            ids[0] = ids[tamano];
+            puntajes[0] = puntajes[tamano];
+            bajar();
+        }
+        return cantidad;
+    }
+
+    public void limpiar() {
+        tamano = 0;
+    }
+
+    private void bajar() {
+        int k = 0;
+        while (true) {
+            int menor = k;
+            int izquierdo = 2 * k + 1;
+            if (izquierdo < tamano && puntajes[izquierdo] < puntajes[menor]) menor = izquierdo;
+            if (izquierdo + 1 < tamano && puntajes[izquierdo + 1] < puntajes[menor]) menor = izquierdo + 1;
+            if (menor == k) return;
+            intercambiar(k, menor);
+            k = menor;
+        }
+    }
+
+    private void intercambiar(int a, int b) {
+        int id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        float puntaje = puntajes[a];
+        puntajes[a] = puntajes[b];
+        puntajes[b] = puntaje;
+    }
+}
@@ -0,0 +1,112 @@
+package com.softly.fonoteca.utilities;
+
+import com.softly.fonoteca.Modelos.DTOs.ComboBoxItem;
+
+import javax.swing.*;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * DefaultComboBoxModel de ComboBoxItem que mantiene un índice ID -> posición,
+ * para seleccionar por clave foránea en O(1) en lugar de recorrer el modelo.
+ * El índice puede compartirse entre modelos construidos sobre la misma lista; si el modelo
+ * se modifica (agregar/eliminar elementos), se reconstruye un índice propio.
+ */
+public class ModeloComboPorId extends DefaultComboBoxModel<ComboBoxItem> {
+
+    private static final long serialVersionUID = 1L;
+
+    private transient IndiceEnteros indice;
+    private boolean indicePropio;
+
+    public ModeloComboPorId(List<ComboBoxItem> items) {
+        this(items, null);
+    }
+
+    /**
+     * @param items           Elementos del combo.
+     * @param indiceCompartido Índice ID -> posición ya construido para {@code items}, o null.
+     */
+    public ModeloComboPorId(List<ComboBoxItem> items, IndiceEnteros indiceCompartido) {
+        super(items.toArray(new ComboBoxItem[0]));
+        if (indiceCompartido != null) {
+            this.indice = indiceCompartido;
+            this.indicePropio = false;
+        } else {
+            this.indice = construirIndice(items);
+            this.indicePropio = true;
+        }
+    }
+
+    /**
+     * Construye el índice ID -> posición de una lista de ComboBoxItem.
+     */
+    public static IndiceEnteros construirIndice(List<ComboBoxItem> items) {
+        IndiceEnteros nuevo = new IndiceEnteros(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            nuevo.put(items.get(i).getId(), i);
+        }
+        return nuevo;
+    }
+
+    /**
+     * @return La posición del elemento con ese ID, o -1 si no existe.
+     */
+    public int indiceDe(int id) {
+        return indice.get(id, -1);
+    }
+
+    // --- Mutaciones: mantienen el índice sincronizado (removeElement pasa por removeElementAt) ---
+
+    @Override
+    public void addElement(ComboBoxItem item) {
+        super.addElement(item);
+        asegurarIndicePropio();
+        indice.put(item.getId(), getSize() - 1);
+    }
+
+    @Override
+    public void addAll(Collection<? extends ComboBoxItem> items) {
+        super.addAll(items);
+        reconstruirIndice();
+    }
+
+    @Override
+    public void addAll(int index, Collection<? extends ComboBoxItem> items) {
+        super.addAll(index, items);
+        reconstruirIndice();
+    }
+
+    @Override
+    public void insertElementAt(ComboBoxItem item, int index) {
+        super.insertElementAt(item, index);
+        reconstruirIndice();
+    }
+
+    @Override
+    public void removeElementAt(int index) {
+        super.removeElementAt(index);
+        reconstruirIndice();
+    }
+
+    @Override
+    public void removeAllElements() {
+        super.removeAllElements();
+        reconstruirIndice();
+    }
+
+    private void asegurarIndicePropio() {
+        if (!indicePropio) {
+            reconstruirIndice();
+        }
+    }
+
+    private void reconstruirIndice() {
+        IndiceEnteros nuevo = new IndiceEnteros(getSize());
+        for (int i = 0; i < getSize(); i++) {
+            nuevo.put(getElementAt(i).getId(), i);
+        }
+        indice = nuevo;
+        indicePropio = true;
+    }
+}
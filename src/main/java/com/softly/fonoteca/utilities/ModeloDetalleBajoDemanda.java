@@ -0,0 +1,189 @@
+package com.softly.fonoteca.utilities;
+
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableModel;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Modelo con TODAS las columnas de una tabla, construido sobre un modelo que solo trae
+ * algunas (las que se muestran y la clave primaria).
+ * Las columnas proyectadas se leen del modelo base; las demás se consultan por clave primaria,
+ * fuera del EDT, cuando se pide la fila con {@link #conFilaCompleta(int, Runnable)} (normalmente al
+ * seleccionarla), y se guardan en una pequeña caché LRU. Así puede usarse como rawModel sin traer las
+ * columnas ocultas de todas las filas. getValueAt nunca consulta la BD: para una columna oculta de una
+ * fila que aún no se trajo devuelve null.
+ */
+public final class ModeloDetalleBajoDemanda extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int FILAS_EN_CACHE = 32;
+    private static final Duration TIMEOUT_CONSULTA = Duration.ofSeconds(10);
+
+    private final transient TableModel proyectado;
+    private final String table;
+    private final String pkColumn;
+    private final String sqlPorId;
+
+    private String[] columnas = new String[0];
+    /** Columna completa -> índice en el modelo proyectado (-1 si se consulta bajo demanda). */
+    private int[] enProyectado = new int[0];
+    private int pkProyectado = -1;
+    private int columnasPublicadas = 0;
+
+    private final transient Map<Object, Object[]> filasCompletas = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Object[]> eldest) {
+            return size() > FILAS_EN_CACHE;
+        }
+    };
+
+    /**
+     * @param proyectado Modelo con las columnas proyectadas (debe incluir la clave primaria).
+     * @param table      Tabla de la BD.
+     * @param pkColumn   Columna de clave primaria.
+     */
+    public ModeloDetalleBajoDemanda(TableModel proyectado, String table, String pkColumn) {
+        this.proyectado = proyectado;
+        this.table = table;
+        this.pkColumn = pkColumn;
+        this.sqlPorId = SQLQuerys.buildQuery(SQLQuerys.OperationType.SELECT_BY_ID, table, null, pkColumn);
+
+        proyectado.addTableModelListener(e -> {
+            if (e.getFirstRow() == TableModelEvent.HEADER_ROW) {
+                resolverColumnas();
+                fireTableStructureChanged();
+            } else {
+                fireTableChanged(new TableModelEvent(this, e.getFirstRow(), e.getLastRow(), TableModelEvent.ALL_COLUMNS, e.getType()));
+            }
+        });
+    }
+
+    /**
+     * Define los nombres de todas las columnas de la tabla (en el orden de {@code SELECT *}).
+     * Debe llamarse antes de que el modelo proyectado publique su estructura.
+     */
+    public void definirColumnas(String[] todas) {
+        this.columnas = todas;
+    }
+
+    private void resolverColumnas() {
+        int[] indices = new int[columnas.length];
+        pkProyectado = -1;
+        for (int i = 0; i < columnas.length; i++) {
+            indices[i] = -1;
+            for (int j = 0; j < proyectado.getColumnCount(); j++) {
+                if (proyectado.getColumnName(j).equalsIgnoreCase(columnas[i])) {
+                    indices[i] = j;
+                    break;
+                }
+            }
+        }
+        for (int j = 0; j < proyectado.getColumnCount(); j++) {
+            if (proyectado.getColumnName(j).equalsIgnoreCase(pkColumn)) {
+                pkProyectado = j;
+            }
+        }
+        enProyectado = indices;
+        columnasPublicadas = columnas.length;
+        filasCompletas.clear();
+    }
+
+    /**
+     * Ejecuta {@code alCompletar} en el EDT cuando todas las columnas de la fila estén disponibles:
+     * de inmediato si ya están en la caché; si no, después de consultarlas en un hilo virtual.
+     * Si la consulta falla, el error se registra y {@code alCompletar} no se ejecuta. Debe llamarse en el EDT.
+     *
+     * @param rowIndex    Fila del modelo.
+     * @param alCompletar Lo que se hace con la fila completa (p. ej. llenar el formulario).
+     */
+    public void conFilaCompleta(int rowIndex, Runnable alCompletar) {
+        Object id = idDeFila(rowIndex);
+        if (id == null || filasCompletas.get(id) != null) {
+            alCompletar.run();
+            return;
+        }
+
+        int totalColumnas = columnas.length;
+        EjecutorAsincrono.ejecutar(() -> consultarFila(id, totalColumnas), TIMEOUT_CONSULTA)
+                .whenCompleteAsync((fila, error) -> {
+                    if (error != null) {
+                        System.err.println("❌ Error al consultar el detalle de " + table + " (" + pkColumn + "=" + id + "): " + error.getMessage());
+                        return;
+                    }
+                    if (fila != null && fila.length == columnas.length) {
+                        filasCompletas.put(id, fila);
+                    }
+                    alCompletar.run();
+                }, EjecutorAsincrono.EDT);
+    }
+
+    private Object idDeFila(int rowIndex) {
+        return pkProyectado == -1 ? null : proyectado.getValueAt(rowIndex, pkProyectado);
+    }
+
+    /**
+     * Consulta todas las columnas de la fila con ese ID (fuera del EDT).
+     *
+     * @return Los valores en el orden de {@code SELECT *}, o null si la fila ya no existe.
+     */
+    private Object[] consultarFila(Object id, int totalColumnas) throws SQLException {
+        try (Connection con = ConexionDB.getConnection();
+             PreparedStatement ps = con.prepareStatement(sqlPorId)) {
+
+            ps.setObject(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                Object[] fila = new Object[totalColumnas];
+                for (int i = 0; i < totalColumnas; i++) {
+                    fila[i] = rs.getObject(i + 1);
+                }
+                return fila;
+            }
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return proyectado.getRowCount();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnasPublicadas;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnas[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        int indice = enProyectado[columnIndex];
+        return indice == -1 ? Object.class : proyectado.getColumnClass(indice);
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        int indice = enProyectado[columnIndex];
+        if (indice != -1) {
+            return proyectado.getValueAt(rowIndex, indice);
+        }
+        Object id = idDeFila(rowIndex);
+        Object[] fila = id == null ? null : filasCompletas.get(id);
+        return fila == null ? null : fila[columnIndex];
+    }
+
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return false;
+    }
+}
@@ -0,0 +1,115 @@
+package com.softly.fonoteca.utilities;
+
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableModel;
+
+/**
+ * Vista de solo lectura sobre otro TableModel que muestra únicamente algunas de sus columnas,
+ * en el orden pedido y con cabeceras propias. No copia datos: cada celda se lee del modelo base,
+ * y los índices de fila son los mismos en ambos modelos.
+ */
+public final class ModeloProyeccion extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient TableModel base;
+    private final String[] columnsToShow;
+    private final String[] headers;
+
+    /** Columna visible -> índice en el modelo base (-1 si no existe). */
+    private int[] proyeccion = new int[0];
+
+    /**
+     * @param base               Modelo con todas las columnas.
+     * @param columnsToShow      (Opcional) Columnas del modelo base a mostrar. Si es null o vacío, se muestran todas.
+     * @param displayColumnNames (Opcional) Cabeceras; deben coincidir en longitud con columnsToShow.
+     */
+    public ModeloProyeccion(TableModel base, String[] columnsToShow, String[] displayColumnNames) {
+        this.base = base;
+        this.columnsToShow = (columnsToShow == null || columnsToShow.length == 0) ? null : columnsToShow;
+        this.headers = (this.columnsToShow != null && displayColumnNames != null && displayColumnNames.length == columnsToShow.length)
+                ? displayColumnNames : this.columnsToShow;
+        resolverProyeccion();
+
+        base.addTableModelListener(e -> {
+            if (e.getFirstRow() == TableModelEvent.HEADER_ROW) {
+                resolverProyeccion();
+                fireTableStructureChanged();
+            } else {
+                fireTableChanged(new TableModelEvent(this, e.getFirstRow(), e.getLastRow(), TableModelEvent.ALL_COLUMNS, e.getType()));
+            }
+        });
+    }
+
+    /**
+     * Resuelve el índice base de cada columna visible (una vez por cambio de estructura).
+     */
+    private void resolverProyeccion() {
+        if (columnsToShow == null) {
+            proyeccion = new int[base.getColumnCount()];
+            for (int i = 0; i < proyeccion.length; i++) {
+                proyeccion[i] = i;
+            }
+            return;
+        }
+
+        int[] nueva = new int[columnsToShow.length];
+        for (int i = 0; i < columnsToShow.length; i++) {
+            nueva[i] = -1;
+            for (int j = 0; j < base.getColumnCount(); j++) {
+                if (base.getColumnName(j).equals(columnsToShow[i])) {
+                    nueva[i] = j;
+                    break;
+                }
+            }
+            if (nueva[i] == -1 && base.getColumnCount() > 0) {
+                System.err.println("Advertencia: Columna " + columnsToShow[i] + " solicitada pero no encontrada en la BD.");
+            }
+        }
+        proyeccion = nueva;
+    }
+
+    @Override
+    public int getRowCount() {
+        return base.getRowCount();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return proyeccion.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return headers != null ? headers[column] : base.getColumnName(proyeccion[column]);
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        int indice = proyeccion[columnIndex];
+        return indice == -1 ? Object.class : base.getColumnClass(indice);
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        int indice = proyeccion[columnIndex];
+        return indice == -1 ? null : base.getValueAt(rowIndex, indice);
+    }
+
+    /**
+     * Lee una celda sin efectos en el modelo base (con un {@link ModeloTablaPaginado}, sin anticipar páginas).
+     */
+    public Object getValorCrudo(int rowIndex, int columnIndex) {
+        int indice = proyeccion[columnIndex];
+        if (indice == -1) return null;
+        return base instanceof ModeloTablaPaginado paginado
+                ? paginado.getValorCrudo(rowIndex, indice)
+                : base.getValueAt(rowIndex, indice);
+    }
+
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return false;
+    }
+}
@@ -0,0 +1,475 @@
+package com.softly.fonoteca.utilities;
+
+import javax.swing.table.AbstractTableModel;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Modelo de tabla de solo lectura que guarda los datos por columnas, en arreglos primitivos:
+ * <ul>
+ *     <li>Enteros (IDs, contadores): int[] / long[]; decimales: double[].</li>
+ *     <li>Textos: codificados por diccionario (int[] de códigos + un solo String por valor distinto).</li>
+ *     <li>Fechas: días desde la época (int[]); horas: segundos del día (int[]).</li>
+ * </ul>
+ * getValueAt devuelve el mismo tipo que entregaría {@code ResultSet.getObject} (Integer, String,
+ * java.sql.Date, java.sql.Time...), por lo que puede usarse como rawModel en los controladores.
+ * <p>
+ * Se llena desde un único hilo escritor (fila a fila desde el ResultSet). El escritor confirma las
+ * filas escritas con {@link #confirmarFilas()}, que publica una instantánea inmutable de las columnas
+ * (las referencias a sus arreglos) junto con el número de filas; el EDT solo lee instantáneas y las
+ * hace visibles con {@link #publicarHasta(int)}, lo que permite mostrarlas por lotes. Así el EDT nunca
+ * ve un arreglo reemplazado por el escritor (al crecer) antes de que su contenido esté publicado.
+ */
+public class ModeloTablaColumnar extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int CAPACIDAD_INICIAL = 1024;
+
+    /** Estado del hilo escritor. */
+    private String[] columnNames = new String[0];
+    private transient Columna[] columnas = new Columna[0];
+    private int capacidad = 0;
+    private int filasEscritas = 0;
+
+    /** Última instantánea confirmada por el escritor (escritura volátil = publicación segura). */
+    private transient volatile Instantanea confirmada = Instantanea.VACIA;
+    /** Instantánea y filas visibles para el JTable (solo se modifican en el EDT). */
+    private transient Instantanea visible = Instantanea.VACIA;
+    private int filasPublicadas = 0;
+
+    /**
+     * Columnas tal como estaban al confirmar {@code filas} filas. Las copias de columna conservan
+     * los arreglos de ese momento; el escritor solo escribe posiciones posteriores en ellos.
+     */
+    private static final class Instantanea {
+        static final Instantanea VACIA = new Instantanea(new String[0], new Columna[0], 0);
+
+        final String[] columnNames;
+        final Columna[] columnas;
+        final int filas;
+
+        Instantanea(String[] columnNames, Columna[] columnas, int filas) {
+            this.columnNames = columnNames;
+            this.columnas = columnas;
+            this.filas = filas;
+        }
+    }
+
+    /**
+     * Construye el modelo completo a partir de un ResultSet (sin carga progresiva).
+     */
+    public static ModeloTablaColumnar construir(ResultSet rs) throws SQLException {
+        ModeloTablaColumnar modelo = new ModeloTablaColumnar();
+        modelo.definirColumnas(rs.getMetaData());
+        while (rs.next()) {
+            modelo.agregarFila(rs);
+        }
+        modelo.visible = modelo.confirmada = modelo.instantanea();
+        modelo.filasPublicadas = modelo.filasEscritas;
+        return modelo;
+    }
+
+    /**
+     * Define las columnas según los metadatos del ResultSet (hilo escritor, antes de agregar filas).
+     */
+    public void definirColumnas(ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        String[] nombres = new String[columnCount];
+        Columna[] nuevas = new Columna[columnCount];
+        for (int i = 1; i <= columnCount; i++) {
+            nombres[i - 1] = metaData.getColumnLabel(i);
+            nuevas[i - 1] = crearColumna(metaData.getColumnClassName(i));
+        }
+        this.columnNames = nombres;
+        this.columnas = nuevas;
+    }
+
+    private static Columna crearColumna(String clase) {
+        if (clase == null) return new ColumnaObjetos();
+        return switch (clase) {
+            case "java.lang.Integer" -> new ColumnaEnteros();
+            case "java.lang.Long" -> new ColumnaLargos();
+            case "java.lang.Double" -> new ColumnaDecimales();
+            case "java.lang.String" -> new ColumnaTexto();
+            case "java.sql.Date" -> new ColumnaFechas();
+            case "java.sql.Time" -> new ColumnaHoras();
+            default -> new ColumnaObjetos();
+        };
+    }
+
+    /**
+     * Lee la fila actual del ResultSet (hilo escritor).
+     */
+    public void agregarFila(ResultSet rs) throws SQLException {
+        int fila = filasEscritas;
+        if (fila == capacidad) {
+            capacidad = capacidad == 0 ? CAPACIDAD_INICIAL : capacidad + (capacidad >> 1);
+            for (Columna columna : columnas) {
+                columna.redimensionar(capacidad);
+            }
+        }
+        for (int i = 0; i < columnas.length; i++) {
+            columnas[i].leer(rs, i + 1, fila);
+        }
+        filasEscritas = fila + 1;
+    }
+
+    /**
+     * Filas leídas hasta ahora (hilo escritor).
+     */
+    public int getFilasEscritas() {
+        return filasEscritas;
+    }
+
+    /**
+     * Publica para el EDT las filas escritas hasta ahora (hilo escritor).
+     *
+     * @return El número de filas confirmadas, para pasarlo a {@link #publicarHasta(int)}.
+     */
+    public int confirmarFilas() {
+        confirmada = instantanea();
+        return filasEscritas;
+    }
+
+    private Instantanea instantanea() {
+        Columna[] copias = new Columna[columnas.length];
+        for (int i = 0; i < columnas.length; i++) {
+            copias[i] = columnas[i].copia();
+        }
+        return new Instantanea(columnNames, copias, filasEscritas);
+    }
+
+    /**
+     * Hace visibles las columnas (la primera vez) y las filas confirmadas hasta {@code filas}. Debe llamarse en el EDT.
+     */
+    public void publicarHasta(int filas) {
+        Instantanea ultima = confirmada;
+        boolean estructuraNueva = ultima.columnas.length != visible.columnas.length;
+        visible = ultima;
+        int hasta = Math.min(filas, ultima.filas);
+        if (estructuraNueva) {
+            filasPublicadas = hasta;
+            fireTableStructureChanged();
+            return;
+        }
+        if (hasta > filasPublicadas) {
+            int desde = filasPublicadas;
+            filasPublicadas = hasta;
+            fireTableRowsInserted(desde, hasta - 1);
+        }
+    }
+
+    /**
+     * @return Número de valores distintos en el diccionario de la columna
+     * (0 si no es de texto o si se guarda sin diccionario).
+     */
+    public int getTamanoDiccionario(int columnIndex) {
+        return visible.columnas[columnIndex] instanceof ColumnaTexto texto ? texto.tamanoDiccionario() : 0;
+    }
+
+    @Override
+    public int getRowCount() {
+        return filasPublicadas;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return visible.columnas.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return visible.columnNames[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        return visible.columnas[columnIndex].tipo();
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        Columna columna = visible.columnas[columnIndex];
+        return columna.esNulo(rowIndex) ? null : columna.valor(rowIndex);
+    }
+
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return false;
+    }
+
+    // ----------------------------------------------------------------------
+    // COLUMNAS
+    // ----------------------------------------------------------------------
+
+    private abstract static class Columna implements Cloneable {
+        /** Un bit por fila: 1 = NULL. */
+        long[] nulos = new long[0];
+
+        /**
+         * Copia superficial: comparte los arreglos actuales, que el escritor reemplaza (no modifica
+         * en las posiciones ya confirmadas) al crecer.
+         */
+        Columna copia() {
+            try {
+                return (Columna) super.clone();
+            } catch (CloneNotSupportedException e) {
+                throw new AssertionError(e);
+            }
+        }
+
+        void redimensionar(int capacidad) {
+            nulos = Arrays.copyOf(nulos, (capacidad + 63) >>> 6);
+            redimensionarDatos(capacidad);
+        }
+
+        void marcarNulo(int fila) {
+            nulos[fila >>> 6] |= 1L << fila;
+        }
+
+        boolean esNulo(int fila) {
+            return (nulos[fila >>> 6] & (1L << fila)) != 0;
+        }
+
+        abstract void redimensionarDatos(int capacidad);
+
+        abstract void leer(ResultSet rs, int indice, int fila) throws SQLException;
+
+        abstract Object valor(int fila);
+
+        abstract Class<?> tipo();
+    }
+
+    private static final class ColumnaEnteros extends Columna {
+        int[] datos = new int[0];
+
+        void redimensionarDatos(int capacidad) {
+            datos = Arrays.copyOf(datos, capacidad);
+        }
+
+        void leer(ResultSet rs, int indice, int fila) throws SQLException {
+            datos[fila] = rs.getInt(indice);
+            if (rs.wasNull()) marcarNulo(fila);
+        }
+
+        Object valor(int fila) {
+            return datos[fila];
+        }
+
+        Class<?> tipo() {
+            return Integer.class;
+        }
+    }
+
+    private static final class ColumnaLargos extends Columna {
+        long[] datos = new long[0];
+
+        void redimensionarDatos(int capacidad) {
+            datos = Arrays.copyOf(datos, capacidad);
+        }
+
+        void leer(ResultSet rs, int indice, int fila) throws SQLException {
+            datos[fila] = rs.getLong(indice);
+            if (rs.wasNull()) marcarNulo(fila);
+        }
+
+        Object valor(int fila) {
+            return datos[fila];
+        }
+
+        Class<?> tipo() {
+            return Long.class;
+        }
+    }
+
+    private static final class ColumnaDecimales extends Columna {
+        double[] datos = new double[0];
+
+        void redimensionarDatos(int capacidad) {
+            datos = Arrays.copyOf(datos, capacidad);
+        }
+
+        void leer(ResultSet rs, int indice, int fila) throws SQLException {
+            datos[fila] = rs.getDouble(indice);
+            if (rs.wasNull()) marcarNulo(fila);
+        }
+
+        Object valor(int fila) {
+            return datos[fila];
+        }
+
+        Class<?> tipo() {
+            return Double.class;
+        }
+    }
+
+    /**
+     * Texto codificado por diccionario: cada valor distinto se guarda una sola vez.
+     * Si la columna resulta ser de alta cardinalidad (email, password...), el diccionario no ahorra
+     * nada y se abandona: a partir de ese momento los valores se guardan directamente.
+     */
+    private static final class ColumnaTexto extends Columna {
+        /** Valores distintos a partir de los cuales se evalúa abandonar el diccionario. */
+        private static final int MINIMO_PARA_EVALUAR = 4096;
+
+        int[] codigos = new int[0];
+        String[] diccionario = new String[16];
+        int tamanoDiccionario = 0;
+        /** Solo lo usa el hilo escritor; null una vez abandonado el diccionario. */
+        Map<String, Integer> indice = new HashMap<>();
+
+        /** Valores por fila cuando no hay diccionario (null mientras se usa). */
+        String[] directos;
+
+        void redimensionarDatos(int capacidad) {
+            if (directos != null) {
+                directos = Arrays.copyOf(directos, capacidad);
+            } else {
+                codigos = Arrays.copyOf(codigos, capacidad);
+            }
+        }
+
+        void leer(ResultSet rs, int indice, int fila) throws SQLException {
+            String valor = rs.getString(indice);
+            if (valor == null) {
+                marcarNulo(fila);
+                return;
+            }
+            if (directos != null) {
+                directos[fila] = valor;
+                return;
+            }
+            Integer codigo = this.indice.get(valor);
+            if (codigo == null) {
+                if (tamanoDiccionario >= MINIMO_PARA_EVALUAR && tamanoDiccionario > fila / 2) {
+                    abandonarDiccionario(fila);
+                    directos[fila] = valor;
+                    return;
+                }
+                if (tamanoDiccionario == diccionario.length) {
+                    diccionario = Arrays.copyOf(diccionario, diccionario.length * 2);
+                }
+                codigo = tamanoDiccionario;
+                diccionario[tamanoDiccionario++] = valor;
+                this.indice.put(valor, codigo);
+            }
+            codigos[fila] = codigo;
+        }
+
+        /**
+         * Pasa las filas ya leídas a almacenamiento directo. Las filas publicadas siguen
+         * siendo legibles con el diccionario anterior, que ya no se modifica.
+         */
+        private void abandonarDiccionario(int filas) {
+            String[] nuevos = new String[codigos.length];
+            for (int i = 0; i < filas; i++) {
+                if (!esNulo(i)) {
+                    nuevos[i] = diccionario[codigos[i]];
+                }
+            }
+            directos = nuevos;
+            indice = null;
+        }
+
+        Object valor(int fila) {
+            return directos != null ? directos[fila] : diccionario[codigos[fila]];
+        }
+
+        int tamanoDiccionario() {
+            return directos != null ? 0 : tamanoDiccionario;
+        }
+
+        Class<?> tipo() {
+            return String.class;
+        }
+    }
+
+    /**
+     * Fechas como días desde 1970-01-01.
+     */
+    private static final class ColumnaFechas extends Columna {
+        int[] dias = new int[0];
+
+        void redimensionarDatos(int capacidad) {
+            dias = Arrays.copyOf(dias, capacidad);
+        }
+
+        void leer(ResultSet rs, int indice, int fila) throws SQLException {
+            Date fecha = rs.getDate(indice);
+            if (fecha == null) {
+                marcarNulo(fila);
+                return;
+            }
+            dias[fila] = (int) fecha.toLocalDate().toEpochDay();
+        }
+
+        Object valor(int fila) {
+            return Date.valueOf(LocalDate.ofEpochDay(dias[fila]));
+        }
+
+        Class<?> tipo() {
+            return Date.class;
+        }
+    }
+
+    /**
+     * Horas como segundos del día.
+     */
+    private static final class ColumnaHoras extends Columna {
+        int[] segundos = new int[0];
+
+        void redimensionarDatos(int capacidad) {
+            segundos = Arrays.copyOf(segundos, capacidad);
+        }
+
+        void leer(ResultSet rs, int indice, int fila) throws SQLException {
+            Time hora = rs.getTime(indice);
+            if (hora == null) {
+                marcarNulo(fila);
+                return;
+            }
+            segundos[fila] = hora.toLocalTime().toSecondOfDay();
+        }
+
+        Object valor(int fila) {
+            return Time.valueOf(LocalTime.ofSecondOfDay(segundos[fila]));
+        }
+
+        Class<?> tipo() {
+            return Time.class;
+        }
+    }
+
+    /**
+     * Cualquier otro tipo (BigDecimal, Boolean, Timestamp...): se guarda tal cual.
+     */
+    private static final class ColumnaObjetos extends Columna {
+        Object[] datos = new Object[0];
+
+        void redimensionarDatos(int capacidad) {
+            datos = Arrays.copyOf(datos, capacidad);
+        }
+
+        void leer(ResultSet rs, int indice, int fila) throws SQLException {
+            datos[fila] = rs.getObject(indice);
+            if (datos[fila] == null) marcarNulo(fila);
+        }
+
+        Object valor(int fila) {
+            return datos[fila];
+        }
+
+        Class<?> tipo() {
+            return Object.class;
+        }
+    }
+}
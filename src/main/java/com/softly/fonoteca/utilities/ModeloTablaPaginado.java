@@ -0,0 +1,252 @@
+package com.softly.fonoteca.utilities;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Modelo de tabla que carga los registros por páginas usando paginación por clave (keyset):
+ * {@code WHERE pk > ultimoId ORDER BY pk LIMIT n}, con el mismo SQL que {@code BaseDAO.obtenerPagina}
+ * (ver {@link ConsultaPaginada}).
+ * A diferencia de OFFSET, cada página se resuelve con una búsqueda en el índice de la clave
+ * primaria, por lo que la latencia no crece con la profundidad del scroll.
+ * La siguiente página se pide en segundo plano cuando el JTable solicita filas cercanas al final.
+ * Si no se indican columnas, contiene TODAS las columnas de la tabla, por lo que puede usarse
+ * como rawModel en los controladores; si se indican, solo consulta esas.
+ */
+public class ModeloTablaPaginado extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String table;
+    private final String pkColumn;
+    private final int tamanoPagina;
+    private final transient ConsultaPaginada consulta;
+
+    /**
+     * Tras un error al pedir una página, no se reintenta hasta pasado este tiempo.
+     */
+    private static final long ESPERA_REINTENTO_MS = 2_000;
+
+    private String[] columnNames = new String[0];
+    private Class<?>[] columnClasses = new Class<?>[0];
+    private int pkIndex = -1;
+    private final transient List<Object[]> filas = new ArrayList<>();
+
+    private long ultimoId = Long.MIN_VALUE;
+    private boolean fin = false;
+    private boolean cargando = false;
+    private long reintentarDesde = 0;
+
+    /**
+     * @param table        Nombre de la tabla en la BD.
+     * @param pkColumn     Columna de clave primaria (numérica, indexada) usada como cursor.
+     * @param tamanoPagina Filas por página.
+     */
+    public ModeloTablaPaginado(String table, String pkColumn, int tamanoPagina) {
+        this(table, pkColumn, null, tamanoPagina);
+    }
+
+    /**
+     * @param table        Nombre de la tabla en la BD.
+     * @param pkColumn     Columna de clave primaria (numérica, indexada) usada como cursor.
+     * @param columnas     (Opcional) Columnas a consultar; deben incluir pkColumn. Null = todas.
+     * @param tamanoPagina Filas por página.
+     */
+    public ModeloTablaPaginado(String table, String pkColumn, String[] columnas, int tamanoPagina) {
+        if (pkColumn == null || pkColumn.isEmpty()) {
+            throw new IllegalArgumentException("La paginación por clave requiere pkColumn.");
+        }
+        if (columnas != null && Arrays.stream(columnas).noneMatch(pkColumn::equalsIgnoreCase)) {
+            throw new IllegalArgumentException("Las columnas consultadas deben incluir la clave " + pkColumn + ".");
+        }
+        this.table = table;
+        this.pkColumn = pkColumn;
+        this.tamanoPagina = tamanoPagina;
+        this.consulta = new ConsultaPaginada(table, columnas, pkColumn, null);
+    }
+
+    /**
+     * Carga la primera página de forma síncrona (define las columnas del modelo y sus tipos).
+     * Equivale a {@link #consultarPrimeraPagina()} seguido de {@link #publicarPrimeraPagina(List)}.
+     *
+     * @throws SQLException          Si la consulta falla.
+     * @throws IllegalStateException Si la consulta no devuelve la columna clave con ese nombre
+     *                               (por ejemplo, con un alias), ya que sin ella no se puede avanzar el cursor.
+     */
+    public void cargarPrimeraPagina() throws SQLException {
+        publicarPrimeraPagina(consultarPrimeraPagina());
+    }
+
+    /**
+     * Consulta la primera página y lee los nombres de las columnas, sin notificar a nadie. Puede llamarse
+     * fuera del EDT siempre que el modelo aún no esté asignado a un JTable (ver {@link CargadorTablaPaginada}).
+     *
+     * @throws SQLException          Si la consulta falla.
+     * @throws IllegalStateException Si la consulta no devuelve la columna clave con ese nombre.
+     */
+    public List<Object[]> consultarPrimeraPagina() throws SQLException {
+        List<Object[]> pagina = consultarPagina();
+        if (pkIndex == -1) {
+            throw new IllegalStateException("La consulta de " + table + " no devuelve la columna clave " + pkColumn + ".");
+        }
+        return pagina;
+    }
+
+    /**
+     * Publica la página devuelta por {@link #consultarPrimeraPagina()}: define los tipos de las columnas,
+     * agrega las filas y notifica el cambio de estructura. Debe llamarse en el EDT.
+     */
+    public void publicarPrimeraPagina(List<Object[]> pagina) {
+        // El tipo de cada columna se toma del primer valor no nulo de la primera página
+        Class<?>[] clases = new Class<?>[columnNames.length];
+        Arrays.fill(clases, Object.class);
+        for (int c = 0; c < clases.length; c++) {
+            for (Object[] fila : pagina) {
+                if (fila[c] != null) {
+                    clases[c] = fila[c].getClass();
+                    break;
+                }
+            }
+        }
+        columnClasses = clases;
+
+        agregarPagina(pagina);
+        fireTableStructureChanged();
+    }
+
+    /**
+     * Solicita la siguiente página en segundo plano, si no hay otra en curso.
+     */
+    public void cargarSiguientePagina() {
+        if (fin || cargando || pkIndex == -1 || System.currentTimeMillis() < reintentarDesde) return;
+        cargando = true;
+
+        new SwingWorker<List<Object[]>, Void>() {
+            @Override
+            protected List<Object[]> doInBackground() throws SQLException {
+                return consultarPagina();
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    int desde = filas.size();
+                    agregarPagina(get());
+                    if (filas.size() > desde) {
+                        fireTableRowsInserted(desde, filas.size() - 1);
+                    }
+                } catch (Exception e) {
+                    // Un error no marca el final de la tabla: la página se vuelve a pedir más adelante
+                    System.err.println("Error al cargar la siguiente página de " + table + ": " + e.getMessage());
+                    reintentarDesde = System.currentTimeMillis() + ESPERA_REINTENTO_MS;
+                } finally {
+                    cargando = false;
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Consulta la página que sigue a {@code ultimoId}. Solo lee el estado de cursor,
+     * que únicamente se modifica en el EDT mientras no hay una carga en curso.
+     */
+    private List<Object[]> consultarPagina() throws SQLException {
+        List<Object[]> pagina = new ArrayList<>(tamanoPagina);
+
+        try (Connection con = ConexionDB.getConnection();
+             PreparedStatement ps = con.prepareStatement(consulta.sql(null))) {
+
+            consulta.asignar(ps, null, ultimoId, tamanoPagina);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                int columnCount = metaData.getColumnCount();
+
+                if (columnNames.length == 0) {
+                    String[] nombres = new String[columnCount];
+                    for (int i = 1; i <= columnCount; i++) {
+                        nombres[i - 1] = metaData.getColumnLabel(i);
+                        if (nombres[i - 1].equalsIgnoreCase(pkColumn)) {
+                            pkIndex = i - 1;
+                        }
+                    }
+                    columnNames = nombres;
+                }
+
+                while (rs.next()) {
+                    Object[] fila = new Object[columnCount];
+                    for (int i = 1; i <= columnCount; i++) {
+                        fila[i - 1] = rs.getObject(i);
+                    }
+                    pagina.add(fila);
+                }
+            }
+        }
+        return pagina;
+    }
+
+    private void agregarPagina(List<Object[]> pagina) {
+        if (pagina.size() < tamanoPagina) {
+            fin = true;
+        }
+        if (!pagina.isEmpty()) {
+            ultimoId = ((Number) pagina.get(pagina.size() - 1)[pkIndex]).longValue();
+        }
+        filas.addAll(pagina);
+    }
+
+    public boolean isCompleto() {
+        return fin;
+    }
+
+    @Override
+    public int getRowCount() {
+        return filas.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        return columnIndex < columnClasses.length ? columnClasses[columnIndex] : Object.class;
+    }
+
+    /**
+     * Al pedir filas en el último cuarto de página cargado, se anticipa la siguiente página.
+     */
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        if (rowIndex >= filas.size() - tamanoPagina / 4) {
+            cargarSiguientePagina();
+        }
+        return filas.get(rowIndex)[columnIndex];
+    }
+
+    /**
+     * Lee una celda ya cargada sin anticipar páginas (para recorridos completos, como el de {@link FiltroTabla}).
+     */
+    public Object getValorCrudo(int rowIndex, int columnIndex) {
+        return filas.get(rowIndex)[columnIndex];
+    }
+
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return false;
+    }
+}
@@ -0,0 +1,619 @@
+package com.softly.fonoteca.utilities;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool de conexiones JDBC acotado (mínimo/máximo) que reemplaza la apertura de una
+ * conexión nueva por cada consulta.
+ * Las conexiones entregadas son proxies: al llamar a close() vuelven al pool en lugar de
+ * cerrar el socket, por lo que los bloques try-with-resources de los DAOs no cambian.
+ * Cada conexión física mantiene además una caché LRU de sentencias preparadas por SQL.
+ */
+public class PoolConexiones {
+
+    private final String url;
+    private final String user;
+    private final String password;
+
+    private final int minimo;
+    private final int maximo;
+    private final long timeoutAdquisicionMs;
+    private final long timeoutInactividadMs;
+    private final long umbralFugaMs;
+    private final int tamanoCacheSentencias;
+
+    /** Conexiones libres. Se usa como pila (LIFO) para reutilizar las más "calientes". */
+    private final LinkedBlockingDeque<ConexionFisica> libres = new LinkedBlockingDeque<>();
+    /** Conexiones prestadas junto con el momento del préstamo (para detección de fugas). */
+    private final Map<ConexionFisica, Prestamo> prestadas = new ConcurrentHashMap<>();
+    /** Limita el número de conexiones prestadas simultáneamente al máximo configurado. */
+    private final Semaphore permisos;
+
+    private final AtomicInteger totalFisicas = new AtomicInteger();
+    private final AtomicInteger esperando = new AtomicInteger();
+    private final AtomicLong adquisiciones = new AtomicLong();
+    private final AtomicLong nanosAdquisicion = new AtomicLong();
+    private final AtomicLong maxNanosAdquisicion = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong aciertosSentencias = new AtomicLong();
+    private final AtomicLong fallosSentencias = new AtomicLong();
+
+    private final ScheduledExecutorService mantenimiento;
+    private volatile boolean cerrado = false;
+
+    /**
+     * Si una conexión libre se usó hace menos de este tiempo, se omite el ping de validación.
+     */
+    private static final long VALIDACION_OMITIR_MS = 500;
+    private static final int VALIDACION_TIMEOUT_SEG = 2;
+
+    /**
+     * @param umbralFugaMs Tiempo de préstamo a partir del cual se reporta una posible fuga junto con la pila
+     *                     de quien tomó la conexión. Con 0 o menos la detección de fugas queda desactivada.
+     */
+    public PoolConexiones(String url, String user, String password,
+                          int minimo, int maximo,
+                          long timeoutAdquisicionMs, long timeoutInactividadMs, long umbralFugaMs,
+                          int tamanoCacheSentencias) {
+        if (minimo < 0 || maximo <= 0 || minimo > maximo) {
+            throw new IllegalArgumentException("Tamaños de pool inválidos: min=" + minimo + ", max=" + maximo);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.timeoutAdquisicionMs = timeoutAdquisicionMs;
+        this.timeoutInactividadMs = timeoutInactividadMs;
+        this.umbralFugaMs = umbralFugaMs;
+        this.tamanoCacheSentencias = tamanoCacheSentencias;
+        this.permisos = new Semaphore(maximo, true);
+
+        this.mantenimiento = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pool-conexiones-mantenimiento");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodo = Math.max(1000, (umbralFugaMs > 0 ? Math.min(timeoutInactividadMs, umbralFugaMs) : timeoutInactividadMs) / 2);
+        this.mantenimiento.scheduleWithFixedDelay(this::mantener, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    // -------------------------------------------------------------------------
+    // --- PRÉSTAMO Y DEVOLUCIÓN ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Obtiene una conexión del pool, esperando como máximo el timeout de adquisición.
+     *
+     * @return Una conexión lista para usar. Debe cerrarse (close) para devolverla al pool.
+     * @throws SQLTimeoutException Si no hay conexiones disponibles dentro del tiempo configurado.
+     * @throws SQLException        Si no se pudo abrir una conexión física nueva.
+     */
+    public Connection getConnection() throws SQLException {
+        if (cerrado) {
+            throw new SQLException("El pool de conexiones está cerrado.");
+        }
+
+        long inicio = System.nanoTime();
+        esperando.incrementAndGet();
+        boolean obtenido;
+        try {
+            obtenido = permisos.tryAcquire(timeoutAdquisicionMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido mientras se esperaba una conexión del pool.", e);
+        } finally {
+            esperando.decrementAndGet();
+        }
+
+        if (!obtenido) {
+            timeouts.incrementAndGet();
+            throw new SQLTimeoutException("Timeout de " + timeoutAdquisicionMs
+                    + " ms esperando una conexión del pool (activas=" + prestadas.size() + ", max=" + maximo + ").");
+        }
+
+        try {
+            ConexionFisica fisica = tomarLibreValida();
+            if (fisica == null) {
+                fisica = abrirFisica();
+            }
+            // Capturar la pila es caro: solo se hace si la detección de fugas está activa
+            Throwable origen = umbralFugaMs > 0 ? new Throwable("Conexión prestada aquí") : null;
+            prestadas.put(fisica, new Prestamo(System.currentTimeMillis(), origen));
+            registrarLatencia(System.nanoTime() - inicio);
+            return fisica.nuevoProxy();
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Saca conexiones libres hasta encontrar una válida. Las inválidas se descartan.
+     */
+    private ConexionFisica tomarLibreValida() {
+        ConexionFisica fisica;
+        while ((fisica = libres.pollFirst()) != null) {
+            if (esValida(fisica)) {
+                return fisica;
+            }
+            descartar(fisica);
+        }
+        return null;
+    }
+
+    private boolean esValida(ConexionFisica fisica) {
+        if (System.currentTimeMillis() - fisica.ultimoUso < VALIDACION_OMITIR_MS) {
+            return true;
+        }
+        try {
+            return fisica.real.isValid(VALIDACION_TIMEOUT_SEG);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private ConexionFisica abrirFisica() throws SQLException {
+        Connection real = DriverManager.getConnection(url, user, password);
+        totalFisicas.incrementAndGet();
+        return new ConexionFisica(real);
+    }
+
+    /**
+     * Devuelve la conexión física al pool. La invoca el proxy al cerrarse.
+     */
+    private void devolver(ConexionFisica fisica) {
+        if (prestadas.remove(fisica) == null) {
+            return;
+        }
+        try {
+            boolean reutilizable = !cerrado && !fisica.real.isClosed() && totalFisicas.get() <= maximo;
+            if (reutilizable && !fisica.real.getAutoCommit()) {
+                // Una transacción sin confirmar no debe filtrarse al siguiente usuario.
+                fisica.real.rollback();
+                fisica.real.setAutoCommit(true);
+            }
+            if (reutilizable) {
+                fisica.ultimoUso = System.currentTimeMillis();
+                libres.offerFirst(fisica);
+            } else {
+                descartar(fisica);
+            }
+        } catch (SQLException e) {
+            System.err.println("Conexión descartada al devolverla al pool: " + e.getMessage());
+            descartar(fisica);
+        } finally {
+            permisos.release();
+        }
+    }
+
+    private void descartar(ConexionFisica fisica) {
+        totalFisicas.decrementAndGet();
+        fisica.cerrarSentencias();
+        try {
+            fisica.real.close();
+        } catch (SQLException ignored) {
+            // La conexión ya no es utilizable; no hay nada más que hacer.
+        }
+    }
+
+    private void registrarLatencia(long nanos) {
+        adquisiciones.incrementAndGet();
+        nanosAdquisicion.addAndGet(nanos);
+        maxNanosAdquisicion.accumulateAndGet(nanos, Math::max);
+    }
+
+    // -------------------------------------------------------------------------
+    // --- MANTENIMIENTO (DESALOJO, MÍNIMO Y FUGAS) ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Tarea periódica: desaloja conexiones inactivas por encima del mínimo,
+     * rellena hasta el mínimo y reporta préstamos que superan el umbral de fuga.
+     */
+    private void mantener() {
+        if (cerrado) return;
+
+        long ahora = System.currentTimeMillis();
+
+        Iterator<ConexionFisica> it = libres.descendingIterator();
+        while (it.hasNext() && totalFisicas.get() > minimo) {
+            ConexionFisica fisica = it.next();
+            if (ahora - fisica.ultimoUso > timeoutInactividadMs && libres.remove(fisica)) {
+                descartar(fisica);
+            }
+        }
+
+        while (totalFisicas.get() < minimo) {
+            try {
+                ConexionFisica fisica = abrirFisica();
+                fisica.ultimoUso = ahora;
+                libres.offerLast(fisica);
+            } catch (SQLException e) {
+                System.err.println("No se pudo rellenar el pool hasta el mínimo: " + e.getMessage());
+                break;
+            }
+        }
+
+        if (umbralFugaMs <= 0) return;
+        for (Map.Entry<ConexionFisica, Prestamo> entry : prestadas.entrySet()) {
+            Prestamo prestamo = entry.getValue();
+            if (!prestamo.reportado && ahora - prestamo.desde > umbralFugaMs) {
+                prestamo.reportado = true;
+                System.err.println("⚠️ Posible fuga de conexión: prestada hace " + (ahora - prestamo.desde) + " ms sin devolverse.");
+                prestamo.origen.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Cierra todas las conexiones libres y detiene el mantenimiento.
+     * Las conexiones prestadas se cierran físicamente cuando se devuelvan.
+     */
+    public void cerrar() {
+        cerrado = true;
+        mantenimiento.shutdownNow();
+        ConexionFisica fisica;
+        while ((fisica = libres.pollFirst()) != null) {
+            descartar(fisica);
+        }
+    }
+
+    /**
+     * Obtiene una instantánea de las métricas del pool.
+     */
+    public Estadisticas getEstadisticas() {
+        long n = adquisiciones.get();
+        double promedioMs = n == 0 ? 0 : nanosAdquisicion.get() / (double) n / 1_000_000;
+        return new Estadisticas(prestadas.size(), libres.size(), esperando.get(), totalFisicas.get(),
+                n, timeouts.get(), promedioMs, maxNanosAdquisicion.get() / 1_000_000.0,
+                aciertosSentencias.get(), fallosSentencias.get());
+    }
+
+    // -------------------------------------------------------------------------
+    // --- CLASES INTERNAS ---
+    // -------------------------------------------------------------------------
+
+    private static final class Prestamo {
+        final long desde;
+        final Throwable origen;
+        volatile boolean reportado;
+
+        Prestamo(long desde, Throwable origen) {
+            this.desde = desde;
+            this.origen = origen;
+        }
+    }
+
+    /**
+     * Conexión física real a MariaDB que vive mientras esté en el pool.
+     */
+    private final class ConexionFisica {
+        final Connection real;
+        volatile long ultimoUso;
+
+        /**
+         * Sentencias preparadas reutilizables, indexadas por SQL (LRU).
+         * Solo la usa el hilo que tiene la conexión prestada, por eso no se sincroniza.
+         */
+        private final LinkedHashMap<String, SentenciaCacheada> sentencias =
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, SentenciaCacheada> eldest) {
+                        if (size() > tamanoCacheSentencias) {
+                            eldest.getValue().desalojar();
+                            return true;
+                        }
+                        return false;
+                    }
+                };
+
+        ConexionFisica(Connection real) {
+            this.real = real;
+            this.ultimoUso = System.currentTimeMillis();
+        }
+
+        /**
+         * Entrega una sentencia preparada para el SQL dado, reutilizando la cacheada si está libre.
+         */
+        PreparedStatement preparar(Connection proxy, String sql, Integer generatedKeys) throws SQLException {
+            if (tamanoCacheSentencias <= 0) {
+                return generatedKeys == null ? real.prepareStatement(sql) : real.prepareStatement(sql, generatedKeys);
+            }
+
+            String clave = generatedKeys == null ? sql : generatedKeys + "|" + sql;
+            SentenciaCacheada cacheada = sentencias.get(clave);
+
+            if (cacheada != null && !cacheada.enUso && !cacheada.real.isClosed()) {
+                aciertosSentencias.incrementAndGet();
+                return cacheada.prestar(proxy);
+            }
+
+            fallosSentencias.incrementAndGet();
+            PreparedStatement ps = generatedKeys == null ? real.prepareStatement(sql) : real.prepareStatement(sql, generatedKeys);
+            if (cacheada != null && cacheada.enUso) {
+                // Mismo SQL abierto dos veces a la vez: la segunda no se cachea.
+                return ps;
+            }
+            SentenciaCacheada nueva = new SentenciaCacheada(ps);
+            sentencias.put(clave, nueva);
+            return nueva.prestar(proxy);
+        }
+
+        void cerrarSentencias() {
+            for (SentenciaCacheada cacheada : sentencias.values()) {
+                cacheada.desalojar();
+            }
+            sentencias.clear();
+        }
+
+        Connection nuevoProxy() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new ManejadorConexion(this));
+        }
+    }
+
+    /**
+     * PreparedStatement real que sobrevive entre préstamos de la misma conexión física.
+     */
+    private static final class SentenciaCacheada {
+        final PreparedStatement real;
+        boolean enUso;
+        boolean desalojada;
+        boolean propiedadesModificadas;
+        final int fetchSizeOriginal;
+
+        SentenciaCacheada(PreparedStatement real) throws SQLException {
+            this.real = real;
+            this.fetchSizeOriginal = real.getFetchSize();
+        }
+
+        PreparedStatement prestar(Connection conexion) {
+            enUso = true;
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new ManejadorSentencia(this, conexion));
+        }
+
+        /**
+         * Deja la sentencia limpia para el siguiente uso (parámetros, lote y propiedades).
+         */
+        void liberar() {
+            enUso = false;
+            if (desalojada) {
+                cerrarReal();
+                return;
+            }
+            try {
+                real.clearParameters();
+                real.clearBatch();
+                if (propiedadesModificadas) {
+                    real.setFetchSize(fetchSizeOriginal);
+                    real.setMaxRows(0);
+                    real.setQueryTimeout(0);
+                    propiedadesModificadas = false;
+                }
+            } catch (SQLException e) {
+                desalojada = true;
+                cerrarReal();
+            }
+        }
+
+        /**
+         * La sentencia sale de la caché; si está en uso se cierra cuando se libere.
+         */
+        void desalojar() {
+            desalojada = true;
+            if (!enUso) {
+                cerrarReal();
+            }
+        }
+
+        private void cerrarReal() {
+            try {
+                real.close();
+            } catch (SQLException ignored) {
+                // Sentencia ya inutilizable.
+            }
+        }
+    }
+
+    /**
+     * Proxy de una sentencia cacheada: close() la devuelve a la caché en vez de cerrarla.
+     */
+    private static final class ManejadorSentencia implements InvocationHandler {
+        private final SentenciaCacheada sentencia;
+        private final Connection conexion;
+        private boolean cerrada = false;
+
+        ManejadorSentencia(SentenciaCacheada sentencia, Connection conexion) {
+            this.sentencia = sentencia;
+            this.conexion = conexion;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!cerrada) {
+                        cerrada = true;
+                        sentencia.liberar();
+                    }
+                    return null;
+                case "isClosed":
+                    return cerrada || sentencia.real.isClosed();
+                case "getConnection":
+                    return conexion;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "SentenciaCacheada[" + sentencia.real + "]";
+                case "setFetchSize":
+                case "setMaxRows":
+                case "setQueryTimeout":
+                    sentencia.propiedadesModificadas = true;
+                    break;
+            }
+
+            if (cerrada) {
+                throw new SQLException("La sentencia ya fue cerrada.");
+            }
+            try {
+                return method.invoke(sentencia.real, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Intercepta close()/isClosed() del proxy y delega el resto en la conexión física.
+     * Cada préstamo tiene su propio manejador, de modo que un proxy ya cerrado no
+     * puede volver a usar la conexión después de devolverla.
+     */
+    private final class ManejadorConexion implements InvocationHandler {
+        private final ConexionFisica fisica;
+        private boolean devuelta = false;
+
+        ManejadorConexion(ConexionFisica fisica) {
+            this.fisica = fisica;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!devuelta) {
+                        devuelta = true;
+                        devolver(fisica);
+                    }
+                    return null;
+                case "isClosed":
+                    return devuelta || fisica.real.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConexionPool[" + fisica.real + "]";
+            }
+
+            if (devuelta) {
+                throw new SQLException("La conexión ya fue devuelta al pool.");
+            }
+            if (method.getName().equals("prepareStatement") && args.length == 1) {
+                return fisica.preparar((Connection) proxy, (String) args[0], null);
+            }
+            if (method.getName().equals("prepareStatement") && args.length == 2 && args[1] instanceof Integer) {
+                return fisica.preparar((Connection) proxy, (String) args[0], (Integer) args[1]);
+            }
+            try {
+                return method.invoke(fisica.real, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Instantánea inmutable de las métricas del pool.
+     */
+    public static final class Estadisticas {
+        private final int activas;
+        private final int libres;
+        private final int esperando;
+        private final int total;
+        private final long adquisiciones;
+        private final long timeouts;
+        private final double latenciaPromedioMs;
+        private final double latenciaMaximaMs;
+        private final long aciertosSentencias;
+        private final long fallosSentencias;
+
+        Estadisticas(int activas, int libres, int esperando, int total, long adquisiciones,
+                     long timeouts, double latenciaPromedioMs, double latenciaMaximaMs,
+                     long aciertosSentencias, long fallosSentencias) {
+            this.activas = activas;
+            this.libres = libres;
+            this.esperando = esperando;
+            this.total = total;
+            this.adquisiciones = adquisiciones;
+            this.timeouts = timeouts;
+            this.latenciaPromedioMs = latenciaPromedioMs;
+            this.latenciaMaximaMs = latenciaMaximaMs;
+            this.aciertosSentencias = aciertosSentencias;
+            this.fallosSentencias = fallosSentencias;
+        }
+
+        public int getActivas() {
+            return activas;
+        }
+
+        public int getLibres() {
+            return libres;
+        }
+
+        public int getEsperando() {
+            return esperando;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public long getAdquisiciones() {
+            return adquisiciones;
+        }
+
+        public long getTimeouts() {
+            return timeouts;
+        }
+
+        public double getLatenciaPromedioMs() {
+            return latenciaPromedioMs;
+        }
+
+        public double getLatenciaMaximaMs() {
+            return latenciaMaximaMs;
+        }
+
+        public long getAciertosSentencias() {
+            return aciertosSentencias;
+        }
+
+        public long getFallosSentencias() {
+            return fallosSentencias;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Pool{activas=%d, libres=%d, esperando=%d, total=%d, adquisiciones=%d, timeouts=%d, latenciaProm=%.3f ms, latenciaMax=%.3f ms, sentencias(aciertos=%d, fallos=%d)}",
+                    activas, libres, esperando, total, adquisiciones, timeouts, latenciaPromedioMs, latenciaMaximaMs,
+                    aciertosSentencias, fallosSentencias);
+        }
+    }
+}
@@ -0,0 +1,679 @@
+package com.softly.fonoteca.utilities;
+
+import com.softly.fonoteca.Modelos.DAOs.ReproduccionDAO;
+import com.softly.fonoteca.Modelos.DAOs.VecinosCancionDAO;
+import com.softly.fonoteca.Modelos.DTOs.CancionRecomendada;
+import com.softly.fonoteca.Modelos.DTOs.Reproduccion;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recomendador "quienes escucharon esto también escucharon" (filtrado colaborativo canción a canción).
+ * <ul>
+ *     <li>Parte de {@code reproducciones}: cada (usuario, canción) es una interacción con peso
+ *     {@code log(1 + segundos / 30)}, guardada en una {@link MatrizInteracciones} dispersa.</li>
+ *     <li>Para cada canción calcula sus {@link #VECINOS_POR_CANCION} vecinos de mayor similitud coseno,
+ *     en paralelo con fork/join. Solo cuentan las parejas con al menos {@link #MIN_OYENTES_COMUNES} oyentes en común.</li>
+ *     <li>Las listas se guardan en {@code vecinos_cancion} ({@link VecinosCancionDAO}); al arrancar se cargan
+ *     de ahí y solo se recalcula todo si la tabla está vacía o se pide {@link #reconstruir()}.</li>
+ *     <li>{@link ReproduccionDAO} avisa de cada reproducción escrita. Los cambios se acumulan y se aplican
+ *     cada {@link #INTERVALO_REFRESCO} (o al juntar {@link #CAMBIOS_PARA_REFRESCAR}): se recalculan las
+ *     canciones afectadas y se corrige su posición en las listas de sus vecinos. Es una aproximación
+ *     (si una similitud baja, no se busca quién ocupa su lugar); la reconstrucción la corrige.</li>
+ * </ul>
+ * Todas las escrituras del estado corren en un único hilo; las consultas leen la última versión publicada.
+ */
+public class RecomendadorCanciones {
+
+    static final int VECINOS_POR_CANCION = 20;
+    static final int MIN_OYENTES_COMUNES = 2;
+    static final int MAX_CANCIONES_POR_USUARIO = 2000;
+    private static final float SEGUNDOS_REFERENCIA = 30f;
+    // Variaciones menores no reescriben la lista de un vecino (evita reescribir miles de listas por refresco)
+    private static final float TOLERANCIA_SIMILITUD = 0.01f;
+    private static final Duration INTERVALO_REFRESCO = Duration.ofSeconds(30);
+    private static final int CAMBIOS_PARA_REFRESCAR = 5_000;
+    // Canciones por tarea fork/join (las populares cuestan mucho más que el resto)
+    private static final int CANCIONES_POR_TAREA = 32;
+    // Espera antes de reintentar una carga inicial fallida
+    private static final Duration ESPERA_REINTENTO_CARGA = Duration.ofMinutes(1);
+
+    private static final RecomendadorCanciones COMPARTIDO = new RecomendadorCanciones(new VecinosCancionDAO());
+
+    private final VecinosCancionDAO dao;
+    private volatile Estado estado;
+
+    private ScheduledExecutorService hilo;
+    private CompletableFuture<Void> inicio;
+    private final AtomicBoolean refrescoSolicitado = new AtomicBoolean(false);
+    private final Object lockPendientes = new Object();
+    private Map<Long, Float> pendientes = new HashMap<>();
+    /**
+     * La carga inicial falló y espera su reintento: no se acumulan cambios, porque el reintento
+     * vuelve a leer toda la tabla.
+     */
+    private volatile boolean esperandoReintento = false;
+    private volatile ScheduledFuture<?> reintento;
+
+    private static final ThreadLocal<Acumulador> ACUMULADOR = new ThreadLocal<>();
+
+    /**
+     * @param dao DAO donde se persisten las listas, o null para trabajar solo en memoria.
+     */
+    RecomendadorCanciones(VecinosCancionDAO dao) {
+        this.dao = dao;
+    }
+
+    /**
+     * Recomendador compartido por la aplicación.
+     */
+    public static RecomendadorCanciones compartido() {
+        return COMPARTIDO;
+    }
+
+    /**
+     * Listas de vecinos calculadas sobre una matriz. Por canción {@code c}, las posiciones
+     * {@code c * VECINOS_POR_CANCION ...} tienen los índices de sus vecinos (-1 = vacío) y su similitud,
+     * de mayor a menor. Nunca se modifica una vez publicado.
+     */
+    static final class Estado {
+        final MatrizInteracciones matriz;
+        final int[] vecinos;
+        final float[] similitudes;
+
+        Estado(MatrizInteracciones matriz, int[] vecinos, float[] similitudes) {
+            this.matriz = matriz;
+            this.vecinos = vecinos;
+            this.similitudes = similitudes;
+        }
+    }
+
+    /**
+     * Resultado de aplicar cambios: el nuevo estado y las canciones cuya lista cambió.
+     */
+    static final class Refresco {
+        final Estado estado;
+        final int[] modificadas;
+
+        Refresco(Estado estado, int[] modificadas) {
+            this.estado = estado;
+            this.modificadas = modificadas;
+        }
+    }
+
+    static float peso(int segundosReproducidos) {
+        return segundosReproducidos <= 0 ? 0f : (float) Math.log1p(segundosReproducidos / SEGUNDOS_REFERENCIA);
+    }
+
+    // -------------------------------------------------------------------------
+    // --- CICLO DE VIDA ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Lee las reproducciones (con cursor), carga las listas persistidas (o las calcula si no hay)
+     * y programa los refrescos incrementales. Las llamadas siguientes devuelven el mismo futuro.
+     */
+    public synchronized CompletableFuture<Void> iniciarEnSegundoPlano() {
+        if (inicio != null) return inicio;
+
+        hilo = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "recomendador-canciones");
+            t.setDaemon(true);
+            return t;
+        });
+        inicio = CompletableFuture.runAsync(() -> cargar(false), hilo);
+        long periodo = INTERVALO_REFRESCO.toMillis();
+        hilo.scheduleWithFixedDelay(this::refrescarPendientes, periodo, periodo, TimeUnit.MILLISECONDS);
+        return inicio;
+    }
+
+    /**
+     * Vuelve a leer todas las reproducciones y recalcula y reescribe todas las listas.
+     */
+    public CompletableFuture<Void> reconstruir() {
+        iniciarEnSegundoPlano();
+        return CompletableFuture.runAsync(() -> cargar(true), hilo);
+    }
+
+    /**
+     * Aplica los cambios pendientes y detiene el hilo del recomendador compartido (si se llegó a iniciar).
+     * Debe llamarse antes de cerrar el pool de conexiones.
+     */
+    public static void cerrarCompartido() {
+        COMPARTIDO.cerrar();
+    }
+
+    private void cerrar() {
+        ScheduledExecutorService ejecutor;
+        synchronized (this) {
+            ejecutor = hilo;
+        }
+        if (ejecutor == null) return;
+        ScheduledFuture<?> cargaProgramada = reintento;
+        if (cargaProgramada != null) {
+            // shutdown() esperaría a que venza el reintento
+            cargaProgramada.cancel(false);
+        }
+        try {
+            ejecutor.execute(this::refrescarPendientes);
+        } catch (RejectedExecutionException e) {
+            return;
+        }
+        ejecutor.shutdown();
+        try {
+            if (!ejecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                System.err.println("❌ El recomendador no terminó de guardar los cambios pendientes.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void cargar(boolean recalcular) {
+        esperandoReintento = false;
+        try {
+            long inicioNanos = System.nanoTime();
+            MatrizInteracciones.Constructor constructor = new MatrizInteracciones.Constructor(1 << 16);
+            long leidas = new ReproduccionDAO().recorrerTodos(r ->
+                    constructor.agregar(r.getIdUsuario(), r.getIdCancion(), peso(r.getSegundosReproducidos())));
+            MatrizInteracciones matriz = constructor.construir(MAX_CANCIONES_POR_USUARIO);
+
+            Estado nuevo = recalcular ? null : leerPersistido(matriz);
+            if (nuevo == null) {
+                nuevo = calcularTodo(matriz);
+                estado = nuevo;
+                guardar(nuevo, null);
+            } else {
+                estado = nuevo;
+            }
+            System.out.println("Recomendador: " + leidas + " reproducciones, " + matriz.canciones + " canciones en "
+                    + (System.nanoTime() - inicioNanos) / 1_000_000 + " ms");
+
+            // Lo que llegó mientras se leía la tabla
+            refrescarPendientes();
+
+        } catch (RuntimeException e) {
+            System.err.println("❌ Error al construir el recomendador: " + e.getMessage());
+            if (estado == null) {
+                reintentarCarga();
+            }
+        }
+    }
+
+    /**
+     * Sin estado publicado nadie aplicaría los cambios anotados: se descartan y se programa
+     * otra carga completa, que los leerá de la tabla.
+     */
+    private void reintentarCarga() {
+        esperandoReintento = true;
+        synchronized (lockPendientes) {
+            pendientes = new HashMap<>();
+        }
+        try {
+            reintento = hilo.schedule(() -> cargar(false), ESPERA_REINTENTO_CARGA.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // El recomendador se está cerrando
+        }
+    }
+
+    /**
+     * Calcula y publica las listas de una matriz ya construida, sin leer ni escribir la BD.
+     */
+    void cargar(MatrizInteracciones matriz) {
+        estado = calcularTodo(matriz);
+    }
+
+    /**
+     * @return El estado con las listas guardadas en la BD, o null si no hay ninguna.
+     */
+    private Estado leerPersistido(MatrizInteracciones matriz) {
+        if (dao == null) return null;
+        int[] vecinos = new int[matriz.canciones * VECINOS_POR_CANCION];
+        float[] similitudes = new float[vecinos.length];
+        Arrays.fill(vecinos, -1);
+
+        long filas = dao.recorrer((idCancion, posicion, idVecino, similitud) -> {
+            int cancion = matriz.indiceDeCancion(idCancion);
+            int vecino = matriz.indiceDeCancion(idVecino);
+            if (cancion < 0 || vecino < 0 || posicion >= VECINOS_POR_CANCION) return;
+            // Las posiciones de canciones descartadas se recorren para que no queden huecos
+            int base = cancion * VECINOS_POR_CANCION;
+            int destino = base;
+            while (destino < base + VECINOS_POR_CANCION && vecinos[destino] != -1) destino++;
+            if (destino < base + VECINOS_POR_CANCION) {
+                vecinos[destino] = vecino;
+                similitudes[destino] = similitud;
+            }
+        });
+        return filas > 0 ? new Estado(matriz, vecinos, similitudes) : null;
+    }
+
+    private void guardar(Estado e, int[] canciones) {
+        if (dao == null) return;
+        int cantidad = canciones == null ? e.matriz.canciones : canciones.length;
+        int[] ids = new int[cantidad];
+        int[] idsVecinos = new int[cantidad * VECINOS_POR_CANCION];
+        float[] similitudes = new float[idsVecinos.length];
+        for (int i = 0; i < cantidad; i++) {
+            int c = canciones == null ? i : canciones[i];
+            ids[i] = e.matriz.idsCancion[c];
+            for (int k = 0; k < VECINOS_POR_CANCION; k++) {
+                int vecino = e.vecinos[c * VECINOS_POR_CANCION + k];
+                idsVecinos[i * VECINOS_POR_CANCION + k] = vecino < 0 ? 0 : e.matriz.idsCancion[vecino];
+                similitudes[i * VECINOS_POR_CANCION + k] = e.similitudes[c * VECINOS_POR_CANCION + k];
+            }
+        }
+        dao.guardar(ids, idsVecinos, similitudes, VECINOS_POR_CANCION, canciones == null);
+    }
+
+    // -------------------------------------------------------------------------
+    // --- CAMBIOS INCREMENTALES ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Registra reproducciones ya escritas en la BD. Se ignoran si el recomendador no se inició
+     * (la carga inicial las leerá de la tabla).
+     */
+    public void registrar(Collection<Reproduccion> reproducciones) {
+        for (Reproduccion reproduccion : reproducciones) {
+            anotar(reproduccion.getIdUsuario(), reproduccion.getIdCancion(), peso(reproduccion.getSegundosReproducidos()));
+        }
+    }
+
+    public void registrar(Reproduccion reproduccion) {
+        anotar(reproduccion.getIdUsuario(), reproduccion.getIdCancion(), peso(reproduccion.getSegundosReproducidos()));
+    }
+
+    /**
+     * Registra que se eliminó la reproducción de la pareja (usuario, canción).
+     */
+    public void eliminar(int idUsuario, int idCancion) {
+        anotar(idUsuario, idCancion, 0f);
+    }
+
+    private void anotar(int idUsuario, int idCancion, float peso) {
+        ScheduledExecutorService ejecutor;
+        synchronized (this) {
+            ejecutor = hilo;
+        }
+        if (ejecutor == null || esperandoReintento) return;
+
+        int tamano;
+        synchronized (lockPendientes) {
+            pendientes.put(((long) idUsuario << 32) | (idCancion & 0xFFFFFFFFL), peso);
+            tamano = pendientes.size();
+        }
+        if (tamano >= CAMBIOS_PARA_REFRESCAR && refrescoSolicitado.compareAndSet(false, true)) {
+            try {
+                ejecutor.execute(() -> {
+                    refrescoSolicitado.set(false);
+                    refrescarPendientes();
+                });
+            } catch (RejectedExecutionException e) {
+                refrescoSolicitado.set(false);
+            }
+        }
+    }
+
+    /**
+     * Aplica los cambios pendientes al estado publicado y guarda las listas afectadas. Solo corre en el hilo del recomendador.
+     */
+    private void refrescarPendientes() {
+        Estado actual = estado;
+        if (actual == null) return; // todavía cargando: se aplicarán al terminar
+
+        Map<Long, Float> lote;
+        synchronized (lockPendientes) {
+            if (pendientes.isEmpty()) return;
+            lote = pendientes;
+            pendientes = new HashMap<>();
+        }
+
+        try {
+            int[] usuarios = new int[lote.size()];
+            int[] canciones = new int[lote.size()];
+            float[] pesos = new float[lote.size()];
+            int i = 0;
+            for (Map.Entry<Long, Float> cambio : lote.entrySet()) {
+                usuarios[i] = (int) (cambio.getKey() >> 32);
+                canciones[i] = (int) (long) cambio.getKey();
+                pesos[i++] = cambio.getValue();
+            }
+            Refresco refresco = aplicarCambios(actual, usuarios, canciones, pesos, i);
+            estado = refresco.estado;
+            guardar(refresco.estado, refresco.modificadas);
+
+        } catch (RuntimeException e) {
+            System.err.println("❌ Error al refrescar el recomendador (" + lote.size() + " cambios): " + e.getMessage());
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // --- CONSULTAS ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Canciones más escuchadas por los oyentes de la indicada, de mayor a menor similitud.
+     * Antes de terminar la carga inicial se consulta la tabla persistida.
+     */
+    public List<CancionRecomendada> similares(int idCancion, int n) {
+        Estado e = estado;
+        if (e == null) {
+            return dao == null ? List.of() : dao.obtenerSimilares(idCancion, n);
+        }
+        List<CancionRecomendada> similares = new ArrayList<>();
+        int cancion = e.matriz.indiceDeCancion(idCancion);
+        if (cancion < 0) return similares;
+
+        int base = cancion * VECINOS_POR_CANCION;
+        for (int k = 0; k < Math.min(n, VECINOS_POR_CANCION) && e.vecinos[base + k] >= 0; k++) {
+            similares.add(new CancionRecomendada(e.matriz.idsCancion[e.vecinos[base + k]], e.similitudes[base + k]));
+        }
+        return similares;
+    }
+
+    /**
+     * Recomendaciones para un usuario: suma, ponderada por su interacción, la similitud de los vecinos
+     * de cada canción que escuchó, y devuelve las mejores que todavía no escuchó.
+     */
+    public List<CancionRecomendada> recomendarParaUsuario(int idUsuario, int n) {
+        Estado e = estado;
+        if (e == null || n <= 0) return List.of();
+        MatrizInteracciones m = e.matriz;
+        int usuario = m.indiceDeUsuario(idUsuario);
+        if (usuario < 0) return List.of();
+
+        Map<Integer, Float> puntajes = new HashMap<>();
+        for (int q = m.inicioUsuario[usuario]; q < m.inicioUsuario[usuario + 1]; q++) {
+            int base = m.escuchadas[q] * VECINOS_POR_CANCION;
+            for (int k = 0; k < VECINOS_POR_CANCION && e.vecinos[base + k] >= 0; k++) {
+                puntajes.merge(e.vecinos[base + k], m.pesosPorUsuario[q] * e.similitudes[base + k], Float::sum);
+            }
+        }
+        for (int q = m.inicioUsuario[usuario]; q < m.inicioUsuario[usuario + 1]; q++) {
+            puntajes.remove(m.escuchadas[q]);
+        }
+
+        return puntajes.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Float>comparingByValue().reversed())
+                .limit(n)
+                .map(p -> new CancionRecomendada(m.idsCancion[p.getKey()], p.getValue()))
+                .toList();
+    }
+
+    public boolean isListo() {
+        return estado != null;
+    }
+
+    // -------------------------------------------------------------------------
+    // --- CÁLCULO DE VECINOS ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Calcula las listas de todas las canciones en el pool fork/join común.
+     */
+    static Estado calcularTodo(MatrizInteracciones matriz) {
+        int[] vecinos = new int[matriz.canciones * VECINOS_POR_CANCION];
+        float[] similitudes = new float[vecinos.length];
+        ForkJoinPool.commonPool().invoke(new TareaVecinos(matriz, null, 0, matriz.canciones, vecinos, similitudes, null, null));
+        return new Estado(matriz, vecinos, similitudes);
+    }
+
+    /**
+     * Aplica las interacciones cambiadas (peso 0 = eliminada), recalcula la lista de cada canción afectada
+     * y corrige la posición de esas canciones en las listas de sus vecinos: como solo cambiaron sus vectores,
+     * solo cambian las similitudes de las parejas que las incluyen.
+     */
+    static Refresco aplicarCambios(Estado anterior, int[] idsUsuarios, int[] idsCanciones, float[] pesos, int cantidad) {
+        MatrizInteracciones matriz = anterior.matriz.conCambios(idsUsuarios, idsCanciones, pesos, cantidad);
+
+        boolean[] afectada = new boolean[matriz.canciones];
+        int[] afectadas = new int[cantidad];
+        int numeroAfectadas = 0;
+        for (int i = 0; i < cantidad; i++) {
+            int c = matriz.indiceDeCancion(idsCanciones[i]);
+            if (!afectada[c]) {
+                afectada[c] = true;
+                afectadas[numeroAfectadas++] = c;
+            }
+        }
+        afectadas = Arrays.copyOf(afectadas, numeroAfectadas);
+
+        int cancionesAnteriores = anterior.matriz.canciones;
+        int[] vecinos = Arrays.copyOf(anterior.vecinos, matriz.canciones * VECINOS_POR_CANCION);
+        float[] similitudes = Arrays.copyOf(anterior.similitudes, vecinos.length);
+        Arrays.fill(vecinos, anterior.vecinos.length, vecinos.length, -1);
+
+        int[][] paresVecinos = new int[numeroAfectadas][];
+        float[][] paresSimilitudes = new float[numeroAfectadas][];
+        ForkJoinPool.commonPool().invoke(new TareaVecinos(matriz, afectadas, 0, numeroAfectadas,
+                vecinos, similitudes, paresVecinos, paresSimilitudes));
+
+        boolean[] modificada = afectada.clone();
+        int[] marca = new int[matriz.canciones];
+        for (int a = 0; a < numeroAfectadas; a++) {
+            int d = afectadas[a];
+            int[] otras = paresVecinos[a];
+            float[] sims = paresSimilitudes[a];
+            for (int p = 0; p < otras.length; p++) {
+                marca[otras[p]] = a + 1;
+                if (!afectada[otras[p]] && corregir(vecinos, similitudes, otras[p], d, sims[p])) {
+                    modificada[otras[p]] = true;
+                }
+            }
+            // Vecinos anteriores con los que ya no hay similitud: se quita d de sus listas
+            if (d < cancionesAnteriores) {
+                int base = d * VECINOS_POR_CANCION;
+                for (int k = 0; k < VECINOS_POR_CANCION && anterior.vecinos[base + k] >= 0; k++) {
+                    int j = anterior.vecinos[base + k];
+                    if (marca[j] != a + 1 && !afectada[j] && quitar(vecinos, similitudes, j, d)) {
+                        modificada[j] = true;
+                    }
+                }
+            }
+        }
+
+        int total = 0;
+        for (boolean m : modificada) if (m) total++;
+        int[] modificadas = new int[total];
+        for (int c = 0, i = 0; c < modificada.length; c++) {
+            if (modificada[c]) modificadas[i++] = c;
+        }
+        return new Refresco(new Estado(matriz, vecinos, similitudes), modificadas);
+    }
+
+    /**
+     * Actualiza (o inserta, si entra) la similitud de {@code d} en la lista de {@code c}.
+     *
+     * @return true si la lista cambió.
+     */
+    private static boolean corregir(int[] vecinos, float[] similitudes, int c, int d, float similitud) {
+        int base = c * VECINOS_POR_CANCION;
+        int fin = base + VECINOS_POR_CANCION;
+        int posicion = base;
+        while (posicion < fin && vecinos[posicion] >= 0 && vecinos[posicion] != d) posicion++;
+
+        if (posicion == fin) {
+            // No estaba y la lista está llena: entra solo si supera a la última
+            if (similitud <= similitudes[fin - 1]) return false;
+            posicion = fin - 1;
+        } else if (vecinos[posicion] == d && Math.abs(similitudes[posicion] - similitud) < TOLERANCIA_SIMILITUD) {
+            return false;
+        }
+        vecinos[posicion] = d;
+        similitudes[posicion] = similitud;
+        reordenar(vecinos, similitudes, base, fin, posicion);
+        return true;
+    }
+
+    private static boolean quitar(int[] vecinos, float[] similitudes, int c, int d) {
+        int base = c * VECINOS_POR_CANCION;
+        int fin = base + VECINOS_POR_CANCION;
+        for (int p = base; p < fin && vecinos[p] >= 0; p++) {
+            if (vecinos[p] == d) {
+                System.arraycopy(vecinos, p + 1, vecinos, p, fin - p - 1);
+                System.arraycopy(similitudes, p + 1, similitudes, p, fin - p - 1);
+                vecinos[fin - 1] = -1;
+                similitudes[fin - 1] = 0f;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Mueve la posición modificada hacia arriba o hacia abajo hasta dejar la lista en orden descendente.
+     */
+    private static void reordenar(int[] vecinos, float[] similitudes, int base, int fin, int posicion) {
+        while (posicion > base && similitudes[posicion] > similitudes[posicion - 1]) {
+            intercambiar(vecinos, similitudes, posicion, posicion - 1);
+            posicion--;
+        }
+        while (posicion + 1 < fin && vecinos[posicion + 1] >= 0 && similitudes[posicion + 1] > similitudes[posicion]) {
+            intercambiar(vecinos, similitudes, posicion, posicion + 1);
+            posicion++;
+        }
+    }
+
+    private static void intercambiar(int[] vecinos, float[] similitudes, int a, int b) {
+        int v = vecinos[a];
+        vecinos[a] = vecinos[b];
+        vecinos[b] = v;
+        float s = similitudes[a];
+        similitudes[a] = similitudes[b];
+        similitudes[b] = s;
+    }
+
+    /**
+     * Divide un rango de canciones (todas, o las de {@code seleccion}) hasta {@link #CANCIONES_POR_TAREA}.
+     * Cada canción escribe solo sus propias posiciones de salida, así que las tareas no comparten escrituras.
+     */
+    private static final class TareaVecinos extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient MatrizInteracciones matriz;
+        private final int[] seleccion;
+        private final int desde;
+        private final int hasta;
+        private final int[] vecinos;
+        private final float[] similitudes;
+        private final int[][] paresVecinos;
+        private final float[][] paresSimilitudes;
+
+        TareaVecinos(MatrizInteracciones matriz, int[] seleccion, int desde, int hasta, int[] vecinos,
+                     float[] similitudes, int[][] paresVecinos, float[][] paresSimilitudes) {
+            this.matriz = matriz;
+            this.seleccion = seleccion;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.vecinos = vecinos;
+            this.similitudes = similitudes;
+            this.paresVecinos = paresVecinos;
+            this.paresSimilitudes = paresSimilitudes;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde > CANCIONES_POR_TAREA) {
+                int mitad = (desde + hasta) >>> 1;
+                invokeAll(new TareaVecinos(matriz, seleccion, desde, mitad, vecinos, similitudes, paresVecinos, paresSimilitudes),
+                        new TareaVecinos(matriz, seleccion, mitad, hasta, vecinos, similitudes, paresVecinos, paresSimilitudes));
+                return;
+            }
+            Acumulador acumulador = ACUMULADOR.get();
+            if (acumulador == null || acumulador.productos.length < matriz.canciones) {
+                acumulador = new Acumulador(matriz.canciones);
+                ACUMULADOR.set(acumulador);
+            }
+            for (int i = desde; i < hasta; i++) {
+                int cancion = seleccion == null ? i : seleccion[i];
+                acumulador.calcular(matriz, cancion, vecinos, similitudes);
+                if (paresVecinos != null) {
+                    paresVecinos[i] = Arrays.copyOf(acumulador.pares, acumulador.numeroPares);
+                    paresSimilitudes[i] = Arrays.copyOf(acumulador.paresSimilitud, acumulador.numeroPares);
+                }
+            }
+        }
+    }
+
+    /**
+     * Espacio de trabajo de un hilo: productos punto y oyentes en común contra cada canción (densos,
+     * se limpian al terminar cada canción), las canciones tocadas y un montículo mínimo de tamaño K.
+     */
+    private static final class Acumulador {
+        final float[] productos;
+        final int[] comunes;
+        final int[] tocadas;
+        final MejoresK monticulo = new MejoresK(VECINOS_POR_CANCION);
+        int[] pares = new int[64];
+        float[] paresSimilitud = new float[64];
+        int numeroPares;
+
+        Acumulador(int canciones) {
+            productos = new float[canciones];
+            comunes = new int[canciones];
+            tocadas = new int[canciones];
+        }
+
+        /**
+         * Escribe la lista de {@code i} y deja en {@code pares} todas sus similitudes válidas.
+         */
+        void calcular(MatrizInteracciones m, int i, int[] vecinos, float[] similitudes) {
+            int numeroTocadas = 0;
+            for (int p = m.inicioCancion[i]; p < m.inicioCancion[i + 1]; p++) {
+                int u = m.oyentes[p];
+                if (m.isIgnorado(u)) continue;
+                float peso = m.pesosPorCancion[p];
+                for (int q = m.inicioUsuario[u], fin = m.inicioUsuario[u + 1]; q < fin; q++) {
+                    int j = m.escuchadas[q];
+                    if (j == i) continue;
+                    if (comunes[j]++ == 0) tocadas[numeroTocadas++] = j;
+                    productos[j] += peso * m.pesosPorUsuario[q];
+                }
+            }
+
+            monticulo.limpiar();
+            numeroPares = 0;
+            float normaI = m.normas[i];
+            for (int t = 0; t < numeroTocadas; t++) {
+                int j = tocadas[t];
+                if (comunes[j] >= MIN_OYENTES_COMUNES) {
+                    float similitud = productos[j] / (normaI * m.normas[j]);
+                    agregarPar(j, similitud);
+                    monticulo.ofrecer(j, similitud);
+                }
+                productos[j] = 0f;
+                comunes[j] = 0;
+            }
+
+            int base = i * VECINOS_POR_CANCION;
+            int enLista = monticulo.extraerOrdenados(vecinos, similitudes, base);
+            Arrays.fill(vecinos, base + enLista, base + VECINOS_POR_CANCION, -1);
+            Arrays.fill(similitudes, base + enLista, base + VECINOS_POR_CANCION, 0f);
+        }
+
+        private void agregarPar(int j, float similitud) {
+            if (numeroPares == pares.length) {
+                pares = Arrays.copyOf(pares, numeroPares * 2);
+                paresSimilitud = Arrays.copyOf(paresSimilitud, numeroPares * 2);
+            }
+            pares[numeroPares] = j;
+            paresSimilitud[numeroPares++] = similitud;
+        }
+    }
+}
@@ -5,9 +5,14 @@ import com.softly.fonoteca.Modelos.DTOs.ComboBoxItem;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.sql.*;
-import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class SQLQuerys {
 
@@ -17,21 +22,26 @@ public class SQLQuerys {
      *
      * @param table                El nombre de la tabla (ej: "usuarios").
      * @param columns              Un arreglo de Strings con los nombres de las columnas a usar.
+     *                             En SELECT_ALL/SELECT_BY_ID es opcional: son las columnas a proyectar
+     *                             (null o vacío = todas, {@code SELECT *}).
      * @param primaryKeyColumnName El nombre de la columna de la clave primaria (solo para UPDATE/DELETE/SELECT_BY_ID).
      * @return La cadena SQL resultante, lista para ser usada en un PreparedStatement.
      */
     public static String buildQuery(OperationType type, String table, String[] columns, String primaryKeyColumnName) {
 
         // 1. Manejo del DELETE, SELECT_ALL, y SELECT_BY_ID
-        // Estos no dependen de la lista completa de columnas.
+        // Estos no requieren la lista de columnas; en los SELECT, si se da, se proyectan solo esas.
+        if (type == OperationType.DELETE && columns != null && columns.length > 0) {
+            throw new IllegalArgumentException("DELETE no admite lista de columnas.");
+        }
         switch (type) {
             case SELECT_ALL:
-                return "SELECT * FROM " + table;
+                return "SELECT " + type.proyeccion(columns) + " FROM " + table;
             case SELECT_BY_ID:
                 if (primaryKeyColumnName == null || primaryKeyColumnName.isEmpty()) {
                     throw new IllegalArgumentException("SELECT_BY_ID requiere primaryKeyColumnName.");
                 }
-                return "SELECT * FROM " + table + " WHERE " + primaryKeyColumnName + "=?";
+                return "SELECT " + type.proyeccion(columns) + " FROM " + table + " WHERE " + primaryKeyColumnName + "=?";
             case DELETE:
                 if (primaryKeyColumnName == null || primaryKeyColumnName.isEmpty()) {
                     throw new IllegalArgumentException("DELETE requiere primaryKeyColumnName.");
@@ -45,7 +55,7 @@ public class SQLQuerys {
         }
 
         String columnNames = String.join(", ", columns);
-        String placeholders = String.join(", ", Arrays.stream(columns).map(e -> "?").toArray(String[]::new));
+        String placeholders = String.join(", ", Collections.nCopies(columns.length, "?"));
 
         switch (type) {
             case INSERT:
@@ -57,7 +67,7 @@ public class SQLQuerys {
                     throw new IllegalArgumentException("UPDATE requiere primaryKeyColumnName.");
                 }
                 // Ejemplo: UPDATE usuarios SET col1=?, col2=? WHERE id=?
-                String setClauses = String.join(", ", Arrays.stream(columns).map(col -> col + "=?").toArray(String[]::new));
+                String setClauses = String.join("=?, ", columns) + "=?";
                 return "UPDATE " + table + " SET " + setClauses + " WHERE " + primaryKeyColumnName + "=?";
 
             default:
@@ -65,35 +75,66 @@ public class SQLQuerys {
         }
     }
 
-    public static DefaultComboBoxModel<ComboBoxItem> consultarDatos(String tabla, String columnaID, String columnaDisplay) {
-        String sql = "SELECT " + columnaID + ", " + columnaDisplay + " FROM " + tabla;
+    /**
+     * Columnas a mostrar más la clave primaria (si no está ya entre ellas).
+     */
+    public static String[] columnasConClave(String pkColumn, String[] columnsToShow) {
+        for (String columna : columnsToShow) {
+            if (columna.equalsIgnoreCase(pkColumn)) {
+                return columnsToShow;
+            }
+        }
+        String[] columnas = new String[columnsToShow.length + 1];
+        columnas[0] = pkColumn;
+        System.arraycopy(columnsToShow, 0, columnas, 1, columnsToShow.length);
+        return columnas;
+    }
 
-        try (Connection con = ConexionDB.getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
+    /**
+     * Nombres de las columnas de cada tabla (el esquema no cambia mientras corre la aplicación).
+     */
+    private static final Map<String, String[]> COLUMNAS_POR_TABLA = new ConcurrentHashMap<>();
 
-            try (ResultSet rs = ps.executeQuery()) {
-                DefaultComboBoxModel<ComboBoxItem> modelo = new DefaultComboBoxModel<>();
-                modelo.addElement(new ComboBoxItem(0, "--- Seleccionar ---"));
+    /**
+     * Obtiene los nombres de TODAS las columnas de la tabla, en el orden de {@code SELECT *},
+     * sin traer filas. El resultado se cachea por tabla.
+     *
+     * @return Los nombres de columna, o un arreglo vacío si la consulta falla.
+     */
+    public static String[] consultarColumnas(String table) {
+        String[] columnas = COLUMNAS_POR_TABLA.get(table);
+        if (columnas != null) {
+            return columnas;
+        }
 
-                // 3. AÑADIR LOS RESULTADOS DE LA BASE DE DATOS
-                while (rs.next()) {
-                    int id = rs.getInt(columnaID);
-                    String display = rs.getString(columnaDisplay);
+        try (Connection con = ConexionDB.getConnection();
+             PreparedStatement ps = con.prepareStatement("SELECT * FROM " + table + " LIMIT 0");
+             ResultSet rs = ps.executeQuery()) {
 
-                    // Asegúrate de no agregar registros nulos o inválidos si fuera el caso
-                    if (id > 0) {
-                        modelo.addElement(new ComboBoxItem(id, display));
-                    }
-                }
-                return modelo;
+            ResultSetMetaData metaData = rs.getMetaData();
+            columnas = new String[metaData.getColumnCount()];
+            for (int i = 1; i <= columnas.length; i++) {
+                columnas[i - 1] = metaData.getColumnLabel(i);
             }
+            COLUMNAS_POR_TABLA.put(table, columnas);
+            return columnas;
 
         } catch (SQLException e) {
-            System.out.println("Error al consultar la base de datos: " + e.getMessage());
-            return new DefaultComboBoxModel<>();
+            System.err.println("Error al consultar las columnas de " + table + ": " + e.getMessage());
+            return new String[0];
         }
     }
 
+    /**
+     * Construye el modelo de un JComboBox a partir de la caché global de dimensiones.
+     * La consulta a la BD se hace una sola vez por (tabla, columnaID, columnaDisplay);
+     * cada llamada devuelve un modelo nuevo (con su propia selección) sobre los mismos ComboBoxItem,
+     * indexado por ID para que {@link #setSelectedItemById} sea O(1).
+     */
+    public static ModeloComboPorId consultarDatos(String tabla, String columnaID, String columnaDisplay) {
+        return CacheDimensiones.obtenerModelo(tabla, columnaID, columnaDisplay);
+    }
+
     /**
      * Busca y establece la selección en un JComboBox cuyo modelo es de tipo ComboBoxItem,
      * basándose en el ID numérico de la clave foránea.
@@ -102,10 +143,18 @@ public class SQLQuerys {
      * @param targetId El ID (clave foránea) que se debe buscar en los ComboBoxItem.
      */
     public static void setSelectedItemById(JComboBox<ComboBoxItem> comboBox, int targetId) {
-        // Obtenemos el modelo genérico que contiene los ComboBoxItem
-        DefaultComboBoxModel<ComboBoxItem> model = (DefaultComboBoxModel<ComboBoxItem>) comboBox.getModel();
+        ComboBoxModel<ComboBoxItem> model = comboBox.getModel();
 
-        // Iteramos sobre todos los elementos del modelo
+        // Modelos construidos por consultarDatos: búsqueda directa en el índice ID -> posición
+        if (model instanceof ModeloComboPorId indexado) {
+            int index = indexado.indiceDe(targetId);
+            if (index != -1) {
+                comboBox.setSelectedIndex(index);
+            }
+            return;
+        }
+
+        // Cualquier otro modelo: iteramos sobre todos los elementos
         for (int i = 0; i < model.getSize(); i++) {
             ComboBoxItem item = model.getElementAt(i);
 
@@ -206,14 +255,103 @@ public class SQLQuerys {
         return result;
     }
 
+    /**
+     * Tamaño máximo de cada lista IN (...) en {@link #getDisplayValuesByIds}.
+     */
+    private static final int TAMANO_BLOQUE_IN = 1000;
+
+    /**
+     * Longitudes fijas a las que se rellenan las listas IN (...). Con sentencias preparadas en el
+     * servidor y la caché de sentencias por conexión, cada longitud distinta es un SQL distinto;
+     * limitarlas a unas pocas evita que las consultas de un solo uso desalojen a las habituales.
+     */
+    private static final int[] TAMANOS_LISTA_IN = {16, 64, 256, TAMANO_BLOQUE_IN};
+
+    /**
+     * Longitud a la que debe rellenarse una lista IN de {@code cantidad} valores (repitiendo el último).
+     *
+     * @return El menor tamaño fijo que admite la cantidad, o la propia cantidad si supera el mayor.
+     */
+    public static int tamanoListaIn(int cantidad) {
+        for (int tamano : TAMANOS_LISTA_IN) {
+            if (cantidad <= tamano) return tamano;
+        }
+        return cantidad;
+    }
+
+    /**
+     * Versión por lotes de {@link #getDisplayValueById}: resuelve muchos IDs con consultas
+     * {@code WHERE id IN (...)} en bloques, en lugar de una consulta por ID.
+     *
+     * @param table             El nombre de la tabla (ej: "usuarios", "canciones").
+     * @param idColumnName      El nombre de la columna de la clave primaria.
+     * @param ids               Los IDs a resolver (se ignoran los repetidos).
+     * @param displayColumnName El nombre de la columna a devolver.
+     * @return Mapa ID -> valor. Los IDs que no existen no aparecen en el mapa.
+     */
+    public static Map<Integer, String> getDisplayValuesByIds(String table, String idColumnName, Collection<Integer> ids, String displayColumnName) {
+        Map<Integer, String> resultado = new HashMap<>();
+        if (ids.isEmpty()) return resultado;
+
+        Integer[] distintos = new LinkedHashSet<>(ids).toArray(new Integer[0]);
+
+        try (Connection con = ConexionDB.getConnection()) {
+            for (int inicio = 0; inicio < distintos.length; inicio += TAMANO_BLOQUE_IN) {
+                int fin = Math.min(inicio + TAMANO_BLOQUE_IN, distintos.length);
+                int tamano = tamanoListaIn(fin - inicio);
+                String placeholders = String.join(", ", Collections.nCopies(tamano, "?"));
+                // Ejemplo: SELECT idUsuario, nombres FROM usuarios WHERE idUsuario IN (?, ?, ?)
+                String sql = "SELECT " + idColumnName + ", " + displayColumnName + " FROM " + table
+                        + " WHERE " + idColumnName + " IN (" + placeholders + ")";
+
+                try (PreparedStatement ps = con.prepareStatement(sql)) {
+                    for (int i = 0; i < tamano; i++) {
+                        // El relleno repite el último ID: no cambia el resultado
+                        ps.setInt(i + 1, distintos[Math.min(inicio + i, fin - 1)]);
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            resultado.put(rs.getInt(1), rs.getString(2));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al obtener " + displayColumnName + " de " + table + " por lotes: " + e.getMessage());
+        }
+        return resultado;
+    }
+
     /**
      * Enum para definir los tipos de operaciones soportadas.
+     * Las columnas de cada consulta se pasan a {@link #buildQuery}: dependen de la tabla y de la vista,
+     * no del tipo de operación, así que el enum solo indica si admite una lista a proyectar.
      */
     public enum OperationType {
-        INSERT,
-        UPDATE,
-        DELETE,
-        SELECT_ALL,
-        SELECT_BY_ID
+        INSERT(false),
+        UPDATE(false),
+        DELETE(false),
+        /** SELECT de todas las filas; admite una lista explícita de columnas a proyectar. */
+        SELECT_ALL(true),
+        /** SELECT de una fila por clave primaria; admite una lista explícita de columnas a proyectar. */
+        SELECT_BY_ID(true);
+
+        private final boolean proyectable;
+
+        OperationType(boolean proyectable) {
+            this.proyectable = proyectable;
+        }
+
+        /**
+         * Lista de columnas del SELECT: las indicadas, o {@code *} si no se indican.
+         *
+         * @throws UnsupportedOperationException Si la operación no es un SELECT.
+         */
+        public String proyeccion(String[] columnas) {
+            if (!proyectable) {
+                throw new UnsupportedOperationException(name() + " no proyecta columnas.");
+            }
+            return (columnas == null || columnas.length == 0) ? "*" : String.join(", ", columnas);
+        }
     }
 }
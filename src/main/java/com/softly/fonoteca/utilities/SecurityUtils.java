@@ -3,21 +3,39 @@ package com.softly.fonoteca.utilities;
 import at.favre.lib.crypto.bcrypt.BCrypt; // Importar la librería BCrypt
 import at.favre.lib.crypto.bcrypt.BCrypt.Result;
 
+import java.time.Duration;
+import java.util.Arrays;
+
 /**
  * Clase de utilidad para el hashing y verificación de contraseñas usando el
  * algoritmo BCrypt, compatible con las funciones nativas de PHP.
+ * Ambas operaciones son costosas en CPU: desde la interfaz se invocan a través de {@link EjecutorBCrypt}.
+ * <p>
+ * El costo no es fijo: {@link #calibrar(Duration)} mide esta máquina y elige el mayor costo cuya
+ * verificación no supera la latencia objetivo. Los hashes con un costo menor al actual se
+ * regeneran al iniciar sesión ({@link #necesitaRehash(String)}).
  */
 public class SecurityUtils {
 
-    // Costo recomendado para BCrypt: 12 es un buen equilibrio para 2024.
-    private static final int BCRYPT_COST = 12;
+    /** Tiempo de verificación buscado por la calibración. */
+    public static final Duration LATENCIA_OBJETIVO = Duration.ofMillis(250);
+
+    // Límites del costo: nunca por debajo del costo fijo que se usaba antes (12); cada punto duplica el tiempo.
+    public static final int COSTO_MINIMO = 12;
+    public static final int COSTO_MAXIMO = 16;
+
+    /** Costo con el que se mide la máquina (rápido, pero lo bastante largo para medir con precisión). */
+    private static final int COSTO_MEDICION = 8;
+    private static final int REPETICIONES_MEDICION = 5;
+
+    private static volatile int costo = 0;
 
     private SecurityUtils() {
         // Constructor privado para prevenir la instanciación
     }
 
     /**
-     * Genera el hash de la contraseña usando BCrypt.
+     * Genera el hash de la contraseña usando BCrypt con el costo calibrado.
      * Este método solo se debe usar para registrar nuevas contraseñas.
      * * @param password La contraseña en texto plano.
      * @return El hash BCrypt completo (incluye el costo y el sal).
@@ -25,7 +43,7 @@ public class SecurityUtils {
     public static String hashPassword(char[] password) {
         // Usa la implementación de 'favre lib' para hashear
         // El hashing se realiza directamente con el array de caracteres para mejor seguridad en memoria.
-        return BCrypt.withDefaults().hashToString(BCRYPT_COST, password);
+        return BCrypt.withDefaults().hashToString(getCosto(), password);
     }
 
     /**
@@ -41,4 +59,85 @@ public class SecurityUtils {
 
         return result.verified;
     }
-}
\ No newline at end of file
+
+    /**
+     * Indica si el hash se generó con un costo menor al actual y conviene regenerarlo
+     * (solo es posible tras una verificación exitosa, cuando se tiene la contraseña).
+     */
+    public static boolean necesitaRehash(String storedHash) {
+        int costoHash = costoDe(storedHash);
+        return costoHash > 0 && costoHash < getCosto();
+    }
+
+    /**
+     * Costo de un hash con formato {@code $2a$12$...}, o -1 si el formato no es válido.
+     */
+    public static int costoDe(String storedHash) {
+        if (storedHash == null || storedHash.length() < 7 || storedHash.charAt(0) != '$' || storedHash.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(storedHash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Costo actual; si aún no se calibró, calibra con {@link #LATENCIA_OBJETIVO} (una sola vez).
+     */
+    public static int getCosto() {
+        int actual = costo;
+        if (actual == 0) {
+            synchronized (SecurityUtils.class) {
+                if (costo == 0) {
+                    calibrar(LATENCIA_OBJETIVO);
+                }
+                actual = costo;
+            }
+        }
+        return actual;
+    }
+
+    /**
+     * Mide el tiempo de verificación en esta máquina y fija el mayor costo (entre
+     * {@value #COSTO_MINIMO} y {@value #COSTO_MAXIMO}) que no supera el objetivo.
+     * Toma del orden de una o dos veces el objetivo. Debe ejecutarse sin otra carga de CPU en paralelo
+     * (BCrypt, construcción de índices...): con la CPU ocupada mediría de más y elegiría un costo menor.
+     *
+     * @return El costo elegido.
+     */
+    public static synchronized int calibrar(Duration objetivo) {
+        char[] muestra = "calibracion-bcrypt".toCharArray();
+        String hashMedicion = BCrypt.withDefaults().hashToString(COSTO_MEDICION, muestra);
+
+        // El tiempo se duplica con cada punto de costo: se mide un costo bajo y se extrapola
+        long mejorNanos = Long.MAX_VALUE;
+        for (int i = 0; i < REPETICIONES_MEDICION; i++) {
+            long inicio = System.nanoTime();
+            BCrypt.verifyer().verify(muestra, hashMedicion);
+            mejorNanos = Math.min(mejorNanos, System.nanoTime() - inicio);
+        }
+        int elegido = COSTO_MEDICION;
+        while (elegido < COSTO_MAXIMO && mejorNanos * (1L << (elegido + 1 - COSTO_MEDICION)) <= objetivo.toNanos()) {
+            elegido++;
+        }
+        elegido = Math.max(elegido, COSTO_MINIMO);
+
+        // Comprobación con el costo elegido: la extrapolación puede fallar por caché o frecuencia de CPU
+        String hashElegido = BCrypt.withDefaults().hashToString(elegido, muestra);
+        long inicio = System.nanoTime();
+        BCrypt.verifyer().verify(muestra, hashElegido);
+        long nanosElegido = System.nanoTime() - inicio;
+        while (elegido > COSTO_MINIMO && nanosElegido > objetivo.toNanos() * 3 / 2) {
+            elegido--;
+            nanosElegido /= 2;
+        }
+
+        Arrays.fill(muestra, '\0');
+        costo = elegido;
+        System.out.println("BCrypt calibrado: costo " + elegido + " (~" + nanosElegido / 1_000_000 + " ms por verificación, objetivo "
+                + objetivo.toMillis() + " ms)");
+        return elegido;
+    }
+}
@@ -3,6 +3,7 @@ package com.softly.fonoteca.utilities;
 import com.softly.fonoteca.Modelos.DTOs.ComboBoxItem;
 
 import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
 import javax.swing.table.DefaultTableModel;
 import java.util.HashMap;
 import java.util.Map;
@@ -41,10 +42,10 @@ public class TablaUtils {
     /**
      * Método genérico para cargar los datos de la fila seleccionada en los componentes de la vista.
      * * @param selectedRow El índice de la fila seleccionada en el JTable.
-     * @param rawModel El DefaultTableModel crudo (con IDs) obtenido de la BD.
+     * @param rawModel El modelo crudo (con IDs) obtenido de la BD (DefaultTableModel o paginado).
      * @param componentMappings Mapa de mapeo: Clave=Nombre Columna BD (ej. "idUsuario"), Valor=Componente de la Vista (ej. JComboBox, JTextField).
      */
-    public static void cargarDetalleGenerico(int selectedRow, DefaultTableModel rawModel, Map<String, Object> componentMappings) {
+    public static void cargarDetalleGenerico(int selectedRow, AbstractTableModel rawModel, Map<String, Object> componentMappings) {
         if (selectedRow == -1 || rawModel == null) return;
 
         try {
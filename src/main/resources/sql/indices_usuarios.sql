@@ -0,0 +1,5 @@
+-- Índice para el inicio de sesión (UsuarioDAO.buscarCredencial busca por email).
+-- No hace falta si usuarios.email ya tiene un índice propio (p. ej. UNIQUE).
+-- Ejecutarlo en un momento de poca actividad: crear el índice recorre toda la tabla.
+
+CREATE INDEX IF NOT EXISTS idx_usuarios_email ON usuarios (email);
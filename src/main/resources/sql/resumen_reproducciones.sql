@@ -0,0 +1,70 @@
+-- Tablas de resumen (rollup) de reproducciones por hora y por día, por canción y por usuario.
+-- La aplicación ejecuta este script al primer uso (ResumenReproduccionesDAO.asegurarTablas);
+-- si su usuario de BD no puede crear tablas, puede ejecutarlo antes un administrador.
+-- Todas las sentencias se pueden repetir sin efecto.
+
+CREATE TABLE IF NOT EXISTS resumen_reproducciones_cancion_hora (
+    id INT NOT NULL,
+    fecha DATE NOT NULL,
+    hora TINYINT NOT NULL,
+    reproducciones INT NOT NULL,
+    segundos BIGINT NOT NULL,
+    PRIMARY KEY (id, fecha, hora),
+    KEY idx_fecha (fecha, hora)
+);
+
+CREATE TABLE IF NOT EXISTS resumen_reproducciones_usuario_hora (
+    id INT NOT NULL,
+    fecha DATE NOT NULL,
+    hora TINYINT NOT NULL,
+    reproducciones INT NOT NULL,
+    segundos BIGINT NOT NULL,
+    PRIMARY KEY (id, fecha, hora),
+    KEY idx_fecha (fecha, hora)
+);
+
+CREATE TABLE IF NOT EXISTS resumen_reproducciones_cancion_dia (
+    id INT NOT NULL,
+    fecha DATE NOT NULL,
+    reproducciones INT NOT NULL,
+    segundos BIGINT NOT NULL,
+    PRIMARY KEY (id, fecha),
+    KEY idx_fecha (fecha)
+);
+
+CREATE TABLE IF NOT EXISTS resumen_reproducciones_usuario_dia (
+    id INT NOT NULL,
+    fecha DATE NOT NULL,
+    reproducciones INT NOT NULL,
+    segundos BIGINT NOT NULL,
+    PRIMARY KEY (id, fecha),
+    KEY idx_fecha (fecha)
+);
+
+-- Carga inicial desde el historial existente, solo si el resumen está vacío.
+-- La tabla reproducciones guarda la última reproducción de cada (usuario, canción),
+-- así que cada par cuenta como una reproducción.
+
+INSERT INTO resumen_reproducciones_cancion_hora (id, fecha, hora, reproducciones, segundos)
+SELECT idCancion, fechaReproduccion, HOUR(horaReproduccion), COUNT(*), SUM(segundosReproducidos)
+FROM reproducciones
+WHERE NOT EXISTS (SELECT 1 FROM resumen_reproducciones_cancion_hora)
+GROUP BY idCancion, fechaReproduccion, HOUR(horaReproduccion);
+
+INSERT INTO resumen_reproducciones_usuario_hora (id, fecha, hora, reproducciones, segundos)
+SELECT idUsuario, fechaReproduccion, HOUR(horaReproduccion), COUNT(*), SUM(segundosReproducidos)
+FROM reproducciones
+WHERE NOT EXISTS (SELECT 1 FROM resumen_reproducciones_usuario_hora)
+GROUP BY idUsuario, fechaReproduccion, HOUR(horaReproduccion);
+
+INSERT INTO resumen_reproducciones_cancion_dia (id, fecha, reproducciones, segundos)
+SELECT idCancion, fechaReproduccion, COUNT(*), SUM(segundosReproducidos)
+FROM reproducciones
+WHERE NOT EXISTS (SELECT 1 FROM resumen_reproducciones_cancion_dia)
+GROUP BY idCancion, fechaReproduccion;
+
+INSERT INTO resumen_reproducciones_usuario_dia (id, fecha, reproducciones, segundos)
+SELECT idUsuario, fechaReproduccion, COUNT(*), SUM(segundosReproducidos)
+FROM reproducciones
+WHERE NOT EXISTS (SELECT 1 FROM resumen_reproducciones_usuario_dia)
+GROUP BY idUsuario, fechaReproduccion;
@@ -0,0 +1,39 @@
+package com.softly.fonoteca.Modelos.DAOs;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Interpretación de las filas afectadas por un {@code INSERT ... ON DUPLICATE KEY UPDATE}
+ * ({@link ResultadoUpsert#desdeFilasAfectadas(int)}), con la conexión en modo "filas afectadas".
+ */
+class ResultadoUpsertTest {
+
+    @Test
+    void filaNuevaSeInforma1() {
+        assertEquals(ResultadoUpsert.INSERTADO, ResultadoUpsert.desdeFilasAfectadas(1));
+    }
+
+    @Test
+    void filaExistenteConOtrosValoresSeInforma2() {
+        assertEquals(ResultadoUpsert.ACTUALIZADO, ResultadoUpsert.desdeFilasAfectadas(2));
+    }
+
+    @Test
+    void duplicadoIdenticoSeInforma0YNoEsUnaInsercion() {
+        ResultadoUpsert resultado = ResultadoUpsert.desdeFilasAfectadas(0);
+        assertEquals(ResultadoUpsert.SIN_CAMBIOS, resultado);
+        assertTrue(resultado.isExitoso());
+    }
+
+    @Test
+    void sinDetalleYValoresInesperados() {
+        assertEquals(ResultadoUpsert.SIN_DETALLE, ResultadoUpsert.desdeFilasAfectadas(Statement.SUCCESS_NO_INFO));
+        assertEquals(ResultadoUpsert.ERROR, ResultadoUpsert.desdeFilasAfectadas(Statement.EXECUTE_FAILED));
+        assertEquals(ResultadoUpsert.ERROR, ResultadoUpsert.desdeFilasAfectadas(3));
+    }
+}
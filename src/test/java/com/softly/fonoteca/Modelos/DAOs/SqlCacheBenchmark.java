@@ -0,0 +1,50 @@
+package com.softly.fonoteca.Modelos.DAOs;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Microbenchmark antes/después de la memoización de SQL en BaseDAO.
+ * No necesita base de datos. Ejecutar con:
+ * java -cp target/classes:target/test-classes com.softly.fonoteca.Modelos.DAOs.SqlCacheBenchmark
+ */
+public class SqlCacheBenchmark {
+
+    private static final int CALENTAMIENTO = 200_000;
+    private static final int ITERACIONES = 2_000_000;
+
+    /** Evita que el JIT elimine el trabajo medido. */
+    private static long sumidero;
+
+    public static void main(String[] args) {
+        UsuarioDAO dao = new UsuarioDAO();
+
+        medir("antes  (stream por llamada)", () -> {
+            String[] columnas = dao.getAllColumns();
+            return construirComoAntes(dao.getTableName(), columnas, dao.getPrimaryKeyColumnName());
+        });
+        medir("después (memoizado por DAO) ", dao::getSqlUpdate);
+
+        System.out.println("(sumidero=" + sumidero + ")");
+    }
+
+    private static void medir(String nombre, Supplier<String> operacion) {
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            sumidero += operacion.get().length();
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ITERACIONES; i++) {
+            sumidero += operacion.get().length();
+        }
+        long nanos = System.nanoTime() - inicio;
+        System.out.printf("%s: %8.1f ns/op%n", nombre, nanos / (double) ITERACIONES);
+    }
+
+    /**
+     * Réplica de la construcción de UPDATE previa a la caché (Arrays.stream en cada llamada).
+     */
+    private static String construirComoAntes(String table, String[] columns, String pk) {
+        String setClauses = String.join(", ", Arrays.stream(columns).map(col -> col + "=?").toArray(String[]::new));
+        return "UPDATE " + table + " SET " + setClauses + " WHERE " + pk + "=?";
+    }
+}
@@ -0,0 +1,85 @@
+package com.softly.fonoteca.Modelos.DTOs;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Interpretación del texto libre de la columna {@code calificacion} ({@link Calificacion#puntajeDe(String)}).
+ */
+class CalificacionTest {
+
+    @Test
+    void numerosEnteros() {
+        assertEquals(1, Calificacion.puntajeDe("1"));
+        assertEquals(5, Calificacion.puntajeDe("5"));
+        assertEquals(3, Calificacion.puntajeDe("  3 "));
+    }
+
+    @Test
+    void decimalesConPuntoOComaSeRedondean() {
+        assertEquals(4, Calificacion.puntajeDe("4.4"));
+        assertEquals(5, Calificacion.puntajeDe("4.5"));
+        assertEquals(5, Calificacion.puntajeDe("4,5"));
+        assertEquals(1, Calificacion.puntajeDe("0,5"));
+    }
+
+    @Test
+    void fraccionesSeEscalanACinco() {
+        assertEquals(4, Calificacion.puntajeDe("8/10"));
+        assertEquals(5, Calificacion.puntajeDe("5/5"));
+        assertEquals(3, Calificacion.puntajeDe("3 / 5"));
+        assertEquals(4, Calificacion.puntajeDe("7,5/10"));
+    }
+
+    @Test
+    void estrellas() {
+        assertEquals(3, Calificacion.puntajeDe("★★★"));
+        assertEquals(5, Calificacion.puntajeDe("*****"));
+        assertEquals(Calificacion.SIN_PUNTAJE, Calificacion.puntajeDe("******"));
+    }
+
+    @Test
+    void fueraDeEscala() {
+        assertEquals(Calificacion.SIN_PUNTAJE, Calificacion.puntajeDe("0"));
+        assertEquals(Calificacion.SIN_PUNTAJE, Calificacion.puntajeDe("6"));
+        assertEquals(Calificacion.SIN_PUNTAJE, Calificacion.puntajeDe("0.4"));
+        assertEquals(Calificacion.SIN_PUNTAJE, Calificacion.puntajeDe("12/10"));
+        assertEquals(Calificacion.SIN_PUNTAJE, Calificacion.puntajeDe("99999999999999999999"));
+    }
+
+    @Test
+    void fraccionesInvalidas() {
+        assertEquals(Calificacion.SIN_PUNTAJE, Calificacion.puntajeDe("4/0"));
+        assertEquals(Calificacion.SIN_PUNTAJE, Calificacion.puntajeDe("/5"));
+        assertEquals(Calificacion.SIN_PUNTAJE, Calificacion.puntajeDe("4/"));
+        assertEquals(Calificacion.SIN_PUNTAJE, Calificacion.puntajeDe("4/-5"));
+    }
+
+    @Test
+    void otrasNotacionesNumericasNoSeAceptan() {
+        assertEquals(Calificacion.SIN_PUNTAJE, Calificacion.puntajeDe("0x1p2"));
+        assertEquals(Calificacion.SIN_PUNTAJE, Calificacion.puntajeDe("4e0"));
+        assertEquals(Calificacion.SIN_PUNTAJE, Calificacion.puntajeDe("4f"));
+        assertEquals(Calificacion.SIN_PUNTAJE, Calificacion.puntajeDe("4d"));
+        assertEquals(Calificacion.SIN_PUNTAJE, Calificacion.puntajeDe("NaN"));
+        assertEquals(Calificacion.SIN_PUNTAJE, Calificacion.puntajeDe("Infinity"));
+        assertEquals(Calificacion.SIN_PUNTAJE, Calificacion.puntajeDe("+4"));
+        assertEquals(Calificacion.SIN_PUNTAJE, Calificacion.puntajeDe("-4"));
+    }
+
+    @Test
+    void textoVacioONulo() {
+        assertEquals(Calificacion.SIN_PUNTAJE, Calificacion.puntajeDe(null));
+        assertEquals(Calificacion.SIN_PUNTAJE, Calificacion.puntajeDe(""));
+        assertEquals(Calificacion.SIN_PUNTAJE, Calificacion.puntajeDe("   "));
+        assertEquals(Calificacion.SIN_PUNTAJE, Calificacion.puntajeDe("excelente"));
+    }
+
+    @Test
+    void puntajeDelDto() {
+        Calificacion calificacion = new Calificacion();
+        calificacion.setCalificacion("4,5");
+        assertEquals(5, calificacion.getPuntaje());
+    }
+}
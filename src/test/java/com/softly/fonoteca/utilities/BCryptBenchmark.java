@@ -0,0 +1,73 @@
+package com.softly.fonoteca.utilities;
+
+import at.favre.lib.crypto.bcrypt.BCrypt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de BCrypt por nivel de costo: latencia de hash y de verificación en un hilo, y
+ * verificaciones por segundo con un hilo por núcleo (lo que limita cuántos inicios de sesión
+ * simultáneos soporta un costo). Sirve para contrastar el costo que elige
+ * {@link SecurityUtils#calibrar(java.time.Duration)}. No necesita base de datos. Ejecutar con:
+ * mvn test-compile exec:java -Dexec.mainClass=com.softly.fonoteca.utilities.BCryptBenchmark -Dexec.classpathScope=test
+ * (acepta las opciones de JMH, p. ej. {@code -p costo=12,13}).
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BCryptBenchmark {
+
+    @Param({"10", "11", "12", "13", "14"})
+    public int costo;
+
+    private char[] password;
+    private String hash;
+
+    @Setup
+    public void preparar() {
+        password = "contraseña-de-prueba".toCharArray();
+        hash = BCrypt.withDefaults().hashToString(costo, password);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String hash() {
+        return BCrypt.withDefaults().hashToString(costo, password);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean verificar() {
+        return BCrypt.verifyer().verify(password, hash).verified;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(Threads.MAX)
+    public boolean verificarEnParalelo() {
+        return BCrypt.verifyer().verify(password, hash).verified;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] opciones = new String[args.length + 1];
+        opciones[0] = BCryptBenchmark.class.getName();
+        System.arraycopy(args, 0, opciones, 1, args.length);
+        org.openjdk.jmh.Main.main(opciones);
+    }
+}
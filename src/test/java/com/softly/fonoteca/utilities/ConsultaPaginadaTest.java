@@ -0,0 +1,38 @@
+package com.softly.fonoteca.utilities;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * SQL de paginación por clave ({@link ConsultaPaginada}): predicado expandido y NULL de la columna de orden.
+ */
+class ConsultaPaginadaTest {
+
+    @Test
+    void soloPorClave() {
+        ConsultaPaginada consulta = new ConsultaPaginada("usuarios", null, "idUsuario", null);
+        assertEquals("SELECT * FROM usuarios WHERE idUsuario > ? ORDER BY idUsuario LIMIT ?", consulta.sql(null));
+        assertEquals(consulta.sql(null), consulta.sql("x"));
+    }
+
+    @Test
+    void ordenPorLaClaveEsSoloPorClave() {
+        ConsultaPaginada consulta = new ConsultaPaginada("usuarios", new String[]{"idUsuario", "nombres"}, "idUsuario", "idUsuario");
+        assertEquals("SELECT idUsuario, nombres FROM usuarios WHERE idUsuario > ? ORDER BY idUsuario LIMIT ?", consulta.sql("x"));
+    }
+
+    @Test
+    void trasUnValorSeExpandeElPredicado() {
+        ConsultaPaginada consulta = new ConsultaPaginada("usuarios", null, "idUsuario", "nombres");
+        assertEquals("SELECT * FROM usuarios WHERE nombres > ? OR (nombres = ? AND idUsuario > ?)"
+                + " ORDER BY nombres, idUsuario LIMIT ?", consulta.sql("Ana"));
+    }
+
+    @Test
+    void trasUnNuloSigueConLosNulosYLuegoElResto() {
+        ConsultaPaginada consulta = new ConsultaPaginada("usuarios", null, "idUsuario", "nombres");
+        assertEquals("SELECT * FROM usuarios WHERE (nombres IS NULL AND idUsuario > ?) OR nombres IS NOT NULL"
+                + " ORDER BY nombres, idUsuario LIMIT ?", consulta.sql(null));
+    }
+}
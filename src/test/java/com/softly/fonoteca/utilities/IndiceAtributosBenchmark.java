@@ -0,0 +1,103 @@
+package com.softly.fonoteca.utilities;
+
+import com.softly.fonoteca.Modelos.DTOs.Cancion;
+import com.softly.fonoteca.Modelos.DTOs.CancionRecomendada;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Construye el índice de atributos con un catálogo sintético (por defecto 1.000.000 de canciones,
+ * 40 géneros y 12 idiomas) y mide la construcción y la latencia de consultas por rango de BPM y de
+ * "canciones parecidas", comprobando una muestra contra un recorrido completo. No necesita base de datos.
+ * Ejecutar con:
+ * java -cp target/classes:target/test-classes com.softly.fonoteca.utilities.IndiceAtributosBenchmark [canciones]
+ */
+public class IndiceAtributosBenchmark {
+
+    private static final String[] IDIOMAS = {
+            "Español", "Inglés", "Portugués", "Francés", "Italiano", "Alemán",
+            "Japonés", "Coreano", "Catalán", "Gallego", "Latín", "Sueco"
+    };
+    private static final int GENEROS = 40;
+    private static final int REPETICIONES = 20_000;
+    private static final int COMPROBACIONES = 200;
+
+    public static void main(String[] args) {
+        int total = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random aleatorio = new Random(42);
+
+        List<Cancion> canciones = new ArrayList<>(total);
+        for (int id = 1; id <= total; id++) {
+            Cancion cancion = new Cancion();
+            cancion.setIdCancion(id);
+            cancion.setGenero(1 + (int) (GENEROS * Math.pow(aleatorio.nextDouble(), 2)));
+            cancion.setIdioma(IDIOMAS[(int) (IDIOMAS.length * Math.pow(aleatorio.nextDouble(), 3))]);
+            cancion.setInstrumental(aleatorio.nextInt(10) == 0);
+            cancion.setBpm(60 + (int) Math.abs(aleatorio.nextGaussian() * 25 + 60));
+            int segundos = 90 + aleatorio.nextInt(300);
+            cancion.setDuracion(String.format("00:%02d:%02d", segundos / 60, segundos % 60));
+            canciones.add(cancion);
+        }
+
+        IndiceAtributos indice = new IndiceAtributos();
+        long inicio = System.nanoTime();
+        indice.cargar(canciones);
+        System.out.printf("Construcción: %d canciones en %d ms%n", indice.getTamano(), (System.nanoTime() - inicio) / 1_000_000);
+
+        medir("20 en ±5 BPM, mismo género e idioma", aleatorio, () -> {
+            Cancion c = canciones.get(aleatorio.nextInt(total));
+            return indice.buscar(c.getGenero(), c.getIdioma(), null, c.getBpm(), 5, 20);
+        });
+        medir("20 en ±5 BPM, todo el catálogo", aleatorio, () ->
+                indice.buscar(0, null, null, 80 + aleatorio.nextInt(80), 5, 20));
+        medir("similares(id, 20)", aleatorio, () ->
+                indice.similares(1 + aleatorio.nextInt(total), 20));
+
+        // Comparación contra un recorrido completo: mismas distancias (los empates pueden resolverse distinto)
+        int errores = 0;
+        for (int i = 0; i < COMPROBACIONES; i++) {
+            Cancion c = canciones.get(aleatorio.nextInt(total));
+            List<Integer> obtenidas = indice.buscar(c.getGenero(), c.getIdioma(), null, c.getBpm(), 5, 20).stream()
+                    .map(r -> canciones.get(r.getIdCancion() - 1))
+                    .filter(o -> o.getGenero() == c.getGenero() && o.getIdioma().equals(c.getIdioma()))
+                    .map(o -> Math.abs(o.getBpm() - c.getBpm()))
+                    .toList();
+            List<Integer> esperadas = canciones.stream()
+                    .filter(o -> o.getGenero() == c.getGenero() && o.getIdioma().equals(c.getIdioma())
+                            && Math.abs(o.getBpm() - c.getBpm()) <= 5)
+                    .map(o -> Math.abs(o.getBpm() - c.getBpm()))
+                    .sorted()
+                    .limit(20)
+                    .toList();
+            if (!obtenidas.equals(esperadas)) errores++;
+        }
+        System.out.printf("Comprobación contra recorrido completo: %d de %d consultas difieren%n", errores, COMPROBACIONES);
+
+        // Escrituras incrementales (como las que hace CancionDAO)
+        inicio = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            Cancion c = canciones.get(aleatorio.nextInt(total));
+            c.setBpm(60 + aleatorio.nextInt(120));
+            indice.actualizar(c);
+        }
+        System.out.printf("10.000 actualizaciones: %d ms%n", (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private static void medir(String nombre, Random aleatorio, java.util.function.Supplier<List<CancionRecomendada>> consulta) {
+        for (int i = 0; i < 2_000; i++) consulta.get(); // calentamiento (JIT)
+
+        long[] tiempos = new long[REPETICIONES];
+        long resultados = 0;
+        for (int i = 0; i < REPETICIONES; i++) {
+            long t = System.nanoTime();
+            resultados += consulta.get().size();
+            tiempos[i] = System.nanoTime() - t;
+        }
+        Arrays.sort(tiempos);
+        System.out.printf("%-40s p50 %8.2f µs   p99 %8.2f µs   %.1f resultados%n", nombre,
+                tiempos[REPETICIONES / 2] / 1e3, tiempos[REPETICIONES * 99 / 100] / 1e3, (double) resultados / REPETICIONES);
+    }
+}
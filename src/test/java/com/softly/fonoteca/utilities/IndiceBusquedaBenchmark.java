@@ -0,0 +1,134 @@
+package com.softly.fonoteca.utilities;
+
+import com.softly.fonoteca.Modelos.DTOs.ResultadoBusqueda;
+import com.softly.fonoteca.Modelos.DTOs.ResultadoBusqueda.Campo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Construye el índice de búsqueda con un catálogo sintético (por defecto 1.000.000 de canciones,
+ * 100.000 álbumes y 50.000 intérpretes) y mide el tiempo de construcción y la latencia de consultas
+ * exactas, por prefijo, con errores de tipeo y de varias palabras. No necesita base de datos. Ejecutar con:
+ * java -cp target/classes:target/test-classes com.softly.fonoteca.utilities.IndiceBusquedaBenchmark [canciones]
+ */
+public class IndiceBusquedaBenchmark {
+
+    private static final String[] SILABAS = {
+            "la", "lo", "ma", "me", "mi", "na", "no", "ra", "re", "ri", "ta", "te", "to", "sa", "so",
+            "ca", "co", "da", "de", "do", "ba", "be", "ga", "go", "ja", "pa", "pe", "va", "ve", "za",
+            "an", "en", "in", "on", "ar", "er", "or", "al", "el", "os", "as", "es", "ción", "mor", "tran"
+    };
+    private static final String[] SELLOS = {
+            "Sony Music", "Universal", "Warner", "EMI", "Discos Fuentes", "Sonolux", "Codiscos", "Independiente"
+    };
+    private static final int REPETICIONES = 200;
+
+    public static void main(String[] args) {
+        int canciones = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random aleatorio = new Random(42);
+
+        // Vocabulario: ~60.000 palabras inventadas, con frecuencias tipo Zipf
+        String[] vocabulario = new String[60_000];
+        for (int i = 0; i < vocabulario.length; i++) {
+            StringBuilder palabra = new StringBuilder();
+            int silabas = 2 + aleatorio.nextInt(3);
+            for (int s = 0; s < silabas; s++) {
+                palabra.append(SILABAS[aleatorio.nextInt(SILABAS.length)]);
+            }
+            vocabulario[i] = palabra.toString();
+        }
+
+        List<IndiceBusqueda.Entrada> entradas = new ArrayList<>();
+        for (int id = 1; id <= canciones; id++) {
+            entradas.add(new IndiceBusqueda.Entrada(Campo.TITULO_CANCION, id, titulo(vocabulario, aleatorio, 1 + aleatorio.nextInt(5))));
+        }
+        for (int id = 1; id <= canciones / 10; id++) {
+            entradas.add(new IndiceBusqueda.Entrada(Campo.TITULO_ALBUM, id, titulo(vocabulario, aleatorio, 1 + aleatorio.nextInt(4))));
+            entradas.add(new IndiceBusqueda.Entrada(Campo.SELLO_ALBUM, id, SELLOS[aleatorio.nextInt(SELLOS.length)]));
+        }
+        for (int id = 1; id <= canciones / 20; id++) {
+            entradas.add(new IndiceBusqueda.Entrada(Campo.NOMBRE_INTERPRETE, id, titulo(vocabulario, aleatorio, 2)));
+        }
+
+        IndiceBusqueda indice = new IndiceBusqueda();
+        long inicio = System.nanoTime();
+        indice.cargar(entradas);
+        System.out.printf("Construcción: %d textos en %d ms (%d núcleos)%n", entradas.size(),
+                (System.nanoTime() - inicio) / 1_000_000, Runtime.getRuntime().availableProcessors());
+        entradas.clear();
+        System.gc(); // que la basura de la construcción no caiga dentro de las mediciones
+
+        String comun = vocabulario[0];
+        String otra = vocabulario[1];
+        String rara = vocabulario[vocabulario.length - 1];
+        String[][] consultas = {
+                {"exacta", comun},
+                {"exacta rara", rara},
+                {"prefijo corto", comun.substring(0, 2)},
+                {"prefijo", comun.substring(0, Math.min(4, comun.length()))},
+                {"un error", conError(rara, 1)},
+                {"transposición", transponer(rara)},
+                {"dos palabras", comun + " " + otra},
+                {"dos palabras con error", conError(comun, 1) + " " + otra.substring(0, 3)},
+                {"sello", "discos fuen"},
+        };
+
+        System.out.printf("%-24s %-28s %10s %10s %10s%n", "consulta", "texto", "p50 (ms)", "p99 (ms)", "resultados");
+        for (String[] consulta : consultas) {
+            // Calentamiento (JIT)
+            for (int i = 0; i < 50; i++) indice.buscar(consulta[1], 20);
+
+            long[] tiempos = new long[REPETICIONES];
+            List<ResultadoBusqueda> resultados = List.of();
+            for (int i = 0; i < REPETICIONES; i++) {
+                long t = System.nanoTime();
+                resultados = indice.buscar(consulta[1], 20);
+                tiempos[i] = System.nanoTime() - t;
+            }
+            Arrays.sort(tiempos);
+            System.out.printf("%-24s %-28s %10.2f %10.2f %10d%n", consulta[0], consulta[1],
+                    tiempos[REPETICIONES / 2] / 1e6, tiempos[REPETICIONES * 99 / 100] / 1e6, resultados.size());
+            if (!resultados.isEmpty()) {
+                System.out.println("    primero -> " + resultados.get(0));
+            }
+        }
+
+        // Escrituras incrementales (como las que hacen los DAOs)
+        inicio = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            indice.actualizar(Campo.TITULO_CANCION, 1 + aleatorio.nextInt(canciones), titulo(vocabulario, aleatorio, 3));
+        }
+        System.out.printf("10.000 actualizaciones: %d ms%n", (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Palabras elegidas con sesgo hacia el inicio del vocabulario (pocas palabras muy frecuentes).
+     */
+    private static String titulo(String[] vocabulario, Random aleatorio, int palabras) {
+        StringBuilder titulo = new StringBuilder();
+        for (int i = 0; i < palabras; i++) {
+            int indice = (int) (vocabulario.length * Math.pow(aleatorio.nextDouble(), 3));
+            String palabra = vocabulario[indice];
+            if (i > 0) titulo.append(' ');
+            titulo.append(Character.toUpperCase(palabra.charAt(0))).append(palabra.substring(1));
+        }
+        return titulo.toString();
+    }
+
+    private static String conError(String palabra, int posicion) {
+        char[] letras = palabra.toCharArray();
+        letras[posicion] = letras[posicion] == 'x' ? 'y' : 'x';
+        return new String(letras);
+    }
+
+    private static String transponer(String palabra) {
+        char[] letras = palabra.toCharArray();
+        char temporal = letras[1];
+        letras[1] = letras[2];
+        letras[2] = temporal;
+        return new String(letras);
+    }
+}
@@ -0,0 +1,191 @@
+package com.softly.fonoteca.utilities;
+
+import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableModel;
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Vector;
+
+/**
+ * Compara memoria y tiempo de construcción del modelo de tabla:
+ * antes (DefaultTableModel con Vectors + segunda copia con las columnas visibles) y
+ * después (ModeloTablaColumnar + ModeloProyeccion). Usa un ResultSet sintético con la forma
+ * de la tabla usuarios, por lo que no necesita base de datos. Ejecutar con:
+ * java -Xmx2g -cp target/classes:target/test-classes com.softly.fonoteca.utilities.ModeloTablaColumnarBenchmark
+ */
+public class ModeloTablaColumnarBenchmark {
+
+    private static final int FILAS = 200_000;
+    private static final int REPETICIONES = 5;
+
+    private static final String[] COLUMNAS = {
+            "idUsuario", "email", "password", "nombres", "apellidos", "sexo",
+            "fechaNacimiento", "paisNacimiento", "paisResidencia", "idioma", "fechaRegistro"
+    };
+    private static final String[] CLASES = {
+            "java.lang.Integer", "java.lang.String", "java.lang.String", "java.lang.String", "java.lang.String", "java.lang.String",
+            "java.sql.Date", "java.lang.String", "java.lang.String", "java.lang.String", "java.sql.Date"
+    };
+    private static final String[] VISIBLES = {"nombres", "apellidos", "email", "sexo"};
+
+    private static final String[] NOMBRES = generar("Nombre", 300);
+    private static final String[] APELLIDOS = generar("Apellido", 500);
+    private static final String[] PAISES = generar("Pais", 60);
+    private static final String[] IDIOMAS = generar("Idioma", 20);
+
+    public static void main(String[] args) throws SQLException {
+        // Calentamiento
+        antes(resultSet());
+        despues(resultSet());
+
+        medir("antes  (Vector + copia)       ", true);
+        medir("después (columnar + proyección)", false);
+    }
+
+    private static void medir(String nombre, boolean antes) throws SQLException {
+        long mejorNanos = Long.MAX_VALUE;
+        TableModel[] modelos = null;
+        for (int i = 0; i < REPETICIONES; i++) {
+            modelos = null;
+            ResultSet rs = resultSet();
+            long inicio = System.nanoTime();
+            modelos = antes ? antes(rs) : despues(rs);
+            mejorNanos = Math.min(mejorNanos, System.nanoTime() - inicio);
+        }
+
+        // Memoria retenida por los modelos de la última repetición
+        long conModelos = memoriaUsada();
+        int filas = modelos[1].getRowCount();
+        modelos = null;
+        long sinModelos = memoriaUsada();
+
+        System.out.printf("%s: %7.1f ms, %6.1f MB (%5.0f bytes/fila, %d filas)%n", nombre,
+                mejorNanos / 1e6, (conModelos - sinModelos) / 1e6, (conModelos - sinModelos) / (double) filas, filas);
+    }
+
+    /**
+     * Réplica del camino anterior: buildTableModel (Vector de Vectors) y la copia de cargarTabla
+     * (findColumn por celda, addRow por fila).
+     */
+    private static TableModel[] antes(ResultSet rs) throws SQLException {
+        DefaultTableModel raw = new DefaultTableModel();
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        Vector<String> columnNames = new Vector<>();
+        for (int i = 1; i <= columnCount; i++) {
+            columnNames.add(metaData.getColumnLabel(i));
+        }
+        raw.setColumnIdentifiers(columnNames);
+        while (rs.next()) {
+            Vector<Object> row = new Vector<>(columnCount);
+            for (int i = 1; i <= columnCount; i++) {
+                row.add(rs.getObject(i));
+            }
+            raw.addRow(row);
+        }
+
+        DefaultTableModel finalModel = new DefaultTableModel();
+        finalModel.setColumnIdentifiers(VISIBLES);
+        for (int i = 0; i < raw.getRowCount(); i++) {
+            List<Object> rowData = new ArrayList<>();
+            for (String colName : VISIBLES) {
+                rowData.add(raw.getValueAt(i, raw.findColumn(colName)));
+            }
+            finalModel.addRow(rowData.toArray());
+        }
+        return new TableModel[]{raw, finalModel};
+    }
+
+    private static TableModel[] despues(ResultSet rs) throws SQLException {
+        ModeloTablaColumnar raw = ModeloTablaColumnar.construir(rs);
+        return new TableModel[]{raw, new ModeloProyeccion(raw, VISIBLES, null)};
+    }
+
+    private static long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static String[] generar(String prefijo, int cantidad) {
+        String[] valores = new String[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            valores[i] = prefijo + i;
+        }
+        return valores;
+    }
+
+    /**
+     * Valor de la celda; crea objetos nuevos en cada lectura, como haría el driver.
+     */
+    private static Object valor(int fila, int columna) {
+        return switch (columna) {
+            case 0 -> fila + 1;
+            case 1 -> "usuario" + fila + "@correo.com";
+            case 2 -> "$2a$12$" + Integer.toHexString(fila * 31 + 7) + "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVW".substring(0, 45);
+            case 3 -> new String(NOMBRES[fila % NOMBRES.length]);
+            case 4 -> new String(APELLIDOS[(fila * 7) % APELLIDOS.length]);
+            case 5 -> fila % 2 == 0 ? new String("M") : new String("F");
+            case 6 -> Date.valueOf(LocalDate.of(1960, 1, 1).plusDays(fila % 15_000));
+            case 7 -> new String(PAISES[fila % PAISES.length]);
+            case 8 -> new String(PAISES[(fila * 3) % PAISES.length]);
+            case 9 -> new String(IDIOMAS[fila % IDIOMAS.length]);
+            default -> Date.valueOf(LocalDate.of(2020, 1, 1).plusDays(fila % 2_000));
+        };
+    }
+
+    /**
+     * ResultSet sintético de solo avance con {@link #FILAS} filas.
+     */
+    private static ResultSet resultSet() {
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(
+                ResultSetMetaData.class.getClassLoader(), new Class<?>[]{ResultSetMetaData.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getColumnCount" -> COLUMNAS.length;
+                    case "getColumnLabel", "getColumnName" -> COLUMNAS[(int) args[0] - 1];
+                    case "getColumnClassName" -> CLASES[(int) args[0] - 1];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+
+        int[] fila = {-1};
+        Object[] ultimo = {null};
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next":
+                            return ++fila[0] < FILAS;
+                        case "getMetaData":
+                            return metaData;
+                        case "wasNull":
+                            return ultimo[0] == null;
+                        case "close":
+                            return null;
+                        case "getObject", "getString", "getDate", "getTime":
+                            ultimo[0] = valor(fila[0], (int) args[0] - 1);
+                            return ultimo[0];
+                        case "getInt":
+                            ultimo[0] = valor(fila[0], (int) args[0] - 1);
+                            return ((Number) ultimo[0]).intValue();
+                        case "getLong":
+                            ultimo[0] = valor(fila[0], (int) args[0] - 1);
+                            return ((Number) ultimo[0]).longValue();
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,118 @@
+package com.softly.fonoteca.utilities;
+
+import com.softly.fonoteca.Modelos.DTOs.CancionRecomendada;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Construye el recomendador con reproducciones sintéticas (por defecto 10.000.000 de reproducciones de
+ * 400.000 usuarios sobre 100.000 canciones agrupadas en 50 géneros) y mide la construcción de la matriz,
+ * el cálculo completo de vecinos, la latencia de consulta y un refresco incremental, comparando este
+ * último contra un recálculo completo. No necesita base de datos. Ejecutar con:
+ * java -Xmx3g -cp target/classes:target/test-classes com.softly.fonoteca.utilities.RecomendadorCancionesBenchmark [reproducciones]
+ */
+public class RecomendadorCancionesBenchmark {
+
+    private static final int USUARIOS = 400_000;
+    private static final int CANCIONES = 100_000;
+    private static final int GENEROS = 50;
+    private static final int NUEVAS_REPRODUCCIONES = 10_000;
+    private static final int CONSULTAS = 100_000;
+
+    public static void main(String[] args) {
+        int reproducciones = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        Random aleatorio = new Random(42);
+
+        long inicio = System.nanoTime();
+        MatrizInteracciones.Constructor constructor = new MatrizInteracciones.Constructor(reproducciones);
+        for (int i = 0; i < reproducciones; i++) {
+            int usuario = 1 + (int) (USUARIOS * Math.pow(aleatorio.nextDouble(), 2));
+            constructor.agregar(usuario, cancion(usuario, aleatorio), RecomendadorCanciones.peso(10 + aleatorio.nextInt(290)));
+        }
+        MatrizInteracciones matriz = constructor.construir(RecomendadorCanciones.MAX_CANCIONES_POR_USUARIO);
+        int ignorados = 0;
+        for (int u = 0; u < matriz.usuarios; u++) {
+            if (matriz.isIgnorado(u)) ignorados++;
+        }
+        System.out.printf("Matriz: %d interacciones, %d usuarios (%d ignorados), %d canciones en %d ms%n",
+                matriz.getTamano(), matriz.usuarios, ignorados, matriz.canciones, (System.nanoTime() - inicio) / 1_000_000);
+
+        RecomendadorCanciones recomendador = new RecomendadorCanciones(null);
+        inicio = System.nanoTime();
+        recomendador.cargar(matriz);
+        System.out.printf("Vecinos (K=%d): %d ms con paralelismo %d%n", RecomendadorCanciones.VECINOS_POR_CANCION,
+                (System.nanoTime() - inicio) / 1_000_000, java.util.concurrent.ForkJoinPool.commonPool().getParallelism());
+
+        // Calidad: fracción de vecinos del mismo género (al azar sería 1/GENEROS)
+        long mismoGenero = 0;
+        long total = 0;
+        for (int i = 0; i < 2_000; i++) {
+            int idCancion = 1 + aleatorio.nextInt(CANCIONES);
+            for (CancionRecomendada similar : recomendador.similares(idCancion, RecomendadorCanciones.VECINOS_POR_CANCION)) {
+                if ((similar.getIdCancion() - 1) % GENEROS == (idCancion - 1) % GENEROS) mismoGenero++;
+                total++;
+            }
+        }
+        System.out.printf("Vecinos del mismo género: %.1f%% (%d vecinos)%n", 100.0 * mismoGenero / Math.max(1, total), total);
+
+        // Latencia de consulta
+        long[] tiempos = new long[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            int idCancion = 1 + aleatorio.nextInt(CANCIONES);
+            long t = System.nanoTime();
+            recomendador.similares(idCancion, 10);
+            tiempos[i] = System.nanoTime() - t;
+        }
+        Arrays.sort(tiempos);
+        System.out.printf("similares(): p50 %.2f µs, p99 %.2f µs%n", tiempos[CONSULTAS / 2] / 1e3, tiempos[CONSULTAS * 99 / 100] / 1e3);
+
+        inicio = System.nanoTime();
+        List<CancionRecomendada> paraUsuario = recomendador.recomendarParaUsuario(USUARIOS / 2, 10);
+        System.out.printf("recomendarParaUsuario(): %d resultados en %.2f ms%n", paraUsuario.size(), (System.nanoTime() - inicio) / 1e6);
+
+        // Refresco incremental
+        int[] usuarios = new int[NUEVAS_REPRODUCCIONES];
+        int[] canciones = new int[NUEVAS_REPRODUCCIONES];
+        float[] pesos = new float[NUEVAS_REPRODUCCIONES];
+        for (int i = 0; i < NUEVAS_REPRODUCCIONES; i++) {
+            usuarios[i] = 1 + aleatorio.nextInt(USUARIOS + 1_000); // incluye usuarios nuevos
+            canciones[i] = cancion(usuarios[i], aleatorio);
+            pesos[i] = RecomendadorCanciones.peso(10 + aleatorio.nextInt(290));
+        }
+        RecomendadorCanciones.Estado anterior = RecomendadorCanciones.calcularTodo(matriz);
+        inicio = System.nanoTime();
+        RecomendadorCanciones.Refresco refresco = RecomendadorCanciones.aplicarCambios(anterior, usuarios, canciones, pesos, NUEVAS_REPRODUCCIONES);
+        System.out.printf("Refresco de %d reproducciones: %d listas modificadas en %d ms%n", NUEVAS_REPRODUCCIONES,
+                refresco.modificadas.length, (System.nanoTime() - inicio) / 1_000_000);
+
+        // Contra un recálculo completo de la misma matriz
+        RecomendadorCanciones.Estado completo = RecomendadorCanciones.calcularTodo(refresco.estado.matriz);
+        long coinciden = 0;
+        long esperados = 0;
+        int k = RecomendadorCanciones.VECINOS_POR_CANCION;
+        for (int c = 0; c < completo.matriz.canciones; c++) {
+            for (int a = c * k; a < (c + 1) * k && completo.vecinos[a] >= 0; a++) {
+                esperados++;
+                for (int b = c * k; b < (c + 1) * k; b++) {
+                    if (refresco.estado.vecinos[b] == completo.vecinos[a]) {
+                        coinciden++;
+                        break;
+                    }
+                }
+            }
+        }
+        System.out.printf("Coincidencia del refresco con el recálculo completo: %.2f%%%n", 100.0 * coinciden / Math.max(1, esperados));
+    }
+
+    /**
+     * El 80% de las reproducciones de un usuario son de su género favorito; dentro de cada género
+     * unas pocas canciones concentran la mayoría de las reproducciones.
+     */
+    private static int cancion(int usuario, Random aleatorio) {
+        int genero = aleatorio.nextInt(5) < 4 ? usuario % GENEROS : aleatorio.nextInt(GENEROS);
+        int posicion = (int) ((CANCIONES / GENEROS) * Math.pow(aleatorio.nextDouble(), 3));
+        return 1 + genero + GENEROS * posicion;
+    }
+}